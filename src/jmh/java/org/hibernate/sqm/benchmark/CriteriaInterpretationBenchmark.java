@@ -0,0 +1,52 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.query.sqm.produce.internal.criteria.CriteriaInterpreter;
+import org.hibernate.query.sqm.tree.SqmSelectStatement;
+
+import org.hibernate.test.sqm.parser.criteria.tree.CriteriaQueryImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the interpretation of criteria queries into SQM by {@link CriteriaInterpreter},
+ * bypassing the criteria interpretation cache.  The criteria themselves are built once.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 10, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 2 )
+public class CriteriaInterpretationBenchmark {
+	@Param( { "SMALL", "MEDIUM", "PATHOLOGICAL" } )
+	private QueryShape shape;
+
+	private CriteriaQueryImpl<Object> criteria;
+
+	@Setup
+	public void prepare(StandardModelState model) {
+		criteria = shape.buildCriteria( model.getCriteriaBuilder() );
+	}
+
+	@Benchmark
+	public SqmSelectStatement interpret(StandardModelState model) {
+		return CriteriaInterpreter.interpretSelectCriteria( criteria, model.newParsingContext() );
+	}
+}
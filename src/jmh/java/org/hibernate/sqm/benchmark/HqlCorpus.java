@@ -0,0 +1,65 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.benchmark;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Loads the HQL corpus used by the benchmarks.  By default that is the
+ * {@code hql-corpus.txt} resource; set the {@value #CORPUS_PROPERTY} system
+ * property to the path of a file in the same format (one query per line,
+ * {@code #} comments) to benchmark against a different corpus.
+ */
+public class HqlCorpus {
+	public static final String CORPUS_PROPERTY = "hibernate.sqm.benchmark.corpus";
+	public static final String DEFAULT_CORPUS_RESOURCE = "hql-corpus.txt";
+
+	public static List<String> load() {
+		final String corpusFile = System.getProperty( CORPUS_PROPERTY );
+		try ( InputStream stream = corpusFile != null
+				? new FileInputStream( corpusFile )
+				: HqlCorpus.class.getClassLoader().getResourceAsStream( DEFAULT_CORPUS_RESOURCE ) ) {
+			if ( stream == null ) {
+				throw new IllegalStateException( "Could not locate HQL corpus resource : " + DEFAULT_CORPUS_RESOURCE );
+			}
+			return read( stream );
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException( "Unable to read HQL corpus", e );
+		}
+	}
+
+	private static List<String> read(InputStream stream) throws IOException {
+		final List<String> queries = new ArrayList<>();
+		final BufferedReader reader = new BufferedReader( new InputStreamReader( stream, StandardCharsets.UTF_8 ) );
+		String line;
+		while ( ( line = reader.readLine() ) != null ) {
+			line = line.trim();
+			if ( line.isEmpty() || line.startsWith( "#" ) ) {
+				continue;
+			}
+			queries.add( line );
+		}
+
+		if ( queries.isEmpty() ) {
+			throw new IllegalStateException( "HQL corpus did not contain any queries" );
+		}
+		return Collections.unmodifiableList( queries );
+	}
+
+	private HqlCorpus() {
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.query.sqm.hql.internal.antlr.HqlParser;
+import org.hibernate.query.sqm.produce.internal.hql.HqlFastPathRecognizer;
+import org.hibernate.query.sqm.produce.internal.hql.HqlParseTreeBuilder;
+import org.hibernate.query.sqm.produce.internal.hql.SemanticQueryBuilder;
+import org.hibernate.query.sqm.tree.SqmStatement;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the phases of HQL interpretation separately : building the parse tree
+ * ({@link HqlParseTreeBuilder}), building the SQM from an already built parse tree
+ * ({@link SemanticQueryBuilder}) and the two together.  None of them go through the
+ * interpretation cache.
+ * <p/>
+ * {@code fastPathInterpret} measures the {@link HqlFastPathRecognizer} : the whole
+ * interpretation for the shapes it recognizes (SMALL), only the cost of giving up on
+ * the others.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 10, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 2 )
+public class HqlInterpretationBenchmark {
+	@Param( { "SMALL", "MEDIUM", "PATHOLOGICAL" } )
+	private QueryShape shape;
+
+	private String hql;
+	private HqlParser.StatementContext parseTree;
+
+	@Setup
+	public void prepare() {
+		hql = shape.getHql();
+		parseTree = HqlParseTreeBuilder.INSTANCE.parseStatement( hql );
+	}
+
+	@Benchmark
+	public HqlParser.StatementContext parse() {
+		return HqlParseTreeBuilder.INSTANCE.parseStatement( hql );
+	}
+
+	@Benchmark
+	public SqmStatement semanticAnalysis(StandardModelState model) {
+		return SemanticQueryBuilder.buildSemanticModel( parseTree, model.newParsingContext() );
+	}
+
+	@Benchmark
+	public SqmStatement interpret(StandardModelState model) {
+		return SemanticQueryBuilder.buildSemanticModel(
+				HqlParseTreeBuilder.INSTANCE.parseStatement( hql ),
+				model.newParsingContext()
+		);
+	}
+
+	@Benchmark
+	public SqmStatement fastPathInterpret(StandardModelState model) {
+		return HqlFastPathRecognizer.interpret( hql, model.newParsingContext() );
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.query.sqm.produce.internal.hql.HqlParseTreeBuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares building the HQL parse tree using full LL prediction (the default)
+ * against the two-stage SLL-then-LL prediction of
+ * {@link HqlParseTreeBuilder#TWO_STAGE_INSTANCE}.  Each invocation parses the
+ * whole corpus (see {@link HqlCorpus}).
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 10, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 2 )
+public class HqlParsePredictionModeBenchmark {
+	private List<String> corpus;
+
+	@Setup
+	public void loadCorpus() {
+		corpus = HqlCorpus.load();
+	}
+
+	@Benchmark
+	public void fullLlPrediction(Blackhole blackhole) {
+		for ( String hql : corpus ) {
+			blackhole.consume( HqlParseTreeBuilder.INSTANCE.parseStatement( hql ) );
+		}
+	}
+
+	@Benchmark
+	public void twoStagePrediction(Blackhole blackhole) {
+		for ( String hql : corpus ) {
+			blackhole.consume( HqlParseTreeBuilder.TWO_STAGE_INSTANCE.parseStatement( hql ) );
+		}
+	}
+}
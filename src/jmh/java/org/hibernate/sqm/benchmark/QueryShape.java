@@ -0,0 +1,149 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.sqm.test.domain.EntityOfSets;
+import org.hibernate.sqm.test.domain.Person;
+
+import org.hibernate.test.sqm.parser.criteria.tree.CriteriaBuilderImpl;
+import org.hibernate.test.sqm.parser.criteria.tree.CriteriaQueryImpl;
+
+/**
+ * The shapes of query the interpretation benchmarks are run against, each available both
+ * as HQL and as a criteria query.  The criteria forms are limited to what the criteria
+ * implementation of the tests supports (no attribute paths), so the two forms are of
+ * comparable size rather than equivalent.
+ */
+public enum QueryShape {
+	/**
+	 * A trivial entity selection
+	 */
+	SMALL {
+		@Override
+		public String getHql() {
+			return "select p from Person p";
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public CriteriaQueryImpl<Object> buildCriteria(CriteriaBuilderImpl criteriaBuilder) {
+			final CriteriaQueryImpl<Object> criteria = (CriteriaQueryImpl<Object>) criteriaBuilder.createQuery();
+			final Root root = criteria.from( Person.class );
+			criteria.select( root );
+			return criteria;
+		}
+	},
+
+	/**
+	 * A typical application query : a join, a handful of restrictions and an ordering
+	 */
+	MEDIUM {
+		@Override
+		public String getHql() {
+			return "select p.nickName, m.name.first from Person p join p.mate m " +
+					"where p.numberOfToes between 5 and 10 and m.nickName like 'S%' and p.pk = :id " +
+					"order by p.nickName desc";
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public CriteriaQueryImpl<Object> buildCriteria(CriteriaBuilderImpl criteriaBuilder) {
+			final CriteriaQueryImpl<Object> criteria = (CriteriaQueryImpl<Object>) criteriaBuilder.createQuery();
+			final Root person = criteria.from( Person.class );
+			criteria.from( EntityOfSets.class );
+			criteria.select( person );
+			criteria.distinct( true );
+			criteria.where(
+					criteriaBuilder.equal( criteriaBuilder.parameter( Integer.class, "toes" ), 10 ),
+					criteriaBuilder.notEqual( criteriaBuilder.literal( "Steve" ), "John" )
+			);
+			criteria.orderBy( criteriaBuilder.desc( person ) );
+			return criteria;
+		}
+	},
+
+	/**
+	 * Generated wide and deep restrictions over several from-elements; stresses the
+	 * left-deep junction chains, the from-element lookups and the parser's prediction
+	 */
+	PATHOLOGICAL {
+		private static final int WIDTH = 64;
+		private static final int DEPTH = 32;
+
+		@Override
+		public String getHql() {
+			final StringBuilder hql = new StringBuilder(
+					"select p.nickName, m.nickName, m2.nickName from Person p join p.mate m join m.mate m2 where "
+			);
+			for ( int i = 0; i < WIDTH; i++ ) {
+				if ( i > 0 ) {
+					hql.append( " or " );
+				}
+				hql.append( "( p.numberOfToes = " ).append( i )
+						.append( " and m.nickName = 'n" ).append( i ).append( "'" )
+						.append( " and m2.numberOfToes in (" ).append( i ).append( ", " ).append( i + 1 ).append( ") )" );
+			}
+
+			hql.append( " or p.numberOfToes = " );
+			for ( int i = 0; i < DEPTH; i++ ) {
+				hql.append( '(' );
+			}
+			hql.append( "m.numberOfToes" );
+			for ( int i = 0; i < DEPTH; i++ ) {
+				hql.append( " + " ).append( i ).append( ')' );
+			}
+
+			hql.append( " order by p.nickName, m.nickName desc, m2.nickName" );
+			return hql.toString();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public CriteriaQueryImpl<Object> buildCriteria(CriteriaBuilderImpl criteriaBuilder) {
+			final CriteriaQueryImpl<Object> criteria = (CriteriaQueryImpl<Object>) criteriaBuilder.createQuery();
+			final Root person = criteria.from( Person.class );
+			for ( int i = 0; i < 7; i++ ) {
+				criteria.from( Person.class );
+			}
+			criteria.select( person );
+
+			final List<Predicate> disjuncts = new ArrayList<>();
+			for ( int i = 0; i < WIDTH; i++ ) {
+				disjuncts.add(
+						criteriaBuilder.and(
+								criteriaBuilder.equal( criteriaBuilder.parameter( Integer.class, "p" + i ), i ),
+								criteriaBuilder.notEqual( criteriaBuilder.literal( "n" + i ), "x" )
+						)
+				);
+			}
+			criteria.where( criteriaBuilder.or( disjuncts.toArray( new Predicate[ disjuncts.size() ] ) ) );
+			criteria.orderBy( criteriaBuilder.asc( person ) );
+			return criteria;
+		}
+	};
+
+	/**
+	 * The HQL form of the shape
+	 *
+	 * @return The HQL query string
+	 */
+	public abstract String getHql();
+
+	/**
+	 * Build the criteria form of the shape
+	 *
+	 * @param criteriaBuilder The builder to use
+	 *
+	 * @return The criteria query
+	 */
+	public abstract CriteriaQueryImpl<Object> buildCriteria(CriteriaBuilderImpl criteriaBuilder);
+}
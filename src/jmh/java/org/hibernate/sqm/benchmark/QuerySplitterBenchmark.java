@@ -0,0 +1,67 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.benchmark;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.query.sqm.consume.spi.QuerySplitter;
+import org.hibernate.query.sqm.produce.internal.hql.HqlParseTreeBuilder;
+import org.hibernate.query.sqm.produce.internal.hql.SemanticQueryBuilder;
+import org.hibernate.query.sqm.tree.SqmSelectStatement;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link QuerySplitter#split} and {@link QuerySplitter#splitIterator} on already
+ * interpreted statements : one with a mapped root (no split at all) and an unmapped
+ * polymorphic one, which is (partially) copied once per implementor of the unmapped type.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 10, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 2 )
+public class QuerySplitterBenchmark {
+	@Param( { "select p from Person p", "from java.lang.Object" } )
+	private String hql;
+
+	private SqmSelectStatement statement;
+
+	@Setup
+	public void prepare(StandardModelState model) {
+		statement = (SqmSelectStatement) SemanticQueryBuilder.buildSemanticModel(
+				HqlParseTreeBuilder.INSTANCE.parseStatement( hql ),
+				model.newParsingContext()
+		);
+	}
+
+	@Benchmark
+	public SqmSelectStatement[] split() {
+		return QuerySplitter.split( statement );
+	}
+
+	@Benchmark
+	public void splitIterator(Blackhole blackhole) {
+		final Iterator<SqmSelectStatement> splits = QuerySplitter.splitIterator( statement );
+		while ( splits.hasNext() ) {
+			blackhole.consume( splits.next() );
+		}
+	}
+}
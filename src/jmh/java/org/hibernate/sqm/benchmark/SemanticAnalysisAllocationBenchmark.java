@@ -0,0 +1,85 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.query.sqm.hql.internal.antlr.HqlParser;
+import org.hibernate.query.sqm.produce.internal.hql.HqlParseTreeBuilder;
+import org.hibernate.query.sqm.produce.internal.hql.SemanticQueryBuilder;
+import org.hibernate.query.sqm.produce.internal.hql.SinglePassSemanticQueryBuilder;
+import org.hibernate.query.sqm.tree.SqmStatement;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the allocations of building the SQM from an already built parse tree, for
+ * queries exercising the builder's stacks : sibling sub-queries, and paths resolved in
+ * several clauses.  The figure of interest is the {@code gc.alloc.rate.norm} (bytes per
+ * operation) reported by the gc profiler, which the {@code jmh} task enables by default.
+ * <p/>
+ * The parse-and-analyze benchmarks compare analyzing the completed parse tree with the
+ * single-pass analysis (see {@link SinglePassSemanticQueryBuilder}).  Both allocate about the
+ * same, but the single-pass analysis releases each clause and predicate of the parse tree as
+ * soon as it is analyzed, so less of the tree is live at once (and survives into the old
+ * generation for large queries) - which the bytes per operation do not show.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class SemanticAnalysisAllocationBenchmark {
+	@Param( {
+			"select p from Person p where p.numberOfToes > 5",
+			"select p.nickName from Person p where p.pk in (select m.pk from Person m where m.numberOfToes = 1) " +
+					"or p.pk in (select m.pk from Person m where m.numberOfToes = 2) " +
+					"or p.pk in (select m.pk from Person m where m.numberOfToes = 3) " +
+					"order by p.nickName"
+	} )
+	private String hql;
+
+	private HqlParser.StatementContext parseTree;
+
+	@Setup
+	public void prepare() {
+		parseTree = HqlParseTreeBuilder.INSTANCE.parseStatement( hql );
+	}
+
+	@Benchmark
+	public SqmStatement semanticAnalysis(StandardModelState model) {
+		return SemanticQueryBuilder.buildSemanticModel( parseTree, model.newParsingContext() );
+	}
+
+	@Benchmark
+	public SqmStatement parseAndAnalyze(StandardModelState model) {
+		return SemanticQueryBuilder.buildSemanticModel(
+				HqlParseTreeBuilder.INSTANCE.parseStatement( hql ),
+				model.newParsingContext()
+		);
+	}
+
+	@Benchmark
+	public SqmStatement singlePassParseAndAnalyze(StandardModelState model) {
+		return SinglePassSemanticQueryBuilder.buildSemanticModel(
+				hql,
+				HqlParseTreeBuilder.SINGLE_PASS_INSTANCE,
+				model.newParsingContext()
+		);
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.benchmark;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.sqm.produce.spi.NameResolutionCache;
+import org.hibernate.query.sqm.produce.spi.NavigableResolutionCache;
+import org.hibernate.query.sqm.produce.spi.ParsingContext;
+import org.hibernate.sqm.test.domain.StandardModelTest;
+
+import org.hibernate.test.sqm.parser.criteria.tree.CriteriaBuilderImpl;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH state exposing the standard domain model of the tests (see {@link StandardModelTest}),
+ * so that the benchmarks interpret queries against the same model the tests do.  The model
+ * is built once per benchmark (trial).
+ */
+@State( Scope.Benchmark )
+public class StandardModelState extends StandardModelTest {
+	private final NavigableResolutionCache navigableResolutionCache = new NavigableResolutionCache();
+	private final NameResolutionCache nameResolutionCache = new NameResolutionCache();
+
+	public SessionFactoryImplementor getSessionFactory() {
+		return sessionFactory;
+	}
+
+	public CriteriaBuilderImpl getCriteriaBuilder() {
+		return criteriaBuilder;
+	}
+
+	/**
+	 * A ParsingContext is good for a single interpretation only.  As with
+	 * SemanticQueryProducerImpl, all of them share a NavigableResolutionCache and a
+	 * NameResolutionCache.
+	 *
+	 * @return A new ParsingContext
+	 */
+	public ParsingContext newParsingContext() {
+		return new ParsingContext( sessionFactory, navigableResolutionCache, nameResolutionCache );
+	}
+}
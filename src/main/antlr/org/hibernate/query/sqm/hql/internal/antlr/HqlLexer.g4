@@ -50,12 +50,12 @@ fragment
 EXPONENT : ('e'|'E') ('+'|'-')? ('0'..'9')+ ;
 
 CHARACTER_LITERAL
-	:	'\'' ( ESCAPE_SEQUENCE | ~('\''|'\\') ) '\'' {setText(getText().substring(1, getText().length()-1));}
+	:	'\'' ( ESCAPE_SEQUENCE | ~('\''|'\\') ) '\''
 	;
 
 STRING_LITERAL
-	:	'"' ( ESCAPE_SEQUENCE | ~('\\'|'"') )* '"' {setText(getText().substring(1, getText().length()-1));}
-	|	('\'' ( ESCAPE_SEQUENCE | ~('\\'|'\'') )* '\'')+ {setText(getText().substring(1, getText().length()-1).replace("''", "'"));}
+	:	'"' ( ESCAPE_SEQUENCE | ~('\\'|'"') )* '"'
+	|	('\'' ( ESCAPE_SEQUENCE | ~('\\'|'\'') )* '\'')+
 	;
 
 fragment
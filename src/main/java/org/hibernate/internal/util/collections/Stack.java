@@ -6,27 +6,83 @@
  */
 package org.hibernate.internal.util.collections;
 
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
 
 /**
  * A general-purpose stack impl for use in parsing.
+ * <p/>
+ * Backed by an array which only grows, so that pushing does not allocate once the stack
+ * has reached its working depth.  Not thread-safe.
  *
  * @param <T> The type of things stored in the stack
  *
  * @author Steve Ebersole
  */
 public class Stack<T> {
-	private LinkedList<T> stack = new LinkedList<>();
+	private static final int DEFAULT_CAPACITY = 8;
+
+	private Object[] elements;
+	private int depth;
+
+	public Stack() {
+		this( DEFAULT_CAPACITY );
+	}
+
+	public Stack(int initialCapacity) {
+		this.elements = new Object[ Math.max( initialCapacity, 1 ) ];
+	}
 
 	public void push(T newCurrent) {
-		stack.addFirst( newCurrent );
+		if ( depth == elements.length ) {
+			elements = Arrays.copyOf( elements, depth * 2 );
+		}
+		elements[depth++] = newCurrent;
 	}
 
+	/**
+	 * Remove and return the current (top) element.
+	 *
+	 * @return The removed element
+	 *
+	 * @throws NoSuchElementException if the stack is empty
+	 */
+	@SuppressWarnings("unchecked")
 	public T pop() {
-		return stack.removeFirst();
+		if ( depth == 0 ) {
+			throw new NoSuchElementException();
+		}
+		final T popped = (T) elements[--depth];
+		// do not retain the popped element
+		elements[depth] = null;
+		return popped;
 	}
 
+	/**
+	 * The current (top) element.
+	 *
+	 * @return The current element, or {@code null} if the stack is empty
+	 */
+	@SuppressWarnings("unchecked")
 	public T getCurrent() {
-		return stack.peek();
+		return depth == 0 ? null : (T) elements[depth - 1];
+	}
+
+	/**
+	 * The number of elements currently on the stack.
+	 *
+	 * @return The depth of the stack
+	 */
+	public int depth() {
+		return depth;
+	}
+
+	public boolean isEmpty() {
+		return depth == 0;
+	}
+
+	public void clear() {
+		Arrays.fill( elements, 0, depth, null );
+		depth = 0;
 	}
 }
@@ -0,0 +1,55 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.internal.util.collections;
+
+import java.util.Arrays;
+
+/**
+ * A pool of the objects pushed onto a {@link Stack}, indexed by the depth at which they are
+ * pushed.  Objects which are only referenced while on their stack can be reused once popped :
+ * the object for a given depth is created the first time that depth is reached, and reset for
+ * each later push at that depth.  Not thread-safe.
+ *
+ * @param <T> The type of the pooled objects
+ * @param <C> The type of the context the objects are created or reset with
+ */
+public abstract class StackDepthPool<T,C> {
+	private Object[] pooled;
+
+	protected StackDepthPool(int initialCapacity) {
+		this.pooled = new Object[ Math.max( initialCapacity, 1 ) ];
+	}
+
+	/**
+	 * Get the object to push at the given depth, created or reset with the given context.
+	 *
+	 * @param depth The depth of the stack the object is about to be pushed onto
+	 * @param context The context to create or reset the object with
+	 *
+	 * @return The object
+	 */
+	@SuppressWarnings("unchecked")
+	public T acquire(int depth, C context) {
+		if ( depth >= pooled.length ) {
+			pooled = Arrays.copyOf( pooled, Math.max( depth + 1, pooled.length * 2 ) );
+		}
+
+		T object = (T) pooled[depth];
+		if ( object == null ) {
+			object = create( context );
+			pooled[depth] = object;
+		}
+		else {
+			reset( object, context );
+		}
+		return object;
+	}
+
+	protected abstract T create(C context);
+
+	protected abstract void reset(T object, C context);
+}
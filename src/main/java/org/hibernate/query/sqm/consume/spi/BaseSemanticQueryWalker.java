@@ -70,6 +70,9 @@ import org.hibernate.query.sqm.tree.from.SqmEntityJoin;
 import org.hibernate.query.sqm.tree.from.SqmFromClause;
 import org.hibernate.query.sqm.tree.from.SqmJoin;
 import org.hibernate.query.sqm.tree.from.SqmRoot;
+import org.hibernate.query.sqm.tree.group.SqmGroupByClause;
+import org.hibernate.query.sqm.tree.group.SqmGrouping;
+import org.hibernate.query.sqm.tree.group.SqmHavingClause;
 import org.hibernate.query.sqm.tree.order.SqmOrderByClause;
 import org.hibernate.query.sqm.tree.order.SqmSortSpecification;
 import org.hibernate.query.sqm.tree.paging.SqmLimitOffsetClause;
@@ -80,12 +83,15 @@ import org.hibernate.query.sqm.tree.predicate.EmptinessSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.GroupedSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.InListSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.InSubQuerySqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.JunctionSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.LikeSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.LiteralInListSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.MemberOfSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.NegatedSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.NullnessSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.OrSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.RelationalSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.SqmWhereClause;
 import org.hibernate.query.sqm.tree.select.SqmDynamicInstantiation;
 import org.hibernate.query.sqm.tree.select.SqmSelectClause;
@@ -154,6 +160,12 @@ public class BaseSemanticQueryWalker<T> implements SemanticQueryWalker<T> {
 		visitFromClause( querySpec.getFromClause() );
 		visitSelectClause( querySpec.getSelectClause() );
 		visitWhereClause( querySpec.getWhereClause() );
+		if ( querySpec.getGroupByClause() != null ) {
+			visitGroupByClause( querySpec.getGroupByClause() );
+		}
+		if ( querySpec.getHavingClause() != null ) {
+			visitHavingClause( querySpec.getHavingClause() );
+		}
 		visitOrderByClause( querySpec.getOrderByClause() );
 		visitLimitOffsetClause( querySpec.getLimitOffsetClause() );
 		return (T) querySpec;
@@ -221,6 +233,26 @@ public class BaseSemanticQueryWalker<T> implements SemanticQueryWalker<T> {
 		return (T) whereClause;
 	}
 
+	@Override
+	public T visitGroupByClause(SqmGroupByClause groupByClause) {
+		for ( SqmGrouping grouping : groupByClause.getGroupings() ) {
+			visitGrouping( grouping );
+		}
+		return (T) groupByClause;
+	}
+
+	@Override
+	public T visitGrouping(SqmGrouping grouping) {
+		grouping.getExpression().accept( this );
+		return (T) grouping;
+	}
+
+	@Override
+	public T visitHavingClause(SqmHavingClause havingClause) {
+		havingClause.getPredicate().accept( this );
+		return (T) havingClause;
+	}
+
 	@Override
 	public T visitGroupedPredicate(GroupedSqmPredicate predicate) {
 		predicate.getSubPredicate().accept( this );
@@ -241,6 +273,14 @@ public class BaseSemanticQueryWalker<T> implements SemanticQueryWalker<T> {
 		return (T) predicate;
 	}
 
+	@Override
+	public T visitJunctionPredicate(JunctionSqmPredicate predicate) {
+		for ( SqmPredicate subPredicate : predicate.getPredicates() ) {
+			subPredicate.accept( this );
+		}
+		return (T) predicate;
+	}
+
 	@Override
 	public T visitRelationalPredicate(RelationalSqmPredicate predicate) {
 		predicate.getLeftHandExpression().accept( this );
@@ -297,6 +337,12 @@ public class BaseSemanticQueryWalker<T> implements SemanticQueryWalker<T> {
 		return (T) predicate;
 	}
 
+	@Override
+	public T visitLiteralInListPredicate(LiteralInListSqmPredicate predicate) {
+		predicate.getTestExpression().accept( this );
+		return (T) predicate;
+	}
+
 	@Override
 	public T visitInSubQueryPredicate(InSubQuerySqmPredicate predicate) {
 		predicate.getTestExpression().accept( this );
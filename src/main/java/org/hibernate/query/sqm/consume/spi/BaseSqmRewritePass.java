@@ -0,0 +1,26 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.consume.spi;
+
+import org.hibernate.query.sqm.tree.SqmStatement;
+
+/**
+ * Base for the (local) rewrite passes which replace nodes based on the node alone : the
+ * statement is rewritten bottom-up through {@link SqmTreeTraversal#rewrite}, calling
+ * {@link #rewrite(Object)} for each node.
+ */
+public abstract class BaseSqmRewritePass implements SqmRewritePass, SqmNodeRewriter {
+	@Override
+	public String getName() {
+		return getClass().getSimpleName();
+	}
+
+	@Override
+	public SqmStatement rewrite(SqmStatement statement, SqmTreeTraversal traversal) {
+		return (SqmStatement) traversal.rewrite( statement, this );
+	}
+}
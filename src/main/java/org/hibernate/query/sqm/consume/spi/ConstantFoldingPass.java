@@ -0,0 +1,634 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.consume.spi;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.hibernate.persister.queryable.spi.BasicValuedExpressableType;
+import org.hibernate.query.sqm.domain.SqmExpressableType;
+import org.hibernate.query.sqm.domain.type.SqmDomainTypeBasic;
+import org.hibernate.query.sqm.tree.expression.BinaryArithmeticSqmExpression;
+import org.hibernate.query.sqm.tree.expression.CaseSearchedSqmExpression;
+import org.hibernate.query.sqm.tree.expression.CaseSimpleSqmExpression;
+import org.hibernate.query.sqm.tree.expression.ConcatSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralBigDecimalSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralBigIntegerSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralCharacterSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralDoubleSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralFalseSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralFloatSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralIntegerSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralLongSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralNullSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralStringSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralTrueSqmExpression;
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.query.sqm.tree.expression.UnaryOperationSqmExpression;
+import org.hibernate.query.sqm.tree.predicate.AndSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.BooleanExpressionSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.GroupedSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.JunctionSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.NegatedSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.OrSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.RelationalPredicateOperator;
+import org.hibernate.query.sqm.tree.predicate.RelationalSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
+
+/**
+ * Evaluates the expressions over literals at interpretation time :<ul>
+ *     <li>
+ *         arithmetic operations and unary plus/minus over numeric literals are replaced by
+ *         the literal of their value, keeping the type the expression was given (which the
+ *         builder resolved through {@code SqmDomainMetamodel#resolveArithmeticType}).  The
+ *         value is computed following the same (JPA) promotion rules : Double, then Float,
+ *         then BigDecimal, BigInteger, Long and Integer
+ *     </li>
+ *     <li>
+ *         the concatenation of string (or character) literals is replaced by the string
+ *         literal of the concatenation
+ *     </li>
+ *     <li>
+ *         a CASE whose branch can be told from literals (e.g. {@code case when 1=1 then ...})
+ *         is replaced by the result of that branch, as long as the type of the CASE (its implied
+ *         type, else the type of its ELSE branch) is kept : a literal result is converted to the
+ *         Java type of the CASE (e.g. {@code 1} to {@code 1L}) when that loses no precision, and
+ *         re-created with the type of the CASE; any other result must already be of that type
+ *     </li>
+ * </ul>
+ * The folding is conservative : whatever the database could evaluate differently is left
+ * to it - exact divisions (whose result type is not defined), overflows, division by zero,
+ * comparisons of floating point values or of distinct strings (which depend on the
+ * collation), and comparisons with NULL.  The operands are folded first, so nested
+ * operations fold in a single pass.
+ */
+public class ConstantFoldingPass extends BaseSqmRewritePass {
+	/**
+	 * Singleton access
+	 */
+	public static final ConstantFoldingPass INSTANCE = new ConstantFoldingPass();
+
+	@Override
+	public Object rewrite(Object node) {
+		if ( node instanceof BinaryArithmeticSqmExpression ) {
+			return foldArithmetic( (BinaryArithmeticSqmExpression) node );
+		}
+		else if ( node instanceof UnaryOperationSqmExpression ) {
+			return foldUnaryOperation( (UnaryOperationSqmExpression) node );
+		}
+		else if ( node instanceof ConcatSqmExpression ) {
+			return foldConcat( (ConcatSqmExpression) node );
+		}
+		else if ( node instanceof CaseSimpleSqmExpression ) {
+			return foldSimpleCase( (CaseSimpleSqmExpression) node );
+		}
+		else if ( node instanceof CaseSearchedSqmExpression ) {
+			return foldSearchedCase( (CaseSearchedSqmExpression) node );
+		}
+		return node;
+	}
+
+	private static SqmExpression foldArithmetic(BinaryArithmeticSqmExpression expression) {
+		final Number lhs = numericValue( expression.getLeftHandOperand() );
+		final Number rhs = numericValue( expression.getRightHandOperand() );
+		if ( lhs == null || rhs == null ) {
+			return expression;
+		}
+		if ( expression.getExpressionType() != null
+				&& !( expression.getExpressionType() instanceof BasicValuedExpressableType ) ) {
+			return expression;
+		}
+
+		final Number value = evaluate( expression.getOperation(), lhs, rhs );
+		if ( value == null ) {
+			return expression;
+		}
+		return numericLiteral( value, (BasicValuedExpressableType) expression.getExpressionType() );
+	}
+
+	private static SqmExpression foldUnaryOperation(UnaryOperationSqmExpression expression) {
+		final Number operand = numericValue( expression.getOperand() );
+		if ( operand == null ) {
+			return expression;
+		}
+
+		final Number value = expression.getOperation() == UnaryOperationSqmExpression.Operation.MINUS
+				? negate( operand )
+				: operand;
+		if ( value == null ) {
+			return expression;
+		}
+		return numericLiteral( value, expression.getExpressionType() );
+	}
+
+	private static SqmExpression foldConcat(ConcatSqmExpression expression) {
+		final Object lhs = literalValue( expression.getLeftHandOperand() );
+		final Object rhs = literalValue( expression.getRightHandOperand() );
+		if ( !isCharacterValue( lhs ) || !isCharacterValue( rhs ) ) {
+			return expression;
+		}
+		return new LiteralStringSqmExpression( lhs.toString() + rhs, expression.getExpressionType() );
+	}
+
+	private static SqmExpression foldSimpleCase(CaseSimpleSqmExpression expression) {
+		if ( expression.getOtherwise() == null ) {
+			// keep the CASE rather than have an untyped NULL literal
+			return expression;
+		}
+
+		final SqmExpression fixture = expression.getFixture();
+		for ( CaseSimpleSqmExpression.WhenFragment whenFragment : expression.getWhenFragments() ) {
+			final Boolean matches;
+			if ( fixture instanceof LiteralNullSqmExpression
+					|| whenFragment.getCheckValue() instanceof LiteralNullSqmExpression ) {
+				// NULL never equals anything
+				matches = Boolean.FALSE;
+			}
+			else {
+				matches = evaluateComparison(
+						RelationalPredicateOperator.EQUAL,
+						literalValue( fixture ),
+						literalValue( whenFragment.getCheckValue() )
+				);
+			}
+
+			if ( matches == null ) {
+				return expression;
+			}
+			if ( matches ) {
+				return caseResult( expression, expression.getImpliedType(), expression.getOtherwise(), whenFragment.getResult() );
+			}
+		}
+		return caseResult( expression, expression.getImpliedType(), expression.getOtherwise(), expression.getOtherwise() );
+	}
+
+	private static SqmExpression foldSearchedCase(CaseSearchedSqmExpression expression) {
+		if ( expression.getOtherwise() == null ) {
+			return expression;
+		}
+
+		for ( CaseSearchedSqmExpression.WhenFragment whenFragment : expression.getWhenFragments() ) {
+			final Boolean condition = evaluate( whenFragment.getPredicate() );
+			if ( condition == null ) {
+				return expression;
+			}
+			if ( condition ) {
+				return caseResult( expression, expression.getImpliedType(), expression.getOtherwise(), whenFragment.getResult() );
+			}
+		}
+		return caseResult( expression, expression.getImpliedType(), expression.getOtherwise(), expression.getOtherwise() );
+	}
+
+	/**
+	 * The result of the chosen branch, with the type of the CASE
+	 *
+	 * @return The result, or the CASE itself when the result cannot be given the type of the CASE
+	 */
+	private static SqmExpression caseResult(
+			SqmExpression caseExpression,
+			SqmExpressableType impliedType,
+			SqmExpression otherwise,
+			SqmExpression result) {
+		final SqmExpressableType caseType = impliedType != null ? impliedType : otherwise.getExpressionType();
+		if ( result.getExpressionType() == caseType ) {
+			return result;
+		}
+		if ( caseType instanceof BasicValuedExpressableType
+				&& caseType.getExportedDomainType() instanceof SqmDomainTypeBasic ) {
+			final Object value = convert(
+					literalValue( result ),
+					( (SqmDomainTypeBasic) caseType.getExportedDomainType() ).getJavaType()
+			);
+			if ( value != null ) {
+				return literal( value, (BasicValuedExpressableType) caseType );
+			}
+		}
+		return caseExpression;
+	}
+
+	/**
+	 * Converts a literal value to the Java type of the literal replacing it, widening numbers
+	 * (and characters to strings) only where no precision can be lost
+	 *
+	 * @return The converted value, or {@code null} when it cannot be converted
+	 */
+	private static Object convert(Object value, Class javaType) {
+		if ( value == null || javaType == null ) {
+			return null;
+		}
+		if ( wrapper( javaType ).isInstance( value ) ) {
+			return value;
+		}
+
+		if ( javaType == Long.class || javaType == long.class ) {
+			return value instanceof Integer ? Long.valueOf( (Integer) value ) : null;
+		}
+		else if ( javaType == BigInteger.class ) {
+			return value instanceof Integer || value instanceof Long ? toBigInteger( (Number) value ) : null;
+		}
+		else if ( javaType == BigDecimal.class ) {
+			return isExactNumber( value ) ? toBigDecimal( (Number) value ) : null;
+		}
+		else if ( javaType == Double.class || javaType == double.class ) {
+			return value instanceof Integer || value instanceof Float ? ( (Number) value ).doubleValue() : null;
+		}
+		else if ( javaType == String.class ) {
+			return value instanceof Character ? value.toString() : null;
+		}
+		return null;
+	}
+
+	private static Class wrapper(Class javaType) {
+		if ( !javaType.isPrimitive() ) {
+			return javaType;
+		}
+		else if ( javaType == int.class ) {
+			return Integer.class;
+		}
+		else if ( javaType == long.class ) {
+			return Long.class;
+		}
+		else if ( javaType == double.class ) {
+			return Double.class;
+		}
+		else if ( javaType == float.class ) {
+			return Float.class;
+		}
+		else if ( javaType == boolean.class ) {
+			return Boolean.class;
+		}
+		else if ( javaType == char.class ) {
+			return Character.class;
+		}
+		return javaType;
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// Predicates
+	//
+	// 		evaluated to TRUE or FALSE, or to null when the outcome is not known at interpretation time
+
+	private static Boolean evaluate(SqmPredicate predicate) {
+		if ( predicate instanceof RelationalSqmPredicate ) {
+			final RelationalSqmPredicate relational = (RelationalSqmPredicate) predicate;
+			return evaluateComparison(
+					relational.getOperator(),
+					literalValue( relational.getLeftHandExpression() ),
+					literalValue( relational.getRightHandExpression() )
+			);
+		}
+		else if ( predicate instanceof GroupedSqmPredicate ) {
+			return evaluate( ( (GroupedSqmPredicate) predicate ).getSubPredicate() );
+		}
+		else if ( predicate instanceof NegatedSqmPredicate ) {
+			final Boolean wrapped = evaluate( ( (NegatedSqmPredicate) predicate ).getWrappedPredicate() );
+			return wrapped == null ? null : !wrapped;
+		}
+		else if ( predicate instanceof AndSqmPredicate ) {
+			final AndSqmPredicate and = (AndSqmPredicate) predicate;
+			final Boolean lhs = evaluate( and.getLeftHandPredicate() );
+			if ( Boolean.FALSE.equals( lhs ) ) {
+				return Boolean.FALSE;
+			}
+			final Boolean rhs = evaluate( and.getRightHandPredicate() );
+			if ( Boolean.FALSE.equals( rhs ) ) {
+				return Boolean.FALSE;
+			}
+			return lhs == null || rhs == null ? null : Boolean.TRUE;
+		}
+		else if ( predicate instanceof OrSqmPredicate ) {
+			final OrSqmPredicate or = (OrSqmPredicate) predicate;
+			final Boolean lhs = evaluate( or.getLeftHandPredicate() );
+			if ( Boolean.TRUE.equals( lhs ) ) {
+				return Boolean.TRUE;
+			}
+			final Boolean rhs = evaluate( or.getRightHandPredicate() );
+			if ( Boolean.TRUE.equals( rhs ) ) {
+				return Boolean.TRUE;
+			}
+			return lhs == null || rhs == null ? null : Boolean.FALSE;
+		}
+		else if ( predicate instanceof JunctionSqmPredicate ) {
+			final JunctionSqmPredicate junction = (JunctionSqmPredicate) predicate;
+			// the outcome is decided by any operand evaluating to FALSE (AND) or TRUE (OR)
+			final Boolean decisive = junction.getNature() != JunctionSqmPredicate.Nature.CONJUNCTION;
+			boolean known = true;
+			for ( SqmPredicate operand : junction.getPredicates() ) {
+				final Boolean value = evaluate( operand );
+				if ( decisive.equals( value ) ) {
+					return decisive;
+				}
+				known = known && value != null;
+			}
+			return known ? !decisive : null;
+		}
+		else if ( predicate instanceof BooleanExpressionSqmPredicate ) {
+			final Object value = literalValue( ( (BooleanExpressionSqmPredicate) predicate ).getBooleanExpression() );
+			return value instanceof Boolean ? (Boolean) value : null;
+		}
+		return null;
+	}
+
+	private static Boolean evaluateComparison(RelationalPredicateOperator operator, Object lhs, Object rhs) {
+		final Integer comparison = compare( lhs, rhs );
+		if ( comparison == null ) {
+			return null;
+		}
+
+		switch ( operator ) {
+			case EQUAL: {
+				return comparison == 0;
+			}
+			case NOT_EQUAL: {
+				return comparison != 0;
+			}
+			case GREATER_THAN: {
+				return comparison > 0;
+			}
+			case GREATER_THAN_OR_EQUAL: {
+				return comparison >= 0;
+			}
+			case LESS_THAN: {
+				return comparison < 0;
+			}
+			case LESS_THAN_OR_EQUAL: {
+				return comparison <= 0;
+			}
+			default: {
+				return null;
+			}
+		}
+	}
+
+	private static Integer compare(Object lhs, Object rhs) {
+		if ( isExactNumber( lhs ) && isExactNumber( rhs ) ) {
+			return toBigDecimal( (Number) lhs ).compareTo( toBigDecimal( (Number) rhs ) );
+		}
+		if ( isCharacterValue( lhs ) && isCharacterValue( rhs ) && lhs.toString().equals( rhs.toString() ) ) {
+			// distinct strings may still be equal according to the database's collation
+			return 0;
+		}
+		return null;
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// Arithmetic
+	//
+	// 		evaluated to the value, or to null when it is left to the database
+
+	private static Number evaluate(BinaryArithmeticSqmExpression.Operation operation, Number lhs, Number rhs) {
+		if ( lhs instanceof Double || rhs instanceof Double ) {
+			final double value = evaluateFloating( operation, lhs.doubleValue(), rhs.doubleValue() );
+			return Double.isNaN( value ) || Double.isInfinite( value ) ? null : value;
+		}
+		else if ( lhs instanceof Float || rhs instanceof Float ) {
+			final float value = (float) evaluateFloating( operation, lhs.floatValue(), rhs.floatValue() );
+			return Float.isNaN( value ) || Float.isInfinite( value ) ? null : value;
+		}
+		else if ( lhs instanceof BigDecimal || rhs instanceof BigDecimal ) {
+			return evaluateBigDecimal( operation, toBigDecimal( lhs ), toBigDecimal( rhs ) );
+		}
+		else if ( lhs instanceof BigInteger || rhs instanceof BigInteger ) {
+			return evaluateBigInteger( operation, toBigInteger( lhs ), toBigInteger( rhs ) );
+		}
+		else if ( lhs instanceof Long || rhs instanceof Long ) {
+			return evaluateLong( operation, lhs.longValue(), rhs.longValue() );
+		}
+		return evaluateInteger( operation, lhs.intValue(), rhs.intValue() );
+	}
+
+	private static double evaluateFloating(BinaryArithmeticSqmExpression.Operation operation, double lhs, double rhs) {
+		switch ( operation ) {
+			case ADD: {
+				return lhs + rhs;
+			}
+			case SUBTRACT: {
+				return lhs - rhs;
+			}
+			case MULTIPLY: {
+				return lhs * rhs;
+			}
+			case DIVIDE:
+			case QUOT: {
+				return rhs == 0 ? Double.NaN : lhs / rhs;
+			}
+			default: {
+				// the modulo of floating point values differs between databases
+				return Double.NaN;
+			}
+		}
+	}
+
+	private static BigDecimal evaluateBigDecimal(BinaryArithmeticSqmExpression.Operation operation, BigDecimal lhs, BigDecimal rhs) {
+		switch ( operation ) {
+			case ADD: {
+				return lhs.add( rhs );
+			}
+			case SUBTRACT: {
+				return lhs.subtract( rhs );
+			}
+			case MULTIPLY: {
+				return lhs.multiply( rhs );
+			}
+			case MODULO: {
+				return rhs.signum() == 0 ? null : lhs.remainder( rhs );
+			}
+			default: {
+				// the scale of a quotient is up to the database
+				return null;
+			}
+		}
+	}
+
+	private static BigInteger evaluateBigInteger(BinaryArithmeticSqmExpression.Operation operation, BigInteger lhs, BigInteger rhs) {
+		switch ( operation ) {
+			case ADD: {
+				return lhs.add( rhs );
+			}
+			case SUBTRACT: {
+				return lhs.subtract( rhs );
+			}
+			case MULTIPLY: {
+				return lhs.multiply( rhs );
+			}
+			case MODULO: {
+				return rhs.signum() == 0 ? null : lhs.remainder( rhs );
+			}
+			default: {
+				// the result type of an exact division is not defined
+				return null;
+			}
+		}
+	}
+
+	private static Long evaluateLong(BinaryArithmeticSqmExpression.Operation operation, long lhs, long rhs) {
+		try {
+			switch ( operation ) {
+				case ADD: {
+					return Math.addExact( lhs, rhs );
+				}
+				case SUBTRACT: {
+					return Math.subtractExact( lhs, rhs );
+				}
+				case MULTIPLY: {
+					return Math.multiplyExact( lhs, rhs );
+				}
+				case MODULO: {
+					if ( rhs == 0 ) {
+						return null;
+					}
+					return lhs % rhs;
+				}
+				default: {
+					// the result type of an exact division is not defined
+					return null;
+				}
+			}
+		}
+		catch (ArithmeticException e) {
+			// overflow
+			return null;
+		}
+	}
+
+	private static Integer evaluateInteger(BinaryArithmeticSqmExpression.Operation operation, int lhs, int rhs) {
+		try {
+			switch ( operation ) {
+				case ADD: {
+					return Math.addExact( lhs, rhs );
+				}
+				case SUBTRACT: {
+					return Math.subtractExact( lhs, rhs );
+				}
+				case MULTIPLY: {
+					return Math.multiplyExact( lhs, rhs );
+				}
+				case MODULO: {
+					if ( rhs == 0 ) {
+						return null;
+					}
+					return lhs % rhs;
+				}
+				default: {
+					// the result type of an exact division is not defined
+					return null;
+				}
+			}
+		}
+		catch (ArithmeticException e) {
+			// overflow
+			return null;
+		}
+	}
+
+	private static Number negate(Number value) {
+		if ( value instanceof Integer ) {
+			return value.intValue() == Integer.MIN_VALUE ? null : -value.intValue();
+		}
+		else if ( value instanceof Long ) {
+			return value.longValue() == Long.MIN_VALUE ? null : -value.longValue();
+		}
+		else if ( value instanceof BigInteger ) {
+			return ( (BigInteger) value ).negate();
+		}
+		else if ( value instanceof BigDecimal ) {
+			return ( (BigDecimal) value ).negate();
+		}
+		else if ( value instanceof Float ) {
+			return -value.floatValue();
+		}
+		return -value.doubleValue();
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// Literals
+
+	private static Object literalValue(SqmExpression expression) {
+		if ( expression instanceof LiteralSqmExpression ) {
+			return ( (LiteralSqmExpression) expression ).getLiteralValue();
+		}
+		return null;
+	}
+
+	private static Number numericValue(SqmExpression expression) {
+		return numericValue( literalValue( expression ) );
+	}
+
+	private static Number numericValue(Object value) {
+		if ( isExactNumber( value ) || value instanceof Float || value instanceof Double ) {
+			return (Number) value;
+		}
+		return null;
+	}
+
+	private static boolean isExactNumber(Object value) {
+		return value instanceof Integer
+				|| value instanceof Long
+				|| value instanceof BigInteger
+				|| value instanceof BigDecimal;
+	}
+
+	private static boolean isCharacterValue(Object value) {
+		return value instanceof String || value instanceof Character;
+	}
+
+	private static BigDecimal toBigDecimal(Number value) {
+		if ( value instanceof BigDecimal ) {
+			return (BigDecimal) value;
+		}
+		else if ( value instanceof BigInteger ) {
+			return new BigDecimal( (BigInteger) value );
+		}
+		return BigDecimal.valueOf( value.longValue() );
+	}
+
+	private static BigInteger toBigInteger(Number value) {
+		if ( value instanceof BigInteger ) {
+			return (BigInteger) value;
+		}
+		return BigInteger.valueOf( value.longValue() );
+	}
+
+	private static SqmExpression literal(Object value, BasicValuedExpressableType type) {
+		if ( numericValue( value ) != null ) {
+			return numericLiteral( (Number) value, type );
+		}
+		else if ( value instanceof String ) {
+			return new LiteralStringSqmExpression( (String) value, type );
+		}
+		else if ( value instanceof Character ) {
+			return new LiteralCharacterSqmExpression( (Character) value, type );
+		}
+		else if ( value instanceof Boolean ) {
+			return (Boolean) value ? new LiteralTrueSqmExpression( type ) : new LiteralFalseSqmExpression( type );
+		}
+		return null;
+	}
+
+	private static SqmExpression numericLiteral(Number value, BasicValuedExpressableType type) {
+		if ( value instanceof Integer ) {
+			return new LiteralIntegerSqmExpression( (Integer) value, type );
+		}
+		else if ( value instanceof Long ) {
+			return new LiteralLongSqmExpression( (Long) value, type );
+		}
+		else if ( value instanceof BigInteger ) {
+			return new LiteralBigIntegerSqmExpression( (BigInteger) value, type );
+		}
+		else if ( value instanceof BigDecimal ) {
+			return new LiteralBigDecimalSqmExpression( (BigDecimal) value, type );
+		}
+		else if ( value instanceof Float ) {
+			return new LiteralFloatSqmExpression( (Float) value, type );
+		}
+		return new LiteralDoubleSqmExpression( (Double) value, type );
+	}
+}
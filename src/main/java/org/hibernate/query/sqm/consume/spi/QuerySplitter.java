@@ -7,9 +7,12 @@
 package org.hibernate.query.sqm.consume.spi;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.hibernate.persister.entity.spi.EntityPersister;
 import org.hibernate.persister.queryable.spi.EntityValuedExpressableType;
@@ -23,22 +26,6 @@ import org.hibernate.query.sqm.tree.SqmStatement;
 import org.hibernate.query.sqm.tree.SqmUpdateStatement;
 import org.hibernate.query.sqm.tree.expression.BinaryArithmeticSqmExpression;
 import org.hibernate.query.sqm.tree.expression.ConcatSqmExpression;
-import org.hibernate.query.sqm.tree.expression.ConstantEnumSqmExpression;
-import org.hibernate.query.sqm.tree.expression.ConstantFieldSqmExpression;
-import org.hibernate.query.sqm.tree.expression.EntityTypeLiteralSqmExpression;
-import org.hibernate.query.sqm.tree.expression.LiteralBigDecimalSqmExpression;
-import org.hibernate.query.sqm.tree.expression.LiteralBigIntegerSqmExpression;
-import org.hibernate.query.sqm.tree.expression.LiteralCharacterSqmExpression;
-import org.hibernate.query.sqm.tree.expression.LiteralDoubleSqmExpression;
-import org.hibernate.query.sqm.tree.expression.LiteralFalseSqmExpression;
-import org.hibernate.query.sqm.tree.expression.LiteralFloatSqmExpression;
-import org.hibernate.query.sqm.tree.expression.LiteralIntegerSqmExpression;
-import org.hibernate.query.sqm.tree.expression.LiteralLongSqmExpression;
-import org.hibernate.query.sqm.tree.expression.LiteralNullSqmExpression;
-import org.hibernate.query.sqm.tree.expression.LiteralStringSqmExpression;
-import org.hibernate.query.sqm.tree.expression.LiteralTrueSqmExpression;
-import org.hibernate.query.sqm.tree.expression.NamedParameterSqmExpression;
-import org.hibernate.query.sqm.tree.expression.PositionalParameterSqmExpression;
 import org.hibernate.query.sqm.tree.expression.SqmExpression;
 import org.hibernate.query.sqm.tree.expression.SubQuerySqmExpression;
 import org.hibernate.query.sqm.tree.expression.UnaryOperationSqmExpression;
@@ -50,7 +37,6 @@ import org.hibernate.query.sqm.tree.expression.domain.SqmSingularAttributeRefere
 import org.hibernate.query.sqm.tree.expression.function.AvgFunctionSqmExpression;
 import org.hibernate.query.sqm.tree.expression.function.ConcatFunctionSqmExpression;
 import org.hibernate.query.sqm.tree.expression.function.CountFunctionSqmExpression;
-import org.hibernate.query.sqm.tree.expression.function.CountStarFunctionSqmExpression;
 import org.hibernate.query.sqm.tree.expression.function.GenericFunctionSqmExpression;
 import org.hibernate.query.sqm.tree.expression.function.MaxFunctionSqmExpression;
 import org.hibernate.query.sqm.tree.expression.function.MinFunctionSqmExpression;
@@ -58,10 +44,13 @@ import org.hibernate.query.sqm.tree.expression.function.SumFunctionSqmExpression
 import org.hibernate.query.sqm.tree.from.SqmAttributeJoin;
 import org.hibernate.query.sqm.tree.from.SqmCrossJoin;
 import org.hibernate.query.sqm.tree.from.SqmEntityJoin;
-import org.hibernate.query.sqm.tree.from.SqmFrom;
 import org.hibernate.query.sqm.tree.from.SqmFromClause;
 import org.hibernate.query.sqm.tree.from.SqmFromElementSpace;
+import org.hibernate.query.sqm.tree.from.SqmJoin;
 import org.hibernate.query.sqm.tree.from.SqmRoot;
+import org.hibernate.query.sqm.tree.group.SqmGroupByClause;
+import org.hibernate.query.sqm.tree.group.SqmGrouping;
+import org.hibernate.query.sqm.tree.group.SqmHavingClause;
 import org.hibernate.query.sqm.tree.internal.SqmSelectStatementImpl;
 import org.hibernate.query.sqm.tree.order.SqmOrderByClause;
 import org.hibernate.query.sqm.tree.order.SqmSortSpecification;
@@ -72,7 +61,9 @@ import org.hibernate.query.sqm.tree.predicate.EmptinessSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.GroupedSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.InListSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.InSubQuerySqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.JunctionSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.LikeSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.LiteralInListSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.MemberOfSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.NegatedSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.NullnessSqmPredicate;
@@ -89,11 +80,55 @@ import org.hibernate.query.sqm.tree.set.SqmSetClause;
 
 /**
  * Handles splitting queries containing unmapped polymorphic references.
+ * <p/>
+ * The statement produced for each implementor shares every part of the original
+ * statement which does not (transitively) refer to the unmapped polymorphic root :
+ * literals, parameters, the from clauses of sub-queries not correlated to it, predicates
+ * and sub-queries not referring to it, etc.  Only the "spine" leading to such references
+ * is copied; a copied from clause gets a copy of each of its from-element spaces (which
+ * refer to their from clause), and so do the references to their from-elements.  This relies on the original statement being immutable once built (see
+ * {@link org.hibernate.query.sqm.tree.SqmFreezable}).
  *
  * @author Steve Ebersole
  */
 public class QuerySplitter {
 	public static SqmSelectStatement[] split(SqmSelectStatement statement) {
+		final SqmRoot unmappedPolymorphicReference = locateUnmappedPolymorphicReference( statement );
+		if ( unmappedPolymorphicReference == null ) {
+			return new SqmSelectStatement[] { statement };
+		}
+
+		final PolymorphicEntityValuedExpressableType<?> unmappedPolymorphicDescriptor = (PolymorphicEntityValuedExpressableType) unmappedPolymorphicReference.getBinding().getReferencedNavigable();
+		final SqmSelectStatement[] expanded = new SqmSelectStatement[ unmappedPolymorphicDescriptor.getImplementors().size() ];
+
+		int i = -1;
+		final Iterator<SqmSelectStatement> splits = new SplitIterator( statement, unmappedPolymorphicReference );
+		while ( splits.hasNext() ) {
+			expanded[++i] = splits.next();
+		}
+
+		return expanded;
+	}
+
+	/**
+	 * Lazy form of {@link #split} : the statement for each implementor of the unmapped
+	 * polymorphic reference is only built when requested from the returned iterator, so
+	 * callers can process them one at a time rather than holding all of them at once.
+	 *
+	 * @param statement The statement to split
+	 *
+	 * @return An iterator over the split statements; a single element iterator returning
+	 * the statement itself if it does not contain an unmapped polymorphic reference.
+	 */
+	public static Iterator<SqmSelectStatement> splitIterator(SqmSelectStatement statement) {
+		final SqmRoot unmappedPolymorphicReference = locateUnmappedPolymorphicReference( statement );
+		if ( unmappedPolymorphicReference == null ) {
+			return Collections.singletonList( statement ).iterator();
+		}
+		return new SplitIterator( statement, unmappedPolymorphicReference );
+	}
+
+	private static SqmRoot locateUnmappedPolymorphicReference(SqmSelectStatement statement) {
 		// We only allow unmapped polymorphism in a very restricted way.  Specifically,
 		// the unmapped polymorphic reference can only be a root and can be the only
 		// root.  Use that restriction to locate the unmapped polymorphic reference
@@ -103,35 +138,54 @@ public class QuerySplitter {
 				unmappedPolymorphicReference = fromElementSpace.getRoot();
 			}
 		}
+		return unmappedPolymorphicReference;
+	}
 
-		if ( unmappedPolymorphicReference == null ) {
-			return new SqmSelectStatement[] { statement };
+	private static class SplitIterator implements Iterator<SqmSelectStatement> {
+		private final SqmSelectStatement statement;
+		private final SqmRoot unmappedPolymorphicReference;
+		private final Iterator<? extends EntityPersister<?>> implementors;
+
+		@SuppressWarnings("unchecked")
+		private SplitIterator(SqmSelectStatement statement, SqmRoot unmappedPolymorphicReference) {
+			this.statement = statement;
+			this.unmappedPolymorphicReference = unmappedPolymorphicReference;
+
+			final PolymorphicEntityValuedExpressableType<?> unmappedPolymorphicDescriptor = (PolymorphicEntityValuedExpressableType) unmappedPolymorphicReference.getBinding().getReferencedNavigable();
+			this.implementors = unmappedPolymorphicDescriptor.getImplementors().iterator();
 		}
 
-		final PolymorphicEntityValuedExpressableType<?> unmappedPolymorphicDescriptor = (PolymorphicEntityValuedExpressableType) unmappedPolymorphicReference.getBinding().getReferencedNavigable();
-		final SqmSelectStatement[] expanded = new SqmSelectStatement[ unmappedPolymorphicDescriptor.getImplementors().size() ];
+		@Override
+		public boolean hasNext() {
+			return implementors.hasNext();
+		}
+
+		@Override
+		public SqmSelectStatement next() {
+			if ( !implementors.hasNext() ) {
+				throw new NoSuchElementException();
+			}
 
-		int i = -1;
-		for ( EntityPersister<?> mappedDescriptor : unmappedPolymorphicDescriptor.getImplementors() ) {
-			i++;
 			final UnmappedPolymorphismReplacer replacer = new UnmappedPolymorphismReplacer(
 					statement,
 					unmappedPolymorphicReference,
-					mappedDescriptor
+					implementors.next()
 			);
-			expanded[i] = replacer.visitSelectStatement( statement );
+			return replacer.visitSelectStatement( statement );
 		}
-
-		return expanded;
 	}
 
+	/**
+	 * Builds the statement for one implementor.  Each visit method returns the node it
+	 * was given when none of its parts were copied, and a copy otherwise.  Nodes this
+	 * walker does not handle explicitly are shared as-is.
+	 */
 	@SuppressWarnings("unchecked")
 	private static class UnmappedPolymorphismReplacer extends BaseSemanticQueryWalker {
 		private final SqmRoot unmappedPolymorphicFromElement;
 		private final EntityValuedExpressableType mappedDescriptor;
 
-		private Map<SqmFrom,SqmFrom> sqmFromSqmCopyMap = new HashMap<>();
-		private Map<SqmNavigableReference, SqmNavigableReference> navigableBindingCopyMap = new HashMap<>();
+		private Map<SqmNavigableReference, SqmNavigableReference> navigableBindingCopyMap = new IdentityHashMap<>();
 
 		private UnmappedPolymorphismReplacer(
 				SqmSelectStatement selectStatement,
@@ -141,6 +195,28 @@ public class QuerySplitter {
 			this.mappedDescriptor = mappedDescriptor;
 		}
 
+		private SqmExpression copy(SqmExpression expression) {
+			if ( expression == null ) {
+				return null;
+			}
+
+			// some references (e.g. the entity reference for `select p`) do not dispatch to
+			// the walker, so check for an already made copy first
+			final SqmNavigableReference bindingCopy = navigableBindingCopyMap.get( expression );
+			if ( bindingCopy != null ) {
+				return bindingCopy;
+			}
+
+			return (SqmExpression) expression.accept( this );
+		}
+
+		private SqmPredicate copy(SqmPredicate predicate) {
+			if ( predicate == null ) {
+				return null;
+			}
+			return (SqmPredicate) predicate.accept( this );
+		}
+
 		@Override
 		public SqmStatement visitStatement(SqmStatement statement) {
 			throw new UnsupportedOperationException( "Not valid" );
@@ -170,20 +246,41 @@ public class QuerySplitter {
 		public SqmSelectStatement visitSelectStatement(SqmSelectStatement statement) {
 			final SqmSelectStatementImpl copy = new SqmSelectStatementImpl();
 			copy.applyQuerySpec( visitQuerySpec( statement.getQuerySpec() ) );
+			copy.wrapUp();
 			return copy;
 		}
 
 		@Override
 		public SqmQuerySpec visitQuerySpec(SqmQuerySpec querySpec) {
 			// NOTE : it is important that we visit the SqmFromClause first so that the
-			// 		fromElementCopyMap gets built before other parts of the queryspec
+			// 		navigableBindingCopyMap gets built before other parts of the queryspec
 			// 		are visited
+			final SqmFromClause fromClause = visitFromClause( querySpec.getFromClause() );
+			final SqmSelectClause selectClause = visitSelectClause( querySpec.getSelectClause() );
+			final SqmWhereClause whereClause = visitWhereClause( querySpec.getWhereClause() );
+			final SqmGroupByClause groupByClause = visitGroupByClause( querySpec.getGroupByClause() );
+			final SqmHavingClause havingClause = visitHavingClause( querySpec.getHavingClause() );
+			final SqmOrderByClause orderByClause = visitOrderByClause( querySpec.getOrderByClause() );
+			final SqmLimitOffsetClause limitOffsetClause = visitLimitOffsetClause( querySpec.getLimitOffsetClause() );
+
+			if ( fromClause == querySpec.getFromClause()
+					&& selectClause == querySpec.getSelectClause()
+					&& whereClause == querySpec.getWhereClause()
+					&& groupByClause == querySpec.getGroupByClause()
+					&& havingClause == querySpec.getHavingClause()
+					&& orderByClause == querySpec.getOrderByClause()
+					&& limitOffsetClause == querySpec.getLimitOffsetClause() ) {
+				return querySpec;
+			}
+
 			return new SqmQuerySpec(
-					visitFromClause( querySpec.getFromClause() ),
-					visitSelectClause( querySpec.getSelectClause() ),
-					visitWhereClause( querySpec.getWhereClause() ),
-					visitOrderByClause( querySpec.getOrderByClause() ),
-					visitLimitOffsetClause( querySpec.getLimitOffsetClause() )
+					fromClause,
+					selectClause,
+					whereClause,
+					groupByClause,
+					havingClause,
+					orderByClause,
+					limitOffsetClause
 			);
 		}
 
@@ -191,11 +288,25 @@ public class QuerySplitter {
 
 		@Override
 		public SqmFromClause visitFromClause(SqmFromClause fromClause) {
+			boolean copyNeeded = false;
+			for ( SqmFromElementSpace fromElementSpace : fromClause.getFromElementSpaces() ) {
+				if ( isCopyNeeded( fromElementSpace ) ) {
+					copyNeeded = true;
+					break;
+				}
+			}
+
+			if ( !copyNeeded ) {
+				return fromClause;
+			}
+
 			final SqmFromClause previousCurrent = currentFromClauseCopy;
 
 			try {
 				SqmFromClause copy = new SqmFromClause();
 				currentFromClauseCopy = copy;
+				// every space is copied, as a space (and its from-elements, through it) refers to
+				// the from clause it belongs to
 				super.visitFromClause( fromClause );
 				return copy;
 			}
@@ -204,6 +315,26 @@ public class QuerySplitter {
 			}
 		}
 
+		/**
+		 * A from clause needs to be copied if one of its from-element spaces is the space of
+		 * the unmapped polymorphic root, or has a join sourced from an already copied
+		 * from-element (correlated sub-query).
+		 */
+		private boolean isCopyNeeded(SqmFromElementSpace fromElementSpace) {
+			if ( fromElementSpace == unmappedPolymorphicFromElement.getContainingSpace() ) {
+				return true;
+			}
+
+			for ( SqmJoin join : fromElementSpace.getJoins() ) {
+				if ( join instanceof SqmAttributeJoin
+						&& navigableBindingCopyMap.containsKey( ( (SqmAttributeJoin) join ).getAttributeBinding().getSourceReference() ) ) {
+					return true;
+				}
+			}
+
+			return false;
+		}
+
 		private SqmFromElementSpace currentFromElementSpaceCopy;
 
 		@Override
@@ -225,7 +356,6 @@ public class QuerySplitter {
 		}
 
 		// todo : it is really the bindings we want to keep track of..
-
 		@Override
 		public SqmRoot visitRootEntityFromElement(SqmRoot rootEntityFromElement) {
 			final SqmNavigableSourceReference existingCopy = (SqmNavigableSourceReference) navigableBindingCopyMap.get( rootEntityFromElement.getBinding() );
@@ -244,7 +374,7 @@ public class QuerySplitter {
 			if ( rootEntityFromElement == unmappedPolymorphicFromElement ) {
 				copy = new SqmRoot(
 						currentFromElementSpaceCopy,
-						rootEntityFromElement.getUniqueIdentifier(),
+						rootEntityFromElement.getUniqueId(),
 						rootEntityFromElement.getIdentificationVariable(),
 						mappedDescriptor
 				);
@@ -252,7 +382,7 @@ public class QuerySplitter {
 			else {
 				copy = new SqmRoot(
 						currentFromElementSpaceCopy,
-						rootEntityFromElement.getUniqueIdentifier(),
+						rootEntityFromElement.getUniqueId(),
 						rootEntityFromElement.getIdentificationVariable(),
 						rootEntityFromElement.getBinding().getReferencedNavigable()
 				);
@@ -274,7 +404,7 @@ public class QuerySplitter {
 
 			final SqmCrossJoin copy = new SqmCrossJoin(
 					currentFromElementSpaceCopy,
-					joinedFromElement.getUniqueIdentifier(),
+					joinedFromElement.getUniqueId(),
 					joinedFromElement.getIdentificationVariable(),
 					joinedFromElement.getBinding().getReferencedNavigable()
 			);
@@ -295,7 +425,7 @@ public class QuerySplitter {
 
 			final SqmEntityJoin copy = new SqmEntityJoin(
 					currentFromElementSpaceCopy,
-					joinedFromElement.getUniqueIdentifier(),
+					joinedFromElement.getUniqueId(),
 					joinedFromElement.getIdentificationVariable(),
 					joinedFromElement.getBinding().getReferencedNavigable(),
 					joinedFromElement.getJoinType()
@@ -347,7 +477,7 @@ public class QuerySplitter {
 			final SqmAttributeJoin copy = new SqmAttributeJoin(
 					sourceBindingCopy.getExportedFromElement(),
 					attributeBindingCopy,
-					fromElement.getUniqueIdentifier(),
+					fromElement.getUniqueId(),
 					fromElement.getIdentificationVariable(),
 					fromElement.getIntrinsicSubclassIndicator(),
 					fromElement.getJoinType(),
@@ -359,31 +489,60 @@ public class QuerySplitter {
 
 		@Override
 		public SqmSelectClause visitSelectClause(SqmSelectClause selectClause) {
-			SqmSelectClause copy = new SqmSelectClause( selectClause.isDistinct() );
+			final List<SqmSelection> selectionsCopy = new ArrayList<>( selectClause.getSelections().size() );
+			boolean changed = false;
 			for ( SqmSelection selection : selectClause.getSelections() ) {
-				copy.addSelection( visitSelection( selection ) );
+				final SqmSelection selectionCopy = visitSelection( selection );
+				changed |= selectionCopy != selection;
+				selectionsCopy.add( selectionCopy );
+			}
+
+			if ( !changed ) {
+				return selectClause;
+			}
+
+			SqmSelectClause copy = new SqmSelectClause( selectClause.isDistinct() );
+			for ( SqmSelection selection : selectionsCopy ) {
+				copy.addSelection( selection );
 			}
 			return copy;
 		}
 
 		@Override
 		public SqmSelection visitSelection(SqmSelection selection) {
-			return new SqmSelection(
-					(SqmExpression) selection.getExpression().accept( this ),
-					selection.getAlias()
-			);
+			final SqmExpression expression = copy( selection.getExpression() );
+			if ( expression == selection.getExpression() ) {
+				return selection;
+			}
+			return new SqmSelection( expression, selection.getAlias() );
 		}
 
 		@Override
 		public SqmDynamicInstantiation visitDynamicInstantiation(SqmDynamicInstantiation dynamicInstantiation) {
-			SqmDynamicInstantiation copy = dynamicInstantiation.makeShallowCopy();
+			if ( dynamicInstantiation.getArguments() == null ) {
+				return dynamicInstantiation;
+			}
+
+			final List<SqmDynamicInstantiationArgument> argumentsCopy = new ArrayList<>( dynamicInstantiation.getArguments().size() );
+			boolean changed = false;
 			for ( SqmDynamicInstantiationArgument aliasedArgument : dynamicInstantiation.getArguments() ) {
-				copy.addArgument(
-						new SqmDynamicInstantiationArgument(
-								(SqmExpression) aliasedArgument.getExpression().accept( this ),
-								aliasedArgument.getAlias()
-						)
-				);
+				final SqmExpression expression = copy( aliasedArgument.getExpression() );
+				if ( expression == aliasedArgument.getExpression() ) {
+					argumentsCopy.add( aliasedArgument );
+				}
+				else {
+					changed = true;
+					argumentsCopy.add( new SqmDynamicInstantiationArgument( expression, aliasedArgument.getAlias() ) );
+				}
+			}
+
+			if ( !changed ) {
+				return dynamicInstantiation;
+			}
+
+			SqmDynamicInstantiation copy = dynamicInstantiation.makeShallowCopy();
+			for ( SqmDynamicInstantiationArgument argument : argumentsCopy ) {
+				copy.addArgument( argument );
 			}
 			return copy;
 		}
@@ -393,165 +552,262 @@ public class QuerySplitter {
 			if ( whereClause == null ) {
 				return null;
 			}
-			return new SqmWhereClause( (SqmPredicate) whereClause.getPredicate().accept( this ) );
+
+			final SqmPredicate predicate = copy( whereClause.getPredicate() );
+			if ( predicate == whereClause.getPredicate() ) {
+				return whereClause;
+			}
+			return new SqmWhereClause( predicate );
+		}
+
+		@Override
+		public SqmGroupByClause visitGroupByClause(SqmGroupByClause groupByClause) {
+			if ( groupByClause == null ) {
+				return null;
+			}
+
+			final List<SqmGrouping> groupingsCopy = new ArrayList<>( groupByClause.getGroupings().size() );
+			boolean changed = false;
+			for ( SqmGrouping grouping : groupByClause.getGroupings() ) {
+				final SqmGrouping groupingCopy = visitGrouping( grouping );
+				changed |= groupingCopy != grouping;
+				groupingsCopy.add( groupingCopy );
+			}
+
+			if ( !changed ) {
+				return groupByClause;
+			}
+
+			final SqmGroupByClause copy = new SqmGroupByClause();
+			for ( SqmGrouping grouping : groupingsCopy ) {
+				copy.addGrouping( grouping );
+			}
+			return copy;
+		}
+
+		@Override
+		public SqmGrouping visitGrouping(SqmGrouping grouping) {
+			final SqmExpression expression = copy( grouping.getExpression() );
+			if ( expression == grouping.getExpression() ) {
+				return grouping;
+			}
+			return new SqmGrouping( expression, grouping.getCollation() );
+		}
+
+		@Override
+		public SqmHavingClause visitHavingClause(SqmHavingClause havingClause) {
+			if ( havingClause == null ) {
+				return null;
+			}
+
+			final SqmPredicate predicate = copy( havingClause.getPredicate() );
+			if ( predicate == havingClause.getPredicate() ) {
+				return havingClause;
+			}
+			return new SqmHavingClause( predicate );
 		}
 
 		@Override
 		public GroupedSqmPredicate visitGroupedPredicate(GroupedSqmPredicate predicate) {
-			return new GroupedSqmPredicate( (SqmPredicate) predicate.accept( this ) );
+			final SqmPredicate subPredicate = copy( predicate.getSubPredicate() );
+			if ( subPredicate == predicate.getSubPredicate() ) {
+				return predicate;
+			}
+			return new GroupedSqmPredicate( subPredicate );
 		}
 
 		@Override
 		public AndSqmPredicate visitAndPredicate(AndSqmPredicate predicate) {
-			return new AndSqmPredicate(
-					(SqmPredicate) predicate.getLeftHandPredicate().accept( this ),
-					(SqmPredicate) predicate.getRightHandPredicate().accept( this )
-			);
+			final SqmPredicate lhs = copy( predicate.getLeftHandPredicate() );
+			final SqmPredicate rhs = copy( predicate.getRightHandPredicate() );
+			if ( lhs == predicate.getLeftHandPredicate() && rhs == predicate.getRightHandPredicate() ) {
+				return predicate;
+			}
+			return new AndSqmPredicate( lhs, rhs );
 		}
 
 		@Override
 		public OrSqmPredicate visitOrPredicate(OrSqmPredicate predicate) {
-			return new OrSqmPredicate(
-					(SqmPredicate) predicate.getLeftHandPredicate().accept( this ),
-					(SqmPredicate) predicate.getRightHandPredicate().accept( this )
-			);
+			final SqmPredicate lhs = copy( predicate.getLeftHandPredicate() );
+			final SqmPredicate rhs = copy( predicate.getRightHandPredicate() );
+			if ( lhs == predicate.getLeftHandPredicate() && rhs == predicate.getRightHandPredicate() ) {
+				return predicate;
+			}
+			return new OrSqmPredicate( lhs, rhs );
+		}
+
+		@Override
+		public JunctionSqmPredicate visitJunctionPredicate(JunctionSqmPredicate predicate) {
+			final List<SqmPredicate> predicatesCopy = new ArrayList<>( predicate.getPredicates().size() );
+			boolean changed = false;
+			for ( SqmPredicate subPredicate : predicate.getPredicates() ) {
+				final SqmPredicate subPredicateCopy = copy( subPredicate );
+				changed |= subPredicateCopy != subPredicate;
+				predicatesCopy.add( subPredicateCopy );
+			}
+
+			if ( !changed ) {
+				return predicate;
+			}
+			return new JunctionSqmPredicate( predicate.getNature(), predicatesCopy );
 		}
 
 		@Override
 		public RelationalSqmPredicate visitRelationalPredicate(RelationalSqmPredicate predicate) {
-			return new RelationalSqmPredicate(
-					predicate.getOperator(),
-					(SqmExpression) predicate.getLeftHandExpression().accept( this ),
-					(SqmExpression) predicate.getRightHandExpression().accept( this )
-			);
+			final SqmExpression lhs = copy( predicate.getLeftHandExpression() );
+			final SqmExpression rhs = copy( predicate.getRightHandExpression() );
+			if ( lhs == predicate.getLeftHandExpression() && rhs == predicate.getRightHandExpression() ) {
+				return predicate;
+			}
+			return new RelationalSqmPredicate( predicate.getOperator(), lhs, rhs );
 		}
 
 		@Override
 		public EmptinessSqmPredicate visitIsEmptyPredicate(EmptinessSqmPredicate predicate) {
-			return new EmptinessSqmPredicate(
-					(SqmPluralAttributeReference) predicate.getExpression().accept( this ),
-					predicate.isNegated()
-			);
+			final SqmExpression expression = copy( predicate.getExpression() );
+			if ( expression == predicate.getExpression() ) {
+				return predicate;
+			}
+			return new EmptinessSqmPredicate( (SqmPluralAttributeReference) expression, predicate.isNegated() );
 		}
 
 		@Override
 		public NullnessSqmPredicate visitIsNullPredicate(NullnessSqmPredicate predicate) {
-			return new NullnessSqmPredicate(
-					(SqmExpression) predicate.getExpression().accept( this ),
-					predicate.isNegated()
-			);
+			final SqmExpression expression = copy( predicate.getExpression() );
+			if ( expression == predicate.getExpression() ) {
+				return predicate;
+			}
+			return new NullnessSqmPredicate( expression, predicate.isNegated() );
 		}
 
 		@Override
 		public BetweenSqmPredicate visitBetweenPredicate(BetweenSqmPredicate predicate) {
-			return new BetweenSqmPredicate(
-					(SqmExpression) predicate.getExpression().accept( this ),
-					(SqmExpression) predicate.getLowerBound().accept( this ),
-					(SqmExpression) predicate.getUpperBound().accept( this ),
-					predicate.isNegated()
-			);
+			final SqmExpression expression = copy( predicate.getExpression() );
+			final SqmExpression lowerBound = copy( predicate.getLowerBound() );
+			final SqmExpression upperBound = copy( predicate.getUpperBound() );
+			if ( expression == predicate.getExpression()
+					&& lowerBound == predicate.getLowerBound()
+					&& upperBound == predicate.getUpperBound() ) {
+				return predicate;
+			}
+			return new BetweenSqmPredicate( expression, lowerBound, upperBound, predicate.isNegated() );
 		}
 
 		@Override
 		public LikeSqmPredicate visitLikePredicate(LikeSqmPredicate predicate) {
-			return new LikeSqmPredicate(
-					(SqmExpression) predicate.getMatchExpression().accept( this ),
-					(SqmExpression) predicate.getPattern().accept( this ),
-					(SqmExpression) predicate.getEscapeCharacter().accept( this )
-			);
+			final SqmExpression matchExpression = copy( predicate.getMatchExpression() );
+			final SqmExpression pattern = copy( predicate.getPattern() );
+			final SqmExpression escapeCharacter = copy( predicate.getEscapeCharacter() );
+			if ( matchExpression == predicate.getMatchExpression()
+					&& pattern == predicate.getPattern()
+					&& escapeCharacter == predicate.getEscapeCharacter() ) {
+				return predicate;
+			}
+			return new LikeSqmPredicate( matchExpression, pattern, escapeCharacter );
 		}
 
 		@Override
 		public MemberOfSqmPredicate visitMemberOfPredicate(MemberOfSqmPredicate predicate) {
 			final SqmAttributeReference attributeReferenceCopy = resolveAttributeReference( predicate.getPluralAttributeReference() );
+			if ( attributeReferenceCopy == predicate.getPluralAttributeReference() ) {
+				return predicate;
+			}
 			// NOTE : no type check b4 cast as it is assumed that the initial SQM producer
 			//		already verified that the path resolves to a plural attribute
 			return new MemberOfSqmPredicate( (SqmPluralAttributeReference) attributeReferenceCopy );
 		}
 
-//		private DomainReferenceBinding resolveDomainReferenceBinding(DomainReferenceBinding binding) {
-//			DomainReferenceBinding copy = navigableBindingCopyMap.get( binding );
-//			if ( copy == null ) {
-//				copy = makeDomainReferenceBindingCopy( binding );
-//				navigableBindingCopyMap.put( binding, copy );
-//			}
-//			return copy;
-//		}
-
-//		private DomainReferenceBinding makeDomainReferenceBindingCopy(DomainReferenceBinding binding) {
-//			if ( binding instanceof AttributeBinding ) {
-//				final AttributeBinding attributeBinding = (AttributeBinding) binding;
-//				return new AttributeBinding(
-//						resolveDomainReferenceBinding( attributeBinding.getLhs() ),
-//						attributeBinding.getBoundDomainReference(),
-//						attributeBinding.getFromElement()
-//				);
-//			}
-//			else if ( binding instanceof )
-//		}
-
-
 		// todo (6.0) : broker in SqmNavigableReference instead?
 
+		/**
+		 * Resolve the reference to use in the copy for the given attribute reference : a
+		 * new reference if its source (transitively) was copied, the reference itself
+		 * otherwise.
+		 */
 		private SqmAttributeReference resolveAttributeReference(SqmAttributeReference attributeBinding) {
-			// its an attribute join... there has to be a source
+			// its an attribute reference... there has to be a source
 			assert attributeBinding.getSourceReference() != null;
 
-			SqmAttributeReference attributeBindingCopy = (SqmAttributeReference) navigableBindingCopyMap.get( attributeBinding );
-			if ( attributeBindingCopy == null ) {
-				attributeBindingCopy = makeCopy( attributeBinding );
+			final SqmAttributeReference existingCopy = (SqmAttributeReference) navigableBindingCopyMap.get( attributeBinding );
+			if ( existingCopy != null ) {
+				return existingCopy;
+			}
+
+			final SqmNavigableSourceReference sourceBindingCopy = resolveSourceReference( attributeBinding.getSourceReference() );
+			if ( sourceBindingCopy == attributeBinding.getSourceReference() ) {
+				return attributeBinding;
 			}
 
+			final SqmAttributeReference attributeBindingCopy = (SqmAttributeReference) NavigableBindingHelper.createNavigableBinding(
+					sourceBindingCopy,
+					attributeBinding.getReferencedNavigable()
+			);
+			navigableBindingCopyMap.put( attributeBinding, attributeBindingCopy );
 			return attributeBindingCopy;
 		}
 
-		private SqmAttributeReference makeCopy(SqmAttributeReference attributeReference) {
-			// its an attribute join... there has to be a source
-			assert attributeReference.getSourceReference() != null;
-
-			assert !navigableBindingCopyMap.containsKey( attributeReference );
-
-			final SqmAttributeJoin originalJoin = (SqmAttributeJoin) sqmFromSqmCopyMap.get( attributeReference.getExportedFromElement() );
-			final SqmNavigableSourceReference sourceBindingCopy = (SqmNavigableSourceReference) navigableBindingCopyMap.get(
-					attributeReference.getSourceReference()
-			);
+		private SqmNavigableSourceReference resolveSourceReference(SqmNavigableSourceReference sourceBinding) {
+			final SqmNavigableSourceReference existingCopy = (SqmNavigableSourceReference) navigableBindingCopyMap.get( sourceBinding );
+			if ( existingCopy != null ) {
+				return existingCopy;
+			}
 
-			if ( sourceBindingCopy == null ) {
-				throw new ParsingException( "Could not resolve NavigableSourceBinding copy during query splitting" );
+			if ( sourceBinding instanceof SqmAttributeReference ) {
+				return (SqmNavigableSourceReference) resolveAttributeReference( (SqmAttributeReference) sourceBinding );
 			}
 
-			final SqmSingularAttributeReference attributeBindingCopy = NavigableBindingHelper.createSingularAttributeBinding(
-					sourceBindingCopy,
-					attributeReference.getReferencedNavigable()
-			);
-			navigableBindingCopyMap.put( attributeReference, attributeBindingCopy );
-			return attributeBindingCopy;
+			return sourceBinding;
 		}
 
 		@Override
 		public NegatedSqmPredicate visitNegatedPredicate(NegatedSqmPredicate predicate) {
-			return new NegatedSqmPredicate(
-					(SqmPredicate) predicate.getWrappedPredicate().accept( this )
-			);
+			final SqmPredicate wrappedPredicate = copy( predicate.getWrappedPredicate() );
+			if ( wrappedPredicate == predicate.getWrappedPredicate() ) {
+				return predicate;
+			}
+			return new NegatedSqmPredicate( wrappedPredicate );
 		}
 
 		@Override
 		public InListSqmPredicate visitInListPredicate(InListSqmPredicate predicate) {
-			InListSqmPredicate copy = new InListSqmPredicate(
-					(SqmExpression) predicate.getTestExpression().accept( this )
-			);
+			final SqmExpression testExpression = copy( predicate.getTestExpression() );
+			final List<SqmExpression> listExpressionsCopy = new ArrayList<>( predicate.getListExpressions().size() );
+			boolean changed = testExpression != predicate.getTestExpression();
 			for ( SqmExpression expression : predicate.getListExpressions() ) {
-				copy.addExpression( (SqmExpression) expression.accept( this ) );
+				final SqmExpression expressionCopy = copy( expression );
+				changed |= expressionCopy != expression;
+				listExpressionsCopy.add( expressionCopy );
+			}
+
+			if ( !changed ) {
+				return predicate;
+			}
+
+			InListSqmPredicate copy = new InListSqmPredicate( testExpression );
+			for ( SqmExpression expression : listExpressionsCopy ) {
+				copy.addExpression( expression );
 			}
 			return copy;
 		}
 
+		@Override
+		public LiteralInListSqmPredicate visitLiteralInListPredicate(LiteralInListSqmPredicate predicate) {
+			final SqmExpression testExpression = copy( predicate.getTestExpression() );
+			if ( testExpression == predicate.getTestExpression() ) {
+				return predicate;
+			}
+			// the values are immutable and shared with the copy
+			return new LiteralInListSqmPredicate( testExpression, predicate );
+		}
+
 		@Override
 		public InSubQuerySqmPredicate visitInSubQueryPredicate(InSubQuerySqmPredicate predicate) {
-			return new InSubQuerySqmPredicate(
-					(SqmExpression) predicate.getTestExpression().accept( this ),
-					visitSubQueryExpression( predicate.getSubQueryExpression() )
-			);
+			final SqmExpression testExpression = copy( predicate.getTestExpression() );
+			final SubQuerySqmExpression subQueryExpression = visitSubQueryExpression( predicate.getSubQueryExpression() );
+			if ( testExpression == predicate.getTestExpression() && subQueryExpression == predicate.getSubQueryExpression() ) {
+				return predicate;
+			}
+			return new InSubQuerySqmPredicate( testExpression, subQueryExpression );
 		}
 
 		@Override
@@ -560,17 +816,33 @@ public class QuerySplitter {
 				return null;
 			}
 
-			SqmOrderByClause copy = new SqmOrderByClause();
+			final List<SqmSortSpecification> sortSpecificationsCopy = new ArrayList<>( orderByClause.getSortSpecifications().size() );
+			boolean changed = false;
 			for ( SqmSortSpecification sortSpecification : orderByClause.getSortSpecifications() ) {
-				copy.addSortSpecification( visitSortSpecification( sortSpecification ) );
+				final SqmSortSpecification sortSpecificationCopy = visitSortSpecification( sortSpecification );
+				changed |= sortSpecificationCopy != sortSpecification;
+				sortSpecificationsCopy.add( sortSpecificationCopy );
+			}
+
+			if ( !changed ) {
+				return orderByClause;
+			}
+
+			SqmOrderByClause copy = new SqmOrderByClause();
+			for ( SqmSortSpecification sortSpecification : sortSpecificationsCopy ) {
+				copy.addSortSpecification( sortSpecification );
 			}
 			return copy;
 		}
 
 		@Override
 		public SqmSortSpecification visitSortSpecification(SqmSortSpecification sortSpecification) {
+			final SqmExpression sortExpression = copy( sortSpecification.getSortExpression() );
+			if ( sortExpression == sortSpecification.getSortExpression() ) {
+				return sortSpecification;
+			}
 			return new SqmSortSpecification(
-					(SqmExpression) sortSpecification.getSortExpression().accept( this ),
+					sortExpression,
 					sortSpecification.getCollation(),
 					sortSpecification.getSortOrder()
 			);
@@ -582,55 +854,44 @@ public class QuerySplitter {
 				return null;
 			}
 
-			return new SqmLimitOffsetClause(
-					(SqmExpression) limitOffsetClause.getLimitExpression().accept( this ),
-					(SqmExpression) limitOffsetClause.getOffsetExpression().accept( this )
-			);
-		}
-
-		@Override
-		public PositionalParameterSqmExpression visitPositionalParameterExpression(PositionalParameterSqmExpression expression) {
-			return new PositionalParameterSqmExpression( expression.getPosition(), expression.allowMultiValuedBinding() );
-		}
-
-		@Override
-		public NamedParameterSqmExpression visitNamedParameterExpression(NamedParameterSqmExpression expression) {
-			return new NamedParameterSqmExpression( expression.getName(), expression.allowMultiValuedBinding() );
+			final SqmExpression limitExpression = copy( limitOffsetClause.getLimitExpression() );
+			final SqmExpression offsetExpression = copy( limitOffsetClause.getOffsetExpression() );
+			if ( limitExpression == limitOffsetClause.getLimitExpression()
+					&& offsetExpression == limitOffsetClause.getOffsetExpression() ) {
+				return limitOffsetClause;
+			}
+			return new SqmLimitOffsetClause( limitExpression, offsetExpression );
 		}
 
-		@Override
-		public EntityTypeLiteralSqmExpression visitEntityTypeLiteralExpression(EntityTypeLiteralSqmExpression expression) {
-			return new EntityTypeLiteralSqmExpression( expression.getExpressionType() );
-		}
+		// NOTE : literals, parameters, constants and entity type literals are shared through
+		//		the BaseSemanticQueryWalker implementations which return the node itself
 
 		@Override
 		public UnaryOperationSqmExpression visitUnaryOperationExpression(UnaryOperationSqmExpression expression) {
-			return new UnaryOperationSqmExpression(
-					expression.getOperation(),
-					(SqmExpression) expression.getOperand().accept( this )
-			);
+			final SqmExpression operand = copy( expression.getOperand() );
+			if ( operand == expression.getOperand() ) {
+				return expression;
+			}
+			return new UnaryOperationSqmExpression( expression.getOperation(), operand );
 		}
 
 		@Override
-		public Object visitAttributeReferenceExpression(SqmAttributeReference attributeBinding) {
-			assert attributeBinding.getSourceReference() != null;
-
-			SqmAttributeReference attributeBindingCopy = (SqmAttributeReference) navigableBindingCopyMap.get( attributeBinding );
-			if ( attributeBindingCopy == null ) {
-				attributeBindingCopy = (SqmAttributeReference) NavigableBindingHelper.createNavigableBinding(
-						attributeBinding.getSourceReference(),
-						attributeBinding.getReferencedNavigable()
-				);
-				navigableBindingCopyMap.put( attributeBinding, attributeBindingCopy );
-			}
-			return attributeBindingCopy;
+		public SqmAttributeReference visitAttributeReferenceExpression(SqmAttributeReference attributeBinding) {
+			return resolveAttributeReference( attributeBinding );
 		}
 
 		@Override
 		public GenericFunctionSqmExpression visitGenericFunction(GenericFunctionSqmExpression expression) {
-			List<SqmExpression> argumentsCopy = new ArrayList<>();
+			final List<SqmExpression> argumentsCopy = new ArrayList<>( expression.getArguments().size() );
+			boolean changed = false;
 			for ( SqmExpression argument : expression.getArguments() ) {
-				argumentsCopy.add( (SqmExpression) argument.accept( this ) );
+				final SqmExpression argumentCopy = copy( argument );
+				changed |= argumentCopy != argument;
+				argumentsCopy.add( argumentCopy );
+			}
+
+			if ( !changed ) {
+				return expression;
 			}
 			return new GenericFunctionSqmExpression(
 					expression.getFunctionName(),
@@ -641,159 +902,101 @@ public class QuerySplitter {
 
 		@Override
 		public AvgFunctionSqmExpression visitAvgFunction(AvgFunctionSqmExpression expression) {
-			return new AvgFunctionSqmExpression(
-					(SqmExpression) expression.getArgument().accept( this ),
-					expression.isDistinct(),
-					expression.getExpressionType()
-			);
-		}
-
-		@Override
-		public CountStarFunctionSqmExpression visitCountStarFunction(CountStarFunctionSqmExpression expression) {
-			return new CountStarFunctionSqmExpression(
-					expression.isDistinct(),
-					expression.getExpressionType()
-			);
+			final SqmExpression argument = copy( expression.getArgument() );
+			if ( argument == expression.getArgument() ) {
+				return expression;
+			}
+			return new AvgFunctionSqmExpression( argument, expression.isDistinct(), expression.getExpressionType() );
 		}
 
 		@Override
 		public CountFunctionSqmExpression visitCountFunction(CountFunctionSqmExpression expression) {
-			return new CountFunctionSqmExpression(
-					(SqmExpression) expression.getArgument().accept( this ),
-					expression.isDistinct(),
-					expression.getExpressionType()
-			);
+			final SqmExpression argument = copy( expression.getArgument() );
+			if ( argument == expression.getArgument() ) {
+				return expression;
+			}
+			return new CountFunctionSqmExpression( argument, expression.isDistinct(), expression.getExpressionType() );
 		}
 
 		@Override
 		public MaxFunctionSqmExpression visitMaxFunction(MaxFunctionSqmExpression expression) {
-			return new MaxFunctionSqmExpression(
-					(SqmExpression) expression.getArgument().accept( this ),
-					expression.isDistinct(),
-					expression.getExpressionType()
-			);
+			final SqmExpression argument = copy( expression.getArgument() );
+			if ( argument == expression.getArgument() ) {
+				return expression;
+			}
+			return new MaxFunctionSqmExpression( argument, expression.isDistinct(), expression.getExpressionType() );
 		}
 
 		@Override
 		public MinFunctionSqmExpression visitMinFunction(MinFunctionSqmExpression expression) {
-			return new MinFunctionSqmExpression(
-					(SqmExpression) expression.getArgument().accept( this ),
-					expression.isDistinct(),
-					expression.getExpressionType()
-			);
+			final SqmExpression argument = copy( expression.getArgument() );
+			if ( argument == expression.getArgument() ) {
+				return expression;
+			}
+			return new MinFunctionSqmExpression( argument, expression.isDistinct(), expression.getExpressionType() );
 		}
 
 		@Override
 		public SumFunctionSqmExpression visitSumFunction(SumFunctionSqmExpression expression) {
-			return new SumFunctionSqmExpression(
-					(SqmExpression) expression.getArgument().accept( this ),
-					expression.isDistinct(),
-					expression.getExpressionType()
-			);
-		}
-
-		@Override
-		public LiteralStringSqmExpression visitLiteralStringExpression(LiteralStringSqmExpression expression) {
-			return new LiteralStringSqmExpression( expression.getLiteralValue(), expression.getExpressionType() );
-		}
-
-		@Override
-		public LiteralCharacterSqmExpression visitLiteralCharacterExpression(LiteralCharacterSqmExpression expression) {
-			return new LiteralCharacterSqmExpression( expression.getLiteralValue(), expression.getExpressionType() );
-		}
-
-		@Override
-		public LiteralDoubleSqmExpression visitLiteralDoubleExpression(LiteralDoubleSqmExpression expression) {
-			return new LiteralDoubleSqmExpression( expression.getLiteralValue(), expression.getExpressionType() );
-		}
-
-		@Override
-		public LiteralIntegerSqmExpression visitLiteralIntegerExpression(LiteralIntegerSqmExpression expression) {
-			return new LiteralIntegerSqmExpression( expression.getLiteralValue(), expression.getExpressionType() );
-		}
-
-		@Override
-		public LiteralBigIntegerSqmExpression visitLiteralBigIntegerExpression(LiteralBigIntegerSqmExpression expression) {
-			return new LiteralBigIntegerSqmExpression( expression.getLiteralValue(), expression.getExpressionType() );
-		}
-
-		@Override
-		public LiteralBigDecimalSqmExpression visitLiteralBigDecimalExpression(LiteralBigDecimalSqmExpression expression) {
-			return new LiteralBigDecimalSqmExpression( expression.getLiteralValue(), expression.getExpressionType() );
-		}
-
-		@Override
-		public LiteralFloatSqmExpression visitLiteralFloatExpression(LiteralFloatSqmExpression expression) {
-			return new LiteralFloatSqmExpression( expression.getLiteralValue(), expression.getExpressionType() );
-		}
-
-		@Override
-		public LiteralLongSqmExpression visitLiteralLongExpression(LiteralLongSqmExpression expression) {
-			return new LiteralLongSqmExpression( expression.getLiteralValue(), expression.getExpressionType() );
-		}
-
-		@Override
-		public LiteralTrueSqmExpression visitLiteralTrueExpression(LiteralTrueSqmExpression expression) {
-			return new LiteralTrueSqmExpression( expression.getExpressionType() );
-		}
-
-		@Override
-		public LiteralFalseSqmExpression visitLiteralFalseExpression(LiteralFalseSqmExpression expression) {
-			return new LiteralFalseSqmExpression( expression.getExpressionType() );
-		}
-
-		@Override
-		public LiteralNullSqmExpression visitLiteralNullExpression(LiteralNullSqmExpression expression) {
-			return new LiteralNullSqmExpression();
+			final SqmExpression argument = copy( expression.getArgument() );
+			if ( argument == expression.getArgument() ) {
+				return expression;
+			}
+			return new SumFunctionSqmExpression( argument, expression.isDistinct(), expression.getExpressionType() );
 		}
 
 		@Override
 		public ConcatSqmExpression visitConcatExpression(ConcatSqmExpression expression) {
-			return new ConcatSqmExpression(
-					(SqmExpression) expression.getLeftHandOperand().accept( this ),
-					(SqmExpression) expression.getRightHandOperand().accept( this )
-			);
+			final SqmExpression lhs = copy( expression.getLeftHandOperand() );
+			final SqmExpression rhs = copy( expression.getRightHandOperand() );
+			if ( lhs == expression.getLeftHandOperand() && rhs == expression.getRightHandOperand() ) {
+				return expression;
+			}
+			return new ConcatSqmExpression( lhs, rhs );
 		}
 
 		@Override
 		public ConcatFunctionSqmExpression visitConcatFunction(ConcatFunctionSqmExpression expression) {
-			final List<SqmExpression> arguments = new ArrayList<>();
+			final List<SqmExpression> arguments = new ArrayList<>( expression.getExpressions().size() );
+			boolean changed = false;
 			for ( SqmExpression argument : expression.getExpressions() ) {
-				arguments.add( (SqmExpression) argument.accept( this ) );
+				final SqmExpression argumentCopy = copy( argument );
+				changed |= argumentCopy != argument;
+				arguments.add( argumentCopy );
 			}
 
+			if ( !changed ) {
+				return expression;
+			}
 			return new ConcatFunctionSqmExpression(
 					expression.getFunctionResultType(),
 					arguments
 			);
 		}
 
-		@Override
-		@SuppressWarnings("unchecked")
-		public ConstantEnumSqmExpression visitConstantEnumExpression(ConstantEnumSqmExpression expression) {
-			return new ConstantEnumSqmExpression( expression.getValue(), expression.getExpressionType() );
-		}
-
-		@Override
-		@SuppressWarnings("unchecked")
-		public ConstantFieldSqmExpression visitConstantFieldExpression(ConstantFieldSqmExpression expression) {
-			return new ConstantFieldSqmExpression( expression.getSourceField(), expression.getValue(), expression.getExpressionType() );
-		}
-
 		@Override
 		public BinaryArithmeticSqmExpression visitBinaryArithmeticExpression(BinaryArithmeticSqmExpression expression) {
+			final SqmExpression lhs = copy( expression.getLeftHandOperand() );
+			final SqmExpression rhs = copy( expression.getRightHandOperand() );
+			if ( lhs == expression.getLeftHandOperand() && rhs == expression.getRightHandOperand() ) {
+				return expression;
+			}
 			return new BinaryArithmeticSqmExpression(
 					expression.getOperation(),
-					(SqmExpression) expression.getLeftHandOperand().accept( this ),
-					(SqmExpression) expression.getRightHandOperand().accept( this ),
+					lhs,
+					rhs,
 					expression.getExpressionType()
 			);
 		}
 
 		@Override
 		public SubQuerySqmExpression visitSubQueryExpression(SubQuerySqmExpression expression) {
+			final SqmQuerySpec querySpec = visitQuerySpec( expression.getQuerySpec() );
+			if ( querySpec == expression.getQuerySpec() ) {
+				return expression;
+			}
 			return new SubQuerySqmExpression(
-					visitQuerySpec( expression.getQuerySpec() ),
+					querySpec,
 					// assume already validated
 					expression.getQuerySpec().getSelectClause().getSelections().get( 0 ).getExpression().getExpressionType()
 			);
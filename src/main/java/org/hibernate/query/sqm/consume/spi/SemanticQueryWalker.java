@@ -67,6 +67,9 @@ import org.hibernate.query.sqm.tree.from.SqmCrossJoin;
 import org.hibernate.query.sqm.tree.from.SqmEntityJoin;
 import org.hibernate.query.sqm.tree.from.SqmFromClause;
 import org.hibernate.query.sqm.tree.from.SqmRoot;
+import org.hibernate.query.sqm.tree.group.SqmGroupByClause;
+import org.hibernate.query.sqm.tree.group.SqmGrouping;
+import org.hibernate.query.sqm.tree.group.SqmHavingClause;
 import org.hibernate.query.sqm.tree.order.SqmOrderByClause;
 import org.hibernate.query.sqm.tree.order.SqmSortSpecification;
 import org.hibernate.query.sqm.tree.paging.SqmLimitOffsetClause;
@@ -77,7 +80,9 @@ import org.hibernate.query.sqm.tree.predicate.EmptinessSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.GroupedSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.InListSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.InSubQuerySqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.JunctionSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.LikeSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.LiteralInListSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.MemberOfSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.NegatedSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.NullnessSqmPredicate;
@@ -130,12 +135,20 @@ public interface SemanticQueryWalker<T> {
 
 	T visitWhereClause(SqmWhereClause whereClause);
 
+	T visitGroupByClause(SqmGroupByClause groupByClause);
+
+	T visitGrouping(SqmGrouping grouping);
+
+	T visitHavingClause(SqmHavingClause havingClause);
+
 	T visitGroupedPredicate(GroupedSqmPredicate predicate);
 
 	T visitAndPredicate(AndSqmPredicate predicate);
 
 	T visitOrPredicate(OrSqmPredicate predicate);
 
+	T visitJunctionPredicate(JunctionSqmPredicate predicate);
+
 	T visitRelationalPredicate(RelationalSqmPredicate predicate);
 
 	T visitIsEmptyPredicate(EmptinessSqmPredicate predicate);
@@ -152,6 +165,8 @@ public interface SemanticQueryWalker<T> {
 
 	T visitInListPredicate(InListSqmPredicate predicate);
 
+	T visitLiteralInListPredicate(LiteralInListSqmPredicate predicate);
+
 	T visitInSubQueryPredicate(InSubQuerySqmPredicate predicate);
 
 	T visitBooleanExpressionPredicate(BooleanExpressionSqmPredicate predicate);
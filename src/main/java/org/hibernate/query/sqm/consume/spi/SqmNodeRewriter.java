@@ -0,0 +1,25 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.consume.spi;
+
+/**
+ * Rewrites the nodes of a tree, bottom-up, through {@link SqmTreeTraversal#rewrite}.
+ */
+@FunctionalInterface
+public interface SqmNodeRewriter {
+	/**
+	 * Rewrite the given node.  Called once the children of the node have been rewritten;
+	 * if any of them was replaced, the node passed here is already a copy of the original
+	 * node referencing the replacements.
+	 *
+	 * @param node The node
+	 *
+	 * @return The replacement for the node, or the node itself to keep it.  The replacement
+	 * must be of a type accepted in the node's position in its parent.
+	 */
+	Object rewrite(Object node);
+}
@@ -0,0 +1,39 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.consume.spi;
+
+import org.hibernate.query.sqm.tree.SqmStatement;
+
+/**
+ * An optimization pass of a {@link SqmRewritePipeline} : rewrites a statement into an
+ * equivalent one (simplifying expressions, eliminating joins, rewriting sub-queries...).
+ * <p/>
+ * Passes are shared by all the interpretations of a SessionFactory, so they must be
+ * thread-safe; any state needed while rewriting a statement belongs to that rewrite.
+ *
+ * @see BaseSqmRewritePass
+ */
+public interface SqmRewritePass {
+	/**
+	 * The name of the pass, identifying it in the pipeline's statistics and configuration
+	 *
+	 * @return The name
+	 */
+	String getName();
+
+	/**
+	 * Rewrite the given statement.  The statement must not be mutated : the pass returns
+	 * a new statement (of the same kind) if it changed anything, typically built through
+	 * {@link SqmTreeTraversal#rewrite} so that the unchanged parts are shared.
+	 *
+	 * @param statement The statement to rewrite
+	 * @param traversal A traversal the pass may use for the duration of the call
+	 *
+	 * @return The rewritten statement, or {@code statement} itself if the pass changed nothing
+	 */
+	SqmStatement rewrite(SqmStatement statement, SqmTreeTraversal traversal);
+}
@@ -0,0 +1,134 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.consume.spi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.query.sqm.tree.SqmStatement;
+
+/**
+ * An ordered list of {@link SqmRewritePass rewrite passes}, optimizing the statements built
+ * by the producer before they are handed to the consumer.
+ * <p/>
+ * As a pass may open opportunities for the others (or for itself), the passes are run in
+ * rounds until the statement reaches a fixed point : the rewrite stops once every pass has
+ * run, in turn, without changing the statement - or once the budget of rounds runs out, in
+ * which case the statement is as rewritten so far.  Whether a pass changed the statement is
+ * told by its returning a new statement.
+ * <p/>
+ * A pipeline is immutable, and is generally configured per SessionFactory (see
+ * {@link #withoutPass} to turn off a pass).
+ */
+public class SqmRewritePipeline {
+	/**
+	 * The default maximum number of rounds of the passes
+	 */
+	public static final int DEFAULT_MAX_ITERATIONS = 4;
+
+	/**
+	 * The pipeline without passes, leaving statements as they are built
+	 */
+	public static final SqmRewritePipeline NONE = new SqmRewritePipeline( Collections.emptyList() );
+
+	private final List<SqmRewritePass> passes;
+	private final int maxIterations;
+
+	public SqmRewritePipeline(List<? extends SqmRewritePass> passes) {
+		this( passes, DEFAULT_MAX_ITERATIONS );
+	}
+
+	/**
+	 * Creates the pipeline of the given passes.
+	 *
+	 * @param passes The passes, in the order they are to be run in each round
+	 * @param maxIterations The maximum number of rounds of the passes; at least 1
+	 */
+	public SqmRewritePipeline(List<? extends SqmRewritePass> passes, int maxIterations) {
+		if ( maxIterations < 1 ) {
+			throw new IllegalArgumentException( "The maximum number of iterations must be at least 1 : " + maxIterations );
+		}
+		this.passes = Collections.unmodifiableList( new ArrayList<>( passes ) );
+		this.maxIterations = maxIterations;
+	}
+
+	public List<SqmRewritePass> getPasses() {
+		return passes;
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public boolean isEmpty() {
+		return passes.isEmpty();
+	}
+
+	/**
+	 * The pipeline without the named pass
+	 *
+	 * @param passName The name of the pass to leave out
+	 *
+	 * @return The pipeline of the other passes, or this pipeline if it has no such pass
+	 */
+	public SqmRewritePipeline withoutPass(String passName) {
+		final List<SqmRewritePass> remainingPasses = new ArrayList<>( passes.size() );
+		for ( SqmRewritePass pass : passes ) {
+			if ( !pass.getName().equals( passName ) ) {
+				remainingPasses.add( pass );
+			}
+		}
+		if ( remainingPasses.size() == passes.size() ) {
+			return this;
+		}
+		return new SqmRewritePipeline( remainingPasses, maxIterations );
+	}
+
+	/**
+	 * Run the statement through the passes.
+	 *
+	 * @param statement The statement to rewrite
+	 *
+	 * @return The rewritten statement and the statistics of the passes
+	 */
+	public SqmRewriteResult rewrite(SqmStatement statement) {
+		if ( passes.isEmpty() ) {
+			return new SqmRewriteResult( statement, 0, true, Collections.emptyList() );
+		}
+
+		final SqmTreeTraversal traversal = new SqmTreeTraversal();
+		final List<SqmRewriteResult.PassExecution> passExecutions = new ArrayList<>();
+
+		SqmStatement current = statement;
+		// the number of passes run, in a row, since the statement last changed
+		int unchangedRuns = 0;
+		int iteration = 0;
+		while ( unchangedRuns < passes.size() && iteration < maxIterations ) {
+			iteration++;
+			for ( int i = 0; i < passes.size() && unchangedRuns < passes.size(); i++ ) {
+				final SqmRewritePass pass = passes.get( i );
+
+				final long start = System.nanoTime();
+				final SqmStatement rewritten = pass.rewrite( current, traversal );
+				final long nanos = System.nanoTime() - start;
+
+				final boolean changed = rewritten != current;
+				passExecutions.add( new SqmRewriteResult.PassExecution( pass.getName(), iteration, nanos, changed ) );
+				if ( changed ) {
+					current = rewritten;
+					unchangedRuns = 0;
+				}
+				else {
+					unchangedRuns++;
+				}
+			}
+		}
+
+		return new SqmRewriteResult( current, iteration, unchangedRuns == passes.size(), passExecutions );
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.consume.spi;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.query.sqm.tree.SqmStatement;
+
+/**
+ * The outcome of running a statement through a {@link SqmRewritePipeline} : the rewritten
+ * statement, and the time taken and change made by each run of each pass.
+ */
+public class SqmRewriteResult {
+	private final SqmStatement statement;
+	private final int iterationCount;
+	private final boolean fixedPointReached;
+	private final List<PassExecution> passExecutions;
+
+	public SqmRewriteResult(
+			SqmStatement statement,
+			int iterationCount,
+			boolean fixedPointReached,
+			List<PassExecution> passExecutions) {
+		this.statement = statement;
+		this.iterationCount = iterationCount;
+		this.fixedPointReached = fixedPointReached;
+		this.passExecutions = Collections.unmodifiableList( passExecutions );
+	}
+
+	/**
+	 * The rewritten statement
+	 *
+	 * @return The statement, which is the original one if no pass changed anything
+	 */
+	public SqmStatement getStatement() {
+		return statement;
+	}
+
+	/**
+	 * Did any pass change the statement?
+	 *
+	 * @return {@code true} if the statement was rewritten
+	 */
+	public boolean isChanged() {
+		for ( PassExecution passExecution : passExecutions ) {
+			if ( passExecution.isChanged() ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The number of iterations (rounds of the passes) started
+	 *
+	 * @return The iteration count
+	 */
+	public int getIterationCount() {
+		return iterationCount;
+	}
+
+	/**
+	 * Was the rewrite stopped because no pass could change the statement anymore (rather than
+	 * because the pipeline's iteration budget ran out)?
+	 *
+	 * @return {@code true} if the rewritten statement is a fixed point of the passes
+	 */
+	public boolean isFixedPointReached() {
+		return fixedPointReached;
+	}
+
+	/**
+	 * The runs of the passes, in order
+	 *
+	 * @return The pass executions
+	 */
+	public List<PassExecution> getPassExecutions() {
+		return passExecutions;
+	}
+
+	/**
+	 * The time taken by all the runs of all the passes
+	 *
+	 * @param unit The unit in which to express the time
+	 *
+	 * @return The total time
+	 */
+	public long getTotalTime(TimeUnit unit) {
+		long nanos = 0;
+		for ( PassExecution passExecution : passExecutions ) {
+			nanos += passExecution.nanos;
+		}
+		return unit.convert( nanos, TimeUnit.NANOSECONDS );
+	}
+
+	/**
+	 * The time taken by all the runs of the named pass
+	 *
+	 * @param passName The name of the pass
+	 * @param unit The unit in which to express the time
+	 *
+	 * @return The time taken by the pass
+	 */
+	public long getPassTime(String passName, TimeUnit unit) {
+		long nanos = 0;
+		for ( PassExecution passExecution : passExecutions ) {
+			if ( passExecution.passName.equals( passName ) ) {
+				nanos += passExecution.nanos;
+			}
+		}
+		return unit.convert( nanos, TimeUnit.NANOSECONDS );
+	}
+
+	@Override
+	public String toString() {
+		return "SqmRewriteResult(changed=" + isChanged()
+				+ ", iterations=" + iterationCount
+				+ ", fixedPoint=" + fixedPointReached
+				+ ", total=" + getTotalTime( TimeUnit.MICROSECONDS ) + "us"
+				+ ", passes=" + passExecutions + ")";
+	}
+
+	/**
+	 * One run of one pass
+	 */
+	public static class PassExecution {
+		private final String passName;
+		private final int iteration;
+		private final long nanos;
+		private final boolean changed;
+
+		public PassExecution(String passName, int iteration, long nanos, boolean changed) {
+			this.passName = passName;
+			this.iteration = iteration;
+			this.nanos = nanos;
+			this.changed = changed;
+		}
+
+		public String getPassName() {
+			return passName;
+		}
+
+		/**
+		 * The (1-based) iteration during which the pass ran
+		 *
+		 * @return The iteration
+		 */
+		public int getIteration() {
+			return iteration;
+		}
+
+		public long getTime(TimeUnit unit) {
+			return unit.convert( nanos, TimeUnit.NANOSECONDS );
+		}
+
+		/**
+		 * Did this run of the pass change the statement?
+		 *
+		 * @return {@code true} if the pass returned a new statement
+		 */
+		public boolean isChanged() {
+			return changed;
+		}
+
+		@Override
+		public String toString() {
+			return passName + "#" + iteration + "(" + ( changed ? "changed" : "unchanged" )
+					+ ", " + getTime( TimeUnit.MICROSECONDS ) + "us)";
+		}
+	}
+}
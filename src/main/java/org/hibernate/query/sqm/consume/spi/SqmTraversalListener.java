@@ -0,0 +1,31 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.consume.spi;
+
+/**
+ * Callbacks for the nodes visited by {@link SqmTreeTraversal#traverse}, in depth-first order.
+ * <p/>
+ * The nodes are passed as {@code Object}, as the tree is made of several unrelated node
+ * types (statements, clauses, from-elements, expressions, predicates...).
+ */
+public interface SqmTraversalListener {
+	/**
+	 * Called before the children of the node are visited.
+	 *
+	 * @param node The node
+	 *
+	 * @return {@code false} to skip the children of the node (and {@link #postVisit} for it)
+	 */
+	boolean preVisit(Object node);
+
+	/**
+	 * Called once all the children of the node have been visited.
+	 *
+	 * @param node The node
+	 */
+	void postVisit(Object node);
+}
@@ -0,0 +1,1228 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.consume.spi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.query.sqm.tree.SqmDeleteStatement;
+import org.hibernate.query.sqm.tree.SqmInsertSelectStatement;
+import org.hibernate.query.sqm.tree.SqmQuerySpec;
+import org.hibernate.query.sqm.tree.SqmSelectStatement;
+import org.hibernate.query.sqm.tree.SqmStatement;
+import org.hibernate.query.sqm.tree.SqmUpdateStatement;
+import org.hibernate.query.sqm.tree.expression.BinaryArithmeticSqmExpression;
+import org.hibernate.query.sqm.tree.expression.CaseSearchedSqmExpression;
+import org.hibernate.query.sqm.tree.expression.CaseSimpleSqmExpression;
+import org.hibernate.query.sqm.tree.expression.CoalesceSqmExpression;
+import org.hibernate.query.sqm.tree.expression.CollectionSizeSqmExpression;
+import org.hibernate.query.sqm.tree.expression.ConcatSqmExpression;
+import org.hibernate.query.sqm.tree.expression.NamedParameterSqmExpression;
+import org.hibernate.query.sqm.tree.expression.NullifSqmExpression;
+import org.hibernate.query.sqm.tree.expression.PositionalParameterSqmExpression;
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.query.sqm.tree.expression.SubQuerySqmExpression;
+import org.hibernate.query.sqm.tree.expression.UnaryOperationSqmExpression;
+import org.hibernate.query.sqm.tree.expression.domain.SqmPluralAttributeReference;
+import org.hibernate.query.sqm.tree.expression.domain.SqmSingularAttributeReference;
+import org.hibernate.query.sqm.tree.expression.function.AvgFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.CastFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.ConcatFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.CountFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.GenericFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.LowerFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.MaxFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.MinFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.SubstringFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.SumFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.TrimFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.UpperFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.from.SqmAttributeJoin;
+import org.hibernate.query.sqm.tree.from.SqmEntityJoin;
+import org.hibernate.query.sqm.tree.from.SqmFrom;
+import org.hibernate.query.sqm.tree.from.SqmFromClause;
+import org.hibernate.query.sqm.tree.from.SqmFromElementSpace;
+import org.hibernate.query.sqm.tree.from.SqmJoin;
+import org.hibernate.query.sqm.tree.from.SqmRoot;
+import org.hibernate.query.sqm.tree.group.SqmGroupByClause;
+import org.hibernate.query.sqm.tree.group.SqmGrouping;
+import org.hibernate.query.sqm.tree.group.SqmHavingClause;
+import org.hibernate.query.sqm.tree.internal.AbstractSqmStatement;
+import org.hibernate.query.sqm.tree.internal.SqmDeleteStatementImpl;
+import org.hibernate.query.sqm.tree.internal.SqmInsertSelectStatementImpl;
+import org.hibernate.query.sqm.tree.internal.SqmSelectStatementImpl;
+import org.hibernate.query.sqm.tree.internal.SqmUpdateStatementImpl;
+import org.hibernate.query.sqm.tree.order.SqmOrderByClause;
+import org.hibernate.query.sqm.tree.order.SqmSortSpecification;
+import org.hibernate.query.sqm.tree.paging.SqmLimitOffsetClause;
+import org.hibernate.query.sqm.tree.predicate.AndSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.BetweenSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.BooleanExpressionSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.EmptinessSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.GroupedSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.InListSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.InSubQuerySqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.JunctionSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.LikeSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.LiteralInListSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.MemberOfSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.NegatedSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.NullnessSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.OrSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.RelationalSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmWhereClause;
+import org.hibernate.query.sqm.tree.select.SqmDynamicInstantiation;
+import org.hibernate.query.sqm.tree.select.SqmDynamicInstantiationArgument;
+import org.hibernate.query.sqm.tree.select.SqmSelectClause;
+import org.hibernate.query.sqm.tree.select.SqmSelection;
+import org.hibernate.query.sqm.tree.set.SqmAssignment;
+import org.hibernate.query.sqm.tree.set.SqmSetClause;
+
+/**
+ * Depth-first traversal of an SQM tree (or of any part of it) which, unlike
+ * {@link BaseSemanticQueryWalker}, does not recurse : the pending nodes are kept on an explicit,
+ * array-backed stack, so that the depth of the tree (e.g. a long chain of {@code ||}
+ * concatenations or {@code +} operations, which the parser nests on the left-hand side) is
+ * bounded by the heap rather than by the thread's stack size.
+ * <p/>
+ * Two modes are supported :<ul>
+ *     <li>
+ *         {@link #traverse} calls a {@link SqmTraversalListener} before (pre-order) and after
+ *         (post-order) visiting the children of each node
+ *     </li>
+ *     <li>
+ *         {@link #rewrite} calls a {@link SqmNodeRewriter} for each node, bottom-up.  Nodes
+ *         are never mutated : a node is copied (referencing the replacements) only when at
+ *         least one of its children was replaced, so that unchanged sub-trees are shared
+ *         between the original and the rewritten tree.  The from-clause is not descended
+ *         into in this mode, as its from-elements are referenced from the rest of the tree.
+ *     </li>
+ * </ul>
+ * Unlike the walker, the traversal also descends into the arguments of functions, the
+ * operands of arithmetic operations, CASE expressions, sub-queries and dynamic instantiations.
+ * The navigable references (attribute references, etc) are leaves.
+ * <p/>
+ * The stacks are grown as needed and kept between runs, so an instance may be reused, but
+ * it is neither thread-safe nor reentrant (a listener or rewriter must not use the same
+ * instance).
+ */
+public class SqmTreeTraversal {
+	private static final int NOT_EXPANDED = -1;
+
+	private final ChildCollector childCollector = new ChildCollector();
+	private final NodeRebuilder nodeRebuilder = new NodeRebuilder();
+
+	// the nodes waiting to be visited (or to be completed, once their children are pushed)
+	private Object[] pendingNodes = new Object[32];
+	// NOT_EXPANDED, or (once the children are pushed) the position of the node's first child result
+	private int[] pendingMarks = new int[32];
+	private int pendingCount;
+
+	// rewrite mode : the rewritten children of the nodes being completed
+	private Object[] results = new Object[32];
+	private boolean[] resultReplaced = new boolean[32];
+	private int resultCount;
+
+	/**
+	 * Visit the given node and all its descendants, in depth-first order.
+	 *
+	 * @param root The node to start from
+	 * @param listener The callbacks
+	 */
+	public void traverse(Object root, SqmTraversalListener listener) {
+		push( root );
+		try {
+			while ( pendingCount > 0 ) {
+				final int top = pendingCount - 1;
+				final Object node = pendingNodes[top];
+
+				if ( pendingMarks[top] != NOT_EXPANDED ) {
+					pop();
+					listener.postVisit( node );
+					continue;
+				}
+
+				if ( !listener.preVisit( node ) ) {
+					pop();
+					continue;
+				}
+
+				pendingMarks[top] = 0;
+				pushChildren( node, false );
+			}
+		}
+		finally {
+			clear();
+		}
+	}
+
+	/**
+	 * Rewrite the given node and its descendants, bottom-up.
+	 *
+	 * @param root The node to start from
+	 * @param rewriter The rewriter
+	 *
+	 * @return The rewritten node, which is {@code root} itself if nothing was replaced
+	 */
+	public Object rewrite(Object root, SqmNodeRewriter rewriter) {
+		push( root );
+		try {
+			while ( pendingCount > 0 ) {
+				final int top = pendingCount - 1;
+				final Object node = pendingNodes[top];
+
+				if ( node == null ) {
+					// an absent optional child (e.g. the LIKE escape character)
+					pop();
+					pushResult( null, false );
+					continue;
+				}
+
+				if ( pendingMarks[top] == NOT_EXPANDED ) {
+					pendingMarks[top] = resultCount;
+					pushChildren( node, true );
+					continue;
+				}
+
+				final int firstChild = pendingMarks[top];
+				pop();
+
+				boolean childReplaced = false;
+				for ( int i = firstChild; i < resultCount; i++ ) {
+					if ( resultReplaced[i] ) {
+						childReplaced = true;
+						break;
+					}
+				}
+
+				final Object rebuilt = childReplaced
+						? nodeRebuilder.rebuild( node, results, firstChild, resultCount - firstChild )
+						: node;
+				Arrays.fill( results, firstChild, resultCount, null );
+				resultCount = firstChild;
+
+				final Object rewritten = rewriter.rewrite( rebuilt );
+				pushResult( rewritten, rewritten != node );
+			}
+
+			return results[0];
+		}
+		finally {
+			clear();
+		}
+	}
+
+	private void pushChildren(Object node, boolean rewriting) {
+		final Object[] children = childCollector.collect( node, !rewriting );
+		// pushed in reverse so that they are visited in order
+		for ( int i = childCollector.count - 1; i >= 0; i-- ) {
+			if ( children[i] != null || rewriting ) {
+				push( children[i] );
+			}
+		}
+		childCollector.clear();
+	}
+
+	private void push(Object node) {
+		if ( pendingCount == pendingNodes.length ) {
+			pendingNodes = Arrays.copyOf( pendingNodes, pendingCount * 2 );
+			pendingMarks = Arrays.copyOf( pendingMarks, pendingCount * 2 );
+		}
+		pendingNodes[pendingCount] = node;
+		pendingMarks[pendingCount] = NOT_EXPANDED;
+		pendingCount++;
+	}
+
+	private void pop() {
+		pendingNodes[--pendingCount] = null;
+	}
+
+	private void pushResult(Object result, boolean replaced) {
+		if ( resultCount == results.length ) {
+			results = Arrays.copyOf( results, resultCount * 2 );
+			resultReplaced = Arrays.copyOf( resultReplaced, resultCount * 2 );
+		}
+		results[resultCount] = result;
+		resultReplaced[resultCount] = replaced;
+		resultCount++;
+	}
+
+	private void clear() {
+		Arrays.fill( pendingNodes, 0, pendingCount, null );
+		pendingCount = 0;
+		Arrays.fill( results, 0, resultCount, null );
+		resultCount = 0;
+	}
+
+	/**
+	 * Dispatch the given node to the walker, including the structural nodes (clauses, etc)
+	 * which do not accept walkers themselves
+	 */
+	private static Object dispatch(Object node, SemanticQueryWalker<Object> walker) {
+		if ( node instanceof SqmExpression ) {
+			return ( (SqmExpression) node ).accept( walker );
+		}
+		else if ( node instanceof SqmPredicate ) {
+			return ( (SqmPredicate) node ).accept( walker );
+		}
+		else if ( node instanceof SqmFrom ) {
+			return ( (SqmFrom) node ).accept( walker );
+		}
+		else if ( node instanceof SqmStatement ) {
+			return ( (SqmStatement) node ).accept( walker );
+		}
+		else if ( node instanceof SqmQuerySpec ) {
+			return walker.visitQuerySpec( (SqmQuerySpec) node );
+		}
+		else if ( node instanceof SqmSelectClause ) {
+			return walker.visitSelectClause( (SqmSelectClause) node );
+		}
+		else if ( node instanceof SqmSelection ) {
+			return walker.visitSelection( (SqmSelection) node );
+		}
+		else if ( node instanceof SqmWhereClause ) {
+			return walker.visitWhereClause( (SqmWhereClause) node );
+		}
+		else if ( node instanceof SqmGroupByClause ) {
+			return walker.visitGroupByClause( (SqmGroupByClause) node );
+		}
+		else if ( node instanceof SqmGrouping ) {
+			return walker.visitGrouping( (SqmGrouping) node );
+		}
+		else if ( node instanceof SqmHavingClause ) {
+			return walker.visitHavingClause( (SqmHavingClause) node );
+		}
+		else if ( node instanceof SqmFromClause ) {
+			return walker.visitFromClause( (SqmFromClause) node );
+		}
+		else if ( node instanceof SqmFromElementSpace ) {
+			return walker.visitFromElementSpace( (SqmFromElementSpace) node );
+		}
+		else if ( node instanceof SqmOrderByClause ) {
+			return walker.visitOrderByClause( (SqmOrderByClause) node );
+		}
+		else if ( node instanceof SqmSortSpecification ) {
+			return walker.visitSortSpecification( (SqmSortSpecification) node );
+		}
+		else if ( node instanceof SqmLimitOffsetClause ) {
+			return walker.visitLimitOffsetClause( (SqmLimitOffsetClause) node );
+		}
+		else if ( node instanceof SqmSetClause ) {
+			return walker.visitSetClause( (SqmSetClause) node );
+		}
+		else if ( node instanceof SqmAssignment ) {
+			return walker.visitAssignment( (SqmAssignment) node );
+		}
+
+		throw new IllegalArgumentException( "Unexpected SQM node type : " + node.getClass().getName() );
+	}
+
+	/**
+	 * Collects the (direct) children of a node, in order, without descending any further.
+	 * Absent optional children are collected as {@code null}, so that each kind of node has
+	 * its children at fixed positions (see {@link NodeRebuilder}).
+	 */
+	private static class ChildCollector extends BaseSemanticQueryWalker<Object> {
+		private Object[] children = new Object[8];
+		private int count;
+		private boolean includeFromClause;
+
+		private Object[] collect(Object node, boolean includeFromClause) {
+			clear();
+			this.includeFromClause = includeFromClause;
+			if ( node instanceof SqmDynamicInstantiationArgument ) {
+				add( ( (SqmDynamicInstantiationArgument) node ).getExpression() );
+			}
+			else {
+				dispatch( node, this );
+			}
+			return children;
+		}
+
+		private void clear() {
+			Arrays.fill( children, 0, count, null );
+			count = 0;
+		}
+
+		private void add(Object child) {
+			if ( count == children.length ) {
+				children = Arrays.copyOf( children, count * 2 );
+			}
+			children[count++] = child;
+		}
+
+		private void addAll(List<?> children) {
+			for ( Object child : children ) {
+				add( child );
+			}
+		}
+
+		@Override
+		public Object visitSelectStatement(SqmSelectStatement statement) {
+			add( statement.getQuerySpec() );
+			return null;
+		}
+
+		@Override
+		public Object visitUpdateStatement(SqmUpdateStatement statement) {
+			add( statement.getEntityFromElement() );
+			add( statement.getSetClause() );
+			add( statement.getWhereClause() );
+			return null;
+		}
+
+		@Override
+		public Object visitSetClause(SqmSetClause setClause) {
+			addAll( setClause.getAssignments() );
+			return null;
+		}
+
+		@Override
+		public Object visitAssignment(SqmAssignment assignment) {
+			add( assignment.getStateField() );
+			add( assignment.getValue() );
+			return null;
+		}
+
+		@Override
+		public Object visitInsertSelectStatement(SqmInsertSelectStatement statement) {
+			add( statement.getInsertTarget() );
+			addAll( statement.getStateFields() );
+			add( statement.getSelectQuery() );
+			return null;
+		}
+
+		@Override
+		public Object visitDeleteStatement(SqmDeleteStatement statement) {
+			add( statement.getEntityFromElement() );
+			add( statement.getWhereClause() );
+			return null;
+		}
+
+		@Override
+		public Object visitQuerySpec(SqmQuerySpec querySpec) {
+			add( querySpec.getFromClause() );
+			add( querySpec.getSelectClause() );
+			add( querySpec.getWhereClause() );
+			add( querySpec.getGroupByClause() );
+			add( querySpec.getHavingClause() );
+			add( querySpec.getOrderByClause() );
+			add( querySpec.getLimitOffsetClause() );
+			return null;
+		}
+
+		@Override
+		public Object visitFromClause(SqmFromClause fromClause) {
+			if ( includeFromClause ) {
+				addAll( fromClause.getFromElementSpaces() );
+			}
+			return null;
+		}
+
+		@Override
+		public Object visitFromElementSpace(SqmFromElementSpace fromElementSpace) {
+			add( fromElementSpace.getRoot() );
+			for ( SqmJoin join : fromElementSpace.getJoins() ) {
+				add( join );
+			}
+			return null;
+		}
+
+		@Override
+		public Object visitQualifiedEntityJoinFromElement(SqmEntityJoin joinedFromElement) {
+			add( joinedFromElement.getOnClausePredicate() );
+			return null;
+		}
+
+		@Override
+		public Object visitQualifiedAttributeJoinFromElement(SqmAttributeJoin joinedFromElement) {
+			add( joinedFromElement.getOnClausePredicate() );
+			return null;
+		}
+
+		@Override
+		public Object visitSelectClause(SqmSelectClause selectClause) {
+			addAll( selectClause.getSelections() );
+			return null;
+		}
+
+		@Override
+		public Object visitSelection(SqmSelection selection) {
+			add( selection.getExpression() );
+			return null;
+		}
+
+		@Override
+		public Object visitDynamicInstantiation(SqmDynamicInstantiation dynamicInstantiation) {
+			if ( dynamicInstantiation.getArguments() != null ) {
+				addAll( dynamicInstantiation.getArguments() );
+			}
+			return null;
+		}
+
+		@Override
+		public Object visitWhereClause(SqmWhereClause whereClause) {
+			add( whereClause.getPredicate() );
+			return null;
+		}
+
+		@Override
+		public Object visitGroupByClause(SqmGroupByClause groupByClause) {
+			addAll( groupByClause.getGroupings() );
+			return null;
+		}
+
+		@Override
+		public Object visitGrouping(SqmGrouping grouping) {
+			add( grouping.getExpression() );
+			return null;
+		}
+
+		@Override
+		public Object visitHavingClause(SqmHavingClause havingClause) {
+			add( havingClause.getPredicate() );
+			return null;
+		}
+
+		@Override
+		public Object visitGroupedPredicate(GroupedSqmPredicate predicate) {
+			add( predicate.getSubPredicate() );
+			return null;
+		}
+
+		@Override
+		public Object visitAndPredicate(AndSqmPredicate predicate) {
+			add( predicate.getLeftHandPredicate() );
+			add( predicate.getRightHandPredicate() );
+			return null;
+		}
+
+		@Override
+		public Object visitOrPredicate(OrSqmPredicate predicate) {
+			add( predicate.getLeftHandPredicate() );
+			add( predicate.getRightHandPredicate() );
+			return null;
+		}
+
+		@Override
+		public Object visitJunctionPredicate(JunctionSqmPredicate predicate) {
+			addAll( predicate.getPredicates() );
+			return null;
+		}
+
+		@Override
+		public Object visitRelationalPredicate(RelationalSqmPredicate predicate) {
+			add( predicate.getLeftHandExpression() );
+			add( predicate.getRightHandExpression() );
+			return null;
+		}
+
+		@Override
+		public Object visitIsEmptyPredicate(EmptinessSqmPredicate predicate) {
+			add( predicate.getExpression() );
+			return null;
+		}
+
+		@Override
+		public Object visitIsNullPredicate(NullnessSqmPredicate predicate) {
+			add( predicate.getExpression() );
+			return null;
+		}
+
+		@Override
+		public Object visitBetweenPredicate(BetweenSqmPredicate predicate) {
+			add( predicate.getExpression() );
+			add( predicate.getLowerBound() );
+			add( predicate.getUpperBound() );
+			return null;
+		}
+
+		@Override
+		public Object visitLikePredicate(LikeSqmPredicate predicate) {
+			add( predicate.getMatchExpression() );
+			add( predicate.getPattern() );
+			add( predicate.getEscapeCharacter() );
+			return null;
+		}
+
+		@Override
+		public Object visitMemberOfPredicate(MemberOfSqmPredicate predicate) {
+			add( predicate.getPluralAttributeReference() );
+			return null;
+		}
+
+		@Override
+		public Object visitNegatedPredicate(NegatedSqmPredicate predicate) {
+			add( predicate.getWrappedPredicate() );
+			return null;
+		}
+
+		@Override
+		public Object visitInListPredicate(InListSqmPredicate predicate) {
+			add( predicate.getTestExpression() );
+			addAll( predicate.getListExpressions() );
+			return null;
+		}
+
+		@Override
+		public Object visitLiteralInListPredicate(LiteralInListSqmPredicate predicate) {
+			add( predicate.getTestExpression() );
+			return null;
+		}
+
+		@Override
+		public Object visitInSubQueryPredicate(InSubQuerySqmPredicate predicate) {
+			add( predicate.getTestExpression() );
+			add( predicate.getSubQueryExpression() );
+			return null;
+		}
+
+		@Override
+		public Object visitBooleanExpressionPredicate(BooleanExpressionSqmPredicate predicate) {
+			add( predicate.getBooleanExpression() );
+			return null;
+		}
+
+		@Override
+		public Object visitOrderByClause(SqmOrderByClause orderByClause) {
+			addAll( orderByClause.getSortSpecifications() );
+			return null;
+		}
+
+		@Override
+		public Object visitSortSpecification(SqmSortSpecification sortSpecification) {
+			add( sortSpecification.getSortExpression() );
+			return null;
+		}
+
+		@Override
+		public Object visitLimitOffsetClause(SqmLimitOffsetClause limitOffsetClause) {
+			add( limitOffsetClause.getLimitExpression() );
+			add( limitOffsetClause.getOffsetExpression() );
+			return null;
+		}
+
+		@Override
+		public Object visitUnaryOperationExpression(UnaryOperationSqmExpression expression) {
+			add( expression.getOperand() );
+			return null;
+		}
+
+		@Override
+		public Object visitGenericFunction(GenericFunctionSqmExpression expression) {
+			addAll( expression.getArguments() );
+			return null;
+		}
+
+		@Override
+		public Object visitCastFunction(CastFunctionSqmExpression expression) {
+			add( expression.getExpressionToCast() );
+			return null;
+		}
+
+		@Override
+		public Object visitAvgFunction(AvgFunctionSqmExpression expression) {
+			add( expression.getArgument() );
+			return null;
+		}
+
+		@Override
+		public Object visitCountFunction(CountFunctionSqmExpression expression) {
+			add( expression.getArgument() );
+			return null;
+		}
+
+		@Override
+		public Object visitMaxFunction(MaxFunctionSqmExpression expression) {
+			add( expression.getArgument() );
+			return null;
+		}
+
+		@Override
+		public Object visitMinFunction(MinFunctionSqmExpression expression) {
+			add( expression.getArgument() );
+			return null;
+		}
+
+		@Override
+		public Object visitSumFunction(SumFunctionSqmExpression expression) {
+			add( expression.getArgument() );
+			return null;
+		}
+
+		@Override
+		public Object visitPluralAttributeSizeFunction(CollectionSizeSqmExpression function) {
+			add( function.getPluralAttributeBinding() );
+			return null;
+		}
+
+		@Override
+		public Object visitConcatExpression(ConcatSqmExpression expression) {
+			add( expression.getLeftHandOperand() );
+			add( expression.getRightHandOperand() );
+			return null;
+		}
+
+		@Override
+		public Object visitConcatFunction(ConcatFunctionSqmExpression expression) {
+			addAll( expression.getExpressions() );
+			return null;
+		}
+
+		@Override
+		public Object visitBinaryArithmeticExpression(BinaryArithmeticSqmExpression expression) {
+			add( expression.getLeftHandOperand() );
+			add( expression.getRightHandOperand() );
+			return null;
+		}
+
+		@Override
+		public Object visitSubQueryExpression(SubQuerySqmExpression expression) {
+			add( expression.getQuerySpec() );
+			return null;
+		}
+
+		@Override
+		public Object visitSimpleCaseExpression(CaseSimpleSqmExpression expression) {
+			add( expression.getFixture() );
+			for ( CaseSimpleSqmExpression.WhenFragment whenFragment : expression.getWhenFragments() ) {
+				add( whenFragment.getCheckValue() );
+				add( whenFragment.getResult() );
+			}
+			add( expression.getOtherwise() );
+			return null;
+		}
+
+		@Override
+		public Object visitSearchedCaseExpression(CaseSearchedSqmExpression expression) {
+			for ( CaseSearchedSqmExpression.WhenFragment whenFragment : expression.getWhenFragments() ) {
+				add( whenFragment.getPredicate() );
+				add( whenFragment.getResult() );
+			}
+			add( expression.getOtherwise() );
+			return null;
+		}
+
+		@Override
+		public Object visitCoalesceExpression(CoalesceSqmExpression expression) {
+			addAll( expression.getValues() );
+			return null;
+		}
+
+		@Override
+		public Object visitNullifExpression(NullifSqmExpression expression) {
+			add( expression.getFirstArgument() );
+			add( expression.getSecondArgument() );
+			return null;
+		}
+
+		@Override
+		public Object visitSubstringFunction(SubstringFunctionSqmExpression expression) {
+			add( expression.getSource() );
+			add( expression.getStartPosition() );
+			add( expression.getLength() );
+			return null;
+		}
+
+		@Override
+		public Object visitTrimFunction(TrimFunctionSqmExpression expression) {
+			add( expression.getTrimCharacter() );
+			add( expression.getSource() );
+			return null;
+		}
+
+		@Override
+		public Object visitUpperFunction(UpperFunctionSqmExpression expression) {
+			add( expression.getExpression() );
+			return null;
+		}
+
+		@Override
+		public Object visitLowerFunction(LowerFunctionSqmExpression expression) {
+			add( expression.getExpression() );
+			return null;
+		}
+	}
+
+	/**
+	 * Builds the copy of a node referencing the given (rewritten) children, found at the
+	 * positions {@link ChildCollector} collects them at.
+	 */
+	private static class NodeRebuilder extends BaseSemanticQueryWalker<Object> {
+		private Object[] children;
+		private int offset;
+		private int count;
+
+		private Object rebuild(Object node, Object[] children, int offset, int count) {
+			this.children = children;
+			this.offset = offset;
+			this.count = count;
+			try {
+				if ( node instanceof SqmDynamicInstantiationArgument ) {
+					return new SqmDynamicInstantiationArgument(
+							(SqmExpression) child( 0 ),
+							( (SqmDynamicInstantiationArgument) node ).getAlias()
+					);
+				}
+				return dispatch( node, this );
+			}
+			finally {
+				this.children = null;
+			}
+		}
+
+		private Object child(int position) {
+			return children[offset + position];
+		}
+
+		@SuppressWarnings("unchecked")
+		private <X> List<X> childList(int from, int to) {
+			final List<X> list = new ArrayList<>( to - from );
+			for ( int i = from; i < to; i++ ) {
+				list.add( (X) child( i ) );
+			}
+			return list;
+		}
+
+		/**
+		 * Complete the copy of a statement the way the producers do, registering the
+		 * parameters found in the copy's tree (the rewrite may have removed or introduced
+		 * some) before wrapping it up
+		 */
+		private static Object completeStatement(AbstractSqmStatement copy) {
+			new SqmTreeTraversal().traverse(
+					copy,
+					new SqmTraversalListener() {
+						@Override
+						public boolean preVisit(Object node) {
+							if ( node instanceof NamedParameterSqmExpression ) {
+								copy.addParameter( (NamedParameterSqmExpression) node );
+							}
+							else if ( node instanceof PositionalParameterSqmExpression ) {
+								copy.addParameter( (PositionalParameterSqmExpression) node );
+							}
+							return true;
+						}
+
+						@Override
+						public void postVisit(Object node) {
+						}
+					}
+			);
+			copy.wrapUp();
+			return copy;
+		}
+
+		@Override
+		public Object visitSelectStatement(SqmSelectStatement statement) {
+			final SqmSelectStatementImpl copy = new SqmSelectStatementImpl();
+			copy.applyQuerySpec( (SqmQuerySpec) child( 0 ) );
+			return completeStatement( copy );
+		}
+
+		@Override
+		public Object visitUpdateStatement(SqmUpdateStatement statement) {
+			final SqmUpdateStatementImpl copy = new SqmUpdateStatementImpl( (SqmRoot) child( 0 ) );
+			for ( SqmAssignment assignment : ( (SqmSetClause) child( 1 ) ).getAssignments() ) {
+				copy.getSetClause().addAssignment( assignment );
+			}
+			copy.getWhereClause().setPredicate( ( (SqmWhereClause) child( 2 ) ).getPredicate() );
+			return completeStatement( copy );
+		}
+
+		@Override
+		public Object visitSetClause(SqmSetClause setClause) {
+			final SqmSetClause copy = new SqmSetClause();
+			for ( int i = 0; i < count; i++ ) {
+				copy.addAssignment( (SqmAssignment) child( i ) );
+			}
+			return copy;
+		}
+
+		@Override
+		public Object visitAssignment(SqmAssignment assignment) {
+			return new SqmAssignment( (SqmSingularAttributeReference) child( 0 ), (SqmExpression) child( 1 ) );
+		}
+
+		@Override
+		public Object visitInsertSelectStatement(SqmInsertSelectStatement statement) {
+			final SqmInsertSelectStatementImpl copy = new SqmInsertSelectStatementImpl( (SqmRoot) child( 0 ) );
+			for ( int i = 1; i < count - 1; i++ ) {
+				copy.addInsertTargetStateField( (SqmSingularAttributeReference) child( i ) );
+			}
+			copy.setSelectQuery( (SqmQuerySpec) child( count - 1 ) );
+			return completeStatement( copy );
+		}
+
+		@Override
+		public Object visitDeleteStatement(SqmDeleteStatement statement) {
+			final SqmDeleteStatementImpl copy = new SqmDeleteStatementImpl( (SqmRoot) child( 0 ) );
+			copy.getWhereClause().setPredicate( ( (SqmWhereClause) child( 1 ) ).getPredicate() );
+			return completeStatement( copy );
+		}
+
+		@Override
+		public Object visitQuerySpec(SqmQuerySpec querySpec) {
+			return new SqmQuerySpec(
+					(SqmFromClause) child( 0 ),
+					(SqmSelectClause) child( 1 ),
+					(SqmWhereClause) child( 2 ),
+					(SqmGroupByClause) child( 3 ),
+					(SqmHavingClause) child( 4 ),
+					(SqmOrderByClause) child( 5 ),
+					(SqmLimitOffsetClause) child( 6 )
+			);
+		}
+
+		@Override
+		public Object visitSelectClause(SqmSelectClause selectClause) {
+			return new SqmSelectClause( selectClause.isDistinct(), this.<SqmSelection>childList( 0, count ) );
+		}
+
+		@Override
+		public Object visitSelection(SqmSelection selection) {
+			return new SqmSelection( (SqmExpression) child( 0 ), selection.getAlias() );
+		}
+
+		@Override
+		public Object visitDynamicInstantiation(SqmDynamicInstantiation dynamicInstantiation) {
+			final SqmDynamicInstantiation copy = dynamicInstantiation.makeShallowCopy();
+			for ( int i = 0; i < count; i++ ) {
+				copy.add( (SqmDynamicInstantiationArgument) child( i ) );
+			}
+			return copy;
+		}
+
+		@Override
+		public Object visitWhereClause(SqmWhereClause whereClause) {
+			return new SqmWhereClause( (SqmPredicate) child( 0 ) );
+		}
+
+		@Override
+		public Object visitGroupByClause(SqmGroupByClause groupByClause) {
+			final SqmGroupByClause copy = new SqmGroupByClause();
+			for ( int i = 0; i < count; i++ ) {
+				copy.addGrouping( (SqmGrouping) child( i ) );
+			}
+			return copy;
+		}
+
+		@Override
+		public Object visitGrouping(SqmGrouping grouping) {
+			return new SqmGrouping( (SqmExpression) child( 0 ), grouping.getCollation() );
+		}
+
+		@Override
+		public Object visitHavingClause(SqmHavingClause havingClause) {
+			return new SqmHavingClause( (SqmPredicate) child( 0 ) );
+		}
+
+		@Override
+		public Object visitGroupedPredicate(GroupedSqmPredicate predicate) {
+			return new GroupedSqmPredicate( (SqmPredicate) child( 0 ) );
+		}
+
+		@Override
+		public Object visitAndPredicate(AndSqmPredicate predicate) {
+			return new AndSqmPredicate( (SqmPredicate) child( 0 ), (SqmPredicate) child( 1 ) );
+		}
+
+		@Override
+		public Object visitOrPredicate(OrSqmPredicate predicate) {
+			return new OrSqmPredicate( (SqmPredicate) child( 0 ), (SqmPredicate) child( 1 ) );
+		}
+
+		@Override
+		public Object visitJunctionPredicate(JunctionSqmPredicate predicate) {
+			return new JunctionSqmPredicate( predicate.getNature(), this.<SqmPredicate>childList( 0, count ) );
+		}
+
+		@Override
+		public Object visitRelationalPredicate(RelationalSqmPredicate predicate) {
+			return new RelationalSqmPredicate(
+					predicate.getOperator(),
+					(SqmExpression) child( 0 ),
+					(SqmExpression) child( 1 )
+			);
+		}
+
+		@Override
+		public Object visitIsEmptyPredicate(EmptinessSqmPredicate predicate) {
+			return new EmptinessSqmPredicate( (SqmPluralAttributeReference) child( 0 ), predicate.isNegated() );
+		}
+
+		@Override
+		public Object visitIsNullPredicate(NullnessSqmPredicate predicate) {
+			return new NullnessSqmPredicate( (SqmExpression) child( 0 ), predicate.isNegated() );
+		}
+
+		@Override
+		public Object visitBetweenPredicate(BetweenSqmPredicate predicate) {
+			return new BetweenSqmPredicate(
+					(SqmExpression) child( 0 ),
+					(SqmExpression) child( 1 ),
+					(SqmExpression) child( 2 ),
+					predicate.isNegated()
+			);
+		}
+
+		@Override
+		public Object visitLikePredicate(LikeSqmPredicate predicate) {
+			return new LikeSqmPredicate(
+					(SqmExpression) child( 0 ),
+					(SqmExpression) child( 1 ),
+					(SqmExpression) child( 2 ),
+					predicate.isNegated()
+			);
+		}
+
+		@Override
+		public Object visitMemberOfPredicate(MemberOfSqmPredicate predicate) {
+			return new MemberOfSqmPredicate( (SqmPluralAttributeReference) child( 0 ), predicate.isNegated() );
+		}
+
+		@Override
+		public Object visitNegatedPredicate(NegatedSqmPredicate predicate) {
+			return new NegatedSqmPredicate( (SqmPredicate) child( 0 ) );
+		}
+
+		@Override
+		public Object visitInListPredicate(InListSqmPredicate predicate) {
+			return new InListSqmPredicate(
+					(SqmExpression) child( 0 ),
+					this.<SqmExpression>childList( 1, count ),
+					predicate.isNegated()
+			);
+		}
+
+		@Override
+		public Object visitLiteralInListPredicate(LiteralInListSqmPredicate predicate) {
+			return new LiteralInListSqmPredicate( (SqmExpression) child( 0 ), predicate );
+		}
+
+		@Override
+		public Object visitInSubQueryPredicate(InSubQuerySqmPredicate predicate) {
+			return new InSubQuerySqmPredicate(
+					(SqmExpression) child( 0 ),
+					(SubQuerySqmExpression) child( 1 ),
+					predicate.isNegated()
+			);
+		}
+
+		@Override
+		public Object visitBooleanExpressionPredicate(BooleanExpressionSqmPredicate predicate) {
+			return new BooleanExpressionSqmPredicate( (SqmExpression) child( 0 ) );
+		}
+
+		@Override
+		public Object visitOrderByClause(SqmOrderByClause orderByClause) {
+			final SqmOrderByClause copy = new SqmOrderByClause();
+			for ( int i = 0; i < count; i++ ) {
+				copy.addSortSpecification( (SqmSortSpecification) child( i ) );
+			}
+			return copy;
+		}
+
+		@Override
+		public Object visitSortSpecification(SqmSortSpecification sortSpecification) {
+			return new SqmSortSpecification(
+					(SqmExpression) child( 0 ),
+					sortSpecification.getCollation(),
+					sortSpecification.getSortOrder()
+			);
+		}
+
+		@Override
+		public Object visitLimitOffsetClause(SqmLimitOffsetClause limitOffsetClause) {
+			return new SqmLimitOffsetClause( (SqmExpression) child( 0 ), (SqmExpression) child( 1 ) );
+		}
+
+		@Override
+		public Object visitUnaryOperationExpression(UnaryOperationSqmExpression expression) {
+			return new UnaryOperationSqmExpression(
+					expression.getOperation(),
+					(SqmExpression) child( 0 ),
+					expression.getExpressionType()
+			);
+		}
+
+		@Override
+		public Object visitGenericFunction(GenericFunctionSqmExpression expression) {
+			return new GenericFunctionSqmExpression(
+					expression.getFunctionName(),
+					expression.getFunctionResultType(),
+					this.<SqmExpression>childList( 0, count )
+			);
+		}
+
+		@Override
+		public Object visitCastFunction(CastFunctionSqmExpression expression) {
+			return new CastFunctionSqmExpression( (SqmExpression) child( 0 ), expression.getFunctionResultType() );
+		}
+
+		@Override
+		public Object visitAvgFunction(AvgFunctionSqmExpression expression) {
+			return new AvgFunctionSqmExpression(
+					(SqmExpression) child( 0 ),
+					expression.isDistinct(),
+					expression.getFunctionResultType()
+			);
+		}
+
+		@Override
+		public Object visitCountFunction(CountFunctionSqmExpression expression) {
+			return new CountFunctionSqmExpression(
+					(SqmExpression) child( 0 ),
+					expression.isDistinct(),
+					expression.getFunctionResultType()
+			);
+		}
+
+		@Override
+		public Object visitMaxFunction(MaxFunctionSqmExpression expression) {
+			return new MaxFunctionSqmExpression(
+					(SqmExpression) child( 0 ),
+					expression.isDistinct(),
+					expression.getFunctionResultType()
+			);
+		}
+
+		@Override
+		public Object visitMinFunction(MinFunctionSqmExpression expression) {
+			return new MinFunctionSqmExpression(
+					(SqmExpression) child( 0 ),
+					expression.isDistinct(),
+					expression.getFunctionResultType()
+			);
+		}
+
+		@Override
+		public Object visitSumFunction(SumFunctionSqmExpression expression) {
+			return new SumFunctionSqmExpression(
+					(SqmExpression) child( 0 ),
+					expression.isDistinct(),
+					expression.getFunctionResultType()
+			);
+		}
+
+		@Override
+		public Object visitPluralAttributeSizeFunction(CollectionSizeSqmExpression function) {
+			return new CollectionSizeSqmExpression(
+					(SqmPluralAttributeReference) child( 0 ),
+					function.getExpressionType()
+			);
+		}
+
+		@Override
+		public Object visitConcatExpression(ConcatSqmExpression expression) {
+			return new ConcatSqmExpression(
+					(SqmExpression) child( 0 ),
+					(SqmExpression) child( 1 ),
+					expression.getExpressionType()
+			);
+		}
+
+		@Override
+		public Object visitConcatFunction(ConcatFunctionSqmExpression expression) {
+			return new ConcatFunctionSqmExpression(
+					expression.getFunctionResultType(),
+					this.<SqmExpression>childList( 0, count )
+			);
+		}
+
+		@Override
+		public Object visitBinaryArithmeticExpression(BinaryArithmeticSqmExpression expression) {
+			return new BinaryArithmeticSqmExpression(
+					expression.getOperation(),
+					(SqmExpression) child( 0 ),
+					(SqmExpression) child( 1 ),
+					expression.getExpressionType()
+			);
+		}
+
+		@Override
+		public Object visitSubQueryExpression(SubQuerySqmExpression expression) {
+			return new SubQuerySqmExpression( (SqmQuerySpec) child( 0 ), expression.getExpressionType() );
+		}
+
+		@Override
+		public Object visitSimpleCaseExpression(CaseSimpleSqmExpression expression) {
+			final CaseSimpleSqmExpression copy = new CaseSimpleSqmExpression( (SqmExpression) child( 0 ) );
+			for ( int i = 1; i < count - 1; i += 2 ) {
+				copy.when( (SqmExpression) child( i ), (SqmExpression) child( i + 1 ) );
+			}
+			if ( child( count - 1 ) != null ) {
+				copy.otherwise( (SqmExpression) child( count - 1 ) );
+			}
+			if ( expression.getImpliedType() != null ) {
+				copy.impliedType( expression.getImpliedType() );
+			}
+			return copy;
+		}
+
+		@Override
+		public Object visitSearchedCaseExpression(CaseSearchedSqmExpression expression) {
+			final CaseSearchedSqmExpression copy = new CaseSearchedSqmExpression();
+			for ( int i = 0; i < count - 1; i += 2 ) {
+				copy.when( (SqmPredicate) child( i ), (SqmExpression) child( i + 1 ) );
+			}
+			if ( child( count - 1 ) != null ) {
+				copy.otherwise( (SqmExpression) child( count - 1 ) );
+			}
+			if ( expression.getImpliedType() != null ) {
+				copy.impliedType( expression.getImpliedType() );
+			}
+			return copy;
+		}
+
+		@Override
+		public Object visitCoalesceExpression(CoalesceSqmExpression expression) {
+			final CoalesceSqmExpression copy = new CoalesceSqmExpression();
+			for ( int i = 0; i < count; i++ ) {
+				copy.value( (SqmExpression) child( i ) );
+			}
+			return copy;
+		}
+
+		@Override
+		public Object visitNullifExpression(NullifSqmExpression expression) {
+			return new NullifSqmExpression( (SqmExpression) child( 0 ), (SqmExpression) child( 1 ) );
+		}
+
+		@Override
+		public Object visitSubstringFunction(SubstringFunctionSqmExpression expression) {
+			return new SubstringFunctionSqmExpression(
+					expression.getFunctionResultType(),
+					(SqmExpression) child( 0 ),
+					(SqmExpression) child( 1 ),
+					(SqmExpression) child( 2 )
+			);
+		}
+
+		@Override
+		public Object visitTrimFunction(TrimFunctionSqmExpression expression) {
+			return new TrimFunctionSqmExpression(
+					expression.getFunctionResultType(),
+					expression.getSpecification(),
+					(SqmExpression) child( 0 ),
+					(SqmExpression) child( 1 )
+			);
+		}
+
+		@Override
+		public Object visitUpperFunction(UpperFunctionSqmExpression expression) {
+			return new UpperFunctionSqmExpression( expression.getFunctionResultType(), (SqmExpression) child( 0 ) );
+		}
+
+		@Override
+		public Object visitLowerFunction(LowerFunctionSqmExpression expression) {
+			return new LowerFunctionSqmExpression( expression.getFunctionResultType(), (SqmExpression) child( 0 ) );
+		}
+	}
+}
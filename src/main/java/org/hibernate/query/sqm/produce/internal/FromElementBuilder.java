@@ -42,16 +42,32 @@ public class FromElementBuilder {
 
 	private final ParsingContext parsingContext;
 	private final AliasRegistry aliasRegistry;
+	private final UnqualifiedAttributeIndex unqualifiedAttributeIndex;
 
 	public FromElementBuilder(ParsingContext parsingContext, AliasRegistry aliasRegistry) {
+		this( parsingContext, aliasRegistry, null );
+	}
+
+	public FromElementBuilder(
+			ParsingContext parsingContext,
+			AliasRegistry aliasRegistry,
+			UnqualifiedAttributeIndex unqualifiedAttributeIndex) {
 		this.parsingContext = parsingContext;
 		this.aliasRegistry = aliasRegistry;
+		this.unqualifiedAttributeIndex = unqualifiedAttributeIndex;
 	}
 
 	public AliasRegistry getAliasRegistry(){
 		return aliasRegistry;
 	}
 
+	/**
+	 * The index of from-elements by exposed attribute name maintained by this builder, if any.
+	 */
+	public UnqualifiedAttributeIndex getUnqualifiedAttributeIndex() {
+		return unqualifiedAttributeIndex;
+	}
+
 	/**
 	 * Make the root entity reference for the FromElementSpace
 	 */
@@ -59,14 +75,6 @@ public class FromElementBuilder {
 			SqmFromElementSpace fromElementSpace,
 			EntityValuedExpressableType entityBinding,
 			String alias) {
-		if ( alias == null ) {
-			alias = parsingContext.getImplicitAliasGenerator().buildUniqueImplicitAlias();
-			log.debugf(
-					"Generated implicit alias [%s] for root entity reference [%s]",
-					alias,
-					entityBinding.getEntityName()
-			);
-		}
 		final SqmRoot root = new SqmRoot(
 				fromElementSpace,
 				parsingContext.makeUniqueIdentifier(),
@@ -75,7 +83,8 @@ public class FromElementBuilder {
 		);
 		fromElementSpace.setRoot( root );
 		parsingContext.registerFromElementByUniqueId( root );
-		registerAlias( root );
+		registerAlias( root, alias );
+		registerExposedAttributes( fromElementSpace, root );
 		return root;
 	}
 
@@ -85,18 +94,9 @@ public class FromElementBuilder {
 	 */
 	public SqmCrossJoin makeCrossJoinedFromElement(
 			SqmFromElementSpace fromElementSpace,
-			String uid,
+			int uid,
 			EntityValuedExpressableType entityToJoin,
 			String alias) {
-		if ( alias == null ) {
-			alias = parsingContext.getImplicitAliasGenerator().buildUniqueImplicitAlias();
-			log.debugf(
-					"Generated implicit alias [%s] for cross joined entity reference [%s]",
-					alias,
-					entityToJoin.getEntityName()
-			);
-		}
-
 		final SqmCrossJoin join = new SqmCrossJoin(
 				fromElementSpace,
 				uid,
@@ -105,7 +105,8 @@ public class FromElementBuilder {
 		);
 		fromElementSpace.addJoin( join );
 		parsingContext.registerFromElementByUniqueId( join );
-		registerAlias( join );
+		registerAlias( join, alias );
+		registerExposedAttributes( fromElementSpace, join );
 		return join;
 	}
 
@@ -114,15 +115,6 @@ public class FromElementBuilder {
 			String alias,
 			EntityValuedExpressableType entityToJoin,
 			SqmJoinType joinType) {
-		if ( alias == null ) {
-			alias = parsingContext.getImplicitAliasGenerator().buildUniqueImplicitAlias();
-			log.debugf(
-					"Generated implicit alias [%s] for entity join [%s]",
-					alias,
-					entityToJoin.getEntityName()
-			);
-		}
-
 		final SqmEntityJoin join = new SqmEntityJoin(
 				fromElementSpace,
 				parsingContext.makeUniqueIdentifier(),
@@ -132,7 +124,8 @@ public class FromElementBuilder {
 		);
 		fromElementSpace.addJoin( join );
 		parsingContext.registerFromElementByUniqueId( join );
-		registerAlias( join );
+		registerAlias( join, alias );
+		registerExposedAttributes( fromElementSpace, join );
 		return join;
 	}
 
@@ -157,16 +150,6 @@ public class FromElementBuilder {
 
 		// todo : validate alias & fetched?  JPA at least disallows specifying an alias for fetched associations
 
-		if ( alias == null ) {
-			alias = parsingContext.getImplicitAliasGenerator().buildUniqueImplicitAlias();
-			log.debugf(
-					"Generated implicit alias [%s] for attribute join [%s.%s]",
-					alias,
-					attributeBinding.getSourceReference().getExportedFromElement().getIdentificationVariable(),
-					attributeBinding.getReferencedNavigable().getAttributeName()
-			);
-		}
-
 		SqmAttributeJoin join = null;
 		if ( canReuseImplicitJoins ) {
 			final SqmNavigableReference navigableBinding = parsingContext.getCachedNavigableBinding( attributeBinding.getSourceReference(), attributeBinding.getReferencedNavigable() );
@@ -189,7 +172,7 @@ public class FromElementBuilder {
 			}
 
 			parsingContext.registerFromElementByUniqueId( join );
-			registerAlias( join );
+			registerAlias( join, alias );
 
 			if ( !SqmExpressableTypeEmbedded.class.isInstance( attributeBinding.getReferencedNavigable() ) ) {
 				// it's a composite-valued navigable, create a join but do not register it
@@ -197,24 +180,34 @@ public class FromElementBuilder {
 
 				// unless this is a collection element or index...
 
-				attributeBinding.getSourceReference().getExportedFromElement().getContainingSpace().addJoin( join );
+				final SqmFromElementSpace space = attributeBinding.getSourceReference().getExportedFromElement().getContainingSpace();
+				space.addJoin( join );
+				registerExposedAttributes( space, join );
 			}
 		}
 
 		return join;
 	}
 
-	private void registerAlias(SqmFrom sqmFrom) {
-		final String alias = sqmFrom.getIdentificationVariable();
-
-		if ( alias == null ) {
-			throw new ParsingException( "FromElement alias was null" );
-		}
-
-		if ( ImplicitAliasGenerator.isImplicitAlias( alias ) ) {
-			log.debug( "Alias registration for implicit FromElement alias : " + alias );
+	/**
+	 * Register the from-element's alias, if it was given one explicitly.  Implicit aliases
+	 * cannot be referenced from the query, so they are not registered (nor rendered).
+	 *
+	 * @param sqmFrom The from-element
+	 * @param explicitAlias The alias given to it in the query, or {@code null}
+	 */
+	public void registerAlias(SqmFrom sqmFrom, String explicitAlias) {
+		if ( ImplicitAliasGenerator.isImplicitAlias( explicitAlias ) ) {
+			log.tracef( "Skipping alias registration for FromElement with implicit alias : %s", sqmFrom.getBinding() );
+			return;
 		}
 
 		aliasRegistry.registerAlias( sqmFrom.getBinding() );
 	}
+
+	private void registerExposedAttributes(SqmFromElementSpace space, SqmFrom sqmFrom) {
+		if ( unqualifiedAttributeIndex != null ) {
+			unqualifiedAttributeIndex.register( space, sqmFrom.getBinding() );
+		}
+	}
 }
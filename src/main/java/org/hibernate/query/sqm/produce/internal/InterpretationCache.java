@@ -0,0 +1,199 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.produce.internal;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A bounded, concurrent cache of interpretation results (SQM trees).
+ * <p/>
+ * Lookups are lock-free.  Recency is tracked via a logical clock stamped on
+ * each entry when it is accessed; once the cache grows beyond its maximum size
+ * the least-recently-used entries are evicted in a batch (down to
+ * {@link #EVICTION_LOAD_FACTOR} of the maximum size) by whichever thread
+ * happens to win the eviction lock.  That makes the eviction approximate LRU,
+ * but keeps the common (hit) path free of any locking.
+ * <p/>
+ * The interpretation itself is performed outside of any lock - two threads
+ * interpreting the same key concurrently will both do the work and the first
+ * one to finish wins.  Failed interpretations (exceptions) are never cached.
+ *
+ * @param <K> The cache key type
+ * @param <V> The cached interpretation type
+ */
+public class InterpretationCache<K,V> {
+	private static final Logger log = Logger.getLogger( InterpretationCache.class );
+
+	/**
+	 * The default maximum number of cached interpretations
+	 */
+	public static final int DEFAULT_MAX_SIZE = 2048;
+
+	/**
+	 * When eviction is triggered, entries are evicted until the cache is at
+	 * this fraction of its maximum size.
+	 */
+	public static final float EVICTION_LOAD_FACTOR = 0.9f;
+
+	private final int maxSize;
+	private final int evictionTargetSize;
+
+	private final ConcurrentHashMap<K,Entry<V>> entryMap;
+	private final AtomicLong clock = new AtomicLong();
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+
+	public InterpretationCache(int maxSize) {
+		if ( maxSize < 1 ) {
+			throw new IllegalArgumentException( "InterpretationCache max size must be greater than zero : " + maxSize );
+		}
+		this.maxSize = maxSize;
+		this.evictionTargetSize = Math.max( 1, (int) ( maxSize * EVICTION_LOAD_FACTOR ) );
+		this.entryMap = new ConcurrentHashMap<>( Math.min( maxSize, 256 ) );
+	}
+
+	/**
+	 * Get the cached interpretation for the given key, performing (and caching)
+	 * the interpretation if not already cached.
+	 *
+	 * @param key The cache key
+	 * @param interpreter The function used to perform the interpretation on a cache miss
+	 *
+	 * @return The cached or newly performed interpretation
+	 */
+	public V resolve(K key, Function<K,V> interpreter) {
+		final Entry<V> existing = entryMap.get( key );
+		if ( existing != null ) {
+			hitCount.increment();
+			existing.lastAccess = clock.incrementAndGet();
+			return existing.value;
+		}
+
+		missCount.increment();
+		final V interpretation = interpreter.apply( key );
+		if ( interpretation == null ) {
+			return null;
+		}
+
+		final Entry<V> entry = new Entry<>( interpretation, clock.incrementAndGet() );
+		final Entry<V> race = entryMap.putIfAbsent( key, entry );
+		if ( race != null ) {
+			// another thread cached it while we were interpreting; share theirs
+			return race.value;
+		}
+
+		if ( entryMap.size() > maxSize ) {
+			evict();
+		}
+
+		return interpretation;
+	}
+
+	private void evict() {
+		if ( !evictionLock.tryLock() ) {
+			// another thread is already evicting
+			return;
+		}
+
+		try {
+			final int excess = entryMap.size() - evictionTargetSize;
+			if ( excess <= 0 ) {
+				return;
+			}
+
+			// select the `excess` least recently used entries : keep a max-heap
+			// (by access stamp, captured once so that concurrent hits cannot
+			// corrupt the heap ordering) of the oldest entries seen so far
+			final PriorityQueue<EvictionCandidate<K,V>> oldest = new PriorityQueue<>(
+					excess,
+					Comparator.comparingLong( (EvictionCandidate<K,V> candidate) -> candidate.stamp ).reversed()
+			);
+			for ( Map.Entry<K,Entry<V>> mapEntry : entryMap.entrySet() ) {
+				final long stamp = mapEntry.getValue().lastAccess;
+				if ( oldest.size() < excess ) {
+					oldest.add( new EvictionCandidate<>( mapEntry.getKey(), mapEntry.getValue(), stamp ) );
+				}
+				else if ( stamp < oldest.peek().stamp ) {
+					oldest.poll();
+					oldest.add( new EvictionCandidate<>( mapEntry.getKey(), mapEntry.getValue(), stamp ) );
+				}
+			}
+
+			for ( EvictionCandidate<K,V> victim : oldest ) {
+				if ( entryMap.remove( victim.key, victim.entry ) ) {
+					evictionCount.increment();
+				}
+			}
+
+			log.debugf( "Evicted %s entries from interpretation cache", oldest.size() );
+		}
+		finally {
+			evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Remove all cached interpretations.  The hit/miss/eviction counts are not reset.
+	 */
+	public void clear() {
+		entryMap.clear();
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public int size() {
+		return entryMap.size();
+	}
+
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictionCount.sum();
+	}
+
+	private static class Entry<V> {
+		private final V value;
+		private volatile long lastAccess;
+
+		private Entry(V value, long lastAccess) {
+			this.value = value;
+			this.lastAccess = lastAccess;
+		}
+	}
+
+	private static class EvictionCandidate<K,V> {
+		private final K key;
+		private final Entry<V> entry;
+		private final long stamp;
+
+		private EvictionCandidate(K key, Entry<V> entry, long stamp) {
+			this.key = key;
+			this.entry = entry;
+			this.stamp = stamp;
+		}
+	}
+}
@@ -67,7 +67,10 @@ public class QuerySpecProcessingStateDmlImpl extends AbstractQuerySpecProcessing
 	}
 
 	private boolean rootExposesAttribute(String attributeName) {
-		return null != fromClause.fromElementSpace.getRoot().getBinding().getReferencedNavigable().findNavigable( attributeName );
+		return null != getParsingContext().findNavigable(
+				fromClause.fromElementSpace.getRoot().getBinding().getReferencedNavigable(),
+				attributeName
+		);
 	}
 
 	@Override
@@ -131,7 +134,7 @@ public class QuerySpecProcessingStateDmlImpl extends AbstractQuerySpecProcessing
 
 		@Override
 		public SqmCrossJoin makeCrossJoinedFromElement(
-				SqmFromElementSpace fromElementSpace, String uid, SqmExpressableTypeEntity entityType, String alias) {
+				SqmFromElementSpace fromElementSpace, int uid, SqmExpressableTypeEntity entityType, String alias) {
 			throw new ParsingException( "DML from-clause cannot define joins" );
 		}
 
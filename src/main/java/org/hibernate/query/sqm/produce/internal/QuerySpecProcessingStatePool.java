@@ -0,0 +1,35 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.produce.internal;
+
+import org.hibernate.internal.util.collections.StackDepthPool;
+import org.hibernate.query.sqm.produce.spi.ParsingContext;
+import org.hibernate.query.sqm.produce.spi.QuerySpecProcessingState;
+
+/**
+ * Pools the query-spec processing states of a single interpretation by the depth of their
+ * stack, the context being the state of the containing query (if any).
+ */
+public class QuerySpecProcessingStatePool
+		extends StackDepthPool<QuerySpecProcessingStateStandardImpl,QuerySpecProcessingState> {
+	private final ParsingContext parsingContext;
+
+	public QuerySpecProcessingStatePool(ParsingContext parsingContext) {
+		super( 2 );
+		this.parsingContext = parsingContext;
+	}
+
+	@Override
+	protected QuerySpecProcessingStateStandardImpl create(QuerySpecProcessingState containingQueryState) {
+		return new QuerySpecProcessingStateStandardImpl( parsingContext, containingQueryState );
+	}
+
+	@Override
+	protected void reset(QuerySpecProcessingStateStandardImpl state, QuerySpecProcessingState containingQueryState) {
+		state.reset( containingQueryState );
+	}
+}
@@ -9,14 +9,10 @@ package org.hibernate.query.sqm.produce.internal;
 import org.hibernate.query.sqm.produce.spi.AliasRegistry;
 import org.hibernate.query.sqm.produce.spi.FromElementLocator;
 import org.hibernate.query.sqm.produce.spi.ParsingContext;
-import org.hibernate.query.sqm.domain.SqmNavigable;
 import org.hibernate.query.sqm.produce.spi.AbstractQuerySpecProcessingState;
 import org.hibernate.query.sqm.produce.spi.QuerySpecProcessingState;
 import org.hibernate.query.sqm.tree.expression.domain.SqmNavigableReference;
-import org.hibernate.query.sqm.tree.expression.domain.SqmNavigableSourceReference;
-import org.hibernate.query.sqm.tree.from.SqmFromElementSpace;
 import org.hibernate.query.sqm.tree.from.SqmFromClause;
-import org.hibernate.query.sqm.tree.from.SqmJoin;
 
 import org.jboss.logging.Logger;
 
@@ -30,7 +26,7 @@ import org.jboss.logging.Logger;
 public class QuerySpecProcessingStateStandardImpl extends AbstractQuerySpecProcessingState {
 	private static final Logger log = Logger.getLogger( QuerySpecProcessingStateStandardImpl.class );
 
-	private final SqmFromClause fromClause;
+	private SqmFromClause fromClause;
 
 	private final FromElementBuilder fromElementBuilder;
 
@@ -40,12 +36,47 @@ public class QuerySpecProcessingStateStandardImpl extends AbstractQuerySpecProce
 		this.fromClause = new SqmFromClause();
 
 		if ( containingQueryState == null ) {
-			this.fromElementBuilder = new FromElementBuilder( parsingContext, new AliasRegistry() );
+			this.fromElementBuilder = new FromElementBuilder(
+					parsingContext,
+					new AliasRegistry(),
+					new UnqualifiedAttributeIndex( fromClause, parsingContext.getNavigableResolutionCache() )
+			);
 		}
 		else {
 			this.fromElementBuilder = new FromElementBuilder(
 					parsingContext,
-					new AliasRegistry( containingQueryState.getFromElementBuilder().getAliasRegistry() )
+					new AliasRegistry( containingQueryState.getFromElementBuilder().getAliasRegistry() ),
+					new UnqualifiedAttributeIndex(
+							fromClause,
+							containingQueryState.getFromElementBuilder().getUnqualifiedAttributeIndex(),
+							parsingContext.getNavigableResolutionCache()
+					)
+			);
+		}
+	}
+
+	/**
+	 * Prepare this state for another query spec of the same parse (see
+	 * {@link AbstractQuerySpecProcessingState#reset}).  The from-clause is part of the built
+	 * tree and so is re-created; the alias registry and attribute index are cleared.
+	 *
+	 * @param containingQueryState The state of the containing query, if any
+	 */
+	@Override
+	public void reset(QuerySpecProcessingState containingQueryState) {
+		super.reset( containingQueryState );
+
+		this.fromClause = new SqmFromClause();
+
+		if ( containingQueryState == null ) {
+			fromElementBuilder.getAliasRegistry().reset( null );
+			fromElementBuilder.getUnqualifiedAttributeIndex().reset( fromClause, null );
+		}
+		else {
+			fromElementBuilder.getAliasRegistry().reset( containingQueryState.getFromElementBuilder().getAliasRegistry() );
+			fromElementBuilder.getUnqualifiedAttributeIndex().reset(
+					fromClause,
+					containingQueryState.getFromElementBuilder().getUnqualifiedAttributeIndex()
 			);
 		}
 	}
@@ -66,28 +97,12 @@ public class QuerySpecProcessingStateStandardImpl extends AbstractQuerySpecProce
 
 	@Override
 	public SqmNavigableReference findNavigableBindingExposingAttribute(String name) {
-		SqmNavigableReference found = null;
-		for ( SqmFromElementSpace space : fromClause.getFromElementSpaces() ) {
-			if ( definesAttribute( space.getRoot().getBinding(), name ) ) {
-				if ( found != null ) {
-					throw new IllegalStateException( "Multiple from-elements expose unqualified attribute : " + name );
-				}
-				found = space.getRoot().getBinding();
-			}
-
-			for ( SqmJoin join : space.getJoins() ) {
-				if ( definesAttribute( join.getBinding(), name ) ) {
-					if ( found != null ) {
-						throw new IllegalStateException( "Multiple from-elements expose unqualified attribute : " + name );
-					}
-					found = join.getBinding();
-				}
-			}
-		}
+		// the from-elements are indexed by exposed attribute name as FromElementBuilder builds them
+		SqmNavigableReference found = fromElementBuilder.getUnqualifiedAttributeIndex().findNavigableBindingExposingAttribute( name );
 
 		if ( found == null ) {
 			if ( getContainingQueryState() != null ) {
-				log.debugf( "Unable to resolve unqualified attribute [%s] in local SqmFromClause; checking containingQueryState" );
+				log.debugf( "Unable to resolve unqualified attribute [%s] in local SqmFromClause; checking containingQueryState", name );
 				found = getContainingQueryState().findNavigableBindingExposingAttribute( name );
 			}
 		}
@@ -95,20 +110,6 @@ public class QuerySpecProcessingStateStandardImpl extends AbstractQuerySpecProce
 		return found;
 	}
 
-	private boolean definesAttribute(SqmNavigableReference sourceBinding, String name) {
-		if ( !SqmNavigableSourceReference.class.isInstance( sourceBinding ) ) {
-			return false;
-		}
-
-		final SqmNavigable navigable = ( (SqmNavigableSourceReference) sourceBinding ).getReferencedNavigable().findNavigable( name );
-		return navigable != null;
-	}
-
-	private boolean definesAttribute(SqmNavigableSourceReference sourceBinding, String name) {
-		final SqmNavigable navigable = sourceBinding.getReferencedNavigable().findNavigable( name );
-		return navigable != null;
-	}
-
 	@Override
 	public FromElementLocator getFromElementLocator() {
 		return this;
@@ -6,6 +6,13 @@
  */
 package org.hibernate.query.sqm.produce.internal;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import javax.persistence.criteria.CriteriaDelete;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.CriteriaUpdate;
@@ -13,10 +20,20 @@ import javax.persistence.criteria.CriteriaUpdate;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.query.sqm.InterpretationException;
 import org.hibernate.query.sqm.QueryException;
-import org.hibernate.query.sqm.hql.internal.antlr.HqlParser;
+import org.hibernate.query.sqm.consume.spi.SqmRewritePipeline;
+import org.hibernate.query.sqm.consume.spi.SqmRewriteResult;
+import org.hibernate.query.sqm.produce.internal.criteria.CriteriaFingerprintGenerator;
 import org.hibernate.query.sqm.produce.internal.criteria.CriteriaInterpreter;
+import org.hibernate.query.sqm.hql.internal.antlr.HqlParser;
+import org.hibernate.query.sqm.produce.internal.hql.HqlFastPathRecognizer;
+import org.hibernate.query.sqm.produce.internal.hql.HqlLiteralNormalization;
 import org.hibernate.query.sqm.produce.internal.hql.HqlParseTreeBuilder;
 import org.hibernate.query.sqm.produce.internal.hql.SemanticQueryBuilder;
+import org.hibernate.query.sqm.produce.internal.hql.SinglePassSemanticQueryBuilder;
+import org.hibernate.query.sqm.produce.spi.BatchInterpretation;
+import org.hibernate.query.sqm.produce.spi.NameResolutionCache;
+import org.hibernate.query.sqm.produce.spi.NavigableResolutionCache;
+import org.hibernate.query.sqm.produce.spi.NormalizedInterpretation;
 import org.hibernate.query.sqm.produce.spi.ParsingContext;
 import org.hibernate.query.sqm.produce.spi.SemanticQueryProducer;
 import org.hibernate.query.sqm.tree.SqmDeleteStatement;
@@ -24,28 +41,176 @@ import org.hibernate.query.sqm.tree.SqmSelectStatement;
 import org.hibernate.query.sqm.tree.SqmStatement;
 import org.hibernate.query.sqm.tree.SqmUpdateStatement;
 
+import org.jboss.logging.Logger;
+
 /**
  * Standard implementation of SemanticQueryInterpreter
  *
  * @author Steve Ebersole
  */
 public class SemanticQueryProducerImpl implements SemanticQueryProducer {
+	private static final Logger log = Logger.getLogger( SemanticQueryProducerImpl.class );
+
 	private final SessionFactoryImplementor sessionFactory;
+	private final InterpretationCache<HqlInterpretationKey,SqmStatement> hqlInterpretationCache;
+	private final InterpretationCache<CriteriaInterpretationKey,SqmStatement> criteriaInterpretationCache;
+	private final HqlParseTreeBuilder parseTreeBuilder;
+	private final NavigableResolutionCache navigableResolutionCache = new NavigableResolutionCache();
+	private final NameResolutionCache nameResolutionCache;
+	private final SqmRewritePipeline rewritePipeline;
 
+	/**
+	 * Creates the producer with the default options : no caching of interpretations (see
+	 * {@link SemanticQueryProducerOptions}).
+	 *
+	 * @param sessionFactory The SessionFactory
+	 */
 	public SemanticQueryProducerImpl(SessionFactoryImplementor sessionFactory) {
+		this( sessionFactory, new SemanticQueryProducerOptions() );
+	}
+
+	/**
+	 * Creates the producer with the given options.
+	 *
+	 * @param sessionFactory The SessionFactory
+	 * @param options The options, read once
+	 */
+	public SemanticQueryProducerImpl(SessionFactoryImplementor sessionFactory, SemanticQueryProducerOptions options) {
 		this.sessionFactory = sessionFactory;
+		this.nameResolutionCache = new NameResolutionCache( options.getImports() );
+		if ( options.getInterpretationCacheSize() > 0 ) {
+			this.hqlInterpretationCache = new InterpretationCache<>( options.getInterpretationCacheSize() );
+			this.criteriaInterpretationCache = new InterpretationCache<>( options.getInterpretationCacheSize() );
+		}
+		else {
+			this.hqlInterpretationCache = null;
+			this.criteriaInterpretationCache = null;
+		}
+		this.parseTreeBuilder = options.getParseTreeBuilder();
+		this.rewritePipeline = options.getRewritePipeline();
+	}
+
+	/**
+	 * Access to the HQL interpretation cache, mainly for its statistics.
+	 *
+	 * @return The cache, or {@code null} if caching was disabled
+	 */
+	public InterpretationCache<HqlInterpretationKey,SqmStatement> getHqlInterpretationCache() {
+		return hqlInterpretationCache;
+	}
+
+	/**
+	 * Access to the criteria interpretation cache, mainly for its statistics.
+	 *
+	 * @return The cache, or {@code null} if caching was disabled
+	 */
+	public InterpretationCache<CriteriaInterpretationKey,SqmStatement> getCriteriaInterpretationCache() {
+		return criteriaInterpretationCache;
+	}
+
+	/**
+	 * Access to the cache of navigable resolutions, shared by the interpretations of this producer.
+	 *
+	 * @return The cache
+	 */
+	public NavigableResolutionCache getNavigableResolutionCache() {
+		return navigableResolutionCache;
+	}
+
+	private ParsingContext newParsingContext() {
+		// all interpretations share the resolution of navigable, entity, class and constant names
+		return new ParsingContext( sessionFactory, navigableResolutionCache, nameResolutionCache );
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T extends SqmStatement> T rewrite(T statement) {
+		if ( rewritePipeline.isEmpty() ) {
+			return statement;
+		}
+
+		final SqmRewriteResult result = rewritePipeline.rewrite( statement );
+		log.debugf( "Ran statement through the rewrite pipeline : %s", result );
+		// the passes keep the kind of statement
+		return (T) result.getStatement();
 	}
 
 	@Override
 	public SqmStatement interpret(String query) {
-		final ParsingContext parsingContext = new ParsingContext( sessionFactory );
+		if ( hqlInterpretationCache == null ) {
+			return doInterpret( query );
+		}
+
+		return hqlInterpretationCache.resolve(
+				new HqlInterpretationKey( query, sessionFactory.useStrictJpaCompliance() ),
+				key -> doInterpret( key.getQueryString() )
+		);
+	}
+
+	private SqmStatement doInterpret(String query) {
+		final ParsingContext parsingContext = newParsingContext();
+
+		try {
+			// the most common, trivial, queries are recognized without Antlr
+			final SqmStatement simpleStatement = HqlFastPathRecognizer.interpret( query, parsingContext );
+			if ( simpleStatement != null ) {
+				return rewrite( simpleStatement );
+			}
+
+			if ( parseTreeBuilder.isSinglePassAnalysis() ) {
+				return rewrite( SinglePassSemanticQueryBuilder.buildSemanticModel( query, parseTreeBuilder, parsingContext ) );
+			}
 
-		// first, ask Antlr to build the parse tree
-		final HqlParser parser = HqlParseTreeBuilder.INSTANCE.parseHql( query );
+			// first, ask Antlr to build the parse tree, then we perform semantic analysis
+			// and build the semantic representation...
+			return rewrite( SemanticQueryBuilder.buildSemanticModel( parseTreeBuilder.parseStatement( query ), parsingContext ) );
+		}
+		catch (QueryException e) {
+			throw e;
+		}
+		catch (Exception e) {
+			throw new InterpretationException( query, e );
+		}
+	}
 
-		// then we perform semantic analysis and build the semantic representation...
+	@Override
+	public NormalizedInterpretation interpretNormalized(String query) {
 		try {
-			return SemanticQueryBuilder.buildSemanticModel( parser.statement(), parsingContext );
+			final HqlParser.StatementContext parseTree = parseTreeBuilder.parseStatement( query );
+			final HqlLiteralNormalization literalNormalization = HqlLiteralNormalization.normalize( parseTree );
+
+			final SqmStatement statement;
+			if ( hqlInterpretationCache == null ) {
+				statement = rewrite(
+						SemanticQueryBuilder.buildNormalizedSemanticModel(
+								parseTree,
+								newParsingContext(),
+								literalNormalization
+						)
+				);
+			}
+			else {
+				// keyed by the fingerprint, but the parse tree of this query is used on a miss
+				statement = hqlInterpretationCache.resolve(
+						new HqlInterpretationKey(
+								literalNormalization.getFingerprint(),
+								sessionFactory.useStrictJpaCompliance(),
+								true
+						),
+						key -> rewrite(
+								SemanticQueryBuilder.buildNormalizedSemanticModel(
+										parseTree,
+										newParsingContext(),
+										literalNormalization
+								)
+						)
+				);
+			}
+
+			return new NormalizedInterpretation(
+					statement,
+					literalNormalization.getFingerprint(),
+					SemanticQueryBuilder.interpretLiteralValues( newParsingContext(), literalNormalization )
+			);
 		}
 		catch (QueryException e) {
 			throw e;
@@ -55,10 +220,135 @@ public class SemanticQueryProducerImpl implements SemanticQueryProducer {
 		}
 	}
 
+	@Override
+	public BatchInterpretation interpretAll(Collection<String> queries) {
+		return interpretAll( queries, ForkJoinPool.commonPool() );
+	}
+
+	/**
+	 * Performs the interpretation of a batch of HQL/JPQL query strings on the given
+	 * fork/join pool.  Duplicate query strings are interpreted once.
+	 * <p/>
+	 * Failures are isolated per query for exceptions, and for a {@link StackOverflowError}
+	 * (which is caused by the query itself, e.g. a deeply nested expression); these are
+	 * collected as failures of the query.  Any other {@link Error} is not specific to the
+	 * query and aborts the whole batch : it is thrown from here, and no result is returned.
+	 *
+	 * @param queries The HQL/JPQL query strings to interpret
+	 * @param pool The pool on which to perform the interpretations
+	 *
+	 * @return The interpreted statements, the failures and timing statistics
+	 */
+	public BatchInterpretation interpretAll(Collection<String> queries, ForkJoinPool pool) {
+		final String[] distinctQueries = new LinkedHashSet<>( queries ).toArray( new String[0] );
+		final SqmStatement[] statements = new SqmStatement[ distinctQueries.length ];
+		final RuntimeException[] failures = new RuntimeException[ distinctQueries.length ];
+		final long[] interpretationNanos = new long[ distinctQueries.length ];
+
+		final long start = System.nanoTime();
+		pool.invoke(
+				new BatchInterpretationTask(
+						distinctQueries,
+						statements,
+						failures,
+						interpretationNanos,
+						0,
+						distinctQueries.length
+				)
+		);
+		final long elapsedNanos = System.nanoTime() - start;
+
+		final Map<String,SqmStatement> statementMap = new LinkedHashMap<>();
+		final Map<String,RuntimeException> failureMap = new LinkedHashMap<>();
+		long totalNanos = 0;
+		long maxNanos = 0;
+		String slowestQuery = null;
+		for ( int i = 0; i < distinctQueries.length; i++ ) {
+			if ( failures[i] != null ) {
+				failureMap.put( distinctQueries[i], failures[i] );
+			}
+			else {
+				statementMap.put( distinctQueries[i], statements[i] );
+			}
+
+			totalNanos += interpretationNanos[i];
+			if ( slowestQuery == null || interpretationNanos[i] > maxNanos ) {
+				maxNanos = interpretationNanos[i];
+				slowestQuery = distinctQueries[i];
+			}
+		}
+
+		return new BatchInterpretation( statementMap, failureMap, elapsedNanos, totalNanos, maxNanos, slowestQuery );
+	}
+
+	/**
+	 * Interprets a range of the batch, splitting it in halves down to single queries.
+	 * Each interpretation uses its own ParsingContext (see {@link #interpret(String)}),
+	 * and writes its outcome to its own slot of the result arrays.  See
+	 * {@link #interpretAll(Collection, ForkJoinPool)} for which failures are isolated.
+	 */
+	private class BatchInterpretationTask extends RecursiveAction {
+		private final String[] queries;
+		private final SqmStatement[] statements;
+		private final RuntimeException[] failures;
+		private final long[] interpretationNanos;
+		private final int from;
+		private final int to;
+
+		private BatchInterpretationTask(
+				String[] queries,
+				SqmStatement[] statements,
+				RuntimeException[] failures,
+				long[] interpretationNanos,
+				int from,
+				int to) {
+			this.queries = queries;
+			this.statements = statements;
+			this.failures = failures;
+			this.interpretationNanos = interpretationNanos;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if ( to - from > 1 ) {
+				final int middle = ( from + to ) >>> 1;
+				invokeAll(
+						new BatchInterpretationTask( queries, statements, failures, interpretationNanos, from, middle ),
+						new BatchInterpretationTask( queries, statements, failures, interpretationNanos, middle, to )
+				);
+			}
+			else if ( to > from ) {
+				final long start = System.nanoTime();
+				try {
+					statements[from] = interpret( queries[from] );
+				}
+				catch (RuntimeException e) {
+					failures[from] = e;
+				}
+				catch (StackOverflowError e) {
+					failures[from] = new InterpretationException( queries[from], e );
+				}
+				interpretationNanos[from] = System.nanoTime() - start;
+			}
+		}
+	}
+
 	@Override
 	public SqmSelectStatement interpret(CriteriaQuery query) {
 		try {
-			return CriteriaInterpreter.interpretSelectCriteria( query, new ParsingContext( sessionFactory ) );
+			final String fingerprint = criteriaInterpretationCache == null
+					? null
+					: CriteriaFingerprintGenerator.generate( query );
+			if ( fingerprint == null ) {
+				return rewrite( CriteriaInterpreter.interpretSelectCriteria( query, newParsingContext() ) );
+			}
+
+			return (SqmSelectStatement) criteriaInterpretationCache.resolve(
+					new CriteriaInterpretationKey( fingerprint, sessionFactory.useStrictJpaCompliance() ),
+					key -> rewrite( CriteriaInterpreter.interpretSelectCriteria( query, newParsingContext() ) )
+			);
 		}
 		catch (QueryException e) {
 			throw e;
@@ -71,7 +361,17 @@ public class SemanticQueryProducerImpl implements SemanticQueryProducer {
 	@Override
 	public SqmDeleteStatement interpret(CriteriaDelete criteria) {
 		try {
-			return CriteriaInterpreter.interpretDeleteCriteria( criteria, new ParsingContext( sessionFactory ) );
+			final String fingerprint = criteriaInterpretationCache == null
+					? null
+					: CriteriaFingerprintGenerator.generate( criteria );
+			if ( fingerprint == null ) {
+				return rewrite( CriteriaInterpreter.interpretDeleteCriteria( criteria, newParsingContext() ) );
+			}
+
+			return (SqmDeleteStatement) criteriaInterpretationCache.resolve(
+					new CriteriaInterpretationKey( fingerprint, sessionFactory.useStrictJpaCompliance() ),
+					key -> rewrite( CriteriaInterpreter.interpretDeleteCriteria( criteria, newParsingContext() ) )
+			);
 		}
 		catch (QueryException e) {
 			throw e;
@@ -84,7 +384,17 @@ public class SemanticQueryProducerImpl implements SemanticQueryProducer {
 	@Override
 	public SqmUpdateStatement interpret(CriteriaUpdate criteria) {
 		try {
-			return CriteriaInterpreter.interpretUpdateCriteria( criteria, new ParsingContext( sessionFactory ) );
+			final String fingerprint = criteriaInterpretationCache == null
+					? null
+					: CriteriaFingerprintGenerator.generate( criteria );
+			if ( fingerprint == null ) {
+				return rewrite( CriteriaInterpreter.interpretUpdateCriteria( criteria, newParsingContext() ) );
+			}
+
+			return (SqmUpdateStatement) criteriaInterpretationCache.resolve(
+					new CriteriaInterpretationKey( fingerprint, sessionFactory.useStrictJpaCompliance() ),
+					key -> rewrite( CriteriaInterpreter.interpretUpdateCriteria( criteria, newParsingContext() ) )
+			);
 		}
 		catch (QueryException e) {
 			throw e;
@@ -93,4 +403,106 @@ public class SemanticQueryProducerImpl implements SemanticQueryProducer {
 			throw new InterpretationException( "<criteria>", e );
 		}
 	}
+
+	/**
+	 * Key for cached HQL interpretations.  The same query string may be
+	 * interpreted differently depending on whether strict JPQL compliance is
+	 * requested, so both make up the key.  Normalized interpretations are keyed
+	 * by the normalized query text (fingerprint) and flagged as such.
+	 */
+	public static final class HqlInterpretationKey {
+		private final String queryString;
+		private final boolean strictJpaCompliance;
+		private final boolean literalsNormalized;
+		private final int hashCode;
+
+		public HqlInterpretationKey(String queryString, boolean strictJpaCompliance) {
+			this( queryString, strictJpaCompliance, false );
+		}
+
+		public HqlInterpretationKey(String queryString, boolean strictJpaCompliance, boolean literalsNormalized) {
+			this.queryString = queryString;
+			this.strictJpaCompliance = strictJpaCompliance;
+			this.literalsNormalized = literalsNormalized;
+			this.hashCode = 31 * ( 31 * queryString.hashCode() + ( strictJpaCompliance ? 1 : 0 ) )
+					+ ( literalsNormalized ? 1 : 0 );
+		}
+
+		public String getQueryString() {
+			return queryString;
+		}
+
+		public boolean isStrictJpaCompliance() {
+			return strictJpaCompliance;
+		}
+
+		public boolean isLiteralsNormalized() {
+			return literalsNormalized;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if ( this == o ) {
+				return true;
+			}
+			if ( !( o instanceof HqlInterpretationKey ) ) {
+				return false;
+			}
+
+			final HqlInterpretationKey that = (HqlInterpretationKey) o;
+			return strictJpaCompliance == that.strictJpaCompliance
+					&& literalsNormalized == that.literalsNormalized
+					&& Objects.equals( queryString, that.queryString );
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	/**
+	 * Key for cached criteria interpretations : the criteria fingerprint (see
+	 * {@link CriteriaFingerprintGenerator}), which also identifies the kind of
+	 * statement, plus whether strict JPQL compliance is requested.
+	 */
+	public static final class CriteriaInterpretationKey {
+		private final String fingerprint;
+		private final boolean strictJpaCompliance;
+		private final int hashCode;
+
+		public CriteriaInterpretationKey(String fingerprint, boolean strictJpaCompliance) {
+			this.fingerprint = fingerprint;
+			this.strictJpaCompliance = strictJpaCompliance;
+			this.hashCode = 31 * fingerprint.hashCode() + ( strictJpaCompliance ? 1 : 0 );
+		}
+
+		public String getFingerprint() {
+			return fingerprint;
+		}
+
+		public boolean isStrictJpaCompliance() {
+			return strictJpaCompliance;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if ( this == o ) {
+				return true;
+			}
+			if ( !( o instanceof CriteriaInterpretationKey ) ) {
+				return false;
+			}
+
+			final CriteriaInterpretationKey that = (CriteriaInterpretationKey) o;
+			return strictJpaCompliance == that.strictJpaCompliance
+					&& hashCode == that.hashCode
+					&& fingerprint.equals( that.fingerprint );
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
 }
@@ -0,0 +1,105 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.produce.internal;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.hibernate.query.sqm.consume.spi.SqmRewritePipeline;
+import org.hibernate.query.sqm.produce.internal.hql.HqlParseTreeBuilder;
+import org.hibernate.query.sqm.produce.spi.NameResolutionCache;
+
+/**
+ * The options of a {@link SemanticQueryProducerImpl}.  The defaults match the plain producer :
+ * no interpretation caching, LL parsing of the complete parse tree, no imports and no
+ * rewrite passes.  Each option is opted into separately, e.g. :
+ * <pre>
+ *     new SemanticQueryProducerImpl(
+ *             sessionFactory,
+ *             new SemanticQueryProducerOptions()
+ *                     .applyInterpretationCacheSize( InterpretationCache.DEFAULT_MAX_SIZE )
+ *                     .applyParseTreeBuilder( HqlParseTreeBuilder.TWO_STAGE_INSTANCE )
+ *     );
+ * </pre>
+ * The producer reads the options when it is created; changing them afterwards does not
+ * affect it.
+ */
+public class SemanticQueryProducerOptions {
+	private int interpretationCacheSize;
+	private HqlParseTreeBuilder parseTreeBuilder = HqlParseTreeBuilder.INSTANCE;
+	private Map<String, String> imports = Collections.emptyMap();
+	private SqmRewritePipeline rewritePipeline = SqmRewritePipeline.NONE;
+
+	/**
+	 * Cache up to the given number of HQL interpretations (and, separately, of criteria
+	 * interpretations), see {@link InterpretationCache#DEFAULT_MAX_SIZE}.
+	 *
+	 * @param interpretationCacheSize The maximum number of interpretations to cache;
+	 * zero (or less), the default, disables caching.
+	 *
+	 * @return {@code this}, for method chaining
+	 */
+	public SemanticQueryProducerOptions applyInterpretationCacheSize(int interpretationCacheSize) {
+		this.interpretationCacheSize = interpretationCacheSize;
+		return this;
+	}
+
+	/**
+	 * Build the HQL parse trees using the given builder.
+	 *
+	 * @param parseTreeBuilder The builder; pass {@link HqlParseTreeBuilder#TWO_STAGE_INSTANCE} to opt
+	 * into SLL-then-LL parsing, or {@link HqlParseTreeBuilder#SINGLE_PASS_INSTANCE} to opt into
+	 * analyzing queries while parsing them (except for
+	 * {@link SemanticQueryProducerImpl#interpretNormalized}, which needs the complete parse tree)
+	 *
+	 * @return {@code this}, for method chaining
+	 */
+	public SemanticQueryProducerOptions applyParseTreeBuilder(HqlParseTreeBuilder parseTreeBuilder) {
+		this.parseTreeBuilder = parseTreeBuilder;
+		return this;
+	}
+
+	/**
+	 * Resolve the given short names used in HQL in place of entity and class names.
+	 *
+	 * @param imports The short names, keyed to the name they stand for (see {@link NameResolutionCache})
+	 *
+	 * @return {@code this}, for method chaining
+	 */
+	public SemanticQueryProducerOptions applyImports(Map<String, String> imports) {
+		this.imports = imports;
+		return this;
+	}
+
+	/**
+	 * Run every interpreted statement through the given optimization passes (before it is cached).
+	 *
+	 * @param rewritePipeline The passes
+	 *
+	 * @return {@code this}, for method chaining
+	 */
+	public SemanticQueryProducerOptions applyRewritePipeline(SqmRewritePipeline rewritePipeline) {
+		this.rewritePipeline = rewritePipeline;
+		return this;
+	}
+
+	public int getInterpretationCacheSize() {
+		return interpretationCacheSize;
+	}
+
+	public HqlParseTreeBuilder getParseTreeBuilder() {
+		return parseTreeBuilder;
+	}
+
+	public Map<String, String> getImports() {
+		return imports;
+	}
+
+	public SqmRewritePipeline getRewritePipeline() {
+		return rewritePipeline;
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.produce.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.query.sqm.produce.spi.NavigableResolutionCache;
+import org.hibernate.query.sqm.tree.expression.domain.SqmNavigableReference;
+import org.hibernate.query.sqm.tree.expression.domain.SqmNavigableSourceReference;
+import org.hibernate.query.sqm.tree.from.SqmFromClause;
+import org.hibernate.query.sqm.tree.from.SqmFromElementSpace;
+
+/**
+ * Index of the from-elements (roots and joins) of a single SqmFromClause by the names of
+ * the attributes they expose, used to resolve unqualified attribute references.
+ * <p/>
+ * The from-elements are registered by {@link FromElementBuilder} as they are built.  The
+ * index is keyed by the attribute names looked up so far : the first lookup of a name checks
+ * each registered from-element, later lookups are a single map access, and each newly
+ * registered from-element only updates the names already looked up.
+ * <p/>
+ * Like {@link org.hibernate.query.sqm.produce.spi.AliasRegistry}, indexes of sub-queries
+ * point to the index of their containing query, which receives the joins built by the
+ * sub-query against from-elements of the containing query.
+ */
+public class UnqualifiedAttributeIndex {
+	private SqmFromClause fromClause;
+	private UnqualifiedAttributeIndex parent;
+	private final NavigableResolutionCache navigableResolutionCache;
+
+	private final List<SqmNavigableSourceReference> sources = new ArrayList<>();
+	private final Map<String, Entry> entriesByAttributeName = new HashMap<>();
+
+	public UnqualifiedAttributeIndex(SqmFromClause fromClause, NavigableResolutionCache navigableResolutionCache) {
+		this( fromClause, null, navigableResolutionCache );
+	}
+
+	public UnqualifiedAttributeIndex(
+			SqmFromClause fromClause,
+			UnqualifiedAttributeIndex parent,
+			NavigableResolutionCache navigableResolutionCache) {
+		this.fromClause = fromClause;
+		this.parent = parent;
+		this.navigableResolutionCache = navigableResolutionCache;
+	}
+
+	public UnqualifiedAttributeIndex getParent() {
+		return parent;
+	}
+
+	/**
+	 * Clear the index, so that it can be reused for another from-clause.
+	 *
+	 * @param fromClause The from-clause to index
+	 * @param parent The index of the containing query, if any
+	 */
+	public void reset(SqmFromClause fromClause, UnqualifiedAttributeIndex parent) {
+		this.fromClause = fromClause;
+		this.parent = parent;
+		sources.clear();
+		entriesByAttributeName.clear();
+	}
+
+	/**
+	 * Register the binding of a from-element added to the given space.
+	 *
+	 * @param space The space the from-element was added to
+	 * @param binding The from-element's binding
+	 */
+	public void register(SqmFromElementSpace space, SqmNavigableReference binding) {
+		if ( space != null && space.getFromClause() != fromClause ) {
+			// the from-element belongs to a containing query
+			if ( parent != null ) {
+				parent.register( space, binding );
+			}
+			return;
+		}
+
+		if ( !SqmNavigableSourceReference.class.isInstance( binding ) ) {
+			return;
+		}
+
+		final SqmNavigableSourceReference source = (SqmNavigableSourceReference) binding;
+		sources.add( source );
+
+		for ( Map.Entry<String, Entry> entry : entriesByAttributeName.entrySet() ) {
+			if ( definesAttribute( source, entry.getKey() ) ) {
+				entry.getValue().add( source );
+			}
+		}
+	}
+
+	/**
+	 * Locate the from-element binding (of this from-clause only) exposing the given attribute.
+	 *
+	 * @param name The attribute name
+	 *
+	 * @return The binding, or {@code null} if none of the from-elements expose the attribute
+	 *
+	 * @throws IllegalStateException if more than one of the from-elements expose the attribute
+	 */
+	public SqmNavigableReference findNavigableBindingExposingAttribute(String name) {
+		Entry entry = entriesByAttributeName.get( name );
+		if ( entry == null ) {
+			entry = new Entry();
+			for ( SqmNavigableSourceReference source : sources ) {
+				if ( definesAttribute( source, name ) ) {
+					entry.add( source );
+				}
+			}
+			entriesByAttributeName.put( name, entry );
+		}
+
+		if ( entry.ambiguous ) {
+			throw new IllegalStateException( "Multiple from-elements expose unqualified attribute : " + name );
+		}
+
+		return entry.binding;
+	}
+
+	private boolean definesAttribute(SqmNavigableSourceReference sourceBinding, String name) {
+		return navigableResolutionCache.findNavigable( sourceBinding.getReferencedNavigable(), name ) != null;
+	}
+
+	private static class Entry {
+		private SqmNavigableReference binding;
+		private boolean ambiguous;
+
+		private void add(SqmNavigableReference binding) {
+			if ( this.binding == null ) {
+				this.binding = binding;
+			}
+			else {
+				ambiguous = true;
+			}
+		}
+	}
+}
@@ -0,0 +1,927 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.produce.internal.criteria;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Fetch;
+import javax.persistence.criteria.Join;
+
+import org.hibernate.persister.queryable.spi.BasicValuedExpressableType;
+import org.hibernate.query.sqm.produce.spi.ParsingContext;
+import org.hibernate.query.sqm.produce.spi.criteria.CriteriaVisitor;
+import org.hibernate.query.sqm.produce.spi.criteria.JpaCriteriaDelete;
+import org.hibernate.query.sqm.produce.spi.criteria.JpaCriteriaQuery;
+import org.hibernate.query.sqm.produce.spi.criteria.JpaCriteriaUpdate;
+import org.hibernate.query.sqm.produce.spi.criteria.JpaExpression;
+import org.hibernate.query.sqm.produce.spi.criteria.JpaOrder;
+import org.hibernate.query.sqm.produce.spi.criteria.JpaPredicate;
+import org.hibernate.query.sqm.produce.spi.criteria.JpaQuerySpec;
+import org.hibernate.query.sqm.produce.spi.criteria.JpaSubquery;
+import org.hibernate.query.sqm.produce.spi.criteria.JpaUpdateAssignment;
+import org.hibernate.query.sqm.produce.spi.criteria.from.JpaFrom;
+import org.hibernate.query.sqm.produce.spi.criteria.from.JpaRoot;
+import org.hibernate.query.sqm.produce.spi.criteria.path.JpaAttributePath;
+import org.hibernate.query.sqm.produce.spi.criteria.path.JpaPath;
+import org.hibernate.query.sqm.produce.spi.criteria.path.JpaPluralAttributePath;
+import org.hibernate.query.sqm.tree.expression.BinaryArithmeticSqmExpression;
+import org.hibernate.query.sqm.tree.expression.CoalesceSqmExpression;
+import org.hibernate.query.sqm.tree.expression.ConcatSqmExpression;
+import org.hibernate.query.sqm.tree.expression.ConstantEnumSqmExpression;
+import org.hibernate.query.sqm.tree.expression.EntityTypeLiteralSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralSqmExpression;
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.query.sqm.tree.expression.SubQuerySqmExpression;
+import org.hibernate.query.sqm.tree.expression.UnaryOperationSqmExpression;
+import org.hibernate.query.sqm.tree.expression.domain.SqmSingularAttributeReference;
+import org.hibernate.query.sqm.tree.expression.function.AvgFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.CastFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.CountFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.CountStarFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.GenericFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.MaxFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.MinFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.SumFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.internal.SqmStructuralFingerprintGenerator;
+import org.hibernate.query.sqm.tree.predicate.BetweenSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.BooleanExpressionSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.EmptinessSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.InSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.InSubQuerySqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.LikeSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.MemberOfSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.NegatedSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.NullnessSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.RelationalPredicateOperator;
+import org.hibernate.query.sqm.tree.predicate.RelationalSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
+import org.hibernate.query.sqm.tree.select.SqmDynamicInstantiation;
+import org.hibernate.query.sqm.tree.select.SqmDynamicInstantiationArgument;
+import org.hibernate.query.sqm.tree.select.SqmSelectClause;
+import org.hibernate.query.sqm.tree.select.SqmSelection;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Renders a canonical description of the structure of a criteria query (select, delete
+ * or update), suitable as a key for caching the interpretation of the criteria.  The
+ * criteria graph is walked through the same {@link CriteriaVisitor} contract used by
+ * {@link CriteriaInterpreter}, recording everything the interpreter consumes:
+ * entity and attribute names, join types, explicit aliases, operators, function names,
+ * parameter names/positions and literal values.
+ * <p/>
+ * From elements are identified by position rather than by instance, so two criteria
+ * built separately but describing the same query render the same fingerprint.  Implicit
+ * (unspecified) aliases are not part of the fingerprint.  Metamodel types (entity types,
+ * explicit result types) are rendered by identity.
+ * <p/>
+ * The visit methods only record the structure; they do not produce SQM nodes (they all
+ * return {@code null}).  A criteria which cannot be described - e.g. one referencing
+ * a from element which is not part of the criteria - produces no fingerprint.
+ */
+public class CriteriaFingerprintGenerator implements CriteriaVisitor {
+	private static final Logger log = Logger.getLogger( CriteriaFingerprintGenerator.class );
+
+	/**
+	 * Generate the fingerprint for a select criteria
+	 *
+	 * @param criteria The criteria
+	 *
+	 * @return The fingerprint, or {@code null} if the criteria cannot be fingerprinted
+	 */
+	public static String generate(CriteriaQuery<?> criteria) {
+		if ( !JpaCriteriaQuery.class.isInstance( criteria ) ) {
+			return null;
+		}
+
+		final CriteriaFingerprintGenerator generator = new CriteriaFingerprintGenerator();
+		try {
+			generator.open( "select" );
+			generator.querySpec( ( (JpaCriteriaQuery<?>) criteria ).getQuerySpec() );
+			generator.close();
+		}
+		catch (RuntimeException e) {
+			return generator.abandon( e );
+		}
+		return generator.complete();
+	}
+
+	/**
+	 * Generate the fingerprint for a delete criteria
+	 *
+	 * @param criteria The criteria
+	 *
+	 * @return The fingerprint, or {@code null} if the criteria cannot be fingerprinted
+	 */
+	public static String generate(CriteriaDelete<?> criteria) {
+		if ( !JpaCriteriaDelete.class.isInstance( criteria ) ) {
+			return null;
+		}
+
+		final JpaCriteriaDelete<?> jpaCriteria = (JpaCriteriaDelete<?>) criteria;
+		final CriteriaFingerprintGenerator generator = new CriteriaFingerprintGenerator();
+		try {
+			generator.open( "delete" );
+			generator.dmlRoot( jpaCriteria.getRoot() );
+			generator.restriction( jpaCriteria.getRestriction() );
+			generator.close();
+		}
+		catch (RuntimeException e) {
+			return generator.abandon( e );
+		}
+		return generator.complete();
+	}
+
+	/**
+	 * Generate the fingerprint for an update criteria
+	 *
+	 * @param criteria The criteria
+	 *
+	 * @return The fingerprint, or {@code null} if the criteria cannot be fingerprinted
+	 */
+	public static String generate(CriteriaUpdate<?> criteria) {
+		if ( !JpaCriteriaUpdate.class.isInstance( criteria ) ) {
+			return null;
+		}
+
+		final JpaCriteriaUpdate<?> jpaCriteria = (JpaCriteriaUpdate<?>) criteria;
+		final CriteriaFingerprintGenerator generator = new CriteriaFingerprintGenerator();
+		try {
+			generator.open( "update" );
+			generator.dmlRoot( jpaCriteria.getRoot() );
+			generator.open( "set" );
+			for ( JpaUpdateAssignment assignment : jpaCriteria.getAssignments() ) {
+				generator.open( "assignment" );
+				generator.path( assignment.getTargetAttributePath() );
+				generator.expression( assignment.getUpdatedValue() );
+				generator.close();
+			}
+			generator.close();
+			generator.restriction( jpaCriteria.getRestriction() );
+			generator.close();
+		}
+		catch (RuntimeException e) {
+			return generator.abandon( e );
+		}
+		return generator.complete();
+	}
+
+	private final StringBuilder buffer = new StringBuilder();
+	private final Map<JpaFrom,Integer> fromElementPositions = new IdentityHashMap<>();
+	private boolean supported = true;
+
+	private CriteriaFingerprintGenerator() {
+	}
+
+	@Override
+	public ParsingContext getParsingContext() {
+		// the fingerprint is independent of any interpretation
+		return null;
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// rendering
+
+	private void open(String nodeName) {
+		buffer.append( nodeName ).append( '(' );
+	}
+
+	private void close() {
+		buffer.append( ')' );
+	}
+
+	private void token(Object token) {
+		buffer.append( token ).append( ' ' );
+	}
+
+	private void quoted(String value) {
+		buffer.append( '\'' ).append( value.replace( "'", "''" ) ).append( "' " );
+	}
+
+	private void alias(String alias) {
+		if ( alias == null || alias.isEmpty() ) {
+			// an implicit alias will be generated
+			token( "-" );
+		}
+		else {
+			quoted( alias );
+		}
+	}
+
+	private void type(Object type) {
+		if ( type == null ) {
+			token( "null" );
+		}
+		else {
+			token( type.getClass().getName() + '#' + SqmStructuralFingerprintGenerator.typeNumber( type ) );
+		}
+	}
+
+	private void expression(JpaExpression<?> expression) {
+		if ( expression == null ) {
+			token( "null" );
+		}
+		else {
+			expression.visitExpression( this );
+		}
+	}
+
+	private void expressions(List<? extends JpaExpression<?>> expressions) {
+		if ( expressions != null ) {
+			for ( JpaExpression<?> expression : expressions ) {
+				expression( expression );
+			}
+		}
+	}
+
+	private void predicate(JpaPredicate predicate) {
+		if ( predicate == null ) {
+			token( "null" );
+		}
+		else {
+			predicate.visitPredicate( this );
+		}
+	}
+
+	private void unsupported(Object node) {
+		log.debugf( "Criteria node [%s] cannot be fingerprinted", node );
+		supported = false;
+	}
+
+	private String abandon(RuntimeException e) {
+		log.debugf( e, "Unable to fingerprint criteria" );
+		return null;
+	}
+
+	private String complete() {
+		return supported ? buffer.toString() : null;
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// statement structure
+
+	private void querySpec(JpaQuerySpec<?> querySpec) {
+		open( "spec" );
+
+		open( "from" );
+		for ( JpaRoot<?> root : querySpec.getFromClause().getRoots() ) {
+			open( "root" );
+			registerFromElement( root );
+			type( root.getEntityType() );
+			alias( root.getAlias() );
+			joins( root );
+			fetches( root );
+			close();
+		}
+		close();
+
+		open( "select" );
+		token( querySpec.getSelectClause().isDistinct() );
+		querySpec.getSelectClause().getSelection().visitSelections( this, new SelectionRecorder() );
+		close();
+
+		restriction( querySpec.getRestriction() );
+
+		open( "order" );
+		if ( querySpec.getOrderList() != null ) {
+			for ( JpaOrder order : querySpec.getOrderList() ) {
+				expression( order.getExpression() );
+				token( order.isAscending() ? "asc" : "desc" );
+			}
+		}
+		close();
+
+		close();
+	}
+
+	private void dmlRoot(JpaRoot<?> root) {
+		open( "root" );
+		registerFromElement( root );
+		type( root.getEntityType() );
+		alias( root.getAlias() );
+		close();
+	}
+
+	private void restriction(JpaPredicate restriction) {
+		open( "where" );
+		if ( restriction != null ) {
+			predicate( restriction );
+		}
+		close();
+	}
+
+	private void joins(JpaFrom<?,?> lhs) {
+		for ( Join<?,?> join : lhs.getJoins() ) {
+			final JpaFrom<?,?> jpaJoin = (JpaFrom<?,?>) join;
+			open( "join" );
+			registerFromElement( jpaJoin );
+			quoted( join.getAttribute().getName() );
+			token( join.getJoinType() );
+			alias( join.getAlias() );
+			joins( jpaJoin );
+			close();
+		}
+	}
+
+	private void fetches(JpaFrom<?,?> lhs) {
+		for ( Fetch<?,?> fetch : lhs.getFetches() ) {
+			final JpaFrom<?,?> jpaFetch = (JpaFrom<?,?>) fetch;
+			open( "fetch" );
+			registerFromElement( jpaFetch );
+			quoted( fetch.getAttribute().getName() );
+			token( fetch.getJoinType() );
+			alias( jpaFetch.getAlias() );
+			fetches( jpaFetch );
+			close();
+		}
+	}
+
+	private void registerFromElement(JpaFrom<?,?> fromElement) {
+		final int position = fromElementPositions.size();
+		fromElementPositions.put( fromElement, position );
+		token( "#" + position );
+	}
+
+	private void fromElementReference(JpaFrom<?,?> fromElement) {
+		final Integer position = fromElementPositions.get( fromElement );
+		if ( position == null ) {
+			unsupported( fromElement );
+			token( "#?" );
+		}
+		else {
+			token( "#" + position );
+		}
+	}
+
+	private void path(JpaPath<?> path) {
+		if ( path instanceof JpaFrom ) {
+			fromElementReference( (JpaFrom<?,?>) path );
+		}
+		else if ( path instanceof JpaAttributePath && path.getParentPath() != null ) {
+			open( "path" );
+			path( path.getParentPath() );
+			quoted( ( (JpaAttributePath<?>) path ).getNavigable().getAttributeName() );
+			close();
+		}
+		else {
+			unsupported( path );
+		}
+	}
+
+	/**
+	 * Records the selections (and their aliases) of the select clause.  Extends
+	 * SqmSelectClause since some selection forms only accept a select clause
+	 * as their container.
+	 */
+	private class SelectionRecorder extends SqmSelectClause {
+		private SelectionRecorder() {
+			super( false );
+		}
+
+		@Override
+		public SqmSelection add(SqmExpression expression, String alias) {
+			open( "selection" );
+			if ( expression instanceof SqmDynamicInstantiation ) {
+				final SqmDynamicInstantiation dynamicInstantiation = (SqmDynamicInstantiation) expression;
+				final Class target = dynamicInstantiation.getInstantiationTarget().getJavaType();
+				token( dynamicInstantiation.getInstantiationTarget().getNature() );
+				token( target == null ? "null" : target.getName() );
+				if ( dynamicInstantiation.getArguments() != null ) {
+					for ( SqmDynamicInstantiationArgument argument : dynamicInstantiation.getArguments() ) {
+						alias( argument.getAlias() );
+					}
+				}
+			}
+			alias( alias );
+			close();
+			return null;
+		}
+
+		@Override
+		public void add(SqmSelection aliasExpression) {
+			unsupported( aliasExpression );
+		}
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// Expressions
+
+	@Override
+	public <T extends Enum> ConstantEnumSqmExpression<T> visitEnumConstant(T value) {
+		open( "enum" );
+		token( value.getDeclaringClass().getName() );
+		token( value.name() );
+		close();
+		return null;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> LiteralSqmExpression<T> visitConstant(T value) {
+		return visitConstant( value, value == null ? null : (Class<T>) value.getClass() );
+	}
+
+	@Override
+	public <T> LiteralSqmExpression<T> visitConstant(T value, Class<T> javaType) {
+		open( "constant" );
+		token( javaType == null ? "null" : javaType.getName() );
+		if ( value == null ) {
+			token( "null" );
+		}
+		else {
+			final String canonicalValue = canonicalValue( value );
+			if ( canonicalValue == null ) {
+				unsupported( value );
+			}
+			else {
+				token( value.getClass().getName() );
+				quoted( canonicalValue );
+			}
+		}
+		close();
+		return null;
+	}
+
+	/**
+	 * Renders a literal value in a form shared only by equal values of its class, or returns
+	 * {@code null} when its class has no such known form (its {@code toString} may be neither
+	 * stable nor unique).
+	 */
+	private static String canonicalValue(Object value) {
+		if ( value instanceof String
+				|| value instanceof Character
+				|| value instanceof Boolean
+				|| value instanceof Integer
+				|| value instanceof Long
+				|| value instanceof Short
+				|| value instanceof Byte
+				|| value instanceof Double
+				|| value instanceof Float
+				|| value instanceof BigInteger
+				|| value instanceof BigDecimal ) {
+			return value.toString();
+		}
+		if ( value instanceof Enum ) {
+			return ( (Enum) value ).name();
+		}
+		if ( value instanceof Date ) {
+			// java.sql.Timestamp keeps its nanos apart from the time
+			return value instanceof Timestamp
+					? ( (Timestamp) value ).getTime() + "." + ( (Timestamp) value ).getNanos()
+					: Long.toString( ( (Date) value ).getTime() );
+		}
+		if ( value instanceof char[] ) {
+			return new String( (char[]) value );
+		}
+		if ( value instanceof byte[] ) {
+			return Arrays.toString( (byte[]) value );
+		}
+		if ( value instanceof int[] ) {
+			return Arrays.toString( (int[]) value );
+		}
+		if ( value instanceof long[] ) {
+			return Arrays.toString( (long[]) value );
+		}
+		if ( value instanceof short[] ) {
+			return Arrays.toString( (short[]) value );
+		}
+		if ( value instanceof boolean[] ) {
+			return Arrays.toString( (boolean[]) value );
+		}
+		if ( value instanceof double[] ) {
+			return Arrays.toString( (double[]) value );
+		}
+		if ( value instanceof float[] ) {
+			return Arrays.toString( (float[]) value );
+		}
+		return null;
+	}
+
+	@Override
+	public UnaryOperationSqmExpression visitUnaryOperation(
+			UnaryOperationSqmExpression.Operation operation,
+			JpaExpression<?> expression) {
+		return visitUnaryOperation( operation, expression, null );
+	}
+
+	@Override
+	public UnaryOperationSqmExpression visitUnaryOperation(
+			UnaryOperationSqmExpression.Operation operation,
+			JpaExpression<?> expression,
+			BasicValuedExpressableType resultType) {
+		open( "unary" );
+		token( operation );
+		type( resultType );
+		expression( expression );
+		close();
+		return null;
+	}
+
+	@Override
+	public BinaryArithmeticSqmExpression visitArithmetic(
+			BinaryArithmeticSqmExpression.Operation operation,
+			JpaExpression<?> expression1,
+			JpaExpression<?> expression2) {
+		return visitArithmetic( operation, expression1, expression2, null );
+	}
+
+	@Override
+	public BinaryArithmeticSqmExpression visitArithmetic(
+			BinaryArithmeticSqmExpression.Operation operation,
+			JpaExpression<?> expression1,
+			JpaExpression<?> expression2,
+			BasicValuedExpressableType resultType) {
+		open( "arithmetic" );
+		token( operation );
+		type( resultType );
+		expression( expression1 );
+		expression( expression2 );
+		close();
+		return null;
+	}
+
+	@Override
+	public SqmSingularAttributeReference visitAttributeReference(JpaFrom<?, ?> attributeSource, String attributeName) {
+		open( "attribute" );
+		fromElementReference( attributeSource );
+		quoted( attributeName );
+		close();
+		return null;
+	}
+
+	@Override
+	public GenericFunctionSqmExpression visitFunction(
+			String name,
+			BasicValuedExpressableType resultTypeDescriptor,
+			List<JpaExpression<?>> arguments) {
+		return visitGenericFunction( name, resultTypeDescriptor, arguments );
+	}
+
+	@Override
+	public GenericFunctionSqmExpression visitFunction(
+			String name,
+			BasicValuedExpressableType resultTypeDescriptor,
+			JpaExpression<?>... arguments) {
+		open( "function" );
+		quoted( name );
+		type( resultTypeDescriptor );
+		if ( arguments != null ) {
+			for ( JpaExpression<?> argument : arguments ) {
+				expression( argument );
+			}
+		}
+		close();
+		return null;
+	}
+
+	private void aggregate(String name, JpaExpression<?> expression, boolean distinct, BasicValuedExpressableType resultType) {
+		open( name );
+		token( distinct );
+		type( resultType );
+		expression( expression );
+		close();
+	}
+
+	@Override
+	public AvgFunctionSqmExpression visitAvgFunction(JpaExpression<?> expression, boolean distinct) {
+		return visitAvgFunction( expression, distinct, null );
+	}
+
+	@Override
+	public AvgFunctionSqmExpression visitAvgFunction(
+			JpaExpression<?> expression,
+			boolean distinct,
+			BasicValuedExpressableType resultType) {
+		aggregate( "avg", expression, distinct, resultType );
+		return null;
+	}
+
+	@Override
+	public CountFunctionSqmExpression visitCountFunction(JpaExpression<?> expression, boolean distinct) {
+		return visitCountFunction( expression, distinct, null );
+	}
+
+	@Override
+	public CountFunctionSqmExpression visitCountFunction(
+			JpaExpression<?> expression,
+			boolean distinct,
+			BasicValuedExpressableType resultType) {
+		aggregate( "count", expression, distinct, resultType );
+		return null;
+	}
+
+	@Override
+	public CountStarFunctionSqmExpression visitCountStarFunction(boolean distinct) {
+		return visitCountStarFunction( distinct, null );
+	}
+
+	@Override
+	public CountStarFunctionSqmExpression visitCountStarFunction(boolean distinct, BasicValuedExpressableType resultType) {
+		open( "count-star" );
+		token( distinct );
+		type( resultType );
+		close();
+		return null;
+	}
+
+	@Override
+	public MaxFunctionSqmExpression visitMaxFunction(JpaExpression<?> expression, boolean distinct) {
+		return visitMaxFunction( expression, distinct, null );
+	}
+
+	@Override
+	public MaxFunctionSqmExpression visitMaxFunction(
+			JpaExpression<?> expression,
+			boolean distinct,
+			BasicValuedExpressableType resultType) {
+		aggregate( "max", expression, distinct, resultType );
+		return null;
+	}
+
+	@Override
+	public MinFunctionSqmExpression visitMinFunction(JpaExpression<?> expression, boolean distinct) {
+		return visitMinFunction( expression, distinct, null );
+	}
+
+	@Override
+	public MinFunctionSqmExpression visitMinFunction(
+			JpaExpression<?> expression,
+			boolean distinct,
+			BasicValuedExpressableType resultType) {
+		aggregate( "min", expression, distinct, resultType );
+		return null;
+	}
+
+	@Override
+	public SumFunctionSqmExpression visitSumFunction(JpaExpression<?> expression, boolean distinct) {
+		return visitSumFunction( expression, distinct, null );
+	}
+
+	@Override
+	public SumFunctionSqmExpression visitSumFunction(
+			JpaExpression<?> expression,
+			boolean distinct,
+			BasicValuedExpressableType resultType) {
+		aggregate( "sum", expression, distinct, resultType );
+		return null;
+	}
+
+	@Override
+	public ConcatSqmExpression visitConcat(JpaExpression<?> expression1, JpaExpression<?> expression2) {
+		return visitConcat( expression1, expression2, null );
+	}
+
+	@Override
+	public ConcatSqmExpression visitConcat(
+			JpaExpression<?> expression1,
+			JpaExpression<?> expression2,
+			BasicValuedExpressableType resultType) {
+		open( "concat" );
+		type( resultType );
+		expression( expression1 );
+		expression( expression2 );
+		close();
+		return null;
+	}
+
+	@Override
+	public CoalesceSqmExpression visitCoalesce(List<JpaExpression<?>> expressions) {
+		open( "coalesce" );
+		expressions( expressions );
+		close();
+		return null;
+	}
+
+	@Override
+	public EntityTypeLiteralSqmExpression visitEntityType(String identificationVariable) {
+		open( "entity-type" );
+		quoted( identificationVariable );
+		close();
+		return null;
+	}
+
+	@Override
+	public EntityTypeLiteralSqmExpression visitEntityType(String identificationVariable, String attributeName) {
+		open( "entity-type" );
+		quoted( identificationVariable );
+		quoted( attributeName );
+		close();
+		return null;
+	}
+
+	@Override
+	public SubQuerySqmExpression visitSubQuery(JpaSubquery jpaSubquery) {
+		open( "subquery" );
+		querySpec( jpaSubquery.getQuerySpec() );
+		close();
+		return null;
+	}
+
+	@Override
+	public SqmExpression visitRoot(JpaRoot root) {
+		open( "root-ref" );
+		fromElementReference( root );
+		close();
+		return null;
+	}
+
+	@Override
+	public SqmExpression visitParameter(String name, int position, Class javaType) {
+		open( "parameter" );
+		if ( name != null && !name.isEmpty() ) {
+			quoted( name );
+		}
+		else {
+			token( position );
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public <T, C> CastFunctionSqmExpression visitCastFunction(JpaExpression<T> expressionToCast, Class<C> castTarget) {
+		open( "cast" );
+		token( castTarget.getName() );
+		expression( expressionToCast );
+		close();
+		return null;
+	}
+
+	@Override
+	public GenericFunctionSqmExpression visitGenericFunction(
+			String functionName,
+			BasicValuedExpressableType resultType,
+			List<JpaExpression<?>> arguments) {
+		open( "function" );
+		quoted( functionName );
+		type( resultType );
+		expressions( arguments );
+		close();
+		return null;
+	}
+
+	@Override
+	public void visitDynamicInstantiation(Class target, List<JpaExpression<?>> arguments) {
+		open( "dynamic-instantiation" );
+		token( target.getName() );
+		for ( JpaExpression<?> argument : arguments ) {
+			expression( argument );
+			alias( argument.getAlias() );
+		}
+		close();
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// Predicates
+
+	@Override
+	public SqmPredicate visitAndPredicate(List<JpaPredicate> predicates) {
+		open( "and" );
+		for ( JpaPredicate predicate : predicates ) {
+			predicate( predicate );
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public SqmPredicate visitOrPredicate(List<JpaPredicate> predicates) {
+		open( "or" );
+		for ( JpaPredicate predicate : predicates ) {
+			predicate( predicate );
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public EmptinessSqmPredicate visitEmptinessPredicate(JpaPluralAttributePath pluralAttributePath, boolean negated) {
+		open( "empty" );
+		token( negated );
+		path( pluralAttributePath );
+		close();
+		return null;
+	}
+
+	@Override
+	public MemberOfSqmPredicate visitMemberOfPredicate(JpaPluralAttributePath pluralAttributePath, boolean negated) {
+		open( "member-of" );
+		token( negated );
+		path( pluralAttributePath );
+		close();
+		return null;
+	}
+
+	@Override
+	public BetweenSqmPredicate visitBetweenPredicate(
+			JpaExpression<?> expression,
+			JpaExpression<?> lowerBound,
+			JpaExpression<?> upperBound,
+			boolean negated) {
+		open( "between" );
+		token( negated );
+		expression( expression );
+		expression( lowerBound );
+		expression( upperBound );
+		close();
+		return null;
+	}
+
+	@Override
+	public LikeSqmPredicate visitLikePredicate(
+			JpaExpression<String> matchExpression,
+			JpaExpression<String> pattern,
+			JpaExpression<Character> escapeCharacter,
+			boolean negated) {
+		open( "like" );
+		token( negated );
+		expression( matchExpression );
+		expression( pattern );
+		expression( escapeCharacter );
+		close();
+		return null;
+	}
+
+	@Override
+	public InSubQuerySqmPredicate visitInSubQueryPredicate(
+			JpaExpression<?> testExpression,
+			JpaSubquery<?> subquery,
+			boolean negated) {
+		open( "in-subquery" );
+		token( negated );
+		expression( testExpression );
+		visitSubQuery( subquery );
+		close();
+		return null;
+	}
+
+	@Override
+	public InSqmPredicate visitInTupleListPredicate(
+			JpaExpression<?> testExpression,
+			List<JpaExpression<?>> listExpressions,
+			boolean negated) {
+		open( "in-list" );
+		token( negated );
+		expression( testExpression );
+		expressions( listExpressions );
+		close();
+		return null;
+	}
+
+	@Override
+	public NegatedSqmPredicate visitNegatedPredicate(JpaPredicate affirmativePredicate) {
+		open( "not" );
+		predicate( affirmativePredicate );
+		close();
+		return null;
+	}
+
+	@Override
+	public BooleanExpressionSqmPredicate visitBooleanExpressionPredicate(
+			JpaExpression<Boolean> testExpression,
+			Boolean assertValue) {
+		open( "boolean" );
+		token( assertValue );
+		expression( testExpression );
+		close();
+		return null;
+	}
+
+	@Override
+	public NullnessSqmPredicate visitNullnessPredicate(JpaExpression<?> testExpression) {
+		open( "null" );
+		expression( testExpression );
+		close();
+		return null;
+	}
+
+	@Override
+	public RelationalSqmPredicate visitRelationalPredicate(
+			RelationalPredicateOperator operator,
+			JpaExpression<?> lhs,
+			JpaExpression<?> rhs) {
+		open( "relational" );
+		token( operator );
+		expression( lhs );
+		expression( rhs );
+		close();
+		return null;
+	}
+}
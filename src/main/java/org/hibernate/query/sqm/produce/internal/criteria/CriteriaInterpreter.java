@@ -28,7 +28,7 @@ import org.hibernate.query.sqm.NotYetImplementedException;
 import org.hibernate.query.sqm.ParsingException;
 import org.hibernate.query.sqm.QueryException;
 import org.hibernate.query.sqm.produce.internal.QuerySpecProcessingStateDmlImpl;
-import org.hibernate.query.sqm.produce.internal.QuerySpecProcessingStateStandardImpl;
+import org.hibernate.query.sqm.produce.internal.QuerySpecProcessingStatePool;
 import org.hibernate.query.sqm.produce.spi.ParsingContext;
 import org.hibernate.query.sqm.produce.spi.QuerySpecProcessingState;
 import org.hibernate.query.sqm.produce.spi.criteria.CriteriaVisitor;
@@ -99,19 +99,21 @@ import org.hibernate.query.sqm.tree.order.SqmOrderByClause;
 import org.hibernate.query.sqm.tree.order.SqmSortOrder;
 import org.hibernate.query.sqm.tree.order.SqmSortSpecification;
 import org.hibernate.query.sqm.tree.paging.SqmLimitOffsetClause;
-import org.hibernate.query.sqm.tree.predicate.AndSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.BetweenSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.BooleanExpressionSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.EmptinessSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.InListSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.InSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.InSubQuerySqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.JunctionSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.LikeSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.LiteralInListSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.MemberOfSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.NegatedSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.NullnessSqmPredicate;
-import org.hibernate.query.sqm.tree.predicate.OrSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.RelationalPredicateOperator;
 import org.hibernate.query.sqm.tree.predicate.RelationalSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.SqmWhereClause;
 import org.hibernate.query.sqm.tree.select.SqmDynamicInstantiation;
 import org.hibernate.query.sqm.tree.select.SqmSelectClause;
@@ -134,6 +136,7 @@ public class CriteriaInterpreter implements CriteriaVisitor {
 
 		final SqmSelectStatementImpl selectStatement = new SqmSelectStatementImpl();
 		selectStatement.applyQuerySpec( interpreter.visitQuerySpec( jpaCriteriaQuery.getQuerySpec() ) );
+		selectStatement.wrapUp();
 
 		return selectStatement;
 	}
@@ -163,8 +166,13 @@ public class CriteriaInterpreter implements CriteriaVisitor {
 	private final ParsingContext parsingContext;
 	private final Stack<QuerySpecProcessingState> querySpecProcessingStateStack = new Stack<>();
 
+	// query-spec processing states are only referenced while on the stack, so they are pooled
+	// by stack depth and reset for reuse rather than re-created
+	private final QuerySpecProcessingStatePool querySpecProcessingStatePool;
+
 	private CriteriaInterpreter(ParsingContext parsingContext) {
 		this.parsingContext = parsingContext;
+		this.querySpecProcessingStatePool = new QuerySpecProcessingStatePool( parsingContext );
 	}
 
 	public ParsingContext getParsingContext() {
@@ -188,6 +196,7 @@ public class CriteriaInterpreter implements CriteriaVisitor {
 				sqmStatement.getWhereClause().setPredicate( jpaCriteria.getRestriction().visitPredicate( this ) );
 			}
 
+			sqmStatement.wrapUp();
 			return sqmStatement;
 		}
 		finally {
@@ -219,6 +228,7 @@ public class CriteriaInterpreter implements CriteriaVisitor {
 				sqmStatement.getWhereClause().setPredicate( jpaCriteria.getRestriction().visitPredicate( this ) );
 			}
 
+			sqmStatement.wrapUp();
 			return sqmStatement;
 		}
 		finally {
@@ -340,10 +350,17 @@ public class CriteriaInterpreter implements CriteriaVisitor {
 		);
 	}
 
-	private SqmQuerySpec visitQuerySpec(JpaQuerySpec jpaQuerySpec) {
+	private void pushQuerySpecProcessingState() {
 		querySpecProcessingStateStack.push(
-				new QuerySpecProcessingStateStandardImpl( parsingContext, querySpecProcessingStateStack.getCurrent() )
+				querySpecProcessingStatePool.acquire(
+						querySpecProcessingStateStack.depth(),
+						querySpecProcessingStateStack.getCurrent()
+				)
 		);
+	}
+
+	private SqmQuerySpec visitQuerySpec(JpaQuerySpec jpaQuerySpec) {
+		pushQuerySpecProcessingState();
 
 		try {
 			return new SqmQuerySpec(
@@ -528,9 +545,8 @@ public class CriteriaInterpreter implements CriteriaVisitor {
 	}
 
 	private String interpretAlias(String explicitAlias) {
-		return isNotEmpty( explicitAlias )
-				? explicitAlias
-				: parsingContext.getImplicitAliasGenerator().buildUniqueImplicitAlias();
+		// no alias : the from-element renders its implicit alias itself, if ever needed
+		return isNotEmpty( explicitAlias ) ? explicitAlias : null;
 	}
 
 	private static boolean isNotEmpty(String string) {
@@ -918,7 +934,7 @@ public class CriteriaInterpreter implements CriteriaVisitor {
 	}
 
 	@Override
-	public AndSqmPredicate visitAndPredicate(List<JpaPredicate> predicates) {
+	public SqmPredicate visitAndPredicate(List<JpaPredicate> predicates) {
 		final int predicateCount = predicates.size();
 
 		if ( predicateCount < 2 ) {
@@ -927,25 +943,11 @@ public class CriteriaInterpreter implements CriteriaVisitor {
 			);
 		}
 
-		AndSqmPredicate result = new AndSqmPredicate(
-				predicates.get( 0 ).visitPredicate( this ),
-				predicates.get( 1 ).visitPredicate( this )
-		);
-
-		if ( predicateCount > 2 ) {
-			for ( int i = 2; i < predicateCount; i++ ) {
-				result = new AndSqmPredicate(
-						result,
-						predicates.get( i ).visitPredicate( this )
-				);
-			}
-		}
-
-		return result;
+		return JunctionSqmPredicate.junction( JunctionSqmPredicate.Nature.CONJUNCTION, visitPredicates( predicates ) );
 	}
 
 	@Override
-	public OrSqmPredicate visitOrPredicate(List<JpaPredicate> predicates) {
+	public SqmPredicate visitOrPredicate(List<JpaPredicate> predicates) {
 		final int predicateCount = predicates.size();
 
 		if ( predicateCount < 2 ) {
@@ -954,20 +956,14 @@ public class CriteriaInterpreter implements CriteriaVisitor {
 			);
 		}
 
-		OrSqmPredicate result = new OrSqmPredicate(
-				predicates.get( 0 ).visitPredicate( this ),
-				predicates.get( 1 ).visitPredicate( this )
-		);
+		return JunctionSqmPredicate.junction( JunctionSqmPredicate.Nature.DISJUNCTION, visitPredicates( predicates ) );
+	}
 
-		if ( predicateCount > 2 ) {
-			for ( int i = 2; i < predicateCount; i++ ) {
-				result = new OrSqmPredicate(
-						result,
-						predicates.get( i ).visitPredicate( this )
-				);
-			}
+	private List<SqmPredicate> visitPredicates(List<JpaPredicate> predicates) {
+		final List<SqmPredicate> result = new ArrayList<>( predicates.size() );
+		for ( JpaPredicate predicate : predicates ) {
+			result.add( predicate.visitPredicate( this ) );
 		}
-
 		return result;
 	}
 
@@ -1032,20 +1028,97 @@ public class CriteriaInterpreter implements CriteriaVisitor {
 	}
 
 	@Override
-	public InListSqmPredicate visitInTupleListPredicate(
+	public InSqmPredicate visitInTupleListPredicate(
 			JpaExpression<?> testExpression,
 			List<JpaExpression<?>> expressionsList,
 			boolean negated) {
-		final List<SqmExpression> expressions = new ArrayList<>();
+		final SqmExpression sqmTestExpression = testExpression.visitExpression( this );
+
+		// large lists of integer, long or String literals are kept in compact form
+		final LiteralInListSqmPredicate literalInList = visitLiteralInList( sqmTestExpression, expressionsList, negated );
+		if ( literalInList != null ) {
+			return literalInList;
+		}
+
+		final List<SqmExpression> expressions = new ArrayList<>( expressionsList.size() );
 		for ( JpaExpression<?> expression : expressionsList ) {
 			expressions.add( expression.visitExpression( this ) );
 		}
 
-		return new InListSqmPredicate(
-				testExpression.visitExpression( this ),
-				expressions,
-				negated
-		);
+		return new InListSqmPredicate( sqmTestExpression, expressions, negated );
+	}
+
+	/**
+	 * Builds the compact form of an IN-list made up of (enough) integer, long or String literals
+	 * straight from the literal values, without building a literal expression per value.
+	 *
+	 * @return The compact predicate, or {@code null} if the list does not qualify
+	 */
+	private LiteralInListSqmPredicate visitLiteralInList(
+			SqmExpression testExpression,
+			List<JpaExpression<?>> expressionsList,
+			boolean negated) {
+		final int count = expressionsList.size();
+		if ( count < LiteralInListSqmPredicate.MIN_SIZE ) {
+			return null;
+		}
+
+		final Class<?> literalType = literalType( expressionsList.get( 0 ) );
+		for ( JpaExpression<?> expression : expressionsList ) {
+			if ( literalType( expression ) != literalType ) {
+				return null;
+			}
+		}
+
+		if ( literalType == Integer.class ) {
+			final int[] values = new int[ count ];
+			for ( int i = 0; i < count; i++ ) {
+				values[i] = (Integer) expressionsList.get( i ).getLiteralValue();
+			}
+			return LiteralInListSqmPredicate.forIntegers(
+					testExpression,
+					values,
+					count,
+					resolveBasicExpressionType( Integer.class ),
+					negated
+			);
+		}
+		else if ( literalType == Long.class ) {
+			final long[] values = new long[ count ];
+			for ( int i = 0; i < count; i++ ) {
+				values[i] = (Long) expressionsList.get( i ).getLiteralValue();
+			}
+			return LiteralInListSqmPredicate.forLongs(
+					testExpression,
+					values,
+					count,
+					resolveBasicExpressionType( Long.class ),
+					negated
+			);
+		}
+		else if ( literalType == String.class ) {
+			final String[] values = new String[ count ];
+			for ( int i = 0; i < count; i++ ) {
+				values[i] = (String) expressionsList.get( i ).getLiteralValue();
+			}
+			return LiteralInListSqmPredicate.forStrings(
+					testExpression,
+					values,
+					count,
+					resolveBasicExpressionType( String.class ),
+					negated
+			);
+		}
+
+		return null;
+	}
+
+	/**
+	 * The class of the given expression's literal value; {@code null} if it is not a literal
+	 */
+	private static Class<?> literalType(JpaExpression<?> expression) {
+		final Object literalValue = expression.getLiteralValue();
+		return literalValue == null ? null : literalValue.getClass();
 	}
 
 	@Override
@@ -0,0 +1,111 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.produce.internal.hql;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * A CharStream reading straight from the caller's CharSequence (generally the query String),
+ * rather than from a copy of it as Antlr's ANTLRInputStream does.
+ * <p/>
+ * The text of the tokens is not held by the tokens but by this stream (Antlr's tokens only
+ * record their offsets), and is only materialized when asked for.  {@link HqlTokenText} gives
+ * access to that text without materializing it.
+ */
+public class CharSequenceCharStream implements CharStream {
+	private final CharSequence data;
+	private final int size;
+	private int position;
+
+	public CharSequenceCharStream(CharSequence data) {
+		this.data = data;
+		this.size = data.length();
+	}
+
+	/**
+	 * The underlying character sequence
+	 *
+	 * @return The character sequence
+	 */
+	public CharSequence getCharSequence() {
+		return data;
+	}
+
+	@Override
+	public void consume() {
+		if ( position >= size ) {
+			throw new IllegalStateException( "cannot consume EOF" );
+		}
+		position++;
+	}
+
+	@Override
+	public int LA(int i) {
+		if ( i == 0 ) {
+			// undefined
+			return 0;
+		}
+		if ( i < 0 ) {
+			// e.g., translate LA(-1) to use offset i=0; then data[p+0-1]
+			i++;
+			if ( position + i - 1 < 0 ) {
+				return IntStream.EOF;
+			}
+		}
+		if ( position + i - 1 >= size ) {
+			return IntStream.EOF;
+		}
+		return data.charAt( position + i - 1 );
+	}
+
+	@Override
+	public int mark() {
+		// the whole sequence is always available, so there is nothing to mark
+		return -1;
+	}
+
+	@Override
+	public void release(int marker) {
+	}
+
+	@Override
+	public int index() {
+		return position;
+	}
+
+	@Override
+	public void seek(int index) {
+		position = Math.min( index, size );
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String getSourceName() {
+		return UNKNOWN_SOURCE_NAME;
+	}
+
+	@Override
+	public String getText(Interval interval) {
+		final int start = interval.a;
+		final int stop = Math.min( interval.b, size - 1 );
+		if ( start >= size || stop < start ) {
+			return "";
+		}
+		return data.subSequence( start, stop + 1 ).toString();
+	}
+
+	@Override
+	public String toString() {
+		return data.toString();
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.produce.internal.hql;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.query.sqm.hql.internal.antlr.HqlLexer;
+import org.hibernate.query.sqm.hql.internal.antlr.HqlParser;
+
+import org.jboss.logging.Logger;
+
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.atn.LexerATNSimulator;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.dfa.DFA;
+
+/**
+ * Management of the prediction DFA cache for the HQL grammar.
+ * <p/>
+ * The Antlr-generated {@link HqlLexer} and {@link HqlParser} share their prediction
+ * DFAs statically across all instances.  The DFAs are filled lazily as queries are
+ * parsed and never shrink.  This class allows inspecting the size of that cache
+ * (as a number of DFA states), clearing it and keeping it within a budget.
+ * <p/>
+ * The budget is expressed as a number of DFA states rather than bytes; the
+ * footprint of a single state varies with the grammar decision it belongs to,
+ * but the state count grows proportionally with retained heap.
+ *
+ * @see HqlParseTreeBuilder#warmUpDfaCache
+ */
+public class HqlDfaCache {
+	private static final Logger log = Logger.getLogger( HqlDfaCache.class );
+
+	/**
+	 * Singleton access
+	 */
+	public static final HqlDfaCache INSTANCE = new HqlDfaCache();
+
+	/**
+	 * The budget is only checked once every this many parses, to keep the check off the
+	 * per-query path.
+	 */
+	public static final int BUDGET_CHECK_INTERVAL = 256;
+
+	// simulators over the shared (static) DFA arrays; clearing the DFA through
+	// these affects all lexer/parser instances
+	private final LexerATNSimulator lexerSimulator;
+	private final ParserATNSimulator parserSimulator;
+
+	private volatile int maxStateCount = -1;
+	private final AtomicInteger parsesSinceBudgetCheck = new AtomicInteger();
+	private final AtomicBoolean clearing = new AtomicBoolean();
+
+	private HqlDfaCache() {
+		final HqlLexer lexer = new HqlLexer( new ANTLRInputStream( "" ) );
+		final HqlParser parser = new HqlParser( new CommonTokenStream( lexer ) );
+		this.lexerSimulator = lexer.getInterpreter();
+		this.parserSimulator = parser.getInterpreter();
+	}
+
+	/**
+	 * The number of DFA states currently cached for the lexer and parser combined.
+	 *
+	 * @return The DFA state count
+	 */
+	public int getStateCount() {
+		return countStates( lexerSimulator.decisionToDFA ) + countStates( parserSimulator.decisionToDFA );
+	}
+
+	private static int countStates(DFA[] dfas) {
+		int count = 0;
+		for ( DFA dfa : dfas ) {
+			count += dfa.states.size();
+		}
+		return count;
+	}
+
+	/**
+	 * Discard all cached DFA states.  Clearing replaces the DFA of each decision, and each
+	 * prediction looks the DFA of its decision up once, so predictions in flight complete on
+	 * the DFA they started with; subsequent predictions start with an empty DFA.
+	 */
+	public void clear() {
+		log.debugf( "Clearing HQL prediction DFA cache (%s states)", getStateCount() );
+		lexerSimulator.clearDFA();
+		parserSimulator.clearDFA();
+	}
+
+	/**
+	 * The maximum number of DFA states to retain; a negative value indicates no budget.
+	 *
+	 * @return The budget
+	 */
+	public int getMaxStateCount() {
+		return maxStateCount;
+	}
+
+	public void setMaxStateCount(int maxStateCount) {
+		this.maxStateCount = maxStateCount;
+		parsesSinceBudgetCheck.set( 0 );
+	}
+
+	/**
+	 * Called after each parse.  Every {@link #BUDGET_CHECK_INTERVAL} parses, checks the
+	 * cache size against the budget and clears the cache if it is over.  The cache is not
+	 * re-warmed here, so that the parse which happens to trip the budget stays cheap.
+	 *
+	 * @return {@code true} if the cache was cleared
+	 */
+	boolean checkBudget() {
+		final int budget = maxStateCount;
+		if ( budget < 0 ) {
+			return false;
+		}
+
+		if ( parsesSinceBudgetCheck.incrementAndGet() < BUDGET_CHECK_INTERVAL ) {
+			return false;
+		}
+		parsesSinceBudgetCheck.set( 0 );
+
+		if ( getStateCount() <= budget ) {
+			return false;
+		}
+
+		if ( !clearing.compareAndSet( false, true ) ) {
+			// another thread is already handling it
+			return false;
+		}
+
+		try {
+			log.debugf( "HQL prediction DFA cache exceeded budget of %s states", budget );
+			clear();
+			return true;
+		}
+		finally {
+			clearing.set( false );
+		}
+	}
+}
@@ -0,0 +1,393 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.produce.internal.hql;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.hibernate.query.sqm.hql.internal.antlr.HqlLexer;
+import org.hibernate.query.sqm.produce.spi.ParsingContext;
+import org.hibernate.query.sqm.tree.SqmSelectStatement;
+import org.hibernate.query.sqm.tree.predicate.RelationalPredicateOperator;
+
+import org.antlr.v4.runtime.Vocabulary;
+
+/**
+ * Recognizes the trivial select statements making up much of the queries of a typical
+ * application, and builds their semantic model without going through Antlr :
+ * <pre>
+ *     [select path] from EntityName [[as] alias] [where path operator parameter]
+ * </pre>
+ * where the paths are dot-identifier sequences, the operator is one of the relational
+ * operators ({@code =}, {@code <>}, {@code >}, ...) and the parameter is named
+ * ({@code :name}) or positional ({@code ?1}).
+ * <p/>
+ * The recognition is purely syntactic and conservative : anything else, including identifiers
+ * spelled like a keyword or not starting with an ASCII letter, is left to the Antlr parser.  The
+ * model is built by the SemanticQueryBuilder, from the same steps it takes for the parse tree
+ * of the query, so both produce the same model.
+ */
+public class HqlFastPathRecognizer {
+	// whether Antlr lexes an identifier as a keyword depends on the grammar (reserved words can
+	// also be identifiers in places), so any identifier spelled like a keyword is left to Antlr
+	private static final Set<String> KEYWORDS = buildKeywords();
+
+	private static Set<String> buildKeywords() {
+		final Set<String> keywords = new HashSet<>();
+		final Vocabulary vocabulary = HqlLexer.VOCABULARY;
+		for ( int tokenType = 1; tokenType <= HqlLexer._ATN.maxTokenType; tokenType++ ) {
+			final String symbolicName = vocabulary.getSymbolicName( tokenType );
+			if ( symbolicName != null ) {
+				keywords.add( symbolicName );
+			}
+		}
+		return keywords;
+	}
+
+	/**
+	 * Builds the semantic model of the query, if it is one of the trivial shapes handled here.
+	 *
+	 * @param hql The query string
+	 * @param parsingContext Access to things needed to perform the analysis
+	 *
+	 * @return The semantic query model, or {@code null} if the query needs to be parsed by Antlr
+	 */
+	public static SqmSelectStatement interpret(String hql, ParsingContext parsingContext) {
+		final SimpleSelect simpleSelect = recognize( hql );
+		if ( simpleSelect == null ) {
+			return null;
+		}
+		return new SemanticQueryBuilder( parsingContext, null ).buildSimpleSelectStatement( simpleSelect );
+	}
+
+	/**
+	 * Recognizes the shape of the query.
+	 *
+	 * @param hql The query string
+	 *
+	 * @return The parts of the query, or {@code null} if the query is not one of the trivial shapes
+	 */
+	static SimpleSelect recognize(String hql) {
+		return new HqlFastPathRecognizer( hql ).recognizeSelect();
+	}
+
+	private final String hql;
+	private int position;
+
+	private HqlFastPathRecognizer(String hql) {
+		this.hql = hql;
+	}
+
+	private SimpleSelect recognizeSelect() {
+		String selection = null;
+		if ( nextKeyword( "select" ) ) {
+			selection = nextPath();
+			if ( selection == null ) {
+				return null;
+			}
+		}
+
+		if ( !nextKeyword( "from" ) ) {
+			return null;
+		}
+		final String entityName = nextPath();
+		if ( entityName == null ) {
+			return null;
+		}
+
+		String alias = null;
+		boolean restricted = false;
+		if ( nextKeyword( "as" ) ) {
+			alias = nextIdentifier();
+			if ( alias == null ) {
+				return null;
+			}
+		}
+		else if ( nextKeyword( "where" ) ) {
+			restricted = true;
+		}
+		else if ( !atEnd() ) {
+			alias = nextIdentifier();
+			if ( alias == null ) {
+				return null;
+			}
+		}
+
+		if ( !restricted && !atEnd() ) {
+			if ( !nextKeyword( "where" ) ) {
+				return null;
+			}
+			restricted = true;
+		}
+
+		if ( !restricted ) {
+			return new SimpleSelect( selection, entityName, alias, null, null, null, 0 );
+		}
+		return recognizeRestriction( selection, entityName, alias );
+	}
+
+	private SimpleSelect recognizeRestriction(String selection, String entityName, String alias) {
+		final String restrictedPath = nextPath();
+		if ( restrictedPath == null ) {
+			return null;
+		}
+
+		final RelationalPredicateOperator operator = nextOperator();
+		if ( operator == null ) {
+			return null;
+		}
+
+		skipWhitespace();
+		if ( position == hql.length() ) {
+			return null;
+		}
+
+		String parameterName = null;
+		int parameterPosition = 0;
+		final char parameterMarker = hql.charAt( position++ );
+		if ( parameterMarker == ':' ) {
+			parameterName = nextIdentifier();
+			if ( parameterName == null ) {
+				return null;
+			}
+		}
+		else if ( parameterMarker == '?' ) {
+			parameterPosition = nextPosition();
+			if ( parameterPosition <= 0 ) {
+				return null;
+			}
+		}
+		else {
+			return null;
+		}
+
+		if ( !atEnd() ) {
+			return null;
+		}
+		return new SimpleSelect( selection, entityName, alias, restrictedPath, operator, parameterName, parameterPosition );
+	}
+
+	private boolean atEnd() {
+		skipWhitespace();
+		return position == hql.length();
+	}
+
+	private void skipWhitespace() {
+		while ( position < hql.length() ) {
+			final char c = hql.charAt( position );
+			if ( c != ' ' && c != '\t' && c != '\f' && c != '\r' && c != '\n' ) {
+				return;
+			}
+			position++;
+		}
+	}
+
+	private boolean nextKeyword(String keyword) {
+		skipWhitespace();
+		final int end = position + keyword.length();
+		if ( !hql.regionMatches( true, position, keyword, 0, keyword.length() )
+				|| ( end < hql.length() && isIdentifierPart( hql.charAt( end ) ) ) ) {
+			return false;
+		}
+		position = end;
+		return true;
+	}
+
+	private String nextIdentifier() {
+		skipWhitespace();
+		final int start = position;
+		if ( position == hql.length() || !isIdentifierStart( hql.charAt( position ) ) ) {
+			return null;
+		}
+		position++;
+		while ( position < hql.length() && isIdentifierPart( hql.charAt( position ) ) ) {
+			position++;
+		}
+
+		final String identifier = hql.substring( start, position );
+		if ( KEYWORDS.contains( identifier.toUpperCase( Locale.ROOT ) ) ) {
+			return null;
+		}
+		return identifier;
+	}
+
+	private String nextPath() {
+		final String first = nextIdentifier();
+		if ( first == null ) {
+			return null;
+		}
+
+		StringBuilder path = null;
+		while ( true ) {
+			final int mark = position;
+			skipWhitespace();
+			if ( position == hql.length() || hql.charAt( position ) != '.' ) {
+				position = mark;
+				break;
+			}
+			position++;
+
+			final String part = nextIdentifier();
+			if ( part == null ) {
+				return null;
+			}
+			if ( path == null ) {
+				path = new StringBuilder( first );
+			}
+			path.append( '.' ).append( part );
+		}
+		return path == null ? first : path.toString();
+	}
+
+	private RelationalPredicateOperator nextOperator() {
+		skipWhitespace();
+		if ( position == hql.length() ) {
+			return null;
+		}
+
+		final char first = hql.charAt( position );
+		final char second = position + 1 < hql.length() ? hql.charAt( position + 1 ) : 0;
+		switch ( first ) {
+			case '=': {
+				position++;
+				return RelationalPredicateOperator.EQUAL;
+			}
+			case '!':
+			case '^': {
+				if ( second != '=' ) {
+					return null;
+				}
+				position += 2;
+				return RelationalPredicateOperator.NOT_EQUAL;
+			}
+			case '<': {
+				if ( second == '>' ) {
+					position += 2;
+					return RelationalPredicateOperator.NOT_EQUAL;
+				}
+				if ( second == '=' ) {
+					position += 2;
+					return RelationalPredicateOperator.LESS_THAN_OR_EQUAL;
+				}
+				position++;
+				return RelationalPredicateOperator.LESS_THAN;
+			}
+			case '>': {
+				if ( second == '=' ) {
+					position += 2;
+					return RelationalPredicateOperator.GREATER_THAN_OR_EQUAL;
+				}
+				position++;
+				return RelationalPredicateOperator.GREATER_THAN;
+			}
+			default: {
+				return null;
+			}
+		}
+	}
+
+	private int nextPosition() {
+		// an integer literal immediately following the question mark, without leading zeros
+		final int start = position;
+		if ( position == hql.length() || hql.charAt( position ) < '1' || hql.charAt( position ) > '9' ) {
+			return -1;
+		}
+		int value = 0;
+		while ( position < hql.length() && hql.charAt( position ) >= '0' && hql.charAt( position ) <= '9' ) {
+			if ( position - start >= 9 ) {
+				// leave overflowing positions to Antlr
+				return -1;
+			}
+			value = value * 10 + ( hql.charAt( position++ ) - '0' );
+		}
+		if ( position < hql.length() && isIdentifierPart( hql.charAt( position ) ) ) {
+			return -1;
+		}
+		return value;
+	}
+
+	private static boolean isIdentifierStart(char c) {
+		return ( c >= 'a' && c <= 'z' ) || ( c >= 'A' && c <= 'Z' ) || c == '_' || c == '$';
+	}
+
+	private static boolean isIdentifierPart(char c) {
+		// anything Antlr would lex as part of an identifier, so that an identifier continuing with
+		// non-ASCII characters is not mistaken for a shorter one followed by something else
+		return isIdentifierStart( c ) || ( c >= '0' && c <= '9' ) || ( c >= '\u0080' && c <= '\ufffe' );
+	}
+
+	/**
+	 * The parts of a trivial select statement
+	 */
+	static class SimpleSelect {
+		private final String selection;
+		private final String entityName;
+		private final String alias;
+		private final String restrictedPath;
+		private final RelationalPredicateOperator operator;
+		private final String parameterName;
+		private final int parameterPosition;
+
+		private SimpleSelect(
+				String selection,
+				String entityName,
+				String alias,
+				String restrictedPath,
+				RelationalPredicateOperator operator,
+				String parameterName,
+				int parameterPosition) {
+			this.selection = selection;
+			this.entityName = entityName;
+			this.alias = alias;
+			this.restrictedPath = restrictedPath;
+			this.operator = operator;
+			this.parameterName = parameterName;
+			this.parameterPosition = parameterPosition;
+		}
+
+		/**
+		 * The selected path, or {@code null} for an implicit select clause
+		 */
+		String getSelection() {
+			return selection;
+		}
+
+		String getEntityName() {
+			return entityName;
+		}
+
+		/**
+		 * The alias of the root, or {@code null} if none was given
+		 */
+		String getAlias() {
+			return alias;
+		}
+
+		/**
+		 * The restricted path, or {@code null} if the query has no where clause
+		 */
+		String getRestrictedPath() {
+			return restrictedPath;
+		}
+
+		RelationalPredicateOperator getOperator() {
+			return operator;
+		}
+
+		/**
+		 * The name of the parameter, or {@code null} if it is positional
+		 */
+		String getParameterName() {
+			return parameterName;
+		}
+
+		int getParameterPosition() {
+			return parameterPosition;
+		}
+	}
+}
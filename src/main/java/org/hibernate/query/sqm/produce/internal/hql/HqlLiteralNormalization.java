@@ -0,0 +1,119 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.produce.internal.hql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.query.sqm.hql.internal.antlr.HqlParser;
+
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+/**
+ * Identifies the literals of a parsed HQL/JPQL statement which are replaced by synthetic
+ * parameters when interpreting with literal normalization, and renders the normalized
+ * query text (the "fingerprint") in which each such literal is replaced by {@code ?} followed
+ * by the kind of the literal (e.g. {@code ?INTEGER_LITERAL}).
+ * <p/>
+ * Queries differing only in those literal values share the same fingerprint, and therefore
+ * the same normalized interpretation.  The kind of the literal is part of the fingerprint as
+ * the synthetic parameter is typed after the literal : {@code = 1} and {@code = '1'} are
+ * interpreted separately.  {@code null} literals are left in place since they
+ * change the meaning of the query ({@code = null} versus {@code = ?}).
+ */
+public class HqlLiteralNormalization {
+	private final String fingerprint;
+	private final List<HqlParser.LiteralExpressionContext> literals;
+	private final Map<HqlParser.LiteralExpressionContext,Integer> literalPositions;
+
+	private HqlLiteralNormalization(String fingerprint, List<HqlParser.LiteralExpressionContext> literals) {
+		this.fingerprint = fingerprint;
+		this.literals = Collections.unmodifiableList( literals );
+		this.literalPositions = new IdentityHashMap<>( literals.size() );
+		for ( int i = 0; i < literals.size(); i++ ) {
+			literalPositions.put( literals.get( i ), i + 1 );
+		}
+	}
+
+	public static HqlLiteralNormalization normalize(HqlParser.StatementContext statement) {
+		final StringBuilder fingerprint = new StringBuilder();
+		final List<HqlParser.LiteralExpressionContext> literals = new ArrayList<>();
+		collect( statement, fingerprint, literals );
+		return new HqlLiteralNormalization( fingerprint.toString(), literals );
+	}
+
+	private static void collect(
+			ParseTree node,
+			StringBuilder fingerprint,
+			List<HqlParser.LiteralExpressionContext> literals) {
+		if ( node instanceof HqlParser.LiteralExpressionContext ) {
+			final HqlParser.LiteralExpressionContext literal = (HqlParser.LiteralExpressionContext) node;
+			if ( literal.literal().NULL() == null ) {
+				literals.add( literal );
+				appendToken(
+						fingerprint,
+						"?" + HqlParser.VOCABULARY.getSymbolicName( literal.literal().getStart().getType() )
+				);
+				return;
+			}
+		}
+
+		if ( node instanceof TerminalNode ) {
+			if ( ( (TerminalNode) node ).getSymbol().getType() != Token.EOF ) {
+				appendToken( fingerprint, HqlTokenText.of( ( (TerminalNode) node ).getSymbol() ) );
+			}
+			return;
+		}
+
+		for ( int i = 0; i < node.getChildCount(); i++ ) {
+			collect( node.getChild( i ), fingerprint, literals );
+		}
+	}
+
+	private static void appendToken(StringBuilder fingerprint, CharSequence text) {
+		if ( fingerprint.length() > 0 ) {
+			fingerprint.append( ' ' );
+		}
+		fingerprint.append( text );
+	}
+
+	/**
+	 * The normalized query text : the query's tokens separated by a single space, with
+	 * normalized literals replaced by {@code ?}
+	 *
+	 * @return The fingerprint
+	 */
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	/**
+	 * The normalized literals, in the order they appear in the query
+	 *
+	 * @return The literals
+	 */
+	public List<HqlParser.LiteralExpressionContext> getLiterals() {
+		return literals;
+	}
+
+	/**
+	 * The 1-based position of the given literal among the normalized literals
+	 *
+	 * @param literal The literal parse-tree node
+	 *
+	 * @return The position, or -1 if the literal is not normalized
+	 */
+	public int getLiteralPosition(HqlParser.LiteralExpressionContext literal) {
+		final Integer position = literalPositions.get( literal );
+		return position == null ? -1 : position;
+	}
+}
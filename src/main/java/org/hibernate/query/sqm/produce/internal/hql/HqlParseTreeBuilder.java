@@ -6,14 +6,25 @@
  */
 package org.hibernate.query.sqm.produce.internal.hql;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
 import org.hibernate.query.sqm.hql.internal.antlr.HqlParser;
 import org.hibernate.query.sqm.hql.internal.antlr.HqlLexer;
 
 import org.jboss.logging.Logger;
 
-import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.ANTLRErrorStrategy;
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.atn.ATNState;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
 
 /**
  * @author Steve Ebersole
@@ -24,11 +35,62 @@ public class HqlParseTreeBuilder {
 	/**
 	 * Singleton access
 	 */
-	public static final HqlParseTreeBuilder INSTANCE = new HqlParseTreeBuilder();
+	public static final HqlParseTreeBuilder INSTANCE = new HqlParseTreeBuilder( false, false );
+
+	/**
+	 * Singleton access to a builder which first attempts the parse using Antlr's
+	 * faster (but weaker) SLL prediction, falling back to full LL prediction only
+	 * when SLL cannot handle the query.  See {@link #parseStatement}.
+	 */
+	public static final HqlParseTreeBuilder TWO_STAGE_INSTANCE = new HqlParseTreeBuilder( true, false );
+
+	/**
+	 * Singleton access to a builder whose parses are interleaved with the semantic analysis :
+	 * each clause and predicate is analyzed as soon as the parser completes it, and its part
+	 * of the parse tree released.  See {@link SinglePassSemanticQueryBuilder}.
+	 */
+	public static final HqlParseTreeBuilder SINGLE_PASS_INSTANCE = new HqlParseTreeBuilder( false, true );
+
+	/**
+	 * Singleton access to a builder combining the {@link #TWO_STAGE_INSTANCE two-stage prediction}
+	 * and the {@link #SINGLE_PASS_INSTANCE single-pass analysis}.
+	 */
+	public static final HqlParseTreeBuilder TWO_STAGE_SINGLE_PASS_INSTANCE = new HqlParseTreeBuilder( true, true );
+
+	private final boolean twoStagePrediction;
+	private final boolean singlePassAnalysis;
+
+	private HqlParseTreeBuilder(boolean twoStagePrediction, boolean singlePassAnalysis) {
+		this.twoStagePrediction = twoStagePrediction;
+		this.singlePassAnalysis = singlePassAnalysis;
+	}
+
+	public boolean isTwoStagePrediction() {
+		return twoStagePrediction;
+	}
+
+	/**
+	 * Should the semantic analysis be performed while parsing (see {@link SinglePassSemanticQueryBuilder})
+	 * rather than over the completed parse tree?
+	 *
+	 * @return {@code true} if the analysis should be single-pass
+	 */
+	public boolean isSinglePassAnalysis() {
+		return singlePassAnalysis;
+	}
 
-	public HqlParser parseHql(String hql) {
+	/**
+	 * Builds the parser for the given HQL/JPQL query.  The query is lexed in place : the tokens refer to
+	 * it rather than to a copy of it, and their text is only materialized when asked for (see
+	 * {@link HqlTokenText}).
+	 *
+	 * @param hql The query
+	 *
+	 * @return The parser
+	 */
+	public HqlParser parseHql(CharSequence hql) {
 		// Build the lexer
-		HqlLexer hqlLexer = new HqlLexer( new ANTLRInputStream( hql ) );
+		HqlLexer hqlLexer = new HqlLexer( new CharSequenceCharStream( hql ) );
 
 		// Build the parser...
 		final HqlParser parser = new HqlParser( new CommonTokenStream( hqlLexer ) ) {
@@ -38,8 +100,230 @@ public class HqlParseTreeBuilder {
 			}
 		};
 
-		HqlParseTreePrinter.logParseTree( parser );
-
 		return parser;
 	}
+
+	/**
+	 * Builds the complete parse tree for the given HQL/JPQL query string.
+	 * <p/>
+	 * For a two-stage builder, the parse is first attempted using SLL prediction
+	 * and an error strategy which bails out on the first syntax error.  SLL is
+	 * sufficient for virtually all well-formed queries; only if it fails is the
+	 * query re-parsed using full LL prediction and the default error strategy (so that
+	 * real syntax errors get reported exactly as they would be from a single LL parse).
+	 *
+	 * @param hql The query string
+	 *
+	 * @return The parse tree
+	 */
+	public HqlParser.StatementContext parseStatement(CharSequence hql) {
+		return parseStatement( hql, null );
+	}
+
+	/**
+	 * Builds the parse tree for the given HQL/JPQL query string, notifying a listener of the
+	 * parser's progress.
+	 * <p/>
+	 * Each parse attempt (a two-stage builder may need two, see {@link #parseStatement(CharSequence)})
+	 * gets a new listener from the factory, so that the listener of a failed SLL attempt never
+	 * sees the events of the LL re-parse.  As a mis-predicted SLL parse may hand the listener
+	 * rules the LL parse would not build, an exception thrown by the listener of the SLL attempt
+	 * makes the query get re-parsed as well : if it is a real error, the listener of the LL
+	 * re-parse throws it again.
+	 * <p/>
+	 * As the listener may alter the tree while it is built (see {@link SinglePassSemanticQueryBuilder}),
+	 * the tree is not logged.
+	 *
+	 * @param hql The query string
+	 * @param parseListenerFactory Creates the listener for each parse attempt; may be {@code null}
+	 *
+	 * @return The parse tree
+	 */
+	public HqlParser.StatementContext parseStatement(
+			CharSequence hql,
+			Supplier<? extends ParseTreeListener> parseListenerFactory) {
+		return parseStatement( parseHql( hql ), parseListenerFactory );
+	}
+
+	/**
+	 * Builds the parse tree using the given parser, as obtained from {@link #parseHql}.  The
+	 * error listeners attached to the parser are notified of syntax errors just as they would be
+	 * by a single LL parse, whatever the number of parse attempts.
+	 *
+	 * @param parser The parser of the query
+	 * @param parseListenerFactory Creates the listener for each parse attempt; may be {@code null}
+	 *
+	 * @return The parse tree
+	 */
+	public HqlParser.StatementContext parseStatement(
+			HqlParser parser,
+			Supplier<? extends ParseTreeListener> parseListenerFactory) {
+		final HqlParser.StatementContext statement = doParseStatement( parser, parseListenerFactory );
+		if ( parseListenerFactory == null ) {
+			HqlParseTreePrinter.logParseTree( parser, statement );
+		}
+
+		// when over budget the DFA is only cleared : the parses to come re-warm it, rather than
+		// this one query paying for re-parsing the whole warm-up corpus
+		HqlDfaCache.INSTANCE.checkBudget();
+
+		return statement;
+	}
+
+	private HqlParser.StatementContext doParseStatement(
+			HqlParser parser,
+			Supplier<? extends ParseTreeListener> parseListenerFactory) {
+		if ( !twoStagePrediction ) {
+			addParseListener( parser, parseListenerFactory );
+			return parser.statement();
+		}
+
+		final ANTLRErrorStrategy originalErrorStrategy = parser.getErrorHandler();
+		// the SLL attempt bails out on the first syntax error, which must not be reported : if
+		// it is a real one, the LL re-parse reports it again
+		final List<? extends ANTLRErrorListener> originalErrorListeners = new ArrayList<>( parser.getErrorListeners() );
+
+		parser.getInterpreter().setPredictionMode( PredictionMode.SLL );
+		parser.setErrorHandler( new BailErrorStrategy() );
+		parser.removeErrorListeners();
+		addParseListener( parser, parseListenerFactory );
+		try {
+			return parser.statement();
+		}
+		catch (ParseCancellationException e) {
+			log.debugf(
+					"SLL prediction failed for query, re-parsing using full LL prediction : %s",
+					parser.getTokenStream().getTokenSource().getInputStream()
+			);
+		}
+		catch (RuntimeException e) {
+			if ( parseListenerFactory == null ) {
+				throw e;
+			}
+			log.debugf(
+					e,
+					"Parse listener failed during SLL prediction for query, re-parsing using full LL prediction : %s",
+					parser.getTokenStream().getTokenSource().getInputStream()
+			);
+		}
+		finally {
+			for ( ANTLRErrorListener errorListener : originalErrorListeners ) {
+				parser.addErrorListener( errorListener );
+			}
+		}
+
+		parser.reset();
+		// a listener failure skips the restoring of the state on exiting the rule; the root context
+		// must not record it as its invoking state
+		parser.setState( ATNState.INVALID_STATE_NUMBER );
+		parser.getInterpreter().setPredictionMode( PredictionMode.LL );
+		parser.setErrorHandler( originalErrorStrategy );
+		addParseListener( parser, parseListenerFactory );
+		return parser.statement();
+	}
+
+	private static void addParseListener(HqlParser parser, Supplier<? extends ParseTreeListener> parseListenerFactory) {
+		parser.removeParseListeners();
+		if ( parseListenerFactory != null ) {
+			parser.addParseListener( parseListenerFactory.get() );
+		}
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// Prediction DFA cache management
+	//
+	// 		the DFA is shared by all lexer/parser instances (see HqlDfaCache), so these
+	// 		operations affect all builders
+
+	private static volatile List<String> dfaWarmUpCorpus = Collections.emptyList();
+
+	/**
+	 * Pre-warm the shared prediction DFA by parsing each of the given queries
+	 * (without semantic analysis).  Queries which fail to parse are skipped.
+	 * <p/>
+	 * The corpus is remembered so that the DFA can be rebuilt from it after it
+	 * gets cleared - see {@link #clearDfaCache}.
+	 *
+	 * @param queries The query corpus
+	 *
+	 * @return The number of queries which parsed successfully
+	 */
+	public int warmUpDfaCache(Iterable<String> queries) {
+		final List<String> corpus = new ArrayList<>();
+		for ( String query : queries ) {
+			corpus.add( query );
+		}
+		dfaWarmUpCorpus = Collections.unmodifiableList( corpus );
+
+		final int parsed = warmUp( corpus );
+		log.debugf(
+				"Warmed HQL prediction DFA cache from %s of %s queries; DFA now contains %s states",
+				parsed,
+				corpus.size(),
+				HqlDfaCache.INSTANCE.getStateCount()
+		);
+		return parsed;
+	}
+
+	private int warmUp(List<String> corpus) {
+		int parsed = 0;
+		for ( String query : corpus ) {
+			final HqlParser parser = parseHql( query );
+			// warm-up is best effort; do not report syntax errors
+			parser.removeErrorListeners();
+			try {
+				doParseStatement( parser, null );
+				if ( parser.getNumberOfSyntaxErrors() == 0 ) {
+					parsed++;
+				}
+			}
+			catch (RuntimeException e) {
+				log.debugf( "Skipping query during DFA warm-up : %s (%s)", query, e.getMessage() );
+			}
+		}
+		return parsed;
+	}
+
+	private void rebuildDfaCache() {
+		final List<String> corpus = dfaWarmUpCorpus;
+		if ( !corpus.isEmpty() ) {
+			warmUp( corpus );
+		}
+	}
+
+	/**
+	 * The number of states currently held in the shared prediction DFA.
+	 *
+	 * @return The DFA state count
+	 */
+	public int getDfaCacheStateCount() {
+		return HqlDfaCache.INSTANCE.getStateCount();
+	}
+
+	/**
+	 * Clear the shared prediction DFA, optionally re-warming it from the last warm-up corpus.
+	 * The re-warming happens on the calling thread.
+	 *
+	 * @param rebuild Whether to re-warm the DFA (see {@link #warmUpDfaCache})
+	 */
+	public void clearDfaCache(boolean rebuild) {
+		HqlDfaCache.INSTANCE.clear();
+		if ( rebuild ) {
+			rebuildDfaCache();
+		}
+	}
+
+	/**
+	 * Apply a budget to the shared prediction DFA, as a number of DFA states.  When the
+	 * DFA grows beyond the budget it is cleared, and re-warmed by the subsequent parses.  The
+	 * check happens periodically as part of parsing - see {@link HqlDfaCache#BUDGET_CHECK_INTERVAL}.
+	 * To re-warm it from the warm-up corpus at a time of your choosing instead, see
+	 * {@link #clearDfaCache}.
+	 *
+	 * @param maxStateCount The maximum number of DFA states; negative disables the budget
+	 */
+	public void setDfaCacheBudget(int maxStateCount) {
+		HqlDfaCache.INSTANCE.setMaxStateCount( maxStateCount );
+	}
 }
@@ -12,78 +12,104 @@ import org.hibernate.query.sqm.hql.internal.antlr.HqlParserBaseListener;
 import org.jboss.logging.Logger;
 
 import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.misc.Interval;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 
 /**
+ * Renders an already built parse tree to the {@code org.hibernate.sqm.hql.parseTree}
+ * logger (at debug level).
+ * <p/>
+ * The tree is rendered as a single log message, and only when that message is
+ * actually written (the rendering happens in the message argument's {@code toString}).
+ *
  * @author Steve Ebersole
  */
 @SuppressWarnings("WeakerAccess")
 public class HqlParseTreePrinter extends HqlParserBaseListener {
 	private static final Logger HQL_LOGGER = Logger.getLogger( "org.hibernate.sqm.hql.parseTree" );
 
-	public static void logParseTree(HqlParser parser) {
+	/**
+	 * Log the given parse tree, which should have been built by the given parser.
+	 *
+	 * @param parser The parser which built the tree
+	 * @param tree The parse tree
+	 */
+	public static void logParseTree(HqlParser parser, ParserRuleContext tree) {
 		if ( !HQL_LOGGER.isDebugEnabled() ) {
 			return;
 		}
 
-		ParseTreeWalker.DEFAULT.walk( new HqlParseTreePrinter( parser ), parser.statement() );
-		parser.reset();
+		HQL_LOGGER.debugf( "HQL parse tree :%n%s", new LazyRendering( parser, tree ) );
+	}
+
+	private static class LazyRendering {
+		private final HqlParser parser;
+		private final ParserRuleContext tree;
+
+		private LazyRendering(HqlParser parser, ParserRuleContext tree) {
+			this.parser = parser;
+			this.tree = tree;
+		}
+
+		@Override
+		public String toString() {
+			final StringBuilder buffer = new StringBuilder();
+			ParseTreeWalker.DEFAULT.walk( new HqlParseTreePrinter( parser, buffer ), tree );
+			return buffer.toString();
+		}
 	}
 
-	private final HqlParser parser;
+	private final String[] ruleNames;
+	private final StringBuilder buffer;
 
 	private int depth = 0;
 
-	public HqlParseTreePrinter(HqlParser parser) {
-		this.parser = parser;
+	public HqlParseTreePrinter(HqlParser parser, StringBuilder buffer) {
+		this.ruleNames = parser.getRuleNames();
+		this.buffer = buffer;
 	}
 
 	@Override
 	public void enterEveryRule(ParserRuleContext ctx) {
-		final String ruleName = parser.getRuleNames()[ctx.getRuleIndex()];
-
-		if ( !ruleName.endsWith( "Keyword" ) ) {
-			HQL_LOGGER.debugf(
-					"%s %s (%s) [`%s`]",
-					enterRulePadding(),
-					ctx.getClass().getSimpleName(),
-					ruleName,
-					ctx.getText()
-			);
+		if ( !isKeywordRule( ctx ) ) {
+			appendRule( depth++, "->", ctx );
 		}
 		super.enterEveryRule( ctx );
 	}
 
-	private String enterRulePadding() {
-		return pad( depth++ ) + "->";
-	}
-
-	private String pad(int depth) {
-		StringBuilder buf = new StringBuilder( 2 * depth );
-		for ( int i = 0; i < depth; i++ ) {
-			buf.append( "  " );
-		}
-		return buf.toString();
-	}
-
 	@Override
 	public void exitEveryRule(ParserRuleContext ctx) {
 		super.exitEveryRule( ctx );
 
-		final String ruleName = parser.getRuleNames()[ctx.getRuleIndex()];
+		if ( !isKeywordRule( ctx ) ) {
+			appendRule( --depth, "<-", ctx );
+		}
+	}
+
+	private boolean isKeywordRule(ParserRuleContext ctx) {
+		return ruleNames[ctx.getRuleIndex()].endsWith( "Keyword" );
+	}
 
-		if ( !ruleName.endsWith( "Keyword" ) ) {
-			HQL_LOGGER.debugf(
-					"%s %s (%s) [`%s`]",
-					exitRulePadding(),
-					ctx.getClass().getSimpleName(),
-					parser.getRuleNames()[ctx.getRuleIndex()],
-					ctx.getText()
-			);
+	private void appendRule(int depth, String direction, ParserRuleContext ctx) {
+		for ( int i = 0; i < depth; i++ ) {
+			buffer.append( "  " );
 		}
+		buffer.append( direction )
+				.append( ' ' ).append( ctx.getClass().getSimpleName() )
+				.append( " (" ).append( ruleNames[ctx.getRuleIndex()] ).append( ") [`" );
+		appendSourceText( ctx );
+		buffer.append( "`]" ).append( System.lineSeparator() );
 	}
 
-	private String exitRulePadding() {
-		return pad( --depth ) + "<-";
+	private void appendSourceText(ParserRuleContext ctx) {
+		// use the rule's slice of the query string rather than ctx.getText(), which
+		// re-concatenates the text of every descendant node for every rule
+		final Token start = ctx.getStart();
+		final Token stop = ctx.getStop();
+		if ( start == null || stop == null || stop.getStopIndex() < start.getStartIndex() ) {
+			return;
+		}
+		buffer.append( start.getInputStream().getText( Interval.of( start.getStartIndex(), stop.getStopIndex() ) ) );
 	}
 }
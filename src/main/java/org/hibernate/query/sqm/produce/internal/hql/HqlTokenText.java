@@ -0,0 +1,153 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.produce.internal.hql;
+
+import java.nio.CharBuffer;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.Token;
+
+/**
+ * Access to the text of tokens without materializing it : for tokens lexed from a
+ * {@link CharSequenceCharStream} the text is a view over the query, and literal values
+ * are parsed straight from it.
+ */
+public class HqlTokenText {
+	private HqlTokenText() {
+	}
+
+	/**
+	 * The text of the token.  For tokens lexed from a {@link CharSequenceCharStream} this is a
+	 * (read-only) view over the query rather than a copy.
+	 *
+	 * @param token The token
+	 *
+	 * @return The token's text
+	 */
+	public static CharSequence of(Token token) {
+		final CharStream input = token.getInputStream();
+		if ( input instanceof CharSequenceCharStream && token.getStartIndex() >= 0 ) {
+			return CharBuffer.wrap(
+					( (CharSequenceCharStream) input ).getCharSequence(),
+					token.getStartIndex(),
+					token.getStopIndex() + 1
+			);
+		}
+		// tokens conjured up by the error recovery carry their own text
+		return token.getText();
+	}
+
+	/**
+	 * The value of a quoted (string or character) literal token : its text without the enclosing
+	 * quotes, and for single-quoted literals with doubled single quotes collapsed.  Escape
+	 * sequences are kept as they are.
+	 *
+	 * @param token The literal token
+	 *
+	 * @return The literal value
+	 */
+	public static String unquote(Token token) {
+		final CharSequence text = of( token );
+		final int end = text.length() - 1;
+		if ( text.charAt( 0 ) == '"' ) {
+			return text.subSequence( 1, end ).toString();
+		}
+
+		// single-quoted : `'it''s'`, or the concatenation `'it''''s'` of adjacent literals
+		StringBuilder value = null;
+		int copied = 1;
+		for ( int i = 1; i < end; i++ ) {
+			if ( text.charAt( i ) == '\'' && i + 1 < end && text.charAt( i + 1 ) == '\'' ) {
+				if ( value == null ) {
+					value = new StringBuilder( end - 1 );
+				}
+				value.append( text, copied, i + 1 );
+				copied = i + 2;
+				i++;
+			}
+		}
+		if ( value == null ) {
+			return text.subSequence( 1, end ).toString();
+		}
+		return value.append( text, copied, end ).toString();
+	}
+
+	/**
+	 * Parses the decimal integer value of the text, as {@link Integer#parseInt(String)} would.
+	 *
+	 * @param text The text
+	 *
+	 * @return The value
+	 *
+	 * @throws NumberFormatException if the text is not a decimal integer in the range of int
+	 */
+	public static int parseInt(CharSequence text) {
+		final long value = parseLong( text, 0, text.length() );
+		if ( value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ) {
+			throw new NumberFormatException( "Value out of range for int : \"" + text + "\"" );
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Parses the decimal long value of the text, ignoring a trailing {@code l} or {@code L}
+	 * suffix, as {@link Long#parseLong(String)} would the text without the suffix.
+	 *
+	 * @param text The text
+	 *
+	 * @return The value
+	 *
+	 * @throws NumberFormatException if the text is not a decimal integer in the range of long
+	 */
+	public static long parseLongWithOptionalSuffix(CharSequence text) {
+		int end = text.length();
+		if ( end > 0 && ( text.charAt( end - 1 ) == 'l' || text.charAt( end - 1 ) == 'L' ) ) {
+			end--;
+		}
+		return parseLong( text, 0, end );
+	}
+
+	private static long parseLong(CharSequence text, int start, int end) {
+		// accumulates negatively, as Long#parseLong does, so that Long.MIN_VALUE can be parsed
+		if ( start >= end ) {
+			throw numberFormatException( text );
+		}
+
+		boolean negative = false;
+		long limit = -Long.MAX_VALUE;
+		int i = start;
+		final char first = text.charAt( i );
+		if ( first == '-' || first == '+' ) {
+			if ( first == '-' ) {
+				negative = true;
+				limit = Long.MIN_VALUE;
+			}
+			if ( ++i == end ) {
+				throw numberFormatException( text );
+			}
+		}
+
+		final long multiplicationLimit = limit / 10;
+		long result = 0;
+		for ( ; i < end; i++ ) {
+			final int digit = text.charAt( i ) - '0';
+			if ( digit < 0 || digit > 9 || result < multiplicationLimit ) {
+				throw numberFormatException( text );
+			}
+			result *= 10;
+			if ( result < limit + digit ) {
+				throw numberFormatException( text );
+			}
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+
+	private static NumberFormatException numberFormatException(CharSequence text) {
+		return new NumberFormatException( "For input string: \"" + text + "\"" );
+	}
+}
@@ -7,7 +7,6 @@
 package org.hibernate.query.sqm.produce.internal.hql;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -15,6 +14,7 @@ import java.util.List;
 import java.util.Locale;
 
 import org.hibernate.internal.util.collections.Stack;
+import org.hibernate.internal.util.collections.StackDepthPool;
 import org.hibernate.persister.collection.spi.CollectionElement;
 import org.hibernate.persister.collection.spi.CollectionPersister.CollectionClassification;
 import org.hibernate.persister.common.spi.NavigableSource;
@@ -33,7 +33,7 @@ import org.hibernate.query.sqm.hql.internal.antlr.HqlParser;
 import org.hibernate.query.sqm.hql.internal.antlr.HqlParserBaseVisitor;
 import org.hibernate.query.sqm.produce.internal.NavigableBindingHelper;
 import org.hibernate.query.sqm.produce.internal.QuerySpecProcessingStateDmlImpl;
-import org.hibernate.query.sqm.produce.internal.QuerySpecProcessingStateStandardImpl;
+import org.hibernate.query.sqm.produce.internal.QuerySpecProcessingStatePool;
 import org.hibernate.query.sqm.produce.internal.hql.navigable.NavigableBindingResolver;
 import org.hibernate.query.sqm.produce.internal.hql.navigable.PathHelper;
 import org.hibernate.query.sqm.produce.internal.hql.navigable.PathResolverBasicImpl;
@@ -44,6 +44,7 @@ import org.hibernate.query.sqm.produce.spi.ImplicitAliasGenerator;
 import org.hibernate.query.sqm.produce.spi.ParameterDeclarationContext;
 import org.hibernate.query.sqm.produce.spi.ParsingContext;
 import org.hibernate.query.sqm.produce.spi.QuerySpecProcessingState;
+import org.hibernate.query.sqm.produce.spi.ResolutionContext;
 import org.hibernate.query.sqm.tree.SqmDeleteStatement;
 import org.hibernate.query.sqm.tree.SqmInsertSelectStatement;
 import org.hibernate.query.sqm.tree.SqmJoinType;
@@ -71,6 +72,7 @@ import org.hibernate.query.sqm.tree.expression.LiteralFloatSqmExpression;
 import org.hibernate.query.sqm.tree.expression.LiteralIntegerSqmExpression;
 import org.hibernate.query.sqm.tree.expression.LiteralLongSqmExpression;
 import org.hibernate.query.sqm.tree.expression.LiteralNullSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralParameterSqmExpression;
 import org.hibernate.query.sqm.tree.expression.LiteralSqmExpression;
 import org.hibernate.query.sqm.tree.expression.LiteralStringSqmExpression;
 import org.hibernate.query.sqm.tree.expression.LiteralTrueSqmExpression;
@@ -137,6 +139,9 @@ import org.hibernate.query.sqm.tree.from.SqmFromElementSpace;
 import org.hibernate.query.sqm.tree.from.SqmFromExporter;
 import org.hibernate.query.sqm.tree.from.SqmQualifiedJoin;
 import org.hibernate.query.sqm.tree.from.SqmRoot;
+import org.hibernate.query.sqm.tree.group.SqmGroupByClause;
+import org.hibernate.query.sqm.tree.group.SqmGrouping;
+import org.hibernate.query.sqm.tree.group.SqmHavingClause;
 import org.hibernate.query.sqm.tree.internal.ParameterCollector;
 import org.hibernate.query.sqm.tree.internal.SqmDeleteStatementImpl;
 import org.hibernate.query.sqm.tree.internal.SqmInsertSelectStatementImpl;
@@ -146,18 +151,18 @@ import org.hibernate.query.sqm.tree.order.SqmOrderByClause;
 import org.hibernate.query.sqm.tree.order.SqmSortOrder;
 import org.hibernate.query.sqm.tree.order.SqmSortSpecification;
 import org.hibernate.query.sqm.tree.paging.SqmLimitOffsetClause;
-import org.hibernate.query.sqm.tree.predicate.AndSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.BetweenSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.EmptinessSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.GroupedSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.InListSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.InSubQuerySqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.JunctionSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.LikeSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.LiteralInListSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.MemberOfSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.NegatableSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.NegatedSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.NullnessSqmPredicate;
-import org.hibernate.query.sqm.tree.predicate.OrSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.RelationalPredicateOperator;
 import org.hibernate.query.sqm.tree.predicate.RelationalSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
@@ -170,7 +175,6 @@ import org.hibernate.query.sqm.tree.select.SqmSelection;
 import org.jboss.logging.Logger;
 
 import org.antlr.v4.runtime.Token;
-import org.antlr.v4.runtime.tree.TerminalNode;
 
 /**
  * @author Steve Ebersole
@@ -188,21 +192,69 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 	 * @return The semantic query model
 	 */
 	public static SqmStatement buildSemanticModel(HqlParser.StatementContext statement, ParsingContext parsingContext) {
-		return new SemanticQueryBuilder( parsingContext ).visitStatement( statement );
+		return new SemanticQueryBuilder( parsingContext, null ).visitStatement( statement );
 	}
 
+	/**
+	 * Builds the semantic model of the query, replacing the literals identified by the
+	 * given normalization with {@link LiteralParameterSqmExpression} synthetic parameters.
+	 *
+	 * @param statement The statement to analyze.
+	 * @param parsingContext Access to things needed to perform the analysis
+	 * @param literalNormalization The literals to replace
+	 *
+	 * @return The (normalized) semantic query model
+	 */
+	public static SqmStatement buildNormalizedSemanticModel(
+			HqlParser.StatementContext statement,
+			ParsingContext parsingContext,
+			HqlLiteralNormalization literalNormalization) {
+		return new SemanticQueryBuilder( parsingContext, literalNormalization ).visitStatement( statement );
+	}
+
+	/**
+	 * Interprets the values of the literals identified by the given normalization.
+	 *
+	 * @param parsingContext Access to things needed to perform the analysis
+	 * @param literalNormalization The normalized literals
+	 *
+	 * @return The literal values, in the order of {@link HqlLiteralNormalization#getLiterals()}
+	 */
+	public static List<Object> interpretLiteralValues(
+			ParsingContext parsingContext,
+			HqlLiteralNormalization literalNormalization) {
+		final SemanticQueryBuilder builder = new SemanticQueryBuilder( parsingContext, null );
+		final List<Object> values = new ArrayList<>( literalNormalization.getLiterals().size() );
+		for ( HqlParser.LiteralExpressionContext literal : literalNormalization.getLiterals() ) {
+			values.add( builder.interpretLiteral( literal ).getLiteralValue() );
+		}
+		return values;
+	}
+
+	// the parameter declaration contexts only differ by their answer, so two shared instances do
+	private static final ParameterDeclarationContext MULTI_VALUED_BINDING_ALLOWED = () -> true;
+	private static final ParameterDeclarationContext MULTI_VALUED_BINDING_DISALLOWED = () -> false;
+
 	private final ParsingContext parsingContext;
+	private final HqlLiteralNormalization literalNormalization;
 
 	private final Stack<NavigableBindingResolver> pathResolverStack = new Stack<>();
 	private final Stack<ParameterDeclarationContext> parameterDeclarationContextStack = new Stack<>();
 	private final Stack<QuerySpecProcessingState> querySpecProcessingStateStack = new Stack<>();
 
+	// Resolvers and query-spec processing states are only referenced while on their stack, so
+	// they are pooled by stack depth and reset for reuse rather than re-created
+	private final BasicPathResolverPool basicPathResolverPool = new BasicPathResolverPool();
+	private final QuerySpecProcessingStatePool querySpecProcessingStatePool;
+
 	private boolean inWhereClause;
 	private ParameterCollector parameterCollector;
 
 
-	private  SemanticQueryBuilder(ParsingContext parsingContext) {
+	SemanticQueryBuilder(ParsingContext parsingContext, HqlLiteralNormalization literalNormalization) {
 		this.parsingContext = parsingContext;
+		this.literalNormalization = literalNormalization;
+		this.querySpecProcessingStatePool = new QuerySpecProcessingStatePool( parsingContext );
 	}
 
 	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -210,9 +262,7 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 
 	@Override
 	public SqmStatement visitStatement(HqlParser.StatementContext ctx) {
-		// parameters allow multi-valued bindings only in very limited cases, so for
-		// the base case here we say false
-		parameterDeclarationContextStack.push( () -> false );
+		pushStatementParameterDeclarationContext();
 
 		try {
 			if ( ctx.insertStatement() != null ) {
@@ -235,6 +285,12 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 		throw new ParsingException( "Unexpected statement type [not INSERT, UPDATE, DELETE or SELECT] : " + ctx.getText() );
 	}
 
+	void pushStatementParameterDeclarationContext() {
+		// parameters allow multi-valued bindings only in very limited cases, so for
+		// the base case here we say false
+		parameterDeclarationContextStack.push( MULTI_VALUED_BINDING_DISALLOWED );
+	}
+
 	@Override
 	public SqmSelectStatement visitSelectStatement(HqlParser.SelectStatementContext ctx) {
 		if ( parsingContext.getSessionFactory().useStrictJpaCompliance() ) {
@@ -246,8 +302,7 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 			}
 		}
 
-		final SqmSelectStatementImpl selectStatement = new SqmSelectStatementImpl();
-		parameterCollector = selectStatement;
+		final SqmSelectStatementImpl selectStatement = startSelectStatement();
 
 		try {
 			selectStatement.applyQuerySpec( visitQuerySpec( ctx.querySpec() ) );
@@ -259,104 +314,245 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 		return selectStatement;
 	}
 
-	@Override
-	public SqmQuerySpec visitQuerySpec(HqlParser.QuerySpecContext ctx) {
-		querySpecProcessingStateStack.push(
-				new QuerySpecProcessingStateStandardImpl(
-						parsingContext,
-						querySpecProcessingStateStack.getCurrent()
-				)
-		);
-		pathResolverStack.push( new PathResolverBasicImpl( querySpecProcessingStateStack.getCurrent() ) );
+	/**
+	 * Builds the semantic model of a query recognized by the {@link HqlFastPathRecognizer}, taking
+	 * the same steps as for the parse tree of the query
+	 */
+	SqmSelectStatement buildSimpleSelectStatement(HqlFastPathRecognizer.SimpleSelect query) {
+		pushStatementParameterDeclarationContext();
 		try {
-			// visit from-clause first!!!
-			visitFromClause( ctx.fromClause() );
-
-			final SqmSelectClause selectClause;
-			if ( ctx.selectClause() != null ) {
-				selectClause = visitSelectClause( ctx.selectClause() );
-			}
-			else {
-				log.info( "Encountered implicit select clause which is a deprecated feature : " + ctx.getText() );
-				selectClause = buildInferredSelectClause( querySpecProcessingStateStack.getCurrent().getFromClause() );
+			if ( query.getSelection() == null && parsingContext.getSessionFactory().useStrictJpaCompliance() ) {
+				throw new StrictJpaComplianceViolation(
+						"Encountered implicit select-clause, but strict JPQL compliance was requested",
+						StrictJpaComplianceViolation.Type.IMPLICIT_SELECT
+				);
 			}
 
-			final SqmWhereClause whereClause;
-			if ( ctx.whereClause() != null ) {
-				whereClause = visitWhereClause( ctx.whereClause() );
+			final SqmSelectStatementImpl selectStatement = startSelectStatement();
+			try {
+				pushQuerySpec();
+				try {
+					selectStatement.applyQuerySpec( buildSimpleQuerySpec( query ) );
+				}
+				finally {
+					popQuerySpec();
+				}
 			}
-			else {
-				whereClause = null;
+			finally {
+				selectStatement.wrapUp();
 			}
+			return selectStatement;
+		}
+		finally {
+			parameterDeclarationContextStack.pop();
+		}
+	}
 
-			final SqmOrderByClause orderByClause;
-			if ( ctx.orderByClause() != null ) {
-				if ( parsingContext.getSessionFactory().useStrictJpaCompliance()
-						&& querySpecProcessingStateStack.getCurrent().getContainingQueryState() != null ) {
-					throw new StrictJpaComplianceViolation(
-							StrictJpaComplianceViolation.Type.SUBQUERY_ORDER_BY
-					);
-				}
+	private SqmQuerySpec buildSimpleQuerySpec(HqlFastPathRecognizer.SimpleSelect query) {
+		final SqmFromClause fromClause = querySpecProcessingStateStack.getCurrent().getFromClause();
+		currentFromElementSpace = fromClause.makeFromElementSpace();
+		buildRoot(
+				query.getEntityName(),
+				query.getAlias()
+		);
+		currentFromElementSpace = null;
 
-				pathResolverStack.push(
-						new PathResolverBasicImpl(
-								new OrderByResolutionContext(
-										parsingContext,
-										querySpecProcessingStateStack.getCurrent().getFromClause(),
-										selectClause
-								)
-						)
+		final SqmSelectClause selectClause;
+		if ( query.getSelection() != null ) {
+			pathResolverStack.push( new PathResolverSelectClauseImpl( querySpecProcessingStateStack.getCurrent() ) );
+			try {
+				selectClause = new SqmSelectClause( false );
+				selectClause.addSelection(
+						buildSelection( resolveSimplePath( query.getSelection() ), interpretResultIdentifier( null ) )
 				);
-				try {
-					orderByClause = visitOrderByClause( ctx.orderByClause() );
-				}
-				finally {
-					pathResolverStack.pop();
-				}
 			}
-			else {
-				orderByClause = null;
+			finally {
+				pathResolverStack.pop();
 			}
+		}
+		else {
+			log.info( "Encountered implicit select clause which is a deprecated feature : " + query.getEntityName() );
+			selectClause = buildInferredSelectClause( fromClause );
+		}
 
-			final SqmLimitOffsetClause limitOffsetClause;
-			if ( ctx.limitClause() != null || ctx.offsetClause() != null ) {
-				if ( parsingContext.getSessionFactory().useStrictJpaCompliance() ) {
-					throw new StrictJpaComplianceViolation(
-							StrictJpaComplianceViolation.Type.LIMIT_OFFSET_CLAUSE
-					);
-				}
+		SqmWhereClause whereClause = null;
+		if ( query.getRestrictedPath() != null ) {
+			inWhereClause = true;
+			try {
+				final SqmExpression lhs = resolveSimplePath( query.getRestrictedPath() );
+				final SqmExpression rhs = query.getParameterName() != null
+						? buildNamedParameter( query.getParameterName() )
+						: buildPositionalParameter( query.getParameterPosition() );
+				whereClause = new SqmWhereClause( buildRelationalPredicate( query.getOperator(), lhs, rhs ) );
+			}
+			finally {
+				inWhereClause = false;
+			}
+		}
 
-				if ( querySpecProcessingStateStack.getCurrent().getContainingQueryState() != null
-						&& orderByClause == null ) {
-					throw new SemanticException( "limit and offset clause require an order-by clause" );
-				}
+		return new SqmQuerySpec( fromClause, selectClause, whereClause, null, null, null, null );
+	}
 
-				final SqmExpression limitExpression;
-				if ( ctx.limitClause() != null ) {
-					limitExpression = visitLimitClause( ctx.limitClause() );
-				} else {
-					limitExpression = null;
-				}
+	SqmSelectStatementImpl startSelectStatement() {
+		final SqmSelectStatementImpl selectStatement = new SqmSelectStatementImpl();
+		parameterCollector = selectStatement;
+		return selectStatement;
+	}
 
-				final SqmExpression offsetExpression;
-				if ( ctx.offsetClause() != null ) {
-					offsetExpression = visitOffsetClause( ctx.offsetClause() );
-				} else {
-					offsetExpression = null;
-				}
+	private void pushBasicPathResolver(ResolutionContext context) {
+		pathResolverStack.push( basicPathResolverPool.acquire( pathResolverStack.depth(), context ) );
+	}
+
+	private void pushQuerySpecProcessingState() {
+		querySpecProcessingStateStack.push(
+				querySpecProcessingStatePool.acquire(
+						querySpecProcessingStateStack.depth(),
+						querySpecProcessingStateStack.getCurrent()
+				)
+		);
+	}
+
+	private static class BasicPathResolverPool extends StackDepthPool<PathResolverBasicImpl,ResolutionContext> {
+		private BasicPathResolverPool() {
+			super( 4 );
+		}
+
+		@Override
+		protected PathResolverBasicImpl create(ResolutionContext context) {
+			return new PathResolverBasicImpl( context );
+		}
 
-				limitOffsetClause = new SqmLimitOffsetClause( limitExpression, offsetExpression );
+		@Override
+		protected void reset(PathResolverBasicImpl resolver, ResolutionContext context) {
+			resolver.reset( context );
+		}
+	}
+
+	void pushQuerySpec() {
+		pushQuerySpecProcessingState();
+		pushBasicPathResolver( querySpecProcessingStateStack.getCurrent() );
+	}
+
+	void popQuerySpec() {
+		pathResolverStack.pop();
+		querySpecProcessingStateStack.pop();
+	}
+
+	@Override
+	public SqmQuerySpec visitQuerySpec(HqlParser.QuerySpecContext ctx) {
+		pushQuerySpec();
+		try {
+			return buildQuerySpec( ctx );
+		}
+		finally {
+			popQuerySpec();
+		}
+	}
+
+	/**
+	 * Builds the query-spec, expecting its processing state to have been pushed (see {@link #pushQuerySpec})
+	 */
+	SqmQuerySpec buildQuerySpec(HqlParser.QuerySpecContext ctx) {
+		// visit from-clause first!!!
+		visitFromClause( ctx.fromClause() );
+
+		final SqmSelectClause selectClause;
+		if ( ctx.selectClause() != null ) {
+			selectClause = visitSelectClause( ctx.selectClause() );
+		}
+		else {
+			log.info( "Encountered implicit select clause which is a deprecated feature : " + ctx.getText() );
+			selectClause = buildInferredSelectClause( querySpecProcessingStateStack.getCurrent().getFromClause() );
+		}
+
+		final SqmWhereClause whereClause;
+		if ( ctx.whereClause() != null ) {
+			whereClause = visitWhereClause( ctx.whereClause() );
+		}
+		else {
+			whereClause = null;
+		}
+
+		final SqmGroupByClause groupByClause;
+		final SqmHavingClause havingClause;
+		if ( ctx.groupByClause() != null ) {
+			groupByClause = visitGroupByClause( ctx.groupByClause() );
+			havingClause = ctx.havingClause() == null ? null : visitHavingClause( ctx.havingClause() );
+		}
+		else {
+			groupByClause = null;
+			havingClause = null;
+		}
+
+		final SqmOrderByClause orderByClause;
+		if ( ctx.orderByClause() != null ) {
+			if ( parsingContext.getSessionFactory().useStrictJpaCompliance()
+					&& querySpecProcessingStateStack.getCurrent().getContainingQueryState() != null ) {
+				throw new StrictJpaComplianceViolation(
+						StrictJpaComplianceViolation.Type.SUBQUERY_ORDER_BY
+				);
 			}
-			else {
-				limitOffsetClause = null;
+
+			pushBasicPathResolver(
+					new OrderByResolutionContext(
+							parsingContext,
+							querySpecProcessingStateStack.getCurrent().getFromClause(),
+							selectClause
+					)
+			);
+			try {
+				orderByClause = visitOrderByClause( ctx.orderByClause() );
+			}
+			finally {
+				pathResolverStack.pop();
 			}
+		}
+		else {
+			orderByClause = null;
+		}
 
-			return new SqmQuerySpec( querySpecProcessingStateStack.getCurrent().getFromClause(), selectClause, whereClause, orderByClause, limitOffsetClause );
+		final SqmLimitOffsetClause limitOffsetClause;
+		if ( ctx.limitClause() != null || ctx.offsetClause() != null ) {
+			if ( parsingContext.getSessionFactory().useStrictJpaCompliance() ) {
+				throw new StrictJpaComplianceViolation(
+						StrictJpaComplianceViolation.Type.LIMIT_OFFSET_CLAUSE
+				);
+			}
+
+			if ( querySpecProcessingStateStack.getCurrent().getContainingQueryState() != null
+					&& orderByClause == null ) {
+				throw new SemanticException( "limit and offset clause require an order-by clause" );
+			}
+
+			final SqmExpression limitExpression;
+			if ( ctx.limitClause() != null ) {
+				limitExpression = visitLimitClause( ctx.limitClause() );
+			} else {
+				limitExpression = null;
+			}
+
+			final SqmExpression offsetExpression;
+			if ( ctx.offsetClause() != null ) {
+				offsetExpression = visitOffsetClause( ctx.offsetClause() );
+			} else {
+				offsetExpression = null;
+			}
+
+			limitOffsetClause = new SqmLimitOffsetClause( limitExpression, offsetExpression );
 		}
-		finally {
-			pathResolverStack.pop();
-			querySpecProcessingStateStack.pop();
+		else {
+			limitOffsetClause = null;
 		}
+
+		return new SqmQuerySpec(
+				querySpecProcessingStateStack.getCurrent().getFromClause(),
+				selectClause,
+				whereClause,
+				groupByClause,
+				havingClause,
+				orderByClause,
+				limitOffsetClause
+		);
 	}
 
 	protected SqmSelectClause buildInferredSelectClause(SqmFromClause fromClause) {
@@ -387,7 +583,11 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 
 	@Override
 	public SqmSelection visitSelection(HqlParser.SelectionContext ctx) {
-		SqmExpression selectExpression = visitSelectExpression( ctx.selectExpression() );
+		final SqmExpression selectExpression = visitSelectExpression( ctx.selectExpression() );
+		return buildSelection( selectExpression, interpretResultIdentifier( ctx.resultIdentifier() ) );
+	}
+
+	SqmSelection buildSelection(SqmExpression selectExpression, String resultIdentifier) {
 		if ( selectExpression instanceof SqmPluralAttributeReference ) {
 			final SqmPluralAttributeReference pluralAttributeBinding = (SqmPluralAttributeReference) selectExpression;
 			final CollectionElement elementReference = pluralAttributeBinding.getReferencedNavigable().getCollectionPersister().getElementDescriptor();
@@ -411,15 +611,12 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 			}
 		}
 
-		final SqmSelection selection = new SqmSelection(
-				selectExpression,
-				interpretResultIdentifier( ctx.resultIdentifier() )
-		);
+		final SqmSelection selection = new SqmSelection( selectExpression, resultIdentifier );
 		querySpecProcessingStateStack.getCurrent().getFromElementBuilder().getAliasRegistry().registerAlias( selection );
 		return selection;
 	}
 
-	private String interpretResultIdentifier(HqlParser.ResultIdentifierContext resultIdentifierContext) {
+	String interpretResultIdentifier(HqlParser.ResultIdentifierContext resultIdentifierContext) {
 		if ( resultIdentifierContext != null ) {
 			final String explicitAlias;
 			if ( resultIdentifierContext.AS() != null ) {
@@ -450,25 +647,6 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 		return parsingContext.getImplicitAliasGenerator().buildUniqueImplicitAlias();
 	}
 
-	private String interpretAlias(HqlParser.IdentifierContext identifier) {
-		if ( identifier == null || identifier.getText() == null ) {
-			return parsingContext.getImplicitAliasGenerator().buildUniqueImplicitAlias();
-		}
-		return identifier.getText();
-	}
-
-	private String interpretAlias(TerminalNode aliasNode) {
-		if ( aliasNode == null ) {
-			return parsingContext.getImplicitAliasGenerator().buildUniqueImplicitAlias();
-		}
-
-		// todo : not sure I like asserts for this kind of thing.  They are generally disable in runtime environments.
-		// either the thing is important to check or it isn't.
-		assert aliasNode.getSymbol().getType() == HqlParser.IDENTIFIER;
-
-		return aliasNode.getText();
-	}
-
 	@Override
 	public SqmExpression visitSelectExpression(HqlParser.SelectExpressionContext ctx) {
 		if ( ctx.dynamicInstantiation() != null ) {
@@ -496,13 +674,14 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 		}
 		else {
 			final String className = ctx.dynamicInstantiationTarget().dotIdentifierSequence().getText();
-			try {
-				final Class targetJavaType = parsingContext.getSessionFactory().classByName( className );
-				dynamicInstantiation = SqmDynamicInstantiation.forClassInstantiation( targetJavaType );
-			}
-			catch (ClassNotFoundException e) {
+			final Class targetJavaType = parsingContext.getNameResolutionCache().resolveClass(
+					className,
+					parsingContext.getSessionFactory()
+			);
+			if ( targetJavaType == null ) {
 				throw new SemanticException( "Unable to resolve class named for dynamic instantiation : " + className );
 			}
+			dynamicInstantiation = SqmDynamicInstantiation.forClassInstantiation( targetJavaType );
 		}
 
 		for ( HqlParser.DynamicInstantiationArgContext arg : ctx.dynamicInstantiationArgs().dynamicInstantiationArg() ) {
@@ -544,29 +723,57 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 
 	@Override
 	public SqmWhereClause visitWhereClause(HqlParser.WhereClauseContext ctx) {
+		return new SqmWhereClause( visitWherePredicate( ctx.predicate() ) );
+	}
+
+	SqmPredicate visitWherePredicate(HqlParser.PredicateContext ctx) {
 		inWhereClause = true;
 
 		try {
-			return new SqmWhereClause( (SqmPredicate) ctx.predicate().accept( this ) );
+			return visitPredicateOperand( ctx );
 		}
 		finally {
 			inWhereClause = false;
 		}
 	}
 
+	/**
+	 * Builds the predicate which is an operand of a clause, a junction, a negation or a grouping
+	 */
+	SqmPredicate visitPredicateOperand(HqlParser.PredicateContext ctx) {
+		return (SqmPredicate) ctx.accept( this );
+	}
+
 	@Override
-	public Object visitGroupByClause(HqlParser.GroupByClauseContext ctx) {
-		return super.visitGroupByClause( ctx );
+	public SqmGroupByClause visitGroupByClause(HqlParser.GroupByClauseContext ctx) {
+		final SqmGroupByClause groupByClause = new SqmGroupByClause();
+		for ( HqlParser.GroupingValueContext groupingValueContext : ctx.groupingSpecification().groupingValue() ) {
+			groupByClause.addGrouping( visitGroupingValue( groupingValueContext ) );
+		}
+		return groupByClause;
 	}
 
 	@Override
-	public Object visitHavingClause(HqlParser.HavingClauseContext ctx) {
-		return super.visitHavingClause( ctx );
+	public SqmGrouping visitGroupingValue(HqlParser.GroupingValueContext ctx) {
+		final SqmExpression expression = (SqmExpression) ctx.expression().accept( this );
+		final String collation;
+		if ( ctx.collationSpecification() != null && ctx.collationSpecification().collateName() != null ) {
+			collation = ctx.collationSpecification().collateName().dotIdentifierSequence().getText();
+		}
+		else {
+			collation = null;
+		}
+		return new SqmGrouping( expression, collation );
+	}
+
+	@Override
+	public SqmHavingClause visitHavingClause(HqlParser.HavingClauseContext ctx) {
+		return new SqmHavingClause( visitPredicateOperand( ctx.predicate() ) );
 	}
 
 	@Override
 	public GroupedSqmPredicate visitGroupedPredicate(HqlParser.GroupedPredicateContext ctx) {
-		return new GroupedSqmPredicate( (SqmPredicate) ctx.predicate().accept( this ) );
+		return new GroupedSqmPredicate( visitPredicateOperand( ctx.predicate() ) );
 	}
 
 	@Override
@@ -617,7 +824,7 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 	@Override
 	public SqmExpression visitParameterOrNumberLiteral(HqlParser.ParameterOrNumberLiteralContext ctx) {
 		if ( ctx.INTEGER_LITERAL() != null ) {
-			return integerLiteral( ctx.INTEGER_LITERAL().getText() );
+			return integerLiteral( HqlTokenText.of( ctx.INTEGER_LITERAL().getSymbol() ) );
 		}
 		if ( ctx.parameter() != null ) {
 			return (SqmExpression) ctx.parameter().accept( this );
@@ -651,7 +858,7 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 
 			parameterCollector = deleteStatement;
 
-			pathResolverStack.push( new PathResolverBasicImpl( querySpecProcessingStateStack.getCurrent() ) );
+			pushBasicPathResolver( querySpecProcessingStateStack.getCurrent() );
 			try {
 				deleteStatement.getWhereClause().setPredicate( (SqmPredicate) ctx.whereClause()
 						.predicate()
@@ -676,23 +883,16 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 			throw new UnknownEntityException( "Could not resolve entity name [" + entityName + "] as DML target", entityName );
 		}
 
-		String alias = interpretIdentificationVariable( rootEntityContext.identificationVariableDef() );
-		if ( alias == null ) {
-			alias = parsingContext.getImplicitAliasGenerator().buildUniqueImplicitAlias();
-			log.debugf(
-					"Generated implicit alias [%s] for DML root entity reference [%s]",
-					alias,
-					entityReference.getEntityName()
-			);
-		}
+		// without an explicit alias the root gets an implicit one, rendered only if ever needed
+		final String alias = interpretIdentificationVariable( rootEntityContext.identificationVariableDef() );
 		final SqmRoot root = new SqmRoot( null, parsingContext.makeUniqueIdentifier(), alias, entityReference );
 		parsingContext.registerFromElementByUniqueId( root );
-		querySpecProcessingStateStack.getCurrent().getFromElementBuilder().getAliasRegistry().registerAlias( root.getBinding() );
+		querySpecProcessingStateStack.getCurrent().getFromElementBuilder().registerAlias( root, alias );
 		querySpecProcessingStateStack.getCurrent().getFromClause().getFromElementSpaces().get( 0 ).setRoot( root );
 		return root;
 	}
 
-	private String interpretIdentificationVariable(HqlParser.IdentificationVariableDefContext identificationVariableDef) {
+	String interpretIdentificationVariable(HqlParser.IdentificationVariableDefContext identificationVariableDef) {
 		if ( identificationVariableDef != null ) {
 			final String explicitAlias;
 			if ( identificationVariableDef.AS() != null ) {
@@ -719,7 +919,8 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 			return explicitAlias;
 		}
 
-		return parsingContext.getImplicitAliasGenerator().buildUniqueImplicitAlias();
+		// no explicit alias : the from-element renders its implicit alias from its unique id
+		return null;
 	}
 
 	@Override
@@ -729,7 +930,7 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 			final SqmRoot root = resolveDmlRootEntityReference( ctx.mainEntityPersisterReference() );
 			final SqmUpdateStatementImpl updateStatement = new SqmUpdateStatementImpl( root );
 
-			pathResolverStack.push( new PathResolverBasicImpl( querySpecProcessingStateStack.getCurrent() ) );
+			pushBasicPathResolver( querySpecProcessingStateStack.getCurrent() );
 			parameterCollector = updateStatement;
 			try {
 				updateStatement.getWhereClause().setPredicate(
@@ -775,22 +976,15 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 				throw new UnknownEntityException( "Could not resolve entity name [" + entityName + "] as INSERT target", entityName );
 			}
 
-			String alias = parsingContext.getImplicitAliasGenerator().buildUniqueImplicitAlias();
-			log.debugf(
-					"Generated implicit alias [%s] for INSERT target [%s]",
-					alias,
-					entityReference.getEntityName()
-			);
-
-			SqmRoot root = new SqmRoot( null, parsingContext.makeUniqueIdentifier(), alias, entityReference );
+			// the INSERT target is never aliased; its implicit alias is rendered only if ever needed
+			SqmRoot root = new SqmRoot( null, parsingContext.makeUniqueIdentifier(), null, entityReference );
 			parsingContext.registerFromElementByUniqueId( root );
-			querySpecProcessingStateStack.getCurrent().getFromElementBuilder().getAliasRegistry().registerAlias( root.getBinding() );
 			querySpecProcessingStateStack.getCurrent().getFromClause().getFromElementSpaces().get( 0 ).setRoot( root );
 
 			// for now we only support the INSERT-SELECT form
 			final SqmInsertSelectStatementImpl insertStatement = new SqmInsertSelectStatementImpl( root );
 			parameterCollector = insertStatement;
-			pathResolverStack.push( new PathResolverBasicImpl( querySpecProcessingStateStack.getCurrent() ) );
+			pushBasicPathResolver( querySpecProcessingStateStack.getCurrent() );
 
 			try {
 				insertStatement.setSelectQuery( visitQuerySpec( ctx.querySpec() ) );
@@ -847,7 +1041,13 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 
 	@Override
 	public SqmRoot visitFromElementSpaceRoot(HqlParser.FromElementSpaceRootContext ctx) {
-		final String entityName = ctx.mainEntityPersisterReference().dotIdentifierSequence().getText();
+		return buildRoot(
+				ctx.mainEntityPersisterReference().dotIdentifierSequence().getText(),
+				interpretIdentificationVariable( ctx.mainEntityPersisterReference().identificationVariableDef() )
+		);
+	}
+
+	SqmRoot buildRoot(String entityName, String alias) {
 		final EntityValuedExpressableType entityReference = resolveEntityReference( entityName );
 		if ( entityReference == null ) {
 			throw new UnknownEntityException( "Could not resolve entity name [" + entityName + "] used as root", entityName );
@@ -868,22 +1068,17 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 		return querySpecProcessingStateStack.getCurrent().getFromElementBuilder().makeRootEntityFromElement(
 				currentFromElementSpace,
 				entityReference,
-				interpretIdentificationVariable( ctx.mainEntityPersisterReference().identificationVariableDef() )
+				alias
 		);
 	}
 
 	private EntityValuedExpressableType resolveEntityReference(String entityName) {
 		log.debugf( "Attempting to resolve path [%s] as entity reference...", entityName );
-		EntityValuedExpressableType reference = null;
-		try {
-			reference = parsingContext.getSessionFactory()
-					.getDomainMetamodel()
-					.resolveEntityReference( entityName );
-		}
-		catch (Exception ignore) {
-		}
-
-		return reference;
+		// resolutions, including misses, are cached for the SessionFactory
+		return parsingContext.getNameResolutionCache().resolveEntityReference(
+				entityName,
+				parsingContext.getSessionFactory()
+		);
 	}
 
 	@Override
@@ -1073,23 +1268,40 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 	}
 	@Override
 	public SqmPredicate visitAndPredicate(HqlParser.AndPredicateContext ctx) {
-		return new AndSqmPredicate(
-				(SqmPredicate) ctx.predicate( 0 ).accept( this ),
-				(SqmPredicate) ctx.predicate( 1 ).accept( this )
-		);
+		return visitJunction( ctx, HqlParser.AndPredicateContext.class, JunctionSqmPredicate.Nature.CONJUNCTION );
 	}
 
 	@Override
 	public SqmPredicate visitOrPredicate(HqlParser.OrPredicateContext ctx) {
-		return new OrSqmPredicate(
-				(SqmPredicate) ctx.predicate( 0 ).accept( this ),
-				(SqmPredicate) ctx.predicate( 1 ).accept( this )
-		);
+		return visitJunction( ctx, HqlParser.OrPredicateContext.class, JunctionSqmPredicate.Nature.DISJUNCTION );
+	}
+
+	private SqmPredicate visitJunction(
+			HqlParser.PredicateContext ctx,
+			Class<? extends HqlParser.PredicateContext> junctionContextType,
+			JunctionSqmPredicate.Nature nature) {
+		// the grammar's predicate rule is left-recursive, so `a and b and c` is parsed into the
+		// left-deep ((a and b) and c).  Walk that left spine iteratively (rather than recursing
+		// into it) collecting the operands, and build a single flat junction from them
+		final List<HqlParser.PredicateContext> operandContexts = new ArrayList<>();
+		HqlParser.PredicateContext current = ctx;
+		while ( junctionContextType.isInstance( current ) ) {
+			operandContexts.add( current.getRuleContext( HqlParser.PredicateContext.class, 1 ) );
+			current = current.getRuleContext( HqlParser.PredicateContext.class, 0 );
+		}
+		operandContexts.add( current );
+
+		final List<SqmPredicate> operands = new ArrayList<>( operandContexts.size() );
+		for ( int i = operandContexts.size() - 1; i >= 0; i-- ) {
+			operands.add( visitPredicateOperand( operandContexts.get( i ) ) );
+		}
+
+		return JunctionSqmPredicate.junction( nature, operands );
 	}
 
 	@Override
 	public SqmPredicate visitNegatedPredicate(HqlParser.NegatedPredicateContext ctx) {
-		SqmPredicate predicate = (SqmPredicate) ctx.predicate().accept( this );
+		SqmPredicate predicate = visitPredicateOperand( ctx.predicate() );
 		if ( predicate instanceof NegatableSqmPredicate ) {
 			( (NegatableSqmPredicate) predicate ).negate();
 			return predicate;
@@ -1119,7 +1331,13 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 	public RelationalSqmPredicate visitEqualityPredicate(HqlParser.EqualityPredicateContext ctx) {
 		final SqmExpression lhs = (SqmExpression) ctx.expression().get( 0 ).accept( this );
 		final SqmExpression rhs = (SqmExpression) ctx.expression().get( 1 ).accept( this );
+		return buildRelationalPredicate( RelationalPredicateOperator.EQUAL, lhs, rhs );
+	}
 
+	RelationalSqmPredicate buildRelationalPredicate(
+			RelationalPredicateOperator operator,
+			SqmExpression lhs,
+			SqmExpression rhs) {
 		if ( lhs.getInferableType() != null ) {
 			if ( rhs instanceof ImpliedTypeSqmExpression ) {
 				( (ImpliedTypeSqmExpression) rhs ).impliedType( lhs.getInferableType() );
@@ -1132,107 +1350,42 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 			}
 		}
 
-		return new RelationalSqmPredicate( RelationalPredicateOperator.EQUAL, lhs, rhs );
+		return new RelationalSqmPredicate( operator, lhs, rhs );
 	}
 
 	@Override
 	public Object visitInequalityPredicate(HqlParser.InequalityPredicateContext ctx) {
 		final SqmExpression lhs = (SqmExpression) ctx.expression().get( 0 ).accept( this );
 		final SqmExpression rhs = (SqmExpression) ctx.expression().get( 1 ).accept( this );
-
-		if ( lhs.getInferableType() != null ) {
-			if ( rhs instanceof ImpliedTypeSqmExpression ) {
-				( (ImpliedTypeSqmExpression) rhs ).impliedType( lhs.getInferableType() );
-			}
-		}
-
-		if ( rhs.getInferableType() != null ) {
-			if ( lhs instanceof ImpliedTypeSqmExpression ) {
-				( (ImpliedTypeSqmExpression) lhs ).impliedType( rhs.getInferableType() );
-			}
-		}
-
-		return new RelationalSqmPredicate( RelationalPredicateOperator.NOT_EQUAL, lhs, rhs );
+		return buildRelationalPredicate( RelationalPredicateOperator.NOT_EQUAL, lhs, rhs );
 	}
 
 	@Override
 	public Object visitGreaterThanPredicate(HqlParser.GreaterThanPredicateContext ctx) {
 		final SqmExpression lhs = (SqmExpression) ctx.expression().get( 0 ).accept( this );
 		final SqmExpression rhs = (SqmExpression) ctx.expression().get( 1 ).accept( this );
-
-		if ( lhs.getInferableType() != null ) {
-			if ( rhs instanceof ImpliedTypeSqmExpression ) {
-				( (ImpliedTypeSqmExpression) rhs ).impliedType( lhs.getInferableType() );
-			}
-		}
-
-		if ( rhs.getInferableType() != null ) {
-			if ( lhs instanceof ImpliedTypeSqmExpression ) {
-				( (ImpliedTypeSqmExpression) lhs ).impliedType( rhs.getInferableType() );
-			}
-		}
-
-		return new RelationalSqmPredicate( RelationalPredicateOperator.GREATER_THAN, lhs, rhs );
+		return buildRelationalPredicate( RelationalPredicateOperator.GREATER_THAN, lhs, rhs );
 	}
 
 	@Override
 	public Object visitGreaterThanOrEqualPredicate(HqlParser.GreaterThanOrEqualPredicateContext ctx) {
 		final SqmExpression lhs = (SqmExpression) ctx.expression().get( 0 ).accept( this );
 		final SqmExpression rhs = (SqmExpression) ctx.expression().get( 1 ).accept( this );
-
-		if ( lhs.getInferableType() != null ) {
-			if ( rhs instanceof ImpliedTypeSqmExpression ) {
-				( (ImpliedTypeSqmExpression) rhs ).impliedType( lhs.getInferableType() );
-			}
-		}
-
-		if ( rhs.getInferableType() != null ) {
-			if ( lhs instanceof ImpliedTypeSqmExpression ) {
-				( (ImpliedTypeSqmExpression) lhs ).impliedType( rhs.getInferableType() );
-			}
-		}
-
-		return new RelationalSqmPredicate( RelationalPredicateOperator.GREATER_THAN_OR_EQUAL, lhs, rhs );
+		return buildRelationalPredicate( RelationalPredicateOperator.GREATER_THAN_OR_EQUAL, lhs, rhs );
 	}
 
 	@Override
 	public Object visitLessThanPredicate(HqlParser.LessThanPredicateContext ctx) {
 		final SqmExpression lhs = (SqmExpression) ctx.expression().get( 0 ).accept( this );
 		final SqmExpression rhs = (SqmExpression) ctx.expression().get( 1 ).accept( this );
-
-		if ( lhs.getInferableType() != null ) {
-			if ( rhs instanceof ImpliedTypeSqmExpression ) {
-				( (ImpliedTypeSqmExpression) rhs ).impliedType( lhs.getInferableType() );
-			}
-		}
-
-		if ( rhs.getInferableType() != null ) {
-			if ( lhs instanceof ImpliedTypeSqmExpression ) {
-				( (ImpliedTypeSqmExpression) lhs ).impliedType( rhs.getInferableType() );
-			}
-		}
-
-		return new RelationalSqmPredicate( RelationalPredicateOperator.LESS_THAN, lhs, rhs );
+		return buildRelationalPredicate( RelationalPredicateOperator.LESS_THAN, lhs, rhs );
 	}
 
 	@Override
 	public Object visitLessThanOrEqualPredicate(HqlParser.LessThanOrEqualPredicateContext ctx) {
 		final SqmExpression lhs = (SqmExpression) ctx.expression().get( 0 ).accept( this );
 		final SqmExpression rhs = (SqmExpression) ctx.expression().get( 1 ).accept( this );
-
-		if ( lhs.getInferableType() != null ) {
-			if ( rhs instanceof ImpliedTypeSqmExpression ) {
-				( (ImpliedTypeSqmExpression) rhs ).impliedType( lhs.getInferableType() );
-			}
-		}
-
-		if ( rhs.getInferableType() != null ) {
-			if ( lhs instanceof ImpliedTypeSqmExpression ) {
-				( (ImpliedTypeSqmExpression) lhs ).impliedType( rhs.getInferableType() );
-			}
-		}
-
-		return new RelationalSqmPredicate( RelationalPredicateOperator.LESS_THAN_OR_EQUAL, lhs, rhs );
+		return buildRelationalPredicate( RelationalPredicateOperator.LESS_THAN_OR_EQUAL, lhs, rhs );
 	}
 
 	@Override
@@ -1312,7 +1465,16 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 		if ( HqlParser.ExplicitTupleInListContext.class.isInstance( ctx.inList() ) ) {
 			final HqlParser.ExplicitTupleInListContext tupleExpressionListContext = (HqlParser.ExplicitTupleInListContext) ctx.inList();
 
-			parameterDeclarationContextStack.push( () -> tupleExpressionListContext.expression().size() == 1 );
+			final LiteralInListSqmPredicate literalInList = visitLiteralInList( testExpression, tupleExpressionListContext );
+			if ( literalInList != null ) {
+				return literalInList;
+			}
+
+			parameterDeclarationContextStack.push(
+					tupleExpressionListContext.expression().size() == 1
+							? MULTI_VALUED_BINDING_ALLOWED
+							: MULTI_VALUED_BINDING_DISALLOWED
+			);
 			try {
 				final List<SqmExpression> listExpressions = new ArrayList<>( tupleExpressionListContext.expression().size() );
 				for ( HqlParser.ExpressionContext expressionContext : tupleExpressionListContext.expression() ) {
@@ -1352,6 +1514,105 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 		throw new ParsingException( "Unexpected IN predicate type [" + ctx.getClass().getSimpleName() + "] : " + ctx.getText() );
 	}
 
+	/**
+	 * Builds the compact form of an IN-list made up of (enough) integer, long or string literals
+	 * straight from the parse tree, without building a literal expression per value.
+	 *
+	 * @return The compact predicate, or {@code null} if the list does not qualify
+	 */
+	private LiteralInListSqmPredicate visitLiteralInList(
+			SqmExpression testExpression,
+			HqlParser.ExplicitTupleInListContext tupleExpressionListContext) {
+		final List<HqlParser.ExpressionContext> expressionContexts = tupleExpressionListContext.expression();
+		final int count = expressionContexts.size();
+		if ( count < LiteralInListSqmPredicate.MIN_SIZE || literalNormalization != null ) {
+			// the literals of a normalized query need to become parameters
+			return null;
+		}
+
+		// as the literals would, use the type implied by the test expression - which must be basic
+		final ExpressableType impliedType = testExpression.getInferableType();
+		if ( impliedType != null && !BasicValuedExpressableType.class.isInstance( impliedType ) ) {
+			return null;
+		}
+
+		final int literalTokenType = literalTokenType( expressionContexts.get( 0 ) );
+		for ( HqlParser.ExpressionContext expressionContext : expressionContexts ) {
+			if ( literalTokenType( expressionContext ) != literalTokenType ) {
+				return null;
+			}
+		}
+
+		switch ( literalTokenType ) {
+			case HqlParser.INTEGER_LITERAL: {
+				final int[] values = new int[ count ];
+				for ( int i = 0; i < count; i++ ) {
+					values[i] = parseIntegerLiteral( HqlTokenText.of( literalToken( expressionContexts.get( i ) ) ) );
+				}
+				return LiteralInListSqmPredicate.forIntegers(
+						testExpression,
+						values,
+						count,
+						impliedType != null ? (BasicValuedExpressableType) impliedType : resolveExpressableTypeBasic( Integer.class ),
+						false
+				);
+			}
+			case HqlParser.LONG_LITERAL: {
+				final long[] values = new long[ count ];
+				for ( int i = 0; i < count; i++ ) {
+					values[i] = parseLongLiteral( HqlTokenText.of( literalToken( expressionContexts.get( i ) ) ) );
+				}
+				return LiteralInListSqmPredicate.forLongs(
+						testExpression,
+						values,
+						count,
+						impliedType != null ? (BasicValuedExpressableType) impliedType : resolveExpressableTypeBasic( Long.class ),
+						false
+				);
+			}
+			case HqlParser.STRING_LITERAL: {
+				final String[] values = new String[ count ];
+				for ( int i = 0; i < count; i++ ) {
+					values[i] = HqlTokenText.unquote( literalToken( expressionContexts.get( i ) ) );
+				}
+				return LiteralInListSqmPredicate.forStrings(
+						testExpression,
+						values,
+						count,
+						impliedType != null ? (BasicValuedExpressableType) impliedType : resolveExpressableTypeBasic( String.class ),
+						false
+				);
+			}
+			default: {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * The token type of the given expression if it is an integer, long or string literal; -1 otherwise
+	 */
+	private static int literalTokenType(HqlParser.ExpressionContext expressionContext) {
+		if ( !HqlParser.LiteralExpressionContext.class.isInstance( expressionContext ) ) {
+			return -1;
+		}
+		final HqlParser.LiteralContext literal = ( (HqlParser.LiteralExpressionContext) expressionContext ).literal();
+		if ( literal.INTEGER_LITERAL() != null ) {
+			return HqlParser.INTEGER_LITERAL;
+		}
+		else if ( literal.LONG_LITERAL() != null ) {
+			return HqlParser.LONG_LITERAL;
+		}
+		else if ( literal.STRING_LITERAL() != null ) {
+			return HqlParser.STRING_LITERAL;
+		}
+		return -1;
+	}
+
+	private static Token literalToken(HqlParser.ExpressionContext expressionContext) {
+		return ( (HqlParser.LiteralExpressionContext) expressionContext ).literal().getStart();
+	}
+
 	@Override
 	public Object visitEntityTypeExpression(HqlParser.EntityTypeExpressionContext ctx) {
 		// can be one of 2 forms:
@@ -1385,14 +1646,17 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 
 	@Override
 	public SqmExpression visitSimplePath(HqlParser.SimplePathContext ctx) {
+		return resolveSimplePath( ctx.dotIdentifierSequence().getText() );
+	}
+
+	SqmExpression resolveSimplePath(String pathText) {
 		// SimplePath might represent any number of things
-		final SqmNavigableReference binding = pathAsNavigableBinding( splitPathParts( ctx.dotIdentifierSequence() ) );
+		log.debugf( "Splitting dotIdentifierSequence into path parts : %s", pathText );
+		final SqmNavigableReference binding = pathAsNavigableBinding( PathHelper.split( pathText ) );
 		if ( binding != null ) {
 			return binding;
 		}
 
-		final String pathText = ctx.getText();
-
 		final EntityValuedExpressableType entityReference = resolveEntityReference( pathText );
 		if ( entityReference != null ) {
 			// todo : how this should be handled depends on the parent context...
@@ -1406,11 +1670,9 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 //			return new EntityBindingImpl( entityReference );
 		}
 
-		try {
-			return resolveConstantExpression( pathText );
-		}
-		catch (SemanticException e) {
-			log.debug( e.getMessage() );
+		final ConstantSqmExpression constantExpression = resolveConstantExpression( pathText );
+		if ( constantExpression != null ) {
+			return constantExpression;
 		}
 
 		// if we get here we had a problem interpreting the dot-ident sequence
@@ -1652,46 +1914,40 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 		);
 	}
 
+	/**
+	 * Resolve the given reference as an enum constant or static field, through the
+	 * {@link org.hibernate.query.sqm.produce.spi.NameResolutionCache}.
+	 *
+	 * @param reference The reference, {@code {class-name}.{constant-name}}
+	 *
+	 * @return The constant expression, or {@code null} if the reference does not resolve
+	 */
 	@SuppressWarnings("unchecked")
 	protected ConstantSqmExpression resolveConstantExpression(String reference) {
-		// todo : hook in "import" resolution using the ParsingContext
-		final int dotPosition = reference.lastIndexOf( '.' );
-		final String className = reference.substring( 0, dotPosition - 1 );
-		final String fieldName = reference.substring( dotPosition+1, reference.length() );
+		final Object constant = parsingContext.getNameResolutionCache().resolveConstant(
+				reference,
+				parsingContext.getSessionFactory()
+		);
 
-		try {
-			final Class clazz = parsingContext.getSessionFactory().classByName( className );
-			if ( clazz.isEnum() ) {
-				try {
-					return new ConstantEnumSqmExpression( Enum.valueOf( clazz, fieldName ) );
-				}
-				catch (IllegalArgumentException e) {
-					throw new SemanticException( "Name [" + fieldName + "] does not represent an enum constant on enum class [" + className + "]" );
-				}
+		if ( constant == null ) {
+			return null;
+		}
+		else if ( constant instanceof Enum ) {
+			return new ConstantEnumSqmExpression( (Enum) constant );
+		}
+		else {
+			// the field is cached, but its value is read for each interpretation
+			final Field field = (Field) constant;
+			try {
+				return new ConstantFieldSqmExpression( field, field.get( null ) );
 			}
-			else {
-				try {
-					final Field field = clazz.getField( fieldName );
-					if ( !Modifier.isStatic( field.getModifiers() ) ) {
-						throw new SemanticException( "Field [" + fieldName + "] is not static on class [" + className + "]" );
-					}
-					field.setAccessible( true );
-					return new ConstantFieldSqmExpression( field, field.get( null ) );
-				}
-				catch (NoSuchFieldException e) {
-					throw new SemanticException( "Name [" + fieldName + "] does not represent a field on class [" + className + "]", e );
-				}
-				catch (SecurityException e) {
-					throw new SemanticException( "Field [" + fieldName + "] is not accessible on class [" + className + "]", e );
-				}
-				catch (IllegalAccessException e) {
-					throw new SemanticException( "Unable to access field [" + fieldName + "] on class [" + className + "]", e );
-				}
+			catch (IllegalAccessException e) {
+				throw new SemanticException(
+						"Unable to access field [" + field.getName() + "] on class [" + field.getDeclaringClass().getName() + "]",
+						e
+				);
 			}
 		}
-		catch (ClassNotFoundException e) {
-			throw new SemanticException( "Cannot resolve class for sqm constant [" + reference + "]" );
-		}
 	}
 
 	@Override
@@ -1877,19 +2133,37 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 	}
 
 	@Override
+	public SqmExpression visitLiteralExpression(HqlParser.LiteralExpressionContext ctx) {
+		final LiteralSqmExpression literal = interpretLiteral( ctx );
+
+		if ( literalNormalization != null ) {
+			final int position = literalNormalization.getLiteralPosition( ctx );
+			if ( position > 0 ) {
+				final LiteralParameterSqmExpression parameter = new LiteralParameterSqmExpression(
+						position,
+						literal.getExpressionType()
+				);
+				parameterCollector.addParameter( parameter );
+				return parameter;
+			}
+		}
+
+		return literal;
+	}
+
 	@SuppressWarnings("UnnecessaryBoxing")
-	public LiteralSqmExpression visitLiteralExpression(HqlParser.LiteralExpressionContext ctx) {
+	private LiteralSqmExpression interpretLiteral(HqlParser.LiteralExpressionContext ctx) {
 		if ( ctx.literal().CHARACTER_LITERAL() != null ) {
-			return characterLiteral( ctx.literal().CHARACTER_LITERAL().getText() );
+			return characterLiteral( HqlTokenText.unquote( ctx.literal().CHARACTER_LITERAL().getSymbol() ) );
 		}
 		else if ( ctx.literal().STRING_LITERAL() != null ) {
-			return stringLiteral( ctx.literal().STRING_LITERAL().getText() );
+			return stringLiteral( HqlTokenText.unquote( ctx.literal().STRING_LITERAL().getSymbol() ) );
 		}
 		else if ( ctx.literal().INTEGER_LITERAL() != null ) {
-			return integerLiteral( ctx.literal().INTEGER_LITERAL().getText() );
+			return integerLiteral( HqlTokenText.of( ctx.literal().INTEGER_LITERAL().getSymbol() ) );
 		}
 		else if ( ctx.literal().LONG_LITERAL() != null ) {
-			return longLiteral( ctx.literal().LONG_LITERAL().getText() );
+			return longLiteral( HqlTokenText.of( ctx.literal().LONG_LITERAL().getSymbol() ) );
 		}
 		else if ( ctx.literal().BIG_INTEGER_LITERAL() != null ) {
 			return bigIntegerLiteral( ctx.literal().BIG_INTEGER_LITERAL().getText() );
@@ -1922,10 +2196,10 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 			return bigDecimalLiteral( ctx.literal().BIG_DECIMAL_LITERAL().getText() );
 		}
 		else if ( ctx.literal().FALSE() != null ) {
-			booleanLiteral( false );
+			return booleanLiteral( false );
 		}
 		else if ( ctx.literal().TRUE() != null ) {
-			booleanLiteral( true );
+			return booleanLiteral( true );
 		}
 		else if ( ctx.literal().NULL() != null ) {
 			return new LiteralNullSqmExpression();
@@ -1960,13 +2234,16 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 		);
 	}
 
-	protected LiteralIntegerSqmExpression integerLiteral(String text) {
+	protected LiteralIntegerSqmExpression integerLiteral(CharSequence text) {
+		return new LiteralIntegerSqmExpression(
+				parseIntegerLiteral( text ),
+				resolveExpressableTypeBasic( Integer.class )
+		);
+	}
+
+	private static int parseIntegerLiteral(CharSequence text) {
 		try {
-			final Integer value = Integer.valueOf( text );
-			return new LiteralIntegerSqmExpression(
-					value,
-					resolveExpressableTypeBasic( Integer.class )
-			);
+			return HqlTokenText.parseInt( text );
 		}
 		catch (NumberFormatException e) {
 			throw new LiteralNumberFormatException(
@@ -1976,21 +2253,20 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 		}
 	}
 
-	protected LiteralLongSqmExpression longLiteral(String text) {
-		final String originalText = text;
+	protected LiteralLongSqmExpression longLiteral(CharSequence text) {
+		return new LiteralLongSqmExpression(
+				parseLongLiteral( text ),
+				resolveExpressableTypeBasic( Long.class )
+		);
+	}
+
+	private static long parseLongLiteral(CharSequence text) {
 		try {
-			if ( text.endsWith( "l" ) || text.endsWith( "L" ) ) {
-				text = text.substring( 0, text.length() - 1 );
-			}
-			final Long value = Long.valueOf( text );
-			return new LiteralLongSqmExpression(
-					value,
-					resolveExpressableTypeBasic( Long.class )
-			);
+			return HqlTokenText.parseLongWithOptionalSuffix( text );
 		}
 		catch (NumberFormatException e) {
 			throw new LiteralNumberFormatException(
-					"Unable to convert sqm literal [" + originalText + "] to Long",
+					"Unable to convert sqm literal [" + text + "] to Long",
 					e
 			);
 		}
@@ -2075,8 +2351,12 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 
 	@Override
 	public NamedParameterSqmExpression visitNamedParameter(HqlParser.NamedParameterContext ctx) {
+		return buildNamedParameter( ctx.identifier().getText() );
+	}
+
+	NamedParameterSqmExpression buildNamedParameter(String name) {
 		final NamedParameterSqmExpression param = new NamedParameterSqmExpression(
-				ctx.identifier().getText(),
+				name,
 				parameterDeclarationContextStack.getCurrent().isMultiValuedBindingAllowed()
 		);
 		parameterCollector.addParameter( param );
@@ -2088,8 +2368,12 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 		if ( ctx.INTEGER_LITERAL() == null ) {
 			throw new SemanticException( "Encountered positional parameter which did not declare position (? instead of, e.g., ?1)" );
 		}
+		return buildPositionalParameter( HqlTokenText.parseInt( HqlTokenText.of( ctx.INTEGER_LITERAL().getSymbol() ) ) );
+	}
+
+	PositionalParameterSqmExpression buildPositionalParameter(int position) {
 		final PositionalParameterSqmExpression param = new PositionalParameterSqmExpression(
-				Integer.valueOf( ctx.INTEGER_LITERAL().getText() ),
+				position,
 				parameterDeclarationContextStack.getCurrent().isMultiValuedBindingAllowed()
 		);
 		parameterCollector.addParameter( param );
@@ -2142,7 +2426,11 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 	private SqmExpression visitFinalFunctionArgument(HqlParser.ExpressionContext expression) {
 		// the final argument to a function may accept multi-value parameter (varargs),
 		// 		but only if we are operating in non-strict JPA mode
-		parameterDeclarationContextStack.push( () -> parsingContext.getSessionFactory().useStrictJpaCompliance() );
+		parameterDeclarationContextStack.push(
+				parsingContext.getSessionFactory().useStrictJpaCompliance()
+						? MULTI_VALUED_BINDING_ALLOWED
+						: MULTI_VALUED_BINDING_DISALLOWED
+		);
 		try {
 			return (SqmExpression) expression.accept( this );
 		}
@@ -2268,7 +2556,7 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 	@Override
 	public LiteralCharacterSqmExpression visitTrimCharacter(HqlParser.TrimCharacterContext ctx) {
 		if ( ctx.CHARACTER_LITERAL() != null ) {
-			final String trimCharText = ctx.CHARACTER_LITERAL().getText();
+			final String trimCharText = HqlTokenText.unquote( ctx.CHARACTER_LITERAL().getSymbol() );
 			if ( trimCharText.length() != 1 ) {
 				throw new SemanticException( "Expecting [trim character] for TRIM function to be  single character, found : " + trimCharText );
 			}
@@ -2278,7 +2566,7 @@ public class SemanticQueryBuilder extends HqlParserBaseVisitor implements SqmNav
 			);
 		}
 		if ( ctx.STRING_LITERAL() != null ) {
-			final String trimCharText = ctx.STRING_LITERAL().getText();
+			final String trimCharText = HqlTokenText.unquote( ctx.STRING_LITERAL().getSymbol() );
 			if ( trimCharText.length() != 1 ) {
 				throw new SemanticException( "Expecting [trim character] for TRIM function to be  single character, found : " + trimCharText );
 			}
@@ -0,0 +1,263 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.produce.internal.hql;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.hibernate.query.sqm.hql.internal.antlr.HqlParser;
+import org.hibernate.query.sqm.produce.spi.ParsingContext;
+import org.hibernate.query.sqm.tree.SqmQuerySpec;
+import org.hibernate.query.sqm.tree.SqmStatement;
+import org.hibernate.query.sqm.tree.group.SqmGroupByClause;
+import org.hibernate.query.sqm.tree.group.SqmHavingClause;
+import org.hibernate.query.sqm.tree.internal.SqmSelectStatementImpl;
+import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmWhereClause;
+import org.hibernate.query.sqm.tree.select.SqmSelectClause;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+/**
+ * A SemanticQueryBuilder which performs the semantic analysis of a select statement while
+ * it is being parsed, rather than over its completed parse tree.
+ * <p/>
+ * The builder listens to the parser, and as soon as the parser completes a clause of the
+ * root query-spec (or a predicate of its where or having clause which is not itself a
+ * junction) builds the SQM for it and releases the children of its parse-tree node.  So the
+ * contexts and terminal nodes of each clause and predicate only live until they are
+ * analyzed, and what remains of the parse tree once the parser is done is little more than
+ * the skeleton of the query-spec and of its junctions.  The analysis is then completed by
+ * visiting that skeleton as usual, the analyzed nodes contributing the SQM built for them.
+ * <p/>
+ * The select clause precedes the from clause, and so is only analyzed once the from clause
+ * is complete.  Sub-queries, DML statements and anything the parser had to recover from are
+ * analyzed from the parse tree, as by the SemanticQueryBuilder.
+ * <p/>
+ * With a two-stage parse the clauses are analyzed during the SLL attempt.  A mis-predicted
+ * SLL parse may fail the analysis; the query is then re-parsed using LL prediction, and
+ * analyzed again by a new builder (see {@link HqlParseTreeBuilder#parseStatement(CharSequence, java.util.function.Supplier)}).
+ * <p/>
+ * Antlr's option to not build the parse tree at all does not fit here : the rule contexts
+ * would then not be attached to their parents, while the analysis relies on navigating them.
+ */
+public class SinglePassSemanticQueryBuilder extends SemanticQueryBuilder {
+	/**
+	 * Parse the query and build its semantic model in a single pass.
+	 *
+	 * @param hql The query string
+	 * @param parseTreeBuilder The parse-tree builder to parse the query with
+	 * @param parsingContext Access to things needed to perform the analysis
+	 *
+	 * @return The semantic query model
+	 */
+	public static SqmStatement buildSemanticModel(
+			String hql,
+			HqlParseTreeBuilder parseTreeBuilder,
+			ParsingContext parsingContext) {
+		// a two-stage parse may need a second attempt, which must start from a fresh builder
+		final SinglePassSemanticQueryBuilder[] builder = new SinglePassSemanticQueryBuilder[1];
+		final HqlParser.StatementContext statement = parseTreeBuilder.parseStatement(
+				hql,
+				() -> {
+					builder[0] = new SinglePassSemanticQueryBuilder( parsingContext );
+					return builder[0].parseListener;
+				}
+		);
+		return builder[0].visitStatement( statement );
+	}
+
+	private final ParseTreeListener parseListener = new AnalyzingParseListener();
+
+	// the SQM built for the analyzed parse-tree nodes, until requested by the analysis of their parent
+	private final Map<ParserRuleContext, Object> analyzedNodes = new IdentityHashMap<>();
+
+	private SqmSelectStatementImpl selectStatement;
+	private HqlParser.QuerySpecContext rootQuerySpec;
+	private HqlParser.FromClauseContext rootFromClause;
+	private HqlParser.SelectClauseContext pendingSelectClause;
+	private boolean analysisFailed;
+
+	private SinglePassSemanticQueryBuilder(ParsingContext parsingContext) {
+		super( parsingContext, null );
+		// the clauses get analyzed before the statement is visited
+		pushStatementParameterDeclarationContext();
+	}
+
+	@Override
+	SqmSelectStatementImpl startSelectStatement() {
+		if ( selectStatement == null ) {
+			selectStatement = super.startSelectStatement();
+		}
+		return selectStatement;
+	}
+
+	@Override
+	public SqmQuerySpec visitQuerySpec(HqlParser.QuerySpecContext ctx) {
+		if ( ctx != rootQuerySpec || rootFromClause == null ) {
+			return super.visitQuerySpec( ctx );
+		}
+
+		// the processing state was pushed when the from clause was analyzed
+		try {
+			return buildQuerySpec( ctx );
+		}
+		finally {
+			popQuerySpec();
+		}
+	}
+
+	@Override
+	public Object visitFromClause(HqlParser.FromClauseContext ctx) {
+		if ( ctx == rootFromClause ) {
+			return null;
+		}
+		return super.visitFromClause( ctx );
+	}
+
+	@Override
+	public SqmSelectClause visitSelectClause(HqlParser.SelectClauseContext ctx) {
+		final SqmSelectClause selectClause = (SqmSelectClause) analyzedNodes.remove( ctx );
+		return selectClause != null ? selectClause : super.visitSelectClause( ctx );
+	}
+
+	@Override
+	public SqmWhereClause visitWhereClause(HqlParser.WhereClauseContext ctx) {
+		final SqmWhereClause whereClause = (SqmWhereClause) analyzedNodes.remove( ctx );
+		return whereClause != null ? whereClause : super.visitWhereClause( ctx );
+	}
+
+	@Override
+	public SqmGroupByClause visitGroupByClause(HqlParser.GroupByClauseContext ctx) {
+		final SqmGroupByClause groupByClause = (SqmGroupByClause) analyzedNodes.remove( ctx );
+		return groupByClause != null ? groupByClause : super.visitGroupByClause( ctx );
+	}
+
+	@Override
+	public SqmHavingClause visitHavingClause(HqlParser.HavingClauseContext ctx) {
+		final SqmHavingClause havingClause = (SqmHavingClause) analyzedNodes.remove( ctx );
+		return havingClause != null ? havingClause : super.visitHavingClause( ctx );
+	}
+
+	@Override
+	SqmPredicate visitPredicateOperand(HqlParser.PredicateContext ctx) {
+		final SqmPredicate predicate = (SqmPredicate) analyzedNodes.remove( ctx );
+		return predicate != null ? predicate : super.visitPredicateOperand( ctx );
+	}
+
+	private void analyzeRootQuerySpecClause(ParserRuleContext ctx) {
+		if ( ctx instanceof HqlParser.SelectClauseContext ) {
+			// the from clause is not known yet
+			pendingSelectClause = (HqlParser.SelectClauseContext) ctx;
+		}
+		else if ( ctx instanceof HqlParser.FromClauseContext ) {
+			pushQuerySpec();
+			super.visitFromClause( (HqlParser.FromClauseContext) ctx );
+			rootFromClause = (HqlParser.FromClauseContext) ctx;
+			release( ctx );
+
+			if ( pendingSelectClause != null ) {
+				analyzed( pendingSelectClause, super.visitSelectClause( pendingSelectClause ) );
+				pendingSelectClause = null;
+			}
+		}
+		else if ( rootFromClause == null ) {
+			// the from clause had to be recovered from, leave the rest to the parse tree
+		}
+		else if ( ctx instanceof HqlParser.WhereClauseContext ) {
+			analyzed( ctx, super.visitWhereClause( (HqlParser.WhereClauseContext) ctx ) );
+		}
+		else if ( ctx instanceof HqlParser.GroupByClauseContext ) {
+			analyzed( ctx, super.visitGroupByClause( (HqlParser.GroupByClauseContext) ctx ) );
+		}
+		else if ( ctx instanceof HqlParser.HavingClauseContext ) {
+			analyzed( ctx, super.visitHavingClause( (HqlParser.HavingClauseContext) ctx ) );
+		}
+	}
+
+	private void analyzeRootQuerySpecPredicate(HqlParser.PredicateContext ctx) {
+		if ( rootFromClause == null
+				|| ctx instanceof HqlParser.AndPredicateContext
+				|| ctx instanceof HqlParser.OrPredicateContext ) {
+			// the junctions are flattened by walking their parse tree, so they are analyzed with their clause
+			return;
+		}
+
+		// the parents of the predicates being parsed are only linked up to the innermost junction being
+		// parsed; Antlr re-parents a completed junction when it becomes the left operand of another one,
+		// but that one is always a junction as well
+		ParserRuleContext parent = ctx.getParent();
+		while ( parent instanceof HqlParser.AndPredicateContext
+				|| parent instanceof HqlParser.OrPredicateContext
+				|| parent instanceof HqlParser.GroupedPredicateContext
+				|| parent instanceof HqlParser.NegatedPredicateContext ) {
+			parent = parent.getParent();
+		}
+		if ( parent == null || parent.getParent() != rootQuerySpec ) {
+			return;
+		}
+
+		if ( parent instanceof HqlParser.WhereClauseContext ) {
+			analyzed( ctx, visitWherePredicate( ctx ) );
+		}
+		else if ( parent instanceof HqlParser.HavingClauseContext ) {
+			analyzed( ctx, visitPredicateOperand( ctx ) );
+		}
+	}
+
+	private void analyzed(ParserRuleContext ctx, Object sqmNode) {
+		analyzedNodes.put( ctx, sqmNode );
+		release( ctx );
+	}
+
+	private static void release(ParserRuleContext ctx) {
+		// the node itself stays, as its parent still refers to it
+		ctx.children = null;
+	}
+
+	private class AnalyzingParseListener implements ParseTreeListener {
+		@Override
+		public void enterEveryRule(ParserRuleContext ctx) {
+			if ( rootQuerySpec == null
+					&& ctx instanceof HqlParser.QuerySpecContext
+					&& ctx.getParent() instanceof HqlParser.SelectStatementContext ) {
+				rootQuerySpec = (HqlParser.QuerySpecContext) ctx;
+				// the analysis of the clauses collects the parameters
+				startSelectStatement();
+			}
+		}
+
+		@Override
+		public void exitEveryRule(ParserRuleContext ctx) {
+			// once the analysis failed, the parser still exits each enclosing rule as the exception
+			// propagates : these must neither analyze what is left of the tree nor replace the exception
+			if ( analysisFailed || rootQuerySpec == null || ctx.exception != null ) {
+				return;
+			}
+
+			analysisFailed = true;
+			if ( ctx.getParent() == rootQuerySpec ) {
+				analyzeRootQuerySpecClause( ctx );
+			}
+			else if ( ctx instanceof HqlParser.PredicateContext ) {
+				analyzeRootQuerySpecPredicate( (HqlParser.PredicateContext) ctx );
+			}
+			analysisFailed = false;
+		}
+
+		@Override
+		public void visitTerminal(TerminalNode node) {
+		}
+
+		@Override
+		public void visitErrorNode(ErrorNode node) {
+		}
+	}
+}
@@ -26,12 +26,22 @@ import org.hibernate.query.sqm.tree.expression.domain.SqmNavigableSourceReferenc
  * @author Steve Ebersole
  */
 public abstract class AbstractNavigableBindingResolver implements NavigableBindingResolver {
-	private final ResolutionContext context;
+	private ResolutionContext context;
 
 	public AbstractNavigableBindingResolver(ResolutionContext context) {
 		this.context = context;
 	}
 
+	/**
+	 * Re-target this resolver to another context, allowing the (otherwise stateless)
+	 * resolver to be reused rather than re-created.
+	 *
+	 * @param context The context to resolve against from now on
+	 */
+	public void reset(ResolutionContext context) {
+		this.context = context;
+	}
+
 	protected ResolutionContext context() {
 		return context;
 	}
@@ -123,7 +133,10 @@ public abstract class AbstractNavigableBindingResolver implements NavigableBindi
 	}
 
 	protected Navigable resolveNavigable(SqmNavigableSourceReference sourceBinding, String navigableName) {
-		final Navigable navigable = sourceBinding.getReferencedNavigable().findNavigable( navigableName );
+		final Navigable navigable = context().getParsingContext().findNavigable(
+				sourceBinding.getReferencedNavigable(),
+				navigableName
+		);
 		if ( navigable == null ) {
 			throw new NavigableResolutionException(
 					"Could not locate navigable named [" + navigableName + "] relative to [" +
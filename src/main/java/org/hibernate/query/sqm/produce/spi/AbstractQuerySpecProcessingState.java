@@ -6,33 +6,26 @@
  */
 package org.hibernate.query.sqm.produce.spi;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 /**
  * @author Steve Ebersole
  */
 public abstract class AbstractQuerySpecProcessingState implements QuerySpecProcessingState {
 	private final ParsingContext parsingContext;
-	private final QuerySpecProcessingState containingQueryState;
-	private List<QuerySpecProcessingState> subQueryStateList;
+	private QuerySpecProcessingState containingQueryState;
 
 	public AbstractQuerySpecProcessingState(ParsingContext parsingContext, QuerySpecProcessingState containingQueryState) {
 		this.parsingContext = parsingContext;
 		this.containingQueryState = containingQueryState;
-		if ( containingQueryState != null ) {
-			( (AbstractQuerySpecProcessingState) containingQueryState ).registerSubQueryState( this );
-		}
 	}
 
-	private void registerSubQueryState(QuerySpecProcessingState subQueryState) {
-		if ( subQueryStateList == null ) {
-			// this is the first subquery we have encountered for this processing state
-			subQueryStateList = new ArrayList<>();
-		}
-
-		subQueryStateList.add( subQueryState );
+	/**
+	 * Prepare this (no longer current) state to be reused for another query spec of the
+	 * same parse, contained in the given state.
+	 *
+	 * @param containingQueryState The state of the query containing the new query spec, if any
+	 */
+	protected void reset(QuerySpecProcessingState containingQueryState) {
+		this.containingQueryState = containingQueryState;
 	}
 
 	@Override
@@ -44,11 +37,4 @@ public abstract class AbstractQuerySpecProcessingState implements QuerySpecProce
 	public QuerySpecProcessingState getContainingQueryState() {
 		return containingQueryState;
 	}
-
-	@Override
-	public List<QuerySpecProcessingState> getSubQueryStateList() {
-		return subQueryStateList == null
-				? Collections.emptyList()
-				: Collections.unmodifiableList( subQueryStateList );
-	}
 }
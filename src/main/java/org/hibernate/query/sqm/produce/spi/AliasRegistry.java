@@ -36,6 +36,17 @@ public class AliasRegistry {
 		return parent;
 	}
 
+	/**
+	 * Clear all registrations, so that the registry can be reused for another query spec.
+	 *
+	 * @param parent The registry of the containing query spec, if any
+	 */
+	public void reset(AliasRegistry parent) {
+		this.parent = parent;
+		navigableBindingsByAlias.clear();
+		selectionsByAlias.clear();
+	}
+
 	public void registerAlias(SqmSelection selection) {
 		if ( selection.getAlias() != null ) {
 			checkResultVariable( selection );
@@ -0,0 +1,131 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.produce.spi;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.query.sqm.tree.SqmStatement;
+
+/**
+ * The result of interpreting a batch of HQL/JPQL queries (e.g. named queries at
+ * bootstrap) : the statements for the queries which could be interpreted, the
+ * failures for those which could not, and timing statistics.
+ * <p/>
+ * A failure to interpret one query does not prevent the interpretation of the others.
+ *
+ * @see SemanticQueryProducer#interpretAll
+ */
+public class BatchInterpretation {
+	private final Map<String,SqmStatement> statements;
+	private final Map<String,RuntimeException> failures;
+	private final long elapsedNanos;
+	private final long totalInterpretationNanos;
+	private final long maxInterpretationNanos;
+	private final String slowestQuery;
+
+	public BatchInterpretation(
+			Map<String,SqmStatement> statements,
+			Map<String,RuntimeException> failures,
+			long elapsedNanos,
+			long totalInterpretationNanos,
+			long maxInterpretationNanos,
+			String slowestQuery) {
+		this.statements = Collections.unmodifiableMap( statements );
+		this.failures = Collections.unmodifiableMap( failures );
+		this.elapsedNanos = elapsedNanos;
+		this.totalInterpretationNanos = totalInterpretationNanos;
+		this.maxInterpretationNanos = maxInterpretationNanos;
+		this.slowestQuery = slowestQuery;
+	}
+
+	/**
+	 * The statements of the successfully interpreted queries, keyed by query string
+	 * in the order the queries were given
+	 *
+	 * @return The interpreted statements
+	 */
+	public Map<String,SqmStatement> getStatements() {
+		return statements;
+	}
+
+	/**
+	 * The exceptions for the queries which could not be interpreted, keyed by query
+	 * string in the order the queries were given
+	 *
+	 * @return The failures
+	 */
+	public Map<String,RuntimeException> getFailures() {
+		return failures;
+	}
+
+	public boolean hasFailures() {
+		return !failures.isEmpty();
+	}
+
+	/**
+	 * The number of (distinct) queries in the batch
+	 *
+	 * @return The query count
+	 */
+	public int getQueryCount() {
+		return statements.size() + failures.size();
+	}
+
+	/**
+	 * The wall-clock time taken to interpret the whole batch
+	 *
+	 * @param unit The unit in which to express the time
+	 *
+	 * @return The elapsed time
+	 */
+	public long getElapsedTime(TimeUnit unit) {
+		return unit.convert( elapsedNanos, TimeUnit.NANOSECONDS );
+	}
+
+	/**
+	 * The sum of the time taken to interpret each query; compared to
+	 * {@link #getElapsedTime} this gives the effective parallelism
+	 *
+	 * @param unit The unit in which to express the time
+	 *
+	 * @return The total interpretation time
+	 */
+	public long getTotalInterpretationTime(TimeUnit unit) {
+		return unit.convert( totalInterpretationNanos, TimeUnit.NANOSECONDS );
+	}
+
+	/**
+	 * The time taken to interpret the slowest query
+	 *
+	 * @param unit The unit in which to express the time
+	 *
+	 * @return The maximum interpretation time
+	 */
+	public long getMaxInterpretationTime(TimeUnit unit) {
+		return unit.convert( maxInterpretationNanos, TimeUnit.NANOSECONDS );
+	}
+
+	/**
+	 * The query which took the longest to interpret
+	 *
+	 * @return The slowest query, or {@code null} if the batch was empty
+	 */
+	public String getSlowestQuery() {
+		return slowestQuery;
+	}
+
+	@Override
+	public String toString() {
+		return "BatchInterpretation(queries=" + getQueryCount()
+				+ ", failures=" + failures.size()
+				+ ", elapsed=" + getElapsedTime( TimeUnit.MILLISECONDS ) + "ms"
+				+ ", total=" + getTotalInterpretationTime( TimeUnit.MILLISECONDS ) + "ms"
+				+ ", max=" + getMaxInterpretationTime( TimeUnit.MILLISECONDS ) + "ms)";
+	}
+}
@@ -8,10 +8,34 @@ package org.hibernate.query.sqm.produce.spi;
 
 /**
  * Handles generating implicit (or synthetic) aliases.
+ * <p/>
+ * A generator belongs to a single {@link ParsingContext} and so is used by a single thread;
+ * it is not thread-safe.
+ * <p/>
+ * From-elements do not use the generator : their implicit alias is rendered from their
+ * unique id, and only when first asked for (see {@link #renderImplicitAlias}).  Those
+ * aliases use a prefix of their own, so they never collide with the counter-based ones
+ * built here for the selections.
  *
  * @author Steve Ebersole
  */
 public class ImplicitAliasGenerator {
+	private static final String PREFIX = "<gen:";
+	private static final String FROM_ELEMENT_PREFIX = PREFIX + "uid:";
+	private static final String SUFFIX = ">";
+
+	/**
+	 * The most commonly needed aliases are rendered once, up front
+	 */
+	private static final String[] RENDERED = new String[64];
+	private static final String[] RENDERED_FROM_ELEMENT = new String[64];
+	static {
+		for ( int i = 0; i < RENDERED.length; i++ ) {
+			RENDERED[i] = PREFIX + i + SUFFIX;
+			RENDERED_FROM_ELEMENT[i] = FROM_ELEMENT_PREFIX + i + SUFFIX;
+		}
+	}
+
 	private int unaliasedCount = 0;
 
 	/**
@@ -19,8 +43,26 @@ public class ImplicitAliasGenerator {
 	 *
 	 * @return The generated alias.
 	 */
-	public synchronized String buildUniqueImplicitAlias() {
-		return "<gen:" + unaliasedCount++ + ">";
+	public String buildUniqueImplicitAlias() {
+		final int number = unaliasedCount++;
+		if ( number < RENDERED.length ) {
+			return RENDERED[number];
+		}
+		return PREFIX + number + SUFFIX;
+	}
+
+	/**
+	 * Render the implicit alias of the from-element with the given unique id.
+	 *
+	 * @param uid The (non-negative) unique id of the from-element
+	 *
+	 * @return The implicit alias
+	 */
+	public static String renderImplicitAlias(int uid) {
+		if ( uid >= 0 && uid < RENDERED_FROM_ELEMENT.length ) {
+			return RENDERED_FROM_ELEMENT[uid];
+		}
+		return FROM_ELEMENT_PREFIX + uid + SUFFIX;
 	}
 
 	/**
@@ -30,6 +72,6 @@ public class ImplicitAliasGenerator {
 	 * @return True/false.
 	 */
 	public static boolean isImplicitAlias(String alias) {
-		return alias == null || ( alias.startsWith( "<gen:" ) && alias.endsWith( ">" ) );
+		return alias == null || ( alias.startsWith( PREFIX ) && alias.endsWith( SUFFIX ) );
 	}
 }
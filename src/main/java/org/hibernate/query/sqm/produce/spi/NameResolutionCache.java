@@ -0,0 +1,239 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.produce.spi;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.queryable.spi.EntityValuedExpressableType;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Caches the resolution of the names used in queries which are not paths : entity names,
+ * class names (dynamic instantiation targets) and references to enum constants or static
+ * fields.  Names which do not resolve are remembered as well, so that repeated queries do not
+ * repeat the class loading, reflection and exception handling of a miss; as they come from
+ * arbitrary query text, only so many of them are remembered (see {@link UnresolvedNameCache}).
+ * Failures other than the name not resolving (e.g. a class failing to load) are never cached.
+ * <p/>
+ * Names are first translated through an "imports" table, mapping short names to
+ * fully-qualified ones (e.g. {@code Color} to {@code com.acme.Color}), which applies to
+ * entity names and to the class part of constant references.
+ * <p/>
+ * As the names resolve the same way for the whole life of the SessionFactory, a single
+ * cache is shared by all the interpretations of a {@link SemanticQueryProducer}.
+ */
+public class NameResolutionCache {
+	private static final Logger log = Logger.getLogger( NameResolutionCache.class );
+
+	private final Map<String, String> imports;
+
+	private final ConcurrentMap<String, EntityValuedExpressableType> entityReferencesByName = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Class> classesByName = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Object> constantsByReference = new ConcurrentHashMap<>();
+
+	private final UnresolvedNameCache<String> unresolvedEntityNames;
+	private final UnresolvedNameCache<String> unresolvedClassNames;
+	private final UnresolvedNameCache<String> unresolvedConstantReferences;
+
+	public NameResolutionCache() {
+		this( Collections.emptyMap() );
+	}
+
+	/**
+	 * Creates the cache with the given imports.
+	 *
+	 * @param imports Short (imported) names keyed to the name they stand for
+	 */
+	public NameResolutionCache(Map<String, String> imports) {
+		this( imports, UnresolvedNameCache.DEFAULT_MAX_SIZE );
+	}
+
+	/**
+	 * Creates the cache with the given imports.
+	 *
+	 * @param imports Short (imported) names keyed to the name they stand for
+	 * @param maxUnresolvedNames The maximum number of names not resolving to remember, for each
+	 * kind of name; 0 disables the caching of misses
+	 */
+	public NameResolutionCache(Map<String, String> imports, int maxUnresolvedNames) {
+		this.imports = imports.isEmpty()
+				? Collections.emptyMap()
+				: Collections.unmodifiableMap( new HashMap<>( imports ) );
+		this.unresolvedEntityNames = new UnresolvedNameCache<>( maxUnresolvedNames );
+		this.unresolvedClassNames = new UnresolvedNameCache<>( maxUnresolvedNames );
+		this.unresolvedConstantReferences = new UnresolvedNameCache<>( maxUnresolvedNames );
+	}
+
+	public Map<String, String> getImports() {
+		return imports;
+	}
+
+	private String applyImports(String name) {
+		final String imported = imports.get( name );
+		return imported == null ? name : imported;
+	}
+
+	/**
+	 * The number of names currently remembered as not resolving, of all kinds
+	 *
+	 * @return The number of unresolved names
+	 */
+	public int getUnresolvedNameCount() {
+		return unresolvedEntityNames.size() + unresolvedClassNames.size() + unresolvedConstantReferences.size();
+	}
+
+	/**
+	 * Resolve the entity reference with the given name.
+	 *
+	 * @param entityName The entity name, possibly an imported name
+	 * @param sessionFactory The SessionFactory
+	 *
+	 * @return The entity reference, or {@code null} if the name does not resolve to an entity
+	 */
+	public EntityValuedExpressableType resolveEntityReference(String entityName, SessionFactoryImplementor sessionFactory) {
+		final EntityValuedExpressableType cached = entityReferencesByName.get( entityName );
+		if ( cached != null ) {
+			return cached;
+		}
+		if ( unresolvedEntityNames.contains( entityName ) ) {
+			return null;
+		}
+
+		final EntityValuedExpressableType reference;
+		try {
+			reference = sessionFactory.getDomainMetamodel().resolveEntityReference( applyImports( entityName ) );
+		}
+		catch (RuntimeException e) {
+			// not necessarily a name which does not resolve, so do not remember it
+			log.debugf( "Could not resolve entity name [%s] : %s", entityName, e.getMessage() );
+			return null;
+		}
+
+		if ( reference == null ) {
+			unresolvedEntityNames.add( entityName );
+			return null;
+		}
+		entityReferencesByName.putIfAbsent( entityName, reference );
+		return reference;
+	}
+
+	/**
+	 * Resolve the class with the given name.
+	 *
+	 * @param className The class name, possibly an imported name
+	 * @param sessionFactory The SessionFactory
+	 *
+	 * @return The class, or {@code null} if it cannot be found
+	 */
+	public Class resolveClass(String className, SessionFactoryImplementor sessionFactory) {
+		final Class cached = classesByName.get( className );
+		if ( cached != null ) {
+			return cached;
+		}
+		if ( unresolvedClassNames.contains( className ) ) {
+			return null;
+		}
+
+		final Class resolved;
+		try {
+			resolved = sessionFactory.classByName( applyImports( className ) );
+		}
+		catch (ClassNotFoundException e) {
+			log.debugf( "Could not resolve class named [%s]", className );
+			unresolvedClassNames.add( className );
+			return null;
+		}
+		classesByName.putIfAbsent( className, resolved );
+		return resolved;
+	}
+
+	/**
+	 * Resolve a reference to a constant, in the form {@code {class-name}.{constant-name}}.
+	 *
+	 * @param reference The constant reference; the class name may be an imported name
+	 * @param sessionFactory The SessionFactory
+	 *
+	 * @return The {@link Enum} constant, or the (static, accessible) {@link Field} for other
+	 * constants, or {@code null} if the reference does not resolve to either.  Note that the
+	 * value of the field is not cached.
+	 */
+	public Object resolveConstant(String reference, SessionFactoryImplementor sessionFactory) {
+		final Object cached = constantsByReference.get( reference );
+		if ( cached != null ) {
+			return cached;
+		}
+		if ( unresolvedConstantReferences.contains( reference ) ) {
+			return null;
+		}
+
+		final Object resolved;
+		try {
+			resolved = doResolveConstant( reference, sessionFactory );
+		}
+		catch (SecurityException e) {
+			// depends on the security policy in effect, so do not remember it
+			log.debugf( "Constant [%s] is not accessible", reference );
+			return null;
+		}
+
+		if ( resolved == null ) {
+			unresolvedConstantReferences.add( reference );
+			return null;
+		}
+		constantsByReference.putIfAbsent( reference, resolved );
+		return resolved;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object doResolveConstant(String reference, SessionFactoryImplementor sessionFactory) {
+		final int dotPosition = reference.lastIndexOf( '.' );
+		if ( dotPosition <= 0 ) {
+			return null;
+		}
+
+		final String className = reference.substring( 0, dotPosition );
+		final String fieldName = reference.substring( dotPosition + 1 );
+
+		final Class clazz = resolveClass( className, sessionFactory );
+		if ( clazz == null ) {
+			log.debugf( "Cannot resolve class for sqm constant [%s]", reference );
+			return null;
+		}
+
+		if ( clazz.isEnum() ) {
+			for ( Object constant : clazz.getEnumConstants() ) {
+				if ( ( (Enum) constant ).name().equals( fieldName ) ) {
+					return constant;
+				}
+			}
+			log.debugf( "Name [%s] does not represent an enum constant on enum class [%s]", fieldName, className );
+			return null;
+		}
+
+		try {
+			final Field field = clazz.getField( fieldName );
+			if ( !Modifier.isStatic( field.getModifiers() ) ) {
+				log.debugf( "Field [%s] is not static on class [%s]", fieldName, className );
+				return null;
+			}
+			field.setAccessible( true );
+			return field;
+		}
+		catch (NoSuchFieldException e) {
+			log.debugf( "Name [%s] does not represent a field on class [%s]", fieldName, className );
+			return null;
+		}
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.produce.spi;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.persister.common.spi.Navigable;
+import org.hibernate.persister.common.spi.NavigableSource;
+
+/**
+ * Caches the resolution of navigable names relative to a NavigableSource (see
+ * {@link NavigableSource#findNavigable}), including names which do not resolve.
+ * <p/>
+ * The metamodel does not change once the SessionFactory is built, so a single cache is
+ * shared by all the interpretations of a {@link SemanticQueryProducer} (and therefore of a
+ * SessionFactory).  The cache is filled lazily; lookups of names already looked up neither lock
+ * nor allocate.  The names which resolve are bounded by the metamodel; the names which do not
+ * come from the query text, and only a bounded number of them is remembered, alongside the
+ * names which resolve (as by {@link UnresolvedNameCache}).
+ */
+public class NavigableResolutionCache {
+	/**
+	 * Marks a name which does not resolve, in place of its navigable
+	 */
+	private static final Object UNRESOLVED = new Object();
+
+	// the navigable, or UNRESOLVED, for each name looked up, by source
+	private final ConcurrentMap<NavigableSource, ConcurrentMap<String, Object>> navigablesBySource = new ConcurrentHashMap<>();
+	private final int maxUnresolvedNames;
+	private final AtomicInteger unresolvedNameCount = new AtomicInteger();
+
+	public NavigableResolutionCache() {
+		this( UnresolvedNameCache.DEFAULT_MAX_SIZE );
+	}
+
+	/**
+	 * Creates the cache remembering at most the given number of names which do not resolve.
+	 * Once that many are remembered they are all forgotten, as by {@link UnresolvedNameCache}.
+	 *
+	 * @param maxUnresolvedNames The maximum number of names not resolving to remember (for all
+	 * sources combined); 0 disables the caching of misses
+	 */
+	public NavigableResolutionCache(int maxUnresolvedNames) {
+		if ( maxUnresolvedNames < 0 ) {
+			throw new IllegalArgumentException( "Maximum number of unresolved names cannot be negative : " + maxUnresolvedNames );
+		}
+		this.maxUnresolvedNames = maxUnresolvedNames;
+	}
+
+	/**
+	 * Find the navigable with the given name relative to the given source.
+	 *
+	 * @param source The source of the navigable
+	 * @param navigableName The name of the navigable
+	 *
+	 * @return The navigable, or {@code null} if the name cannot be resolved
+	 */
+	public Navigable findNavigable(NavigableSource source, String navigableName) {
+		ConcurrentMap<String, Object> navigables = navigablesBySource.get( source );
+		if ( navigables == null ) {
+			navigables = navigablesBySource.computeIfAbsent( source, k -> new ConcurrentHashMap<>() );
+		}
+
+		final Object cached = navigables.get( navigableName );
+		if ( cached != null ) {
+			return cached == UNRESOLVED ? null : (Navigable) cached;
+		}
+
+		// resolving twice concurrently is harmless, the metamodel returns the same navigable
+		final Navigable navigable = source.findNavigable( navigableName );
+		if ( navigable != null ) {
+			navigables.putIfAbsent( navigableName, navigable );
+		}
+		else if ( maxUnresolvedNames > 0 ) {
+			if ( unresolvedNameCount.get() >= maxUnresolvedNames ) {
+				forgetUnresolvedNames();
+			}
+			if ( navigables.putIfAbsent( navigableName, UNRESOLVED ) == null ) {
+				unresolvedNameCount.incrementAndGet();
+			}
+		}
+		return navigable;
+	}
+
+	private void forgetUnresolvedNames() {
+		for ( ConcurrentMap<String, Object> navigables : navigablesBySource.values() ) {
+			navigables.values().removeIf( cached -> cached == UNRESOLVED );
+		}
+		// a name concurrently remembered may go uncounted, so the bound is only approximate
+		unresolvedNameCount.set( 0 );
+	}
+
+	/**
+	 * The number of names currently remembered as not resolving.
+	 *
+	 * @return The number of names
+	 */
+	public int getUnresolvedNameCount() {
+		return unresolvedNameCount.get();
+	}
+}
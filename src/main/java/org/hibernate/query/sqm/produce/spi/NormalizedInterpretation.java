@@ -0,0 +1,80 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.produce.spi;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.query.sqm.tree.SqmStatement;
+import org.hibernate.query.sqm.tree.expression.LiteralParameterSqmExpression;
+
+/**
+ * The result of interpreting a query with literal normalization : the statement in
+ * which literals have been replaced by {@link LiteralParameterSqmExpression} synthetic
+ * parameters, the normalized query text (fingerprint) and the literal values captured
+ * from this particular query.
+ * <p/>
+ * All queries with the same fingerprint may share the same statement; only the literal
+ * values differ.
+ *
+ * @see SemanticQueryProducer#interpretNormalized
+ */
+public class NormalizedInterpretation {
+	private final SqmStatement statement;
+	private final String fingerprint;
+	private final List<Object> literalValues;
+
+	public NormalizedInterpretation(SqmStatement statement, String fingerprint, List<Object> literalValues) {
+		this.statement = statement;
+		this.fingerprint = fingerprint;
+		this.literalValues = Collections.unmodifiableList( literalValues );
+	}
+
+	/**
+	 * The normalized (and possibly shared) statement
+	 *
+	 * @return The statement
+	 */
+	public SqmStatement getStatement() {
+		return statement;
+	}
+
+	/**
+	 * The normalized query text
+	 *
+	 * @return The fingerprint
+	 */
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	/**
+	 * The values of the replaced literals, in the order they appear in the query; the
+	 * value at index {@code i} belongs to the literal parameter at position {@code i + 1}
+	 *
+	 * @return The captured literal values
+	 */
+	public List<Object> getLiteralValues() {
+		return literalValues;
+	}
+
+	/**
+	 * The captured literal values keyed by the name of the synthetic parameter which
+	 * replaced them, suitable for binding
+	 *
+	 * @return The literal parameter bindings
+	 */
+	public Map<String,Object> getLiteralBindings() {
+		final Map<String,Object> bindings = new LinkedHashMap<>();
+		for ( int i = 0; i < literalValues.size(); i++ ) {
+			bindings.put( LiteralParameterSqmExpression.parameterName( i + 1 ), literalValues.get( i ) );
+		}
+		return bindings;
+	}
+}
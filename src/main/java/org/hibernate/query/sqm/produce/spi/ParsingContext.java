@@ -6,12 +6,14 @@
  */
 package org.hibernate.query.sqm.produce.spi;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.persister.common.spi.Navigable;
+import org.hibernate.persister.common.spi.NavigableSource;
 import org.hibernate.query.sqm.ParsingException;
 import org.hibernate.query.sqm.produce.internal.NavigableBindingHelper;
 import org.hibernate.query.sqm.tree.expression.domain.SqmNavigableReference;
@@ -29,37 +31,111 @@ public class ParsingContext {
 	private static final Logger log = Logger.getLogger( ParsingContext.class );
 
 	private final SessionFactoryImplementor sessionFactory;
+	private final NavigableResolutionCache navigableResolutionCache;
+	private final NameResolutionCache nameResolutionCache;
 
 	private final ImplicitAliasGenerator aliasGenerator = new ImplicitAliasGenerator();
-	private final Map<String,SqmFrom> globalFromElementMap = new HashMap<>();
+
+	// from-elements indexed by their unique id; ids are handed out sequentially from 1
+	private SqmFrom[] fromElementsByUniqueId = new SqmFrom[16];
+	private int uidSequence = 0;
 
 	private Map<SqmNavigableSourceReference,Map<Navigable,SqmNavigableReference>> navigableReferenceMapBySource;
 
 	public ParsingContext(SessionFactoryImplementor sessionFactory) {
+		this( sessionFactory, new NavigableResolutionCache() );
+	}
+
+	/**
+	 * Creates a ParsingContext resolving navigable names through the given (generally
+	 * SessionFactory-wide) cache.
+	 *
+	 * @param sessionFactory The SessionFactory
+	 * @param navigableResolutionCache The cache of navigable name resolutions
+	 */
+	public ParsingContext(SessionFactoryImplementor sessionFactory, NavigableResolutionCache navigableResolutionCache) {
+		this( sessionFactory, navigableResolutionCache, new NameResolutionCache() );
+	}
+
+	/**
+	 * Creates a ParsingContext resolving navigable names and entity, class and constant names
+	 * through the given (generally SessionFactory-wide) caches.
+	 *
+	 * @param sessionFactory The SessionFactory
+	 * @param navigableResolutionCache The cache of navigable name resolutions
+	 * @param nameResolutionCache The cache of entity, class and constant name resolutions
+	 */
+	public ParsingContext(
+			SessionFactoryImplementor sessionFactory,
+			NavigableResolutionCache navigableResolutionCache,
+			NameResolutionCache nameResolutionCache) {
 		this.sessionFactory = sessionFactory;
+		this.navigableResolutionCache = navigableResolutionCache;
+		this.nameResolutionCache = nameResolutionCache;
 	}
 
 	public SessionFactoryImplementor getSessionFactory() {
 		return sessionFactory;
 	}
 
+	public NavigableResolutionCache getNavigableResolutionCache() {
+		return navigableResolutionCache;
+	}
+
+	public NameResolutionCache getNameResolutionCache() {
+		return nameResolutionCache;
+	}
+
+	/**
+	 * Find the navigable with the given name relative to the given source, through the
+	 * {@link NavigableResolutionCache}.
+	 *
+	 * @param source The source of the navigable
+	 * @param navigableName The name of the navigable
+	 *
+	 * @return The navigable, or {@code null} if the name cannot be resolved
+	 */
+	public Navigable findNavigable(NavigableSource source, String navigableName) {
+		return navigableResolutionCache.findNavigable( source, navigableName );
+	}
+
 	public ImplicitAliasGenerator getImplicitAliasGenerator() {
 		return aliasGenerator;
 	}
 
-	private long uidSequence = 0;
-
-	public String makeUniqueIdentifier() {
-		return "<uid:" + ++uidSequence + ">";
+	/**
+	 * Generate the next from-element unique id.
+	 *
+	 * @return The unique id (always positive)
+	 */
+	public int makeUniqueIdentifier() {
+		return ++uidSequence;
 	}
 
 	public void registerFromElementByUniqueId(SqmFrom fromElement) {
-		final SqmFrom old = globalFromElementMap.put( fromElement.getUniqueIdentifier(), fromElement );
-		assert old == null;
+		final int uid = fromElement.getUniqueId();
+		if ( uid >= fromElementsByUniqueId.length ) {
+			fromElementsByUniqueId = Arrays.copyOf(
+					fromElementsByUniqueId,
+					Math.max( uid + 1, fromElementsByUniqueId.length * 2 )
+			);
+		}
+		assert fromElementsByUniqueId[uid] == null;
+		fromElementsByUniqueId[uid] = fromElement;
 	}
 
-	public void findElementByUniqueId(String uid) {
-		globalFromElementMap.get( uid );
+	/**
+	 * Locate a registered from-element by its unique id.
+	 *
+	 * @param uid The unique id
+	 *
+	 * @return The from-element, or {@code null} if none was registered under that id
+	 */
+	public SqmFrom findElementByUniqueId(int uid) {
+		if ( uid <= 0 || uid >= fromElementsByUniqueId.length ) {
+			return null;
+		}
+		return fromElementsByUniqueId[uid];
 	}
 
 	public void cacheNavigableBinding(SqmNavigableReference binding) {
@@ -105,7 +181,7 @@ public class ParsingContext {
 	public SqmNavigableReference findOrCreateNavigableBinding(
 			SqmNavigableSourceReference lhs,
 			String navigableName) {
-		final Navigable sqmNavigable = lhs.getReferencedNavigable().findNavigable( navigableName );
+		final Navigable sqmNavigable = findNavigable( lhs.getReferencedNavigable(), navigableName );
 
 		if ( sqmNavigable == null ) {
 			throw new ParsingException(
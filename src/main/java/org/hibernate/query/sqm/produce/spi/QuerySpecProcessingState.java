@@ -6,8 +6,6 @@
  */
 package org.hibernate.query.sqm.produce.spi;
 
-import java.util.List;
-
 import org.hibernate.query.sqm.tree.from.SqmFromClause;
 
 /**
@@ -15,7 +13,6 @@ import org.hibernate.query.sqm.tree.from.SqmFromClause;
  */
 public interface QuerySpecProcessingState extends FromElementLocator, ResolutionContext {
 	QuerySpecProcessingState getContainingQueryState();
-	List<QuerySpecProcessingState> getSubQueryStateList();
 
 	SqmFromClause getFromClause();
 }
@@ -6,6 +6,7 @@
  */
 package org.hibernate.query.sqm.produce.spi;
 
+import java.util.Collection;
 import javax.persistence.criteria.CriteriaDelete;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.CriteriaUpdate;
@@ -26,6 +27,10 @@ import org.hibernate.query.sqm.tree.SqmUpdateStatement;
 public interface SemanticQueryProducer {
 	/**
 	 * Performs the interpretation of a HQL/JPQL query string to SQM.
+	 * <p/>
+	 * Implementations may cache interpretations, in which case the same
+	 * statement instance is handed to every caller asking for the same
+	 * query.  The returned tree must therefore be treated as read-only.
 	 *
 	 * @param query The HQL/JPQL query string to interpret
 	 *
@@ -33,6 +38,35 @@ public interface SemanticQueryProducer {
 	 */
 	SqmStatement interpret(String query);
 
+	/**
+	 * Performs the interpretation of a HQL/JPQL query string to SQM, replacing its
+	 * literals (other than {@code null}) with synthetic parameters.  Queries which
+	 * differ only in their literal values share the same normalized statement; the
+	 * literal values of this particular query are captured in the returned
+	 * interpretation.
+	 * <p/>
+	 * As with {@link #interpret(String)}, the statement may be shared and must be
+	 * treated as read-only.
+	 *
+	 * @param query The HQL/JPQL query string to interpret
+	 *
+	 * @return The normalized interpretation, along with the captured literal values
+	 */
+	NormalizedInterpretation interpretNormalized(String query);
+
+	/**
+	 * Performs the interpretation of a batch of HQL/JPQL query strings, typically the
+	 * named queries at bootstrap.  The queries may be interpreted in parallel, each with
+	 * its own {@link ParsingContext}.  A failure to interpret one query is collected in
+	 * the returned result rather than thrown; this includes a {@link StackOverflowError}
+	 * caused by the query.  Any other {@link Error} aborts the whole batch and is thrown.
+	 *
+	 * @param queries The HQL/JPQL query strings to interpret
+	 *
+	 * @return The interpreted statements, the failures and timing statistics
+	 */
+	BatchInterpretation interpretAll(Collection<String> queries);
+
 	/**
 	 * Perform the interpretation of a (select) criteria query.
 	 *
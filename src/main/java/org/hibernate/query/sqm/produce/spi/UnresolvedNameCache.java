@@ -0,0 +1,55 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.produce.spi;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bounded, concurrent set of the names known not to resolve (see {@link NameResolutionCache}
+ * and {@link NavigableResolutionCache}).
+ * <p/>
+ * Unlike the names which do resolve, which are bounded by the metamodel, these names come
+ * straight from the query text and so are unbounded.  Once the set is full it is simply
+ * cleared : forgetting a miss only costs resolving the name again.
+ *
+ * @param <K> The type of the name (key)
+ */
+class UnresolvedNameCache<K> {
+	/**
+	 * The default maximum number of names remembered
+	 */
+	static final int DEFAULT_MAX_SIZE = 1024;
+
+	private final int maxSize;
+	private final Set<K> names = ConcurrentHashMap.newKeySet();
+
+	UnresolvedNameCache(int maxSize) {
+		if ( maxSize < 0 ) {
+			throw new IllegalArgumentException( "Maximum number of unresolved names cannot be negative : " + maxSize );
+		}
+		this.maxSize = maxSize;
+	}
+
+	boolean contains(K name) {
+		return names.contains( name );
+	}
+
+	void add(K name) {
+		if ( maxSize == 0 ) {
+			return;
+		}
+		if ( names.size() >= maxSize ) {
+			names.clear();
+		}
+		names.add( name );
+	}
+
+	int size() {
+		return names.size();
+	}
+}
@@ -31,19 +31,18 @@ import org.hibernate.query.sqm.tree.expression.function.GenericFunctionSqmExpres
 import org.hibernate.query.sqm.tree.expression.function.MaxFunctionSqmExpression;
 import org.hibernate.query.sqm.tree.expression.function.MinFunctionSqmExpression;
 import org.hibernate.query.sqm.tree.expression.function.SumFunctionSqmExpression;
-import org.hibernate.query.sqm.tree.predicate.AndSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.BetweenSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.BooleanExpressionSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.EmptinessSqmPredicate;
-import org.hibernate.query.sqm.tree.predicate.InListSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.InSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.InSubQuerySqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.LikeSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.MemberOfSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.NegatedSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.NullnessSqmPredicate;
-import org.hibernate.query.sqm.tree.predicate.OrSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.RelationalPredicateOperator;
 import org.hibernate.query.sqm.tree.predicate.RelationalSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
 
 /**
  * @author Steve Ebersole
@@ -125,8 +124,8 @@ public interface CriteriaVisitor {
 
 	SubQuerySqmExpression visitSubQuery(JpaSubquery jpaSubquery);
 
-	AndSqmPredicate visitAndPredicate(List<JpaPredicate> predicates);
-	OrSqmPredicate visitOrPredicate(List<JpaPredicate> predicates);
+	SqmPredicate visitAndPredicate(List<JpaPredicate> predicates);
+	SqmPredicate visitOrPredicate(List<JpaPredicate> predicates);
 
 	EmptinessSqmPredicate visitEmptinessPredicate(JpaPluralAttributePath pluralAttributePath, boolean negated);
 	MemberOfSqmPredicate visitMemberOfPredicate(JpaPluralAttributePath pluralAttributePath, boolean negated);
@@ -149,7 +148,7 @@ public interface CriteriaVisitor {
 			JpaSubquery<?> subquery,
 			boolean negated);
 
-	InListSqmPredicate visitInTupleListPredicate(
+	InSqmPredicate visitInTupleListPredicate(
 			JpaExpression<?> testExpression,
 			List<JpaExpression<?>> listExpressions,
 			boolean negated);
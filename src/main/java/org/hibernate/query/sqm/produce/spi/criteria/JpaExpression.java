@@ -23,6 +23,16 @@ public interface JpaExpression<T> extends Expression<T>, JpaSelection<T> {
 
 	SqmExpression visitExpression(CriteriaVisitor visitor);
 
+	/**
+	 * The value of this expression if it is a literal, which allows literal values (e.g. those
+	 * of an IN-list) to be gathered without first visiting each of them.
+	 *
+	 * @return The literal value, or {@code null} if this expression is not a (non-null) literal
+	 */
+	default Object getLiteralValue() {
+		return null;
+	}
+
 	/**
 	 * See {@link javax.persistence.criteria.CriteriaBuilder#toLong}
 	 *
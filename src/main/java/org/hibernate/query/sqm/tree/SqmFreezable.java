@@ -0,0 +1,32 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.tree;
+
+/**
+ * Contract for the parts of an SQM tree which are mutable while the tree is being built.
+ * <p/>
+ * When the statement is wrapped up the whole tree is frozen : collections are compacted
+ * into immutable ones and any further mutation is rejected with an
+ * {@link IllegalStateException}.  A frozen statement can be shared by any number of threads
+ * without copying, provided it was safely published - statements handed out by the
+ * interpretation caches, or whose {@link #isFrozen()} was observed as {@code true}, are.
+ *
+ * @see org.hibernate.query.sqm.tree.internal.SqmTreeFreezer
+ */
+public interface SqmFreezable {
+	/**
+	 * Make this node immutable.  Freezing an already frozen node has no effect.
+	 */
+	void freeze();
+
+	/**
+	 * Has this node been frozen?
+	 *
+	 * @return {@code true} if the node is frozen (immutable)
+	 */
+	boolean isFrozen();
+}
@@ -6,13 +6,19 @@
  */
 package org.hibernate.query.sqm.tree;
 
+import java.util.List;
+
+import org.hibernate.query.sqm.tree.from.SqmFromClause;
 import org.hibernate.query.sqm.tree.from.SqmFromClauseContainer;
+import org.hibernate.query.sqm.tree.group.SqmGroupByClause;
+import org.hibernate.query.sqm.tree.group.SqmHavingClause;
+import org.hibernate.query.sqm.tree.internal.SqmSelectionClassifier;
 import org.hibernate.query.sqm.tree.order.SqmOrderByClause;
-import org.hibernate.query.sqm.tree.predicate.SqmWhereClause;
-import org.hibernate.query.sqm.tree.select.SqmSelectClause;
-import org.hibernate.query.sqm.tree.from.SqmFromClause;
 import org.hibernate.query.sqm.tree.paging.SqmLimitOffsetClause;
+import org.hibernate.query.sqm.tree.predicate.SqmWhereClause;
 import org.hibernate.query.sqm.tree.predicate.SqmWhereClauseContainer;
+import org.hibernate.query.sqm.tree.select.SqmSelectClause;
+import org.hibernate.query.sqm.tree.select.SqmSelectionClassification;
 
 /**
  * Defines the commonality between a root query and a subquery.
@@ -23,10 +29,12 @@ public class SqmQuerySpec implements SqmFromClauseContainer, SqmWhereClauseConta
 	private final SqmFromClause fromClause;
 	private final SqmSelectClause selectClause;
 	private final SqmWhereClause whereClause;
+	private final SqmGroupByClause groupByClause;
+	private final SqmHavingClause havingClause;
 	private final SqmOrderByClause orderByClause;
 	private final SqmLimitOffsetClause limitOffsetClause;
 
-	// todo : group-by + having
+	private volatile List<SqmSelectionClassification> selectionClassifications;
 
 	public SqmQuerySpec(
 			SqmFromClause fromClause,
@@ -34,9 +42,22 @@ public class SqmQuerySpec implements SqmFromClauseContainer, SqmWhereClauseConta
 			SqmWhereClause whereClause,
 			SqmOrderByClause orderByClause,
 			SqmLimitOffsetClause limitOffsetClause) {
+		this( fromClause, selectClause, whereClause, null, null, orderByClause, limitOffsetClause );
+	}
+
+	public SqmQuerySpec(
+			SqmFromClause fromClause,
+			SqmSelectClause selectClause,
+			SqmWhereClause whereClause,
+			SqmGroupByClause groupByClause,
+			SqmHavingClause havingClause,
+			SqmOrderByClause orderByClause,
+			SqmLimitOffsetClause limitOffsetClause) {
 		this.fromClause = fromClause;
 		this.selectClause = selectClause;
 		this.whereClause = whereClause;
+		this.groupByClause = groupByClause;
+		this.havingClause = havingClause;
 		this.orderByClause = orderByClause;
 		this.limitOffsetClause = limitOffsetClause;
 	}
@@ -54,6 +75,44 @@ public class SqmQuerySpec implements SqmFromClauseContainer, SqmWhereClauseConta
 		return whereClause;
 	}
 
+	public SqmGroupByClause getGroupByClause() {
+		return groupByClause;
+	}
+
+	public SqmHavingClause getHavingClause() {
+		return havingClause;
+	}
+
+	/**
+	 * The classification of each selection with regard to grouping, determined once on first
+	 * access so that consumers (e.g. choosing between streaming and hash aggregation) do not
+	 * need to walk the selections again, while the query specs never asked (copies made by
+	 * the splitter or the rewrite passes, criteria interpretations) do not pay for it.
+	 *
+	 * @return The classifications, in the order of the selections
+	 */
+	public List<SqmSelectionClassification> getSelectionClassifications() {
+		List<SqmSelectionClassification> classifications = selectionClassifications;
+		if ( classifications == null ) {
+			// concurrent first accesses compute the same (immutable) list
+			classifications = SqmSelectionClassifier.classify( selectClause, groupByClause );
+			selectionClassifications = classifications;
+		}
+		return classifications;
+	}
+
+	/**
+	 * Does this query spec aggregate its rows, either through a group-by (or having) clause
+	 * or through aggregate functions in its selections?
+	 *
+	 * @return {@code true} if the query spec aggregates
+	 */
+	public boolean isAggregated() {
+		return groupByClause != null
+				|| havingClause != null
+				|| getSelectionClassifications().contains( SqmSelectionClassification.AGGREGATE );
+	}
+
 	public SqmOrderByClause getOrderByClause() {
 		return orderByClause;
 	}
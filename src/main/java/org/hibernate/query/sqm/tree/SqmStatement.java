@@ -18,5 +18,18 @@ import org.hibernate.query.sqm.consume.spi.SemanticQueryWalker;
 public interface SqmStatement {
 	Set<SqmParameter> getQueryParameters();
 
+	/**
+	 * A canonical fingerprint of the statement's structure, ignoring generated from-element
+	 * identifiers and aliases.  Statements (whether produced from HQL or criteria) with
+	 * equal fingerprints are semantically identical, which makes the fingerprint usable
+	 * as a key for caching further translations of the statement.
+	 * <p/>
+	 * The fingerprint is calculated on first access and cached; it should only be
+	 * requested once the statement is completely built.
+	 *
+	 * @return The structural fingerprint
+	 */
+	SqmStructuralFingerprint getStructuralFingerprint();
+
 	<T> T accept(SemanticQueryWalker<T> walker);
 }
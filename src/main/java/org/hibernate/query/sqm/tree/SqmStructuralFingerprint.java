@@ -0,0 +1,77 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.tree;
+
+/**
+ * A canonical description of the structure of a {@link SqmStatement}, suitable as a
+ * cache key.  Two statements with equal fingerprints are semantically identical, regardless
+ * of whether they were produced from HQL or from a criteria query, and regardless of
+ * the from-element unique identifiers ({@code <uid:N>}) and implicit aliases ({@code <gen:N>})
+ * generated while producing them.
+ * <p/>
+ * A statement containing a construct which cannot be described canonically produces a
+ * fingerprint which is only equal to itself.
+ *
+ * @see SqmStatement#getStructuralFingerprint()
+ */
+public final class SqmStructuralFingerprint {
+	private final String canonicalForm;
+	private final boolean comparable;
+	private final int hashCode;
+
+	public SqmStructuralFingerprint(String canonicalForm, boolean comparable) {
+		this.canonicalForm = canonicalForm;
+		this.comparable = comparable;
+		this.hashCode = canonicalForm.hashCode();
+	}
+
+	/**
+	 * The canonical (textual) form of the statement structure
+	 *
+	 * @return The canonical form
+	 */
+	public String getCanonicalForm() {
+		return canonicalForm;
+	}
+
+	/**
+	 * Can this fingerprint be equal to the fingerprint of a different statement?  Returns
+	 * {@code false} if the statement contained constructs which could not be described
+	 * canonically.
+	 *
+	 * @return {@code true} if the fingerprint is comparable to others
+	 */
+	public boolean isComparable() {
+		return comparable;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if ( this == o ) {
+			return true;
+		}
+		if ( !( o instanceof SqmStructuralFingerprint ) ) {
+			return false;
+		}
+
+		final SqmStructuralFingerprint that = (SqmStructuralFingerprint) o;
+		return comparable
+				&& that.comparable
+				&& hashCode == that.hashCode
+				&& canonicalForm.equals( that.canonicalForm );
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public String toString() {
+		return "SqmStructuralFingerprint(" + canonicalForm + ")";
+	}
+}
@@ -9,6 +9,7 @@ package org.hibernate.query.sqm.tree.expression;
 import org.hibernate.persister.queryable.spi.BasicValuedExpressableType;
 import org.hibernate.persister.queryable.spi.ExpressableType;
 import org.hibernate.query.sqm.SemanticException;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
 
 /**
  * @author Steve Ebersole
@@ -17,6 +18,7 @@ public abstract class AbstractLiteralSqmExpressionImpl<T> implements LiteralSqmE
 	private final T value;
 
 	private BasicValuedExpressableType type;
+	private boolean frozen;
 
 	public AbstractLiteralSqmExpressionImpl(T value) {
 		this.value = value;
@@ -45,6 +47,7 @@ public abstract class AbstractLiteralSqmExpressionImpl<T> implements LiteralSqmE
 	@Override
 	@SuppressWarnings("unchecked")
 	public void impliedType(ExpressableType type) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		if ( type != null ) {
 			if ( !BasicValuedExpressableType.class.isInstance( type ) ) {
 				throw new SemanticException( "Inferrable type for literal was found to be a non-basic value : " + type );
@@ -57,4 +60,14 @@ public abstract class AbstractLiteralSqmExpressionImpl<T> implements LiteralSqmE
 	public String asLoggableText() {
 		return "Literal( " + value + ")";
 	}
+
+	@Override
+	public void freeze() {
+		frozen = true;
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
 }
@@ -12,6 +12,7 @@ import java.util.List;
 import org.hibernate.query.sqm.consume.spi.SemanticQueryWalker;
 import org.hibernate.query.sqm.domain.type.SqmDomainType;
 import org.hibernate.query.sqm.domain.SqmExpressableType;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
 import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
 
 /**
@@ -23,6 +24,7 @@ public class CaseSearchedSqmExpression implements SqmExpression, ImpliedTypeSqmE
 
 	private SqmExpressableType expressableType;
 	private SqmExpressableType impliedType;
+	private boolean frozen;
 
 	public List<WhenFragment> getWhenFragments() {
 		return whenFragments;
@@ -33,16 +35,28 @@ public class CaseSearchedSqmExpression implements SqmExpression, ImpliedTypeSqmE
 	}
 
 	public void when(SqmPredicate predicate, SqmExpression result) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		whenFragments.add( new WhenFragment( predicate, result ) );
 	}
 
 	public void otherwise(SqmExpression otherwiseExpression) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		this.otherwise = otherwiseExpression;
 		// todo : inject implied type?
 	}
 
+	/**
+	 * The type implied by the context the expression is used in, if any
+	 *
+	 * @return The implied type, or {@code null}
+	 */
+	public SqmExpressableType getImpliedType() {
+		return impliedType;
+	}
+
 	@Override
 	public void impliedType(SqmExpressableType type) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		this.impliedType = type;
 		// todo : visit whenFragments and otherwise
 	}
@@ -113,4 +127,17 @@ public class CaseSearchedSqmExpression implements SqmExpression, ImpliedTypeSqmE
 			return result;
 		}
 	}
+
+	@Override
+	public void freeze() {
+		if ( !frozen ) {
+			whenFragments = SqmTreeFreezer.compact( whenFragments );
+			frozen = true;
+		}
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
 }
@@ -12,6 +12,7 @@ import java.util.List;
 import org.hibernate.query.sqm.consume.spi.SemanticQueryWalker;
 import org.hibernate.query.sqm.domain.type.SqmDomainType;
 import org.hibernate.query.sqm.domain.SqmExpressableType;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
 
 /**
  * @author Steve Ebersole
@@ -23,6 +24,7 @@ public class CaseSimpleSqmExpression implements SqmExpression, ImpliedTypeSqmExp
 
 	private SqmExpressableType expressableType;
 	private SqmExpressableType impliedType;
+	private boolean frozen;
 
 	public CaseSimpleSqmExpression(SqmExpression fixture) {
 		this.fixture = fixture;
@@ -41,17 +43,29 @@ public class CaseSimpleSqmExpression implements SqmExpression, ImpliedTypeSqmExp
 	}
 
 	public void otherwise(SqmExpression otherwiseExpression) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		this.otherwise = otherwiseExpression;
 		// todo : inject implied expressableType?
 	}
 
 	public void when(SqmExpression test, SqmExpression result) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		whenFragments.add( new WhenFragment( test, result ) );
 		// todo : inject implied expressableType?
 	}
 
+	/**
+	 * The type implied by the context the expression is used in, if any
+	 *
+	 * @return The implied type, or {@code null}
+	 */
+	public SqmExpressableType getImpliedType() {
+		return impliedType;
+	}
+
 	@Override
 	public void impliedType(SqmExpressableType type) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		this.impliedType = type;
 		// todo : visit whenFragments and elseExpression
 	}
@@ -122,4 +136,17 @@ public class CaseSimpleSqmExpression implements SqmExpression, ImpliedTypeSqmExp
 			return result;
 		}
 	}
+
+	@Override
+	public void freeze() {
+		if ( !frozen ) {
+			whenFragments = SqmTreeFreezer.compact( whenFragments );
+			frozen = true;
+		}
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
 }
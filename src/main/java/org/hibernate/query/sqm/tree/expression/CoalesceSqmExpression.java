@@ -12,21 +12,38 @@ import java.util.List;
 import org.hibernate.query.sqm.consume.spi.SemanticQueryWalker;
 import org.hibernate.query.sqm.domain.type.SqmDomainType;
 import org.hibernate.query.sqm.domain.SqmExpressableType;
+import org.hibernate.query.sqm.tree.SqmFreezable;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
 
 /**
  * @author Steve Ebersole
  */
-public class CoalesceSqmExpression implements SqmExpression {
+public class CoalesceSqmExpression implements SqmExpression, SqmFreezable {
 	private List<SqmExpression> values = new ArrayList<>();
+	private boolean frozen;
 
 	public List<SqmExpression> getValues() {
 		return values;
 	}
 
 	public void value(SqmExpression expression) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		values.add( expression );
 	}
 
+	@Override
+	public void freeze() {
+		if ( !frozen ) {
+			values = SqmTreeFreezer.compact( values );
+			frozen = true;
+		}
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
+
 	@Override
 	public SqmExpressableType getExpressionType() {
 		return values.get( 0 ).getExpressionType();
@@ -8,6 +8,7 @@ package org.hibernate.query.sqm.tree.expression;
 
 import org.hibernate.persister.queryable.spi.ExpressableType;
 import org.hibernate.query.sqm.consume.spi.SemanticQueryWalker;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
 
 /**
  * @author Steve Ebersole
@@ -15,6 +16,7 @@ import org.hibernate.query.sqm.consume.spi.SemanticQueryWalker;
 public class ConstantEnumSqmExpression<T extends Enum> implements ConstantSqmExpression<T> {
 	private final T value;
 	private ExpressableType domainType;
+	private boolean frozen;
 
 	public ConstantEnumSqmExpression(T value) {
 		this( value, null );
@@ -43,6 +45,7 @@ public class ConstantEnumSqmExpression<T extends Enum> implements ConstantSqmExp
 	@Override
 	@SuppressWarnings("unchecked")
 	public void impliedType(ExpressableType expressableType) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		this.domainType = domainType;
 	}
 
@@ -55,4 +58,14 @@ public class ConstantEnumSqmExpression<T extends Enum> implements ConstantSqmExp
 	public String asLoggableText() {
 		return "EnumConstant(" + value + ")";
 	}
+
+	@Override
+	public void freeze() {
+		frozen = true;
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
 }
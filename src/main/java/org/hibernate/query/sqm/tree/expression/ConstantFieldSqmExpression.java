@@ -12,6 +12,7 @@ import org.hibernate.query.sqm.consume.spi.SemanticQueryWalker;
 import org.hibernate.query.sqm.domain.type.SqmDomainTypeBasic;
 import org.hibernate.query.sqm.domain.type.SqmDomainType;
 import org.hibernate.query.sqm.domain.SqmExpressableType;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
 
 /**
  * Represents a constant that came from a static field reference.
@@ -23,6 +24,7 @@ public class ConstantFieldSqmExpression<T> implements ConstantSqmExpression<T> {
 	private final T value;
 
 	private SqmDomainTypeBasic typeDescriptor;
+	private boolean frozen;
 
 	public ConstantFieldSqmExpression(Field sourceField, T value) {
 		this( sourceField, value, null );
@@ -56,6 +58,7 @@ public class ConstantFieldSqmExpression<T> implements ConstantSqmExpression<T> {
 	@Override
 	@SuppressWarnings("unchecked")
 	public void impliedType(SqmExpressableType type) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		if ( type != null ) {
 			this.typeDescriptor = (SqmDomainTypeBasic) type;
 		}
@@ -75,4 +78,14 @@ public class ConstantFieldSqmExpression<T> implements ConstantSqmExpression<T> {
 	public SqmDomainType getExportedDomainType() {
 		return getExpressionType();
 	}
+
+	@Override
+	public void freeze() {
+		frozen = true;
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
 }
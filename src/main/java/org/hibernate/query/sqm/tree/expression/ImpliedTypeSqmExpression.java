@@ -7,17 +7,23 @@
 package org.hibernate.query.sqm.tree.expression;
 
 import org.hibernate.persister.queryable.spi.ExpressableType;
+import org.hibernate.query.sqm.tree.SqmFreezable;
 
 /**
  * Extension for Expressions whose Type can be implied from their surroundings.
+ * <p/>
+ * The implied Type can only be injected while the tree is being built; once the
+ * statement is frozen the expression's Type is fixed.
  *
  * @author Steve Ebersole
  */
-public interface ImpliedTypeSqmExpression extends SqmExpression {
+public interface ImpliedTypeSqmExpression extends SqmExpression, SqmFreezable {
 	/**
 	 * Used to inject the Type implied by the expression's context.
 	 *
 	 * @param type The implied type.
+	 *
+	 * @throws IllegalStateException if the expression has been frozen
 	 */
 	void impliedType(ExpressableType type);
 }
@@ -10,12 +10,14 @@ import org.hibernate.query.sqm.consume.spi.SemanticQueryWalker;
 import org.hibernate.query.sqm.domain.type.SqmDomainTypeBasic;
 import org.hibernate.query.sqm.domain.type.SqmDomainType;
 import org.hibernate.query.sqm.domain.SqmExpressableType;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
 
 /**
  * @author Steve Ebersole
  */
 public class LiteralNullSqmExpression implements LiteralSqmExpression<Void> {
 	private SqmExpressableType injectedExpressionType;
+	private boolean frozen;
 
 	public LiteralNullSqmExpression() {
 		injectedExpressionType = NULL_TYPE;
@@ -70,6 +72,17 @@ public class LiteralNullSqmExpression implements LiteralSqmExpression<Void> {
 
 	@Override
 	public void impliedType(SqmExpressableType type) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		injectedExpressionType = type;
 	}
+
+	@Override
+	public void freeze() {
+		frozen = true;
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
 }
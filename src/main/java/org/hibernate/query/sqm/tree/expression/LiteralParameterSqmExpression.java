@@ -0,0 +1,53 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.tree.expression;
+
+import org.hibernate.persister.queryable.spi.ExpressableType;
+
+/**
+ * A synthetic parameter standing in for a literal of the original query, produced when
+ * interpreting a query with literal normalization (see
+ * {@link org.hibernate.query.sqm.produce.spi.SemanticQueryProducer#interpretNormalized}).
+ * <p/>
+ * It is exposed as a named parameter with a name which cannot clash with a user-defined
+ * parameter name ({@code <literal:N>}, N being the 1-based position of the literal in
+ * the query).  The statement itself holds no value for the parameter - the values are
+ * captured per query and reported alongside the (shareable) statement.
+ */
+public class LiteralParameterSqmExpression extends NamedParameterSqmExpression {
+	private final int literalPosition;
+
+	public LiteralParameterSqmExpression(int literalPosition, ExpressableType literalType) {
+		super( parameterName( literalPosition ), false, literalType );
+		this.literalPosition = literalPosition;
+	}
+
+	/**
+	 * The synthetic name for the parameter replacing the literal at the given position
+	 *
+	 * @param literalPosition The 1-based position of the literal within the query
+	 *
+	 * @return The parameter name
+	 */
+	public static String parameterName(int literalPosition) {
+		return "<literal:" + literalPosition + ">";
+	}
+
+	/**
+	 * The 1-based position of the replaced literal within the query
+	 *
+	 * @return The literal position
+	 */
+	public int getLiteralPosition() {
+		return literalPosition;
+	}
+
+	@Override
+	public String asLoggableText() {
+		return "LiteralParameter( " + literalPosition + " )";
+	}
+}
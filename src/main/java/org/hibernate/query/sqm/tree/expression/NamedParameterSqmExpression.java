@@ -9,6 +9,7 @@ package org.hibernate.query.sqm.tree.expression;
 import org.hibernate.query.sqm.consume.spi.SemanticQueryWalker;
 import org.hibernate.query.sqm.domain.type.SqmDomainType;
 import org.hibernate.query.sqm.domain.SqmExpressableType;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
 
 /**
  * @author Steve Ebersole
@@ -17,6 +18,7 @@ public class NamedParameterSqmExpression implements ParameterSqmExpression {
 	private final String name;
 	private final boolean canBeMultiValued;
 	private SqmExpressableType expressableType;
+	private boolean frozen;
 
 	public NamedParameterSqmExpression(String name, boolean canBeMultiValued) {
 		this.name = name;
@@ -41,6 +43,7 @@ public class NamedParameterSqmExpression implements ParameterSqmExpression {
 
 	@Override
 	public void impliedType(SqmExpressableType expressableType) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		if ( expressableType != null ) {
 			this.expressableType = expressableType;
 		}
@@ -80,4 +83,14 @@ public class NamedParameterSqmExpression implements ParameterSqmExpression {
 	public SqmDomainType getExportedDomainType() {
 		return getExpressionType().getExportedDomainType();
 	}
+
+	@Override
+	public void freeze() {
+		frozen = true;
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
 }
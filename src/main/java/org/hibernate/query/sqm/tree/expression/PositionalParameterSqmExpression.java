@@ -9,6 +9,7 @@ package org.hibernate.query.sqm.tree.expression;
 import org.hibernate.query.sqm.consume.spi.SemanticQueryWalker;
 import org.hibernate.query.sqm.domain.type.SqmDomainType;
 import org.hibernate.query.sqm.domain.SqmExpressableType;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
 
 /**
  * @author Steve Ebersole
@@ -17,6 +18,7 @@ public class PositionalParameterSqmExpression implements ParameterSqmExpression
 	private final int position;
 	private final boolean canBeMultiValued;
 	private SqmExpressableType expressableType;
+	private boolean frozen;
 
 	public PositionalParameterSqmExpression(int position, boolean canBeMultiValued) {
 		this.position = position;
@@ -61,6 +63,7 @@ public class PositionalParameterSqmExpression implements ParameterSqmExpression
 
 	@Override
 	public void impliedType(SqmExpressableType expressableType) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		if ( expressableType != null ) {
 			this.expressableType = expressableType;
 		}
@@ -80,4 +83,14 @@ public class PositionalParameterSqmExpression implements ParameterSqmExpression
 	public SqmDomainType getExportedDomainType() {
 		return getExpressionType().getExportedDomainType();
 	}
+
+	@Override
+	public void freeze() {
+		frozen = true;
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
 }
@@ -9,6 +9,7 @@ package org.hibernate.query.sqm.tree.expression;
 import org.hibernate.persister.queryable.spi.BasicValuedExpressableType;
 import org.hibernate.persister.queryable.spi.ExpressableType;
 import org.hibernate.query.sqm.consume.spi.SemanticQueryWalker;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
 
 /**
  * @author Steve Ebersole
@@ -23,6 +24,7 @@ public class UnaryOperationSqmExpression implements ImpliedTypeSqmExpression {
 	private final SqmExpression operand;
 
 	private BasicValuedExpressableType typeDescriptor;
+	private boolean frozen;
 
 	public UnaryOperationSqmExpression(Operation operation, SqmExpression operand) {
 		this( operation, operand, (BasicValuedExpressableType) operand.getExpressionType() );
@@ -46,6 +48,7 @@ public class UnaryOperationSqmExpression implements ImpliedTypeSqmExpression {
 
 	@Override
 	public void impliedType(ExpressableType type) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		if ( type != null ) {
 			this.typeDescriptor = (BasicValuedExpressableType) type;
 			if ( operand instanceof ImpliedTypeSqmExpression ) {
@@ -71,4 +74,14 @@ public class UnaryOperationSqmExpression implements ImpliedTypeSqmExpression {
 	public Operation getOperation() {
 		return operation;
 	}
+
+	@Override
+	public void freeze() {
+		frozen = true;
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
 }
@@ -52,6 +52,18 @@ public class TrimFunctionSqmExpression extends AbstractFunctionSqmExpression {
 		return true;
 	}
 
+	public Specification getSpecification() {
+		return specification;
+	}
+
+	public SqmExpression getTrimCharacter() {
+		return trimCharacter;
+	}
+
+	public SqmExpression getSource() {
+		return source;
+	}
+
 	@Override
 	public <T> T accept(SemanticQueryWalker<T> walker) {
 		return walker.visitTrimFunction( this );
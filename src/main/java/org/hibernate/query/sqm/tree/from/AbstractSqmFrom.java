@@ -7,6 +7,7 @@
 package org.hibernate.query.sqm.tree.from;
 
 import org.hibernate.persister.queryable.spi.EntityValuedExpressableType;
+import org.hibernate.query.sqm.produce.spi.ImplicitAliasGenerator;
 import org.hibernate.query.sqm.tree.expression.domain.SqmNavigableReference;
 
 import org.jboss.logging.Logger;
@@ -20,14 +21,14 @@ public abstract class AbstractSqmFrom implements SqmFrom {
 	private static final Logger log = Logger.getLogger( AbstractSqmFrom.class );
 
 	private final SqmFromElementSpace fromElementSpace;
-	private final String uid;
-	private final String alias;
+	private final int uid;
+	private String alias;
 	private final SqmNavigableReference binding;
 	private final EntityValuedExpressableType subclassIndicator;
 
 	protected AbstractSqmFrom(
 			SqmFromElementSpace fromElementSpace,
-			String uid,
+			int uid,
 			String alias,
 			SqmNavigableReference binding,
 			EntityValuedExpressableType subclassIndicator) {
@@ -54,12 +55,21 @@ public abstract class AbstractSqmFrom implements SqmFrom {
 	}
 
 	@Override
-	public String getUniqueIdentifier() {
+	public int getUniqueId() {
 		return uid;
 	}
 
+	@Override
+	public String getUniqueIdentifier() {
+		return "<uid:" + uid + ">";
+	}
+
 	@Override
 	public String getIdentificationVariable() {
+		if ( alias == null ) {
+			// no explicit alias; the implicit one is only rendered when first asked for
+			alias = ImplicitAliasGenerator.renderImplicitAlias( uid );
+		}
 		return alias;
 	}
 
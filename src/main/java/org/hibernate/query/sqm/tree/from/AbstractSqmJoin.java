@@ -18,7 +18,7 @@ public abstract class AbstractSqmJoin extends AbstractSqmFrom implements SqmJoin
 
 	public AbstractSqmJoin(
 			SqmFromElementSpace fromElementSpace,
-			String uid,
+			int uid,
 			String alias,
 			SqmNavigableReference navigableBinding,
 			EntityValuedExpressableType intrinsicSubclassIndicator,
@@ -8,9 +8,11 @@ package org.hibernate.query.sqm.tree.from;
 
 import org.hibernate.persister.queryable.spi.EntityValuedExpressableType;
 import org.hibernate.query.sqm.consume.spi.SemanticQueryWalker;
+import org.hibernate.query.sqm.tree.SqmFreezable;
 import org.hibernate.query.sqm.tree.SqmJoinType;
 import org.hibernate.query.sqm.tree.expression.domain.SqmAttributeReference;
 import org.hibernate.query.sqm.tree.expression.domain.SqmNavigableReference;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
 import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
 
 import org.jboss.logging.Logger;
@@ -22,7 +24,7 @@ import org.jboss.logging.Logger;
  */
 public class SqmAttributeJoin
 		extends AbstractSqmJoin
-		implements SqmQualifiedJoin {
+		implements SqmQualifiedJoin, SqmFreezable {
 	private static final Logger log = Logger.getLogger( SqmAttributeJoin.class );
 
 	private final SqmFrom lhs;
@@ -31,11 +33,12 @@ public class SqmAttributeJoin
 	private final boolean fetched;
 
 	private SqmPredicate onClausePredicate;
+	private boolean frozen;
 
 	public SqmAttributeJoin(
 			SqmFrom lhs,
 			SqmAttributeReference attributeBinding,
-			String uid,
+			int uid,
 			String alias,
 			EntityValuedExpressableType intrinsicSubclassIndicator,
 			SqmJoinType joinType,
@@ -85,6 +88,7 @@ public class SqmAttributeJoin
 	}
 
 	public void setOnClausePredicate(SqmPredicate predicate) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		log.tracef(
 				"Setting join predicate [%s] (was [%s])",
 				predicate.toString(),
@@ -94,6 +98,16 @@ public class SqmAttributeJoin
 		this.onClausePredicate = predicate;
 	}
 
+	@Override
+	public void freeze() {
+		frozen = true;
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
+
 	@Override
 	public <T> T accept(SemanticQueryWalker<T> walker) {
 		return walker.visitQualifiedAttributeJoinFromElement( this );
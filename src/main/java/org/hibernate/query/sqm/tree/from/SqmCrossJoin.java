@@ -18,7 +18,7 @@ public class SqmCrossJoin extends AbstractSqmFrom implements SqmJoin {
 
 	public SqmCrossJoin(
 			SqmFromElementSpace fromElementSpace,
-			String uid,
+			int uid,
 			String alias,
 			EntityValuedExpressableType entityReference) {
 		super(
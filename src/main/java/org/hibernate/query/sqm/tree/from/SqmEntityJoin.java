@@ -8,8 +8,10 @@ package org.hibernate.query.sqm.tree.from;
 
 import org.hibernate.persister.queryable.spi.EntityValuedExpressableType;
 import org.hibernate.query.sqm.consume.spi.SemanticQueryWalker;
+import org.hibernate.query.sqm.tree.SqmFreezable;
 import org.hibernate.query.sqm.tree.SqmJoinType;
 import org.hibernate.query.sqm.tree.expression.domain.SqmEntityReference;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
 import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
 
 /**
@@ -17,12 +19,13 @@ import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
  */
 public class SqmEntityJoin
 		extends AbstractSqmJoin
-		implements SqmQualifiedJoin {
+		implements SqmQualifiedJoin, SqmFreezable {
 	private SqmPredicate onClausePredicate;
+	private boolean frozen;
 
 	public SqmEntityJoin(
 			SqmFromElementSpace fromElementSpace,
-			String uid,
+			int uid,
 			String alias,
 			EntityValuedExpressableType joinedEntityDescriptor,
 			SqmJoinType joinType) {
@@ -56,9 +59,20 @@ public class SqmEntityJoin
 	}
 
 	public void setOnClausePredicate(SqmPredicate predicate) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		this.onClausePredicate = predicate;
 	}
 
+	@Override
+	public void freeze() {
+		frozen = true;
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
+
 	@Override
 	public <T> T accept(SemanticQueryWalker<T> walker) {
 		return walker.visitQualifiedEntityJoinFromElement( this );
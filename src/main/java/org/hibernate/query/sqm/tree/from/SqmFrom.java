@@ -8,6 +8,7 @@ package org.hibernate.query.sqm.tree.from;
 
 import org.hibernate.persister.queryable.spi.EntityValuedExpressableType;
 import org.hibernate.query.sqm.consume.spi.SemanticQueryWalker;
+import org.hibernate.query.sqm.produce.spi.ImplicitAliasGenerator;
 import org.hibernate.query.sqm.produce.spi.ParsingContext;
 import org.hibernate.query.sqm.tree.expression.domain.SqmNavigableReference;
 
@@ -30,7 +31,13 @@ public interface SqmFrom {
 	 * <p/>
 	 * Can be used to locate a FromElement outside the context of a particular AliasRegistry.
 	 *
-	 * @see ParsingContext#globalFromElementMap
+	 * @see ParsingContext#findElementByUniqueId
+	 */
+	int getUniqueId();
+
+	/**
+	 * The textual form of {@link #getUniqueId()} ({@code <uid:N>}), rendered on each call;
+	 * mainly meant for logging.
 	 */
 	String getUniqueIdentifier();
 
@@ -44,7 +51,7 @@ public interface SqmFrom {
 	 * limit this usage to just query space roots.
 	 * <p/>
 	 * Note2 : Never returns {@code null}; if the query did not specify an identification
-	 * variable, one is implicitly generated.
+	 * variable, one is implicitly generated (see {@link ImplicitAliasGenerator#renderImplicitAlias}).
 	 */
 	String getIdentificationVariable();
 
@@ -9,6 +9,9 @@ package org.hibernate.query.sqm.tree.from;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.query.sqm.tree.SqmFreezable;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
+
 /**
  * Contract representing a from clause.
  * <p/>
@@ -17,19 +20,41 @@ import java.util.List;
  *
  * @author Steve Ebersole
  */
-public class SqmFromClause {
+public class SqmFromClause implements SqmFreezable {
 	private List<SqmFromElementSpace> fromElementSpaces = new ArrayList<SqmFromElementSpace>();
+	private boolean frozen;
 
 	public List<SqmFromElementSpace> getFromElementSpaces() {
 		return fromElementSpaces;
 	}
 
+	/**
+	 * Add an already built from-element space, which must have been built for this
+	 * from clause (see {@link SqmFromElementSpace#getFromClause()}).
+	 *
+	 * @param space The space to add
+	 */
 	public void addFromElementSpace(SqmFromElementSpace space) {
-
+		SqmTreeFreezer.checkNotFrozen( this );
+		fromElementSpaces.add( space );
 	}
 	public SqmFromElementSpace makeFromElementSpace() {
+		SqmTreeFreezer.checkNotFrozen( this );
 		final SqmFromElementSpace space = new SqmFromElementSpace( this );
 		fromElementSpaces.add( space );
 		return space;
 	}
+
+	@Override
+	public void freeze() {
+		if ( !frozen ) {
+			fromElementSpaces = SqmTreeFreezer.compact( fromElementSpaces );
+			frozen = true;
+		}
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
 }
@@ -10,6 +10,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import org.hibernate.query.sqm.tree.SqmFreezable;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
+
 import org.jboss.logging.Logger;
 
 /**
@@ -21,13 +24,14 @@ import org.jboss.logging.Logger;
  *
  * @author Steve Ebersole
  */
-public class SqmFromElementSpace {
+public class SqmFromElementSpace implements SqmFreezable {
 	private static final Logger log = Logger.getLogger( SqmFromElementSpace.class );
 
 	private final SqmFromClause fromClause;
 
 	private SqmRoot root;
 	private List<SqmJoin> joins;
+	private boolean frozen;
 
 	public SqmFromElementSpace(SqmFromClause fromClause) {
 		this.fromClause = fromClause;
@@ -42,6 +46,7 @@ public class SqmFromElementSpace {
 	}
 
 	public void setRoot(SqmRoot root) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		if ( this.root != null ) {
 			// we already had a root defined...
 			if ( this.root == root ) {
@@ -61,9 +66,23 @@ public class SqmFromElementSpace {
 	}
 
 	public void addJoin(SqmJoin join) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		if ( joins == null ) {
 			joins = new ArrayList<>();
 		}
 		joins.add( join );
 	}
+
+	@Override
+	public void freeze() {
+		if ( !frozen ) {
+			joins = SqmTreeFreezer.compact( joins );
+			frozen = true;
+		}
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
 }
@@ -16,7 +16,7 @@ import org.hibernate.query.sqm.tree.expression.domain.SqmEntityReference;
 public class SqmRoot extends AbstractSqmFrom {
 	public SqmRoot(
 			SqmFromElementSpace fromElementSpace,
-			String uid,
+			int uid,
 			String alias,
 			EntityValuedExpressableType entityReference) {
 		super(
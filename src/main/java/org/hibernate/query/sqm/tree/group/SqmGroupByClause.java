@@ -0,0 +1,64 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.tree.group;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.query.sqm.tree.SqmFreezable;
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
+
+/**
+ * The group-by clause of a query : the ordered list of its groupings.
+ */
+public class SqmGroupByClause implements SqmFreezable {
+	private List<SqmGrouping> groupings;
+	private boolean frozen;
+
+	public SqmGroupByClause() {
+	}
+
+	public SqmGroupByClause addGrouping(SqmGrouping grouping) {
+		SqmTreeFreezer.checkNotFrozen( this );
+		if ( groupings == null ) {
+			groupings = new ArrayList<>();
+		}
+		groupings.add( grouping );
+		return this;
+	}
+
+	public SqmGroupByClause addGrouping(SqmExpression expression) {
+		return addGrouping( new SqmGrouping( expression ) );
+	}
+
+	public List<SqmGrouping> getGroupings() {
+		if ( groupings == null ) {
+			return Collections.emptyList();
+		}
+		else if ( frozen ) {
+			return groupings;
+		}
+		else {
+			return Collections.unmodifiableList( groupings );
+		}
+	}
+
+	@Override
+	public void freeze() {
+		if ( !frozen ) {
+			groupings = SqmTreeFreezer.compact( groupings );
+			frozen = true;
+		}
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
+}
@@ -0,0 +1,34 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.tree.group;
+
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
+
+/**
+ * A single grouping (value) of a group-by clause
+ */
+public class SqmGrouping {
+	private final SqmExpression expression;
+	private final String collation;
+
+	public SqmGrouping(SqmExpression expression, String collation) {
+		this.expression = expression;
+		this.collation = collation;
+	}
+
+	public SqmGrouping(SqmExpression expression) {
+		this( expression, null );
+	}
+
+	public SqmExpression getExpression() {
+		return expression;
+	}
+
+	public String getCollation() {
+		return collation;
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.tree.group;
+
+import org.hibernate.query.sqm.tree.SqmFreezable;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
+import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
+
+/**
+ * The having clause of a query, restricting the groups.
+ */
+public class SqmHavingClause implements SqmFreezable {
+	private SqmPredicate predicate;
+	private boolean frozen;
+
+	public SqmHavingClause() {
+	}
+
+	public SqmHavingClause(SqmPredicate predicate) {
+		this.predicate = predicate;
+	}
+
+	public SqmPredicate getPredicate() {
+		return predicate;
+	}
+
+	public void setPredicate(SqmPredicate predicate) {
+		SqmTreeFreezer.checkNotFrozen( this );
+		this.predicate = predicate;
+	}
+
+	@Override
+	public void freeze() {
+		frozen = true;
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	@Override
+	public String toString() {
+		return "having " + predicate;
+	}
+}
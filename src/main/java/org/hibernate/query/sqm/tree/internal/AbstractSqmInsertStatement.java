@@ -43,9 +43,18 @@ public abstract class AbstractSqmInsertStatement extends AbstractSqmStatement im
 	}
 
 	public void addInsertTargetStateField(SqmSingularAttributeReference stateField) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		if ( stateFields == null ) {
 			stateFields = new ArrayList<>();
 		}
 		stateFields.add( stateField );
 	}
+
+	@Override
+	public void freeze() {
+		if ( !isFrozen() ) {
+			stateFields = SqmTreeFreezer.compact( stateFields );
+		}
+		super.freeze();
+	}
 }
@@ -7,31 +7,46 @@
 package org.hibernate.query.sqm.tree.internal;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
+import org.hibernate.query.sqm.tree.SqmFreezable;
 import org.hibernate.query.sqm.tree.SqmParameter;
 import org.hibernate.query.sqm.tree.SqmStatement;
+import org.hibernate.query.sqm.tree.SqmStructuralFingerprint;
 import org.hibernate.query.sqm.tree.expression.NamedParameterSqmExpression;
 import org.hibernate.query.sqm.tree.expression.PositionalParameterSqmExpression;
 import org.hibernate.query.sqm.SemanticException;
 
 /**
+ * Base support for SqmStatement implementations.
+ * <p/>
+ * A statement is built by a single thread; {@link #wrapUp()} then validates it and freezes
+ * the whole tree (see {@link SqmFreezable}), after which it may be shared.
+ *
  * @author Steve Ebersole
  */
-public abstract class AbstractSqmStatement implements SqmStatement, ParameterCollector {
+public abstract class AbstractSqmStatement implements SqmStatement, ParameterCollector, SqmFreezable {
 	private Map<String,NamedParameterSqmExpression> namedQueryParameters;
 	private Map<Integer,PositionalParameterSqmExpression> positionalQueryParameters;
+	private Set<SqmParameter> queryParameters;
+
+	// written last when freezing, so that reading it as true publishes the frozen tree
+	private volatile boolean frozen;
+
+	private volatile SqmStructuralFingerprint structuralFingerprint;
 
 	@Override
 	public void addParameter(NamedParameterSqmExpression parameter) {
 		assert parameter.getName() != null;
 		assert parameter.getPosition() == null;
+		SqmTreeFreezer.checkNotFrozen( this );
 
 		if ( namedQueryParameters == null ) {
-			namedQueryParameters = new ConcurrentHashMap<>();
+			namedQueryParameters = new HashMap<>();
 		}
 
 		namedQueryParameters.put( parameter.getName(), parameter );
@@ -41,16 +56,53 @@ public abstract class AbstractSqmStatement implements SqmStatement, ParameterCol
 	public void addParameter(PositionalParameterSqmExpression parameter) {
 		assert parameter.getPosition() != null;
 		assert parameter.getName() == null;
+		SqmTreeFreezer.checkNotFrozen( this );
 
 		if ( positionalQueryParameters == null ) {
-			positionalQueryParameters = new ConcurrentHashMap<>();
+			positionalQueryParameters = new HashMap<>();
 		}
 
 		positionalQueryParameters.put( parameter.getPosition(), parameter );
 	}
 
+	/**
+	 * Completes the building of the statement : validates it and then freezes it.
+	 */
 	public void wrapUp() {
 		validateParameters();
+		freeze();
+	}
+
+	@Override
+	public void freeze() {
+		if ( frozen ) {
+			return;
+		}
+
+		SqmTreeFreezer.freezeTree( this );
+
+		namedQueryParameters = compact( namedQueryParameters );
+		positionalQueryParameters = compact( positionalQueryParameters );
+		final Set<SqmParameter> parameters = collectQueryParameters();
+		queryParameters = parameters.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet( parameters );
+
+		frozen = true;
+	}
+
+	private static <K,V> Map<K,V> compact(Map<K,V> map) {
+		if ( map == null || map.isEmpty() ) {
+			return null;
+		}
+		if ( map.size() == 1 ) {
+			final Map.Entry<K,V> entry = map.entrySet().iterator().next();
+			return Collections.singletonMap( entry.getKey(), entry.getValue() );
+		}
+		return Collections.unmodifiableMap( map );
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
 	}
 
 	private void validateParameters() {
@@ -79,7 +131,14 @@ public abstract class AbstractSqmStatement implements SqmStatement, ParameterCol
 
 	@Override
 	public Set<SqmParameter> getQueryParameters() {
-		Set<SqmParameter> parameters = new HashSet<>();
+		if ( frozen ) {
+			return queryParameters;
+		}
+		return collectQueryParameters();
+	}
+
+	private Set<SqmParameter> collectQueryParameters() {
+		final Set<SqmParameter> parameters = new HashSet<>();
 		if ( namedQueryParameters != null ) {
 			parameters.addAll( namedQueryParameters.values() );
 		}
@@ -88,4 +147,15 @@ public abstract class AbstractSqmStatement implements SqmStatement, ParameterCol
 		}
 		return parameters;
 	}
+
+	@Override
+	public SqmStructuralFingerprint getStructuralFingerprint() {
+		SqmStructuralFingerprint fingerprint = structuralFingerprint;
+		if ( fingerprint == null ) {
+			// benign race : concurrent callers compute equal fingerprints
+			fingerprint = SqmStructuralFingerprintGenerator.generate( this );
+			structuralFingerprint = fingerprint;
+		}
+		return fingerprint;
+	}
 }
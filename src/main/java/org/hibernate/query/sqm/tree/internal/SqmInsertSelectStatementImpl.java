@@ -27,6 +27,7 @@ public class SqmInsertSelectStatementImpl extends AbstractSqmInsertStatement imp
 	}
 
 	public void setSelectQuery(SqmQuerySpec selectQuery) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		this.selectQuery = selectQuery;
 	}
 
@@ -25,6 +25,7 @@ public class SqmSelectStatementImpl extends AbstractSqmStatement implements SqmS
 	}
 
 	public void applyQuerySpec(SqmQuerySpec querySpec) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		if ( this.querySpec != null ) {
 			throw new IllegalStateException( "SqmQuerySpec was already defined for select-statement" );
 		}
@@ -0,0 +1,167 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.tree.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.query.sqm.consume.spi.SqmTraversalListener;
+import org.hibernate.query.sqm.consume.spi.SqmTreeTraversal;
+import org.hibernate.query.sqm.tree.SqmStructuralFingerprint;
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.query.sqm.tree.expression.SubQuerySqmExpression;
+import org.hibernate.query.sqm.tree.expression.domain.SqmNavigableReference;
+import org.hibernate.query.sqm.tree.expression.function.AggregateFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.group.SqmGroupByClause;
+import org.hibernate.query.sqm.tree.group.SqmGrouping;
+import org.hibernate.query.sqm.tree.select.SqmSelectClause;
+import org.hibernate.query.sqm.tree.select.SqmSelection;
+import org.hibernate.query.sqm.tree.select.SqmSelectionClassification;
+
+/**
+ * Classifies the selections of a query spec (see {@link SqmSelectionClassification}).
+ * <p/>
+ * Navigable references are resolved once per path while building a query (see
+ * {@link org.hibernate.query.sqm.produce.spi.ParsingContext#findOrCreateNavigableBinding}),
+ * so a reference is matched against the grouping keys by identity.  A reference is grouped
+ * if it, or one of its sources (e.g. {@code p} for {@code p.name}), is a grouping key.  Other
+ * expressions are built separately for each clause, so they are matched against the grouping
+ * keys structurally (see {@link SqmStructuralFingerprintGenerator#generate(SqmExpression)}).  An
+ * expression which is itself a grouping key, or which is only made of grouped references and
+ * constants, is grouped too; state referenced from within an aggregate function does not
+ * matter.  Sub-queries are conservatively considered to reference ungrouped state.
+ */
+public class SqmSelectionClassifier implements SqmTraversalListener {
+	/**
+	 * Classify the selections of the given select clause
+	 *
+	 * @param selectClause The select clause; may be {@code null}
+	 * @param groupByClause The group-by clause of the same query spec; may be {@code null}
+	 *
+	 * @return The classifications, in the order of the selections
+	 */
+	public static List<SqmSelectionClassification> classify(SqmSelectClause selectClause, SqmGroupByClause groupByClause) {
+		if ( selectClause == null || selectClause.getSelections().isEmpty() ) {
+			return Collections.emptyList();
+		}
+
+		final SqmSelectionClassifier classifier = new SqmSelectionClassifier( groupByClause );
+		final SqmTreeTraversal traversal = new SqmTreeTraversal();
+		final List<SqmSelectionClassification> classifications = new ArrayList<>( selectClause.getSelections().size() );
+		for ( SqmSelection selection : selectClause.getSelections() ) {
+			classifications.add( classifier.classify( traversal, selection ) );
+		}
+		return SqmTreeFreezer.compact( classifications );
+	}
+
+	private final Set<Object> groupingKeys;
+	private final Set<SqmStructuralFingerprint> groupingExpressionFingerprints;
+
+	private boolean containsAggregate;
+	private boolean referencesGroupedState;
+	private boolean referencesUngroupedState;
+
+	private SqmSelectionClassifier(SqmGroupByClause groupByClause) {
+		if ( groupByClause == null || groupByClause.getGroupings().isEmpty() ) {
+			groupingKeys = Collections.emptySet();
+			groupingExpressionFingerprints = Collections.emptySet();
+		}
+		else {
+			groupingKeys = Collections.newSetFromMap( new IdentityHashMap<>() );
+			groupingExpressionFingerprints = new HashSet<>();
+			for ( SqmGrouping grouping : groupByClause.getGroupings() ) {
+				groupingKeys.add( grouping.getExpression() );
+				if ( !( grouping.getExpression() instanceof SqmNavigableReference ) ) {
+					final SqmStructuralFingerprint fingerprint = SqmStructuralFingerprintGenerator.generate( grouping.getExpression() );
+					if ( fingerprint.isComparable() ) {
+						groupingExpressionFingerprints.add( fingerprint );
+					}
+				}
+			}
+		}
+	}
+
+	private SqmSelectionClassification classify(SqmTreeTraversal traversal, SqmSelection selection) {
+		containsAggregate = false;
+		referencesGroupedState = false;
+		referencesUngroupedState = false;
+
+		traversal.traverse( selection.getExpression(), this );
+
+		if ( referencesUngroupedState ) {
+			return SqmSelectionClassification.UNGROUPED;
+		}
+		else if ( containsAggregate ) {
+			return SqmSelectionClassification.AGGREGATE;
+		}
+		else if ( referencesGroupedState ) {
+			return SqmSelectionClassification.GROUPING_KEY;
+		}
+		else {
+			return SqmSelectionClassification.CONSTANT;
+		}
+	}
+
+	@Override
+	public boolean preVisit(Object node) {
+		if ( groupingKeys.contains( node ) || isGroupingExpression( node ) ) {
+			referencesGroupedState = true;
+			return false;
+		}
+
+		if ( node instanceof AggregateFunctionSqmExpression ) {
+			containsAggregate = true;
+			return false;
+		}
+
+		if ( node instanceof SqmNavigableReference ) {
+			if ( isGrouped( (SqmNavigableReference) node ) ) {
+				referencesGroupedState = true;
+			}
+			else {
+				referencesUngroupedState = true;
+			}
+			return false;
+		}
+
+		if ( node instanceof SubQuerySqmExpression ) {
+			referencesUngroupedState = true;
+			return false;
+		}
+
+		return true;
+	}
+
+	private boolean isGroupingExpression(Object node) {
+		if ( groupingExpressionFingerprints.isEmpty()
+				|| !( node instanceof SqmExpression )
+				|| node instanceof SqmNavigableReference ) {
+			return false;
+		}
+		final SqmStructuralFingerprint fingerprint = SqmStructuralFingerprintGenerator.generate( (SqmExpression) node );
+		return fingerprint.isComparable() && groupingExpressionFingerprints.contains( fingerprint );
+	}
+
+	private boolean isGrouped(SqmNavigableReference reference) {
+		SqmNavigableReference current = reference.getSourceReference();
+		while ( current != null ) {
+			if ( groupingKeys.contains( current ) ) {
+				return true;
+			}
+			current = current.getSourceReference();
+		}
+		return false;
+	}
+
+	@Override
+	public void postVisit(Object node) {
+	}
+}
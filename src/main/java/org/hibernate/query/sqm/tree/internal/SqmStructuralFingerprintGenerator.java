@@ -0,0 +1,1169 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.tree.internal;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.query.sqm.consume.spi.BaseSemanticQueryWalker;
+import org.hibernate.query.sqm.produce.spi.ImplicitAliasGenerator;
+import org.hibernate.query.sqm.tree.SqmDeleteStatement;
+import org.hibernate.query.sqm.tree.SqmInsertSelectStatement;
+import org.hibernate.query.sqm.tree.SqmQuerySpec;
+import org.hibernate.query.sqm.tree.SqmSelectStatement;
+import org.hibernate.query.sqm.tree.SqmStatement;
+import org.hibernate.query.sqm.tree.SqmStructuralFingerprint;
+import org.hibernate.query.sqm.tree.SqmUpdateStatement;
+import org.hibernate.query.sqm.tree.expression.BinaryArithmeticSqmExpression;
+import org.hibernate.query.sqm.tree.expression.CaseSearchedSqmExpression;
+import org.hibernate.query.sqm.tree.expression.CaseSimpleSqmExpression;
+import org.hibernate.query.sqm.tree.expression.CoalesceSqmExpression;
+import org.hibernate.query.sqm.tree.expression.CollectionSizeSqmExpression;
+import org.hibernate.query.sqm.tree.expression.ConcatSqmExpression;
+import org.hibernate.query.sqm.tree.expression.ConstantEnumSqmExpression;
+import org.hibernate.query.sqm.tree.expression.ConstantFieldSqmExpression;
+import org.hibernate.query.sqm.tree.expression.EntityTypeLiteralSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralBigDecimalSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralBigIntegerSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralCharacterSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralDoubleSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralFalseSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralFloatSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralIntegerSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralLongSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralNullSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralStringSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralTrueSqmExpression;
+import org.hibernate.query.sqm.tree.expression.NamedParameterSqmExpression;
+import org.hibernate.query.sqm.tree.expression.NullifSqmExpression;
+import org.hibernate.query.sqm.tree.expression.ParameterizedEntityTypeSqmExpression;
+import org.hibernate.query.sqm.tree.expression.PositionalParameterSqmExpression;
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.query.sqm.tree.expression.SubQuerySqmExpression;
+import org.hibernate.query.sqm.tree.expression.UnaryOperationSqmExpression;
+import org.hibernate.query.sqm.tree.expression.domain.AbstractSpecificSqmCollectionIndexReference;
+import org.hibernate.query.sqm.tree.expression.domain.SqmAttributeReference;
+import org.hibernate.query.sqm.tree.expression.domain.SqmCollectionElementReference;
+import org.hibernate.query.sqm.tree.expression.domain.SqmCollectionIndexReference;
+import org.hibernate.query.sqm.tree.expression.domain.SqmEntityIdentifierReference;
+import org.hibernate.query.sqm.tree.expression.domain.SqmEntityTypeSqmExpression;
+import org.hibernate.query.sqm.tree.expression.domain.SqmMapEntryBinding;
+import org.hibernate.query.sqm.tree.expression.domain.SqmMaxElementReference;
+import org.hibernate.query.sqm.tree.expression.domain.SqmMinElementReference;
+import org.hibernate.query.sqm.tree.expression.domain.SqmMinIndexReferenceBasic;
+import org.hibernate.query.sqm.tree.expression.domain.SqmNavigableReference;
+import org.hibernate.query.sqm.tree.expression.domain.SqmSingularAttributeReference;
+import org.hibernate.query.sqm.tree.expression.function.AbstractAggregateFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.AvgFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.CastFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.ConcatFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.CountFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.CountStarFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.GenericFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.LowerFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.MaxFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.MinFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.SubstringFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.SumFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.TrimFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.UpperFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.from.SqmAttributeJoin;
+import org.hibernate.query.sqm.tree.from.SqmCrossJoin;
+import org.hibernate.query.sqm.tree.from.SqmEntityJoin;
+import org.hibernate.query.sqm.tree.from.SqmFrom;
+import org.hibernate.query.sqm.tree.from.SqmFromClause;
+import org.hibernate.query.sqm.tree.from.SqmFromElementSpace;
+import org.hibernate.query.sqm.tree.from.SqmFromExporter;
+import org.hibernate.query.sqm.tree.from.SqmJoin;
+import org.hibernate.query.sqm.tree.from.SqmRoot;
+import org.hibernate.query.sqm.tree.group.SqmGroupByClause;
+import org.hibernate.query.sqm.tree.group.SqmGrouping;
+import org.hibernate.query.sqm.tree.group.SqmHavingClause;
+import org.hibernate.query.sqm.tree.order.SqmOrderByClause;
+import org.hibernate.query.sqm.tree.order.SqmSortSpecification;
+import org.hibernate.query.sqm.tree.paging.SqmLimitOffsetClause;
+import org.hibernate.query.sqm.tree.predicate.AndSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.BetweenSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.BooleanExpressionSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.EmptinessSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.GroupedSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.InListSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.InSubQuerySqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.JunctionSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.LikeSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.LiteralInListSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.MemberOfSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.NegatedSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.NullnessSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.OrSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.RelationalSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmWhereClause;
+import org.hibernate.query.sqm.tree.select.SqmDynamicInstantiation;
+import org.hibernate.query.sqm.tree.select.SqmDynamicInstantiationArgument;
+import org.hibernate.query.sqm.tree.select.SqmSelectClause;
+import org.hibernate.query.sqm.tree.select.SqmSelection;
+import org.hibernate.query.sqm.tree.set.SqmAssignment;
+import org.hibernate.query.sqm.tree.set.SqmSetClause;
+
+/**
+ * Renders the canonical form of a statement for its {@link SqmStructuralFingerprint}.
+ * <p/>
+ * From elements are rendered by their position in the statement rather than by their
+ * unique identifier or identification variable, and references to them are rendered
+ * using that same position.  Implicit (generated) selection aliases are omitted; explicit
+ * selection aliases are kept since they name the results.
+ * <p/>
+ * Metamodel types (such as the target of a cast) are shared by all statements produced
+ * against the same metamodel : each distinct type is rendered as the number it was given the
+ * first time it was rendered (see {@link #typeNumber}).  Unlike an identity hash code, that
+ * number is never shared by two types.
+ */
+public class SqmStructuralFingerprintGenerator extends BaseSemanticQueryWalker<Object> {
+	/**
+	 * Generate the fingerprint for the given statement
+	 *
+	 * @param statement The (completely built) statement
+	 *
+	 * @return The fingerprint
+	 */
+	public static SqmStructuralFingerprint generate(SqmStatement statement) {
+		final SqmStructuralFingerprintGenerator generator = new SqmStructuralFingerprintGenerator();
+		statement.accept( generator );
+		return new SqmStructuralFingerprint( generator.buffer.toString(), generator.comparable );
+	}
+
+	/**
+	 * Generate the fingerprint for an expression of a statement.
+	 * <p/>
+	 * The from elements of the statement are not rendered, so the references to them are
+	 * rendered using their unique identifier : such fingerprints are only comparable to those
+	 * of the expressions of the same statement.
+	 *
+	 * @param expression The expression
+	 *
+	 * @return The fingerprint
+	 */
+	public static SqmStructuralFingerprint generate(SqmExpression expression) {
+		final SqmStructuralFingerprintGenerator generator = new SqmStructuralFingerprintGenerator( true );
+		generator.expression( expression );
+		return new SqmStructuralFingerprint( generator.buffer.toString(), generator.comparable );
+	}
+
+	/**
+	 * The numbers given to the metamodel types rendered so far.  The types are weakly held (by
+	 * identity), so that those of a discarded metamodel do not stay around; numbers are never
+	 * reused.  Rendering a type already numbered takes no lock.
+	 */
+	private static final ConcurrentMap<TypeKey,Integer> TYPE_NUMBERS = new ConcurrentHashMap<>();
+	private static final ReferenceQueue<Object> DISCARDED_TYPES = new ReferenceQueue<>();
+	private static final AtomicInteger LAST_TYPE_NUMBER = new AtomicInteger();
+
+	/**
+	 * The number identifying the given metamodel type in fingerprints, including those of
+	 * criteria queries.
+	 *
+	 * @param type The metamodel type
+	 *
+	 * @return The number, never given to another type
+	 */
+	public static int typeNumber(Object type) {
+		final Integer number = TYPE_NUMBERS.get( new TypeKey( type, null ) );
+		if ( number != null ) {
+			return number;
+		}
+
+		Reference<?> discarded;
+		while ( ( discarded = DISCARDED_TYPES.poll() ) != null ) {
+			TYPE_NUMBERS.remove( discarded );
+		}
+		return TYPE_NUMBERS.computeIfAbsent(
+				new TypeKey( type, DISCARDED_TYPES ),
+				key -> LAST_TYPE_NUMBER.incrementAndGet()
+		);
+	}
+
+	private static final class TypeKey extends WeakReference<Object> {
+		private final int hashCode;
+
+		private TypeKey(Object type, ReferenceQueue<Object> queue) {
+			super( type, queue );
+			this.hashCode = System.identityHashCode( type );
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if ( this == o ) {
+				return true;
+			}
+			if ( !( o instanceof TypeKey ) ) {
+				return false;
+			}
+			final Object type = get();
+			return type != null && type == ( (TypeKey) o ).get();
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	private final StringBuilder buffer = new StringBuilder();
+	private final Map<SqmFrom,Integer> fromElementPositions = new IdentityHashMap<>();
+	private final boolean fromElementsByUniqueId;
+	private boolean comparable = true;
+
+	private SqmStructuralFingerprintGenerator() {
+		this( false );
+	}
+
+	private SqmStructuralFingerprintGenerator(boolean fromElementsByUniqueId) {
+		this.fromElementsByUniqueId = fromElementsByUniqueId;
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// rendering
+
+	private void open(String nodeName) {
+		buffer.append( nodeName ).append( '(' );
+	}
+
+	private void close() {
+		buffer.append( ')' );
+	}
+
+	private void token(Object token) {
+		buffer.append( token ).append( ' ' );
+	}
+
+	private void quoted(String value) {
+		buffer.append( '\'' ).append( value.replace( "'", "''" ) ).append( "' " );
+	}
+
+	private void expression(SqmExpression expression) {
+		if ( expression == null ) {
+			token( "-" );
+		}
+		else {
+			expression.accept( this );
+		}
+	}
+
+	private void predicate(SqmPredicate predicate) {
+		if ( predicate == null ) {
+			token( "-" );
+		}
+		else {
+			predicate.accept( this );
+		}
+	}
+
+	private void type(Object type) {
+		if ( type == null ) {
+			token( "-" );
+		}
+		else {
+			token( type.getClass().getName() + '#' + typeNumber( type ) );
+		}
+	}
+
+	private void unsupported(Object node) {
+		// no canonical rendering : make the fingerprint incomparable
+		comparable = false;
+		token( "<" + node.getClass().getSimpleName() + ">" );
+	}
+
+	private int registerFromElement(SqmFrom fromElement) {
+		final Integer existing = fromElementPositions.get( fromElement );
+		if ( existing != null ) {
+			return existing;
+		}
+		final int position = fromElementPositions.size() + 1;
+		fromElementPositions.put( fromElement, position );
+		return position;
+	}
+
+	private void fromElementReference(SqmFrom fromElement) {
+		token( "#" + registerFromElement( fromElement ) );
+	}
+
+	private void navigableReference(SqmNavigableReference reference) {
+		if ( reference == null ) {
+			token( "-" );
+			return;
+		}
+
+		if ( reference instanceof SqmFromExporter ) {
+			final SqmFrom exportedFromElement = ( (SqmFromExporter) reference ).getExportedFromElement();
+			if ( exportedFromElement != null && fromElementPositions.containsKey( exportedFromElement ) ) {
+				fromElementReference( exportedFromElement );
+				return;
+			}
+			if ( exportedFromElement != null && fromElementsByUniqueId ) {
+				token( "#uid" + exportedFromElement.getUniqueId() );
+				return;
+			}
+		}
+
+		if ( reference.getSourceReference() != null ) {
+			open( "path" );
+			navigableReference( reference.getSourceReference() );
+			token( reference.getReferencedNavigable().getNavigableName() );
+			close();
+		}
+		else {
+			token( reference.getReferencedNavigable().getNavigableName() );
+		}
+	}
+
+	private void navigableReference(String nodeName, SqmNavigableReference reference) {
+		open( nodeName );
+		navigableReference( reference );
+		close();
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// statements
+
+	@Override
+	public Object visitSelectStatement(SqmSelectStatement statement) {
+		open( "select" );
+		visitQuerySpec( statement.getQuerySpec() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitUpdateStatement(SqmUpdateStatement statement) {
+		open( "update" );
+		visitRootEntityFromElement( statement.getEntityFromElement() );
+		visitSetClause( statement.getSetClause() );
+		visitWhereClause( statement.getWhereClause() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitSetClause(SqmSetClause setClause) {
+		open( "set" );
+		for ( SqmAssignment assignment : setClause.getAssignments() ) {
+			visitAssignment( assignment );
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitAssignment(SqmAssignment assignment) {
+		open( "assign" );
+		navigableReference( assignment.getStateField() );
+		expression( assignment.getValue() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitInsertSelectStatement(SqmInsertSelectStatement statement) {
+		open( "insert" );
+		visitRootEntityFromElement( statement.getInsertTarget() );
+		open( "fields" );
+		for ( SqmSingularAttributeReference stateField : statement.getStateFields() ) {
+			navigableReference( stateField );
+		}
+		close();
+		visitQuerySpec( statement.getSelectQuery() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitDeleteStatement(SqmDeleteStatement statement) {
+		open( "delete" );
+		visitRootEntityFromElement( statement.getEntityFromElement() );
+		visitWhereClause( statement.getWhereClause() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitQuerySpec(SqmQuerySpec querySpec) {
+		open( "query" );
+		// the from-clause first, so that from-element positions are assigned in declaration order
+		visitFromClause( querySpec.getFromClause() );
+		visitSelectClause( querySpec.getSelectClause() );
+		visitWhereClause( querySpec.getWhereClause() );
+		if ( querySpec.getGroupByClause() != null ) {
+			visitGroupByClause( querySpec.getGroupByClause() );
+		}
+		if ( querySpec.getHavingClause() != null ) {
+			visitHavingClause( querySpec.getHavingClause() );
+		}
+		visitOrderByClause( querySpec.getOrderByClause() );
+		visitLimitOffsetClause( querySpec.getLimitOffsetClause() );
+		close();
+		return null;
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// from-clause
+
+	@Override
+	public Object visitFromClause(SqmFromClause fromClause) {
+		open( "from" );
+		if ( fromClause != null ) {
+			for ( SqmFromElementSpace fromElementSpace : fromClause.getFromElementSpaces() ) {
+				visitFromElementSpace( fromElementSpace );
+			}
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitFromElementSpace(SqmFromElementSpace fromElementSpace) {
+		open( "space" );
+		visitRootEntityFromElement( fromElementSpace.getRoot() );
+		for ( SqmJoin join : fromElementSpace.getJoins() ) {
+			join.accept( this );
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitRootEntityFromElement(SqmRoot rootEntityFromElement) {
+		open( "root" );
+		token( rootEntityFromElement.getEntityName() );
+		fromElementReference( rootEntityFromElement );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitCrossJoinedFromElement(SqmCrossJoin joinedFromElement) {
+		open( "cross-join" );
+		token( joinedFromElement.getEntityName() );
+		fromElementReference( joinedFromElement );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitQualifiedEntityJoinFromElement(SqmEntityJoin joinedFromElement) {
+		open( "entity-join" );
+		token( joinedFromElement.getJoinType() );
+		token( joinedFromElement.getEntityName() );
+		fromElementReference( joinedFromElement );
+		predicate( joinedFromElement.getOnClausePredicate() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitQualifiedAttributeJoinFromElement(SqmAttributeJoin joinedFromElement) {
+		open( "attribute-join" );
+		token( joinedFromElement.getJoinType() );
+		token( joinedFromElement.isFetched() ? "fetch" : "-" );
+		// render the joined path before registering the join, otherwise the
+		// path would render as a reference to the join itself
+		navigableReference( joinedFromElement.getAttributeBinding() );
+		if ( joinedFromElement.getIntrinsicSubclassIndicator() != null ) {
+			token( joinedFromElement.getIntrinsicSubclassIndicator().getEntityName() );
+		}
+		fromElementReference( joinedFromElement );
+		predicate( joinedFromElement.getOnClausePredicate() );
+		close();
+		return null;
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// select-clause
+
+	@Override
+	public Object visitSelectClause(SqmSelectClause selectClause) {
+		open( "selections" );
+		if ( selectClause != null ) {
+			token( selectClause.isDistinct() ? "distinct" : "-" );
+			for ( SqmSelection selection : selectClause.getSelections() ) {
+				visitSelection( selection );
+			}
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitSelection(SqmSelection selection) {
+		open( "selection" );
+		expression( selection.getExpression() );
+		if ( !ImplicitAliasGenerator.isImplicitAlias( selection.getAlias() ) ) {
+			quoted( selection.getAlias() );
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitDynamicInstantiation(SqmDynamicInstantiation dynamicInstantiation) {
+		open( "new" );
+		token( dynamicInstantiation.getInstantiationTarget().getNature() );
+		token( dynamicInstantiation.getInstantiationTarget().getJavaType().getName() );
+		for ( SqmDynamicInstantiationArgument argument : dynamicInstantiation.getArguments() ) {
+			expression( argument.getExpression() );
+			if ( !ImplicitAliasGenerator.isImplicitAlias( argument.getAlias() ) ) {
+				quoted( argument.getAlias() );
+			}
+		}
+		close();
+		return null;
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// predicates
+
+	@Override
+	public Object visitWhereClause(SqmWhereClause whereClause) {
+		open( "where" );
+		if ( whereClause != null ) {
+			predicate( whereClause.getPredicate() );
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitGroupedPredicate(GroupedSqmPredicate predicate) {
+		// grouping only reflects the query text; the tree structure already defines precedence
+		predicate( predicate.getSubPredicate() );
+		return null;
+	}
+
+	@Override
+	public Object visitAndPredicate(AndSqmPredicate predicate) {
+		open( "and" );
+		predicate( predicate.getLeftHandPredicate() );
+		predicate( predicate.getRightHandPredicate() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitOrPredicate(OrSqmPredicate predicate) {
+		open( "or" );
+		predicate( predicate.getLeftHandPredicate() );
+		predicate( predicate.getRightHandPredicate() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitJunctionPredicate(JunctionSqmPredicate predicate) {
+		// rendered the same as the binary forms
+		open( predicate.getNature() == JunctionSqmPredicate.Nature.CONJUNCTION ? "and" : "or" );
+		for ( SqmPredicate subPredicate : predicate.getPredicates() ) {
+			predicate( subPredicate );
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitRelationalPredicate(RelationalSqmPredicate predicate) {
+		open( "relational" );
+		token( predicate.getOperator() );
+		expression( predicate.getLeftHandExpression() );
+		expression( predicate.getRightHandExpression() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitIsEmptyPredicate(EmptinessSqmPredicate predicate) {
+		open( predicate.isNegated() ? "is-not-empty" : "is-empty" );
+		expression( predicate.getExpression() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitIsNullPredicate(NullnessSqmPredicate predicate) {
+		open( predicate.isNegated() ? "is-not-null" : "is-null" );
+		expression( predicate.getExpression() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitBetweenPredicate(BetweenSqmPredicate predicate) {
+		open( predicate.isNegated() ? "not-between" : "between" );
+		expression( predicate.getExpression() );
+		expression( predicate.getLowerBound() );
+		expression( predicate.getUpperBound() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitLikePredicate(LikeSqmPredicate predicate) {
+		open( predicate.isNegated() ? "not-like" : "like" );
+		expression( predicate.getMatchExpression() );
+		expression( predicate.getPattern() );
+		expression( predicate.getEscapeCharacter() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitMemberOfPredicate(MemberOfSqmPredicate predicate) {
+		navigableReference( predicate.isNegated() ? "not-member-of" : "member-of", predicate.getPluralAttributeReference() );
+		return null;
+	}
+
+	@Override
+	public Object visitNegatedPredicate(NegatedSqmPredicate predicate) {
+		open( "not" );
+		predicate( predicate.getWrappedPredicate() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitInListPredicate(InListSqmPredicate predicate) {
+		open( predicate.isNegated() ? "not-in" : "in" );
+		expression( predicate.getTestExpression() );
+		for ( SqmExpression expression : predicate.getListExpressions() ) {
+			expression( expression );
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitLiteralInListPredicate(LiteralInListSqmPredicate predicate) {
+		open( predicate.isNegated() ? "not-in-values" : "in-values" );
+		expression( predicate.getTestExpression() );
+		final int size = predicate.size();
+		for ( int i = 0; i < size; i++ ) {
+			switch ( predicate.getValueKind() ) {
+				case INTEGER: {
+					literal( "int", predicate.getValue( i ) );
+					break;
+				}
+				case LONG: {
+					literal( "long", predicate.getValue( i ) );
+					break;
+				}
+				default: {
+					quoted( (String) predicate.getValue( i ) );
+				}
+			}
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitInSubQueryPredicate(InSubQuerySqmPredicate predicate) {
+		open( predicate.isNegated() ? "not-in" : "in" );
+		expression( predicate.getTestExpression() );
+		expression( predicate.getSubQueryExpression() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitBooleanExpressionPredicate(BooleanExpressionSqmPredicate predicate) {
+		open( "boolean" );
+		expression( predicate.getBooleanExpression() );
+		close();
+		return null;
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// group-by, having
+
+	@Override
+	public Object visitGroupByClause(SqmGroupByClause groupByClause) {
+		open( "group" );
+		for ( SqmGrouping grouping : groupByClause.getGroupings() ) {
+			visitGrouping( grouping );
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitGrouping(SqmGrouping grouping) {
+		open( "grouping" );
+		expression( grouping.getExpression() );
+		if ( grouping.getCollation() != null ) {
+			quoted( grouping.getCollation() );
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitHavingClause(SqmHavingClause havingClause) {
+		open( "having" );
+		predicate( havingClause.getPredicate() );
+		close();
+		return null;
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// order-by, limit/offset
+
+	@Override
+	public Object visitOrderByClause(SqmOrderByClause orderByClause) {
+		open( "order" );
+		if ( orderByClause != null && orderByClause.getSortSpecifications() != null ) {
+			for ( SqmSortSpecification sortSpecification : orderByClause.getSortSpecifications() ) {
+				visitSortSpecification( sortSpecification );
+			}
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitSortSpecification(SqmSortSpecification sortSpecification) {
+		open( "sort" );
+		expression( sortSpecification.getSortExpression() );
+		token( sortSpecification.getSortOrder() );
+		if ( sortSpecification.getCollation() != null ) {
+			quoted( sortSpecification.getCollation() );
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitLimitOffsetClause(SqmLimitOffsetClause limitOffsetClause) {
+		if ( limitOffsetClause != null ) {
+			open( "limit" );
+			expression( limitOffsetClause.getLimitExpression() );
+			expression( limitOffsetClause.getOffsetExpression() );
+			close();
+		}
+		return null;
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// parameters
+
+	@Override
+	public Object visitPositionalParameterExpression(PositionalParameterSqmExpression expression) {
+		token( "?" + expression.getPosition() + ( expression.allowMultiValuedBinding() ? "*" : "" ) );
+		return null;
+	}
+
+	@Override
+	public Object visitNamedParameterExpression(NamedParameterSqmExpression expression) {
+		token( ":" + expression.getName() + ( expression.allowMultiValuedBinding() ? "*" : "" ) );
+		return null;
+	}
+
+	@Override
+	public Object visitParameterizedEntityTypeExpression(ParameterizedEntityTypeSqmExpression expression) {
+		unsupported( expression );
+		return null;
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// domain references
+
+	@Override
+	public Object visitEntityTypeLiteralExpression(EntityTypeLiteralSqmExpression expression) {
+		open( "entity-type" );
+		token( expression.getExpressionType().getEntityName() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitEntityTypeExpression(SqmEntityTypeSqmExpression expression) {
+		navigableReference( "type", expression.getBinding() );
+		return null;
+	}
+
+	@Override
+	public Object visitAttributeReferenceExpression(SqmAttributeReference expression) {
+		navigableReference( expression );
+		return null;
+	}
+
+	@Override
+	public Object visitEntityIdentifierBinding(SqmEntityIdentifierReference expression) {
+		navigableReference( "id", expression );
+		return null;
+	}
+
+	@Override
+	public Object visitPluralAttributeSizeFunction(CollectionSizeSqmExpression function) {
+		navigableReference( "size", function.getPluralAttributeBinding() );
+		return null;
+	}
+
+	@Override
+	public Object visitPluralAttributeElementBinding(SqmCollectionElementReference binding) {
+		navigableReference( "elements", binding );
+		return null;
+	}
+
+	@Override
+	public Object visitPluralAttributeIndexFunction(SqmCollectionIndexReference binding) {
+		navigableReference( "indices", binding );
+		return null;
+	}
+
+	@Override
+	public Object visitMapKeyBinding(SqmCollectionIndexReference binding) {
+		navigableReference( "key", binding );
+		return null;
+	}
+
+	@Override
+	public Object visitMapEntryFunction(SqmMapEntryBinding binding) {
+		unsupported( binding );
+		return null;
+	}
+
+	@Override
+	public Object visitMaxElementBinding(SqmMaxElementReference binding) {
+		navigableReference( "max-element", binding );
+		return null;
+	}
+
+	@Override
+	public Object visitMinElementBinding(SqmMinElementReference binding) {
+		navigableReference( "min-element", binding );
+		return null;
+	}
+
+	@Override
+	public Object visitMaxIndexFunction(AbstractSpecificSqmCollectionIndexReference function) {
+		navigableReference( "max-index", function );
+		return null;
+	}
+
+	@Override
+	public Object visitMinIndexFunction(SqmMinIndexReferenceBasic function) {
+		navigableReference( "min-index", function );
+		return null;
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// functions
+
+	@Override
+	public Object visitGenericFunction(GenericFunctionSqmExpression expression) {
+		open( "function" );
+		token( expression.getFunctionName() );
+		for ( SqmExpression argument : expression.getArguments() ) {
+			expression( argument );
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitCastFunction(CastFunctionSqmExpression expression) {
+		open( "cast" );
+		expression( expression.getExpressionToCast() );
+		type( expression.getExpressionType() );
+		close();
+		return null;
+	}
+
+	private void aggregate(String name, AbstractAggregateFunctionSqmExpression expression) {
+		open( name );
+		token( expression.isDistinct() ? "distinct" : "-" );
+		expression( expression.getArgument() );
+		close();
+	}
+
+	@Override
+	public Object visitAvgFunction(AvgFunctionSqmExpression expression) {
+		aggregate( "avg", expression );
+		return null;
+	}
+
+	@Override
+	public Object visitCountStarFunction(CountStarFunctionSqmExpression expression) {
+		open( "count" );
+		token( expression.isDistinct() ? "distinct" : "-" );
+		token( "*" );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitCountFunction(CountFunctionSqmExpression expression) {
+		aggregate( "count", expression );
+		return null;
+	}
+
+	@Override
+	public Object visitMaxFunction(MaxFunctionSqmExpression expression) {
+		aggregate( "max", expression );
+		return null;
+	}
+
+	@Override
+	public Object visitMinFunction(MinFunctionSqmExpression expression) {
+		aggregate( "min", expression );
+		return null;
+	}
+
+	@Override
+	public Object visitSumFunction(SumFunctionSqmExpression expression) {
+		aggregate( "sum", expression );
+		return null;
+	}
+
+	@Override
+	public Object visitConcatFunction(ConcatFunctionSqmExpression expression) {
+		open( "concat" );
+		for ( SqmExpression argument : expression.getExpressions() ) {
+			expression( argument );
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitSubstringFunction(SubstringFunctionSqmExpression expression) {
+		open( "substring" );
+		expression( expression.getSource() );
+		expression( expression.getStartPosition() );
+		expression( expression.getLength() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitTrimFunction(TrimFunctionSqmExpression expression) {
+		open( "trim" );
+		token( expression.getSpecification() );
+		expression( expression.getTrimCharacter() );
+		expression( expression.getSource() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitUpperFunction(UpperFunctionSqmExpression expression) {
+		open( "upper" );
+		expression( expression.getExpression() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitLowerFunction(LowerFunctionSqmExpression expression) {
+		open( "lower" );
+		expression( expression.getExpression() );
+		close();
+		return null;
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// literals and constants
+
+	private void literal(String kind, Object value) {
+		token( kind + ':' + value );
+	}
+
+	@Override
+	public Object visitLiteralStringExpression(LiteralStringSqmExpression expression) {
+		quoted( expression.getLiteralValue() );
+		return null;
+	}
+
+	@Override
+	public Object visitLiteralCharacterExpression(LiteralCharacterSqmExpression expression) {
+		buffer.append( "char:" );
+		quoted( String.valueOf( expression.getLiteralValue() ) );
+		return null;
+	}
+
+	@Override
+	public Object visitLiteralDoubleExpression(LiteralDoubleSqmExpression expression) {
+		literal( "double", expression.getLiteralValue() );
+		return null;
+	}
+
+	@Override
+	public Object visitLiteralIntegerExpression(LiteralIntegerSqmExpression expression) {
+		literal( "int", expression.getLiteralValue() );
+		return null;
+	}
+
+	@Override
+	public Object visitLiteralBigIntegerExpression(LiteralBigIntegerSqmExpression expression) {
+		literal( "bigint", expression.getLiteralValue() );
+		return null;
+	}
+
+	@Override
+	public Object visitLiteralBigDecimalExpression(LiteralBigDecimalSqmExpression expression) {
+		literal( "bigdecimal", expression.getLiteralValue() );
+		return null;
+	}
+
+	@Override
+	public Object visitLiteralFloatExpression(LiteralFloatSqmExpression expression) {
+		literal( "float", expression.getLiteralValue() );
+		return null;
+	}
+
+	@Override
+	public Object visitLiteralLongExpression(LiteralLongSqmExpression expression) {
+		literal( "long", expression.getLiteralValue() );
+		return null;
+	}
+
+	@Override
+	public Object visitLiteralTrueExpression(LiteralTrueSqmExpression expression) {
+		token( "true" );
+		return null;
+	}
+
+	@Override
+	public Object visitLiteralFalseExpression(LiteralFalseSqmExpression expression) {
+		token( "false" );
+		return null;
+	}
+
+	@Override
+	public Object visitLiteralNullExpression(LiteralNullSqmExpression expression) {
+		token( "null" );
+		return null;
+	}
+
+	@Override
+	public Object visitConstantEnumExpression(ConstantEnumSqmExpression expression) {
+		literal( "enum", expression.getValue().getDeclaringClass().getName() + '.' + expression.getValue().name() );
+		return null;
+	}
+
+	@Override
+	public Object visitConstantFieldExpression(ConstantFieldSqmExpression expression) {
+		literal(
+				"constant",
+				expression.getSourceField().getDeclaringClass().getName() + '.' + expression.getSourceField().getName()
+		);
+		return null;
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// other expressions
+
+	@Override
+	public Object visitUnaryOperationExpression(UnaryOperationSqmExpression expression) {
+		open( "unary" );
+		token( expression.getOperation() );
+		expression( expression.getOperand() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitBinaryArithmeticExpression(BinaryArithmeticSqmExpression expression) {
+		open( "arithmetic" );
+		token( expression.getOperation() );
+		expression( expression.getLeftHandOperand() );
+		expression( expression.getRightHandOperand() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitConcatExpression(ConcatSqmExpression expression) {
+		open( "concat" );
+		expression( expression.getLeftHandOperand() );
+		expression( expression.getRightHandOperand() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitSubQueryExpression(SubQuerySqmExpression expression) {
+		open( "subquery" );
+		visitQuerySpec( expression.getQuerySpec() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitSimpleCaseExpression(CaseSimpleSqmExpression expression) {
+		open( "case" );
+		expression( expression.getFixture() );
+		for ( CaseSimpleSqmExpression.WhenFragment whenFragment : expression.getWhenFragments() ) {
+			open( "when" );
+			expression( whenFragment.getCheckValue() );
+			expression( whenFragment.getResult() );
+			close();
+		}
+		expression( expression.getOtherwise() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitSearchedCaseExpression(CaseSearchedSqmExpression expression) {
+		open( "case" );
+		for ( CaseSearchedSqmExpression.WhenFragment whenFragment : expression.getWhenFragments() ) {
+			open( "when" );
+			predicate( whenFragment.getPredicate() );
+			expression( whenFragment.getResult() );
+			close();
+		}
+		expression( expression.getOtherwise() );
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitCoalesceExpression(CoalesceSqmExpression expression) {
+		open( "coalesce" );
+		for ( SqmExpression value : expression.getValues() ) {
+			expression( value );
+		}
+		close();
+		return null;
+	}
+
+	@Override
+	public Object visitNullifExpression(NullifSqmExpression expression) {
+		open( "nullif" );
+		expression( expression.getFirstArgument() );
+		expression( expression.getSecondArgument() );
+		close();
+		return null;
+	}
+}
@@ -0,0 +1,471 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.tree.internal;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.query.sqm.consume.spi.BaseSemanticQueryWalker;
+import org.hibernate.query.sqm.tree.SqmFreezable;
+import org.hibernate.query.sqm.tree.SqmQuerySpec;
+import org.hibernate.query.sqm.tree.SqmStatement;
+import org.hibernate.query.sqm.tree.expression.BinaryArithmeticSqmExpression;
+import org.hibernate.query.sqm.tree.expression.CaseSearchedSqmExpression;
+import org.hibernate.query.sqm.tree.expression.CaseSimpleSqmExpression;
+import org.hibernate.query.sqm.tree.expression.CoalesceSqmExpression;
+import org.hibernate.query.sqm.tree.expression.ConcatSqmExpression;
+import org.hibernate.query.sqm.tree.expression.ConstantEnumSqmExpression;
+import org.hibernate.query.sqm.tree.expression.ConstantFieldSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralBigDecimalSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralBigIntegerSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralCharacterSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralDoubleSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralFalseSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralFloatSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralIntegerSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralLongSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralNullSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralStringSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralTrueSqmExpression;
+import org.hibernate.query.sqm.tree.expression.NamedParameterSqmExpression;
+import org.hibernate.query.sqm.tree.expression.NullifSqmExpression;
+import org.hibernate.query.sqm.tree.expression.PositionalParameterSqmExpression;
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.query.sqm.tree.expression.SubQuerySqmExpression;
+import org.hibernate.query.sqm.tree.expression.UnaryOperationSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.AbstractAggregateFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.AvgFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.CastFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.ConcatFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.CountFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.GenericFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.LowerFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.MaxFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.MinFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.SubstringFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.SumFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.TrimFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.expression.function.UpperFunctionSqmExpression;
+import org.hibernate.query.sqm.tree.from.SqmAttributeJoin;
+import org.hibernate.query.sqm.tree.from.SqmEntityJoin;
+import org.hibernate.query.sqm.tree.from.SqmFromClause;
+import org.hibernate.query.sqm.tree.from.SqmFromElementSpace;
+import org.hibernate.query.sqm.tree.group.SqmGroupByClause;
+import org.hibernate.query.sqm.tree.group.SqmHavingClause;
+import org.hibernate.query.sqm.tree.order.SqmOrderByClause;
+import org.hibernate.query.sqm.tree.order.SqmSortSpecification;
+import org.hibernate.query.sqm.tree.predicate.InListSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmWhereClause;
+import org.hibernate.query.sqm.tree.select.SqmDynamicInstantiation;
+import org.hibernate.query.sqm.tree.select.SqmDynamicInstantiationArgument;
+import org.hibernate.query.sqm.tree.select.SqmSelectClause;
+import org.hibernate.query.sqm.tree.set.SqmAssignment;
+import org.hibernate.query.sqm.tree.set.SqmSetClause;
+
+/**
+ * Walks a completely built SQM tree freezing every {@link SqmFreezable} node in it (see
+ * {@link AbstractSqmStatement#wrapUp()}).  Also hosts the helpers used by those nodes
+ * to compact their collections and to reject mutations once frozen.
+ */
+public class SqmTreeFreezer extends BaseSemanticQueryWalker<Object> {
+	/**
+	 * Freeze the tree of the given statement.  The statement itself is not frozen.
+	 *
+	 * @param statement The statement whose tree to freeze
+	 */
+	public static void freezeTree(SqmStatement statement) {
+		statement.accept( new SqmTreeFreezer() );
+	}
+
+	/**
+	 * Compact the given (mutable) list into an immutable one of the exact size
+	 *
+	 * @param list The list to compact; may be {@code null}
+	 *
+	 * @return The immutable list
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> List<T> compact(List<T> list) {
+		if ( list == null || list.isEmpty() ) {
+			return Collections.emptyList();
+		}
+		if ( list.size() == 1 ) {
+			return Collections.singletonList( list.get( 0 ) );
+		}
+		return Collections.unmodifiableList( Arrays.asList( (T[]) list.toArray() ) );
+	}
+
+	/**
+	 * Reject the mutation of the given node if it has been frozen
+	 *
+	 * @param node The node about to be mutated
+	 *
+	 * @throws IllegalStateException if the node is frozen
+	 */
+	public static void checkNotFrozen(SqmFreezable node) {
+		if ( node.isFrozen() ) {
+			throw new IllegalStateException( "SQM tree has been frozen; cannot mutate " + node );
+		}
+	}
+
+	private SqmTreeFreezer() {
+	}
+
+	private Object freeze(SqmFreezable node) {
+		node.freeze();
+		return node;
+	}
+
+	private void expression(SqmExpression expression) {
+		if ( expression != null ) {
+			expression.accept( this );
+		}
+	}
+
+	private void expressions(List<SqmExpression> expressions) {
+		if ( expressions != null ) {
+			for ( SqmExpression expression : expressions ) {
+				expression( expression );
+			}
+		}
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// clauses
+
+	@Override
+	public Object visitQuerySpec(SqmQuerySpec querySpec) {
+		visitFromClause( querySpec.getFromClause() );
+		visitSelectClause( querySpec.getSelectClause() );
+		if ( querySpec.getWhereClause() != null ) {
+			visitWhereClause( querySpec.getWhereClause() );
+		}
+		if ( querySpec.getGroupByClause() != null ) {
+			visitGroupByClause( querySpec.getGroupByClause() );
+		}
+		if ( querySpec.getHavingClause() != null ) {
+			visitHavingClause( querySpec.getHavingClause() );
+		}
+		if ( querySpec.getOrderByClause() != null ) {
+			visitOrderByClause( querySpec.getOrderByClause() );
+		}
+		visitLimitOffsetClause( querySpec.getLimitOffsetClause() );
+		return querySpec;
+	}
+
+	@Override
+	public Object visitFromClause(SqmFromClause fromClause) {
+		super.visitFromClause( fromClause );
+		return freeze( fromClause );
+	}
+
+	@Override
+	public Object visitFromElementSpace(SqmFromElementSpace fromElementSpace) {
+		super.visitFromElementSpace( fromElementSpace );
+		return freeze( fromElementSpace );
+	}
+
+	@Override
+	public Object visitQualifiedAttributeJoinFromElement(SqmAttributeJoin joinedFromElement) {
+		if ( joinedFromElement.getOnClausePredicate() != null ) {
+			joinedFromElement.getOnClausePredicate().accept( this );
+		}
+		return freeze( joinedFromElement );
+	}
+
+	@Override
+	public Object visitQualifiedEntityJoinFromElement(SqmEntityJoin joinedFromElement) {
+		if ( joinedFromElement.getOnClausePredicate() != null ) {
+			joinedFromElement.getOnClausePredicate().accept( this );
+		}
+		return freeze( joinedFromElement );
+	}
+
+	@Override
+	public Object visitSelectClause(SqmSelectClause selectClause) {
+		super.visitSelectClause( selectClause );
+		return freeze( selectClause );
+	}
+
+	@Override
+	public Object visitDynamicInstantiation(SqmDynamicInstantiation dynamicInstantiation) {
+		if ( dynamicInstantiation.getArguments() != null ) {
+			for ( SqmDynamicInstantiationArgument argument : dynamicInstantiation.getArguments() ) {
+				expression( argument.getExpression() );
+			}
+		}
+		return freeze( dynamicInstantiation );
+	}
+
+	@Override
+	public Object visitWhereClause(SqmWhereClause whereClause) {
+		if ( whereClause.getPredicate() != null ) {
+			whereClause.getPredicate().accept( this );
+		}
+		return freeze( whereClause );
+	}
+
+	@Override
+	public Object visitGroupByClause(SqmGroupByClause groupByClause) {
+		super.visitGroupByClause( groupByClause );
+		return freeze( groupByClause );
+	}
+
+	@Override
+	public Object visitHavingClause(SqmHavingClause havingClause) {
+		if ( havingClause.getPredicate() != null ) {
+			havingClause.getPredicate().accept( this );
+		}
+		return freeze( havingClause );
+	}
+
+	@Override
+	public Object visitOrderByClause(SqmOrderByClause orderByClause) {
+		for ( SqmSortSpecification sortSpecification : orderByClause.getSortSpecifications() ) {
+			visitSortSpecification( sortSpecification );
+		}
+		return freeze( orderByClause );
+	}
+
+	@Override
+	public Object visitSetClause(SqmSetClause setClause) {
+		super.visitSetClause( setClause );
+		return freeze( setClause );
+	}
+
+	@Override
+	public Object visitAssignment(SqmAssignment assignment) {
+		expression( assignment.getValue() );
+		return assignment;
+	}
+
+	@Override
+	public Object visitInListPredicate(InListSqmPredicate predicate) {
+		super.visitInListPredicate( predicate );
+		return freeze( predicate );
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// expressions whose implied type could otherwise still be changed
+
+	@Override
+	public Object visitPositionalParameterExpression(PositionalParameterSqmExpression expression) {
+		return freeze( expression );
+	}
+
+	@Override
+	public Object visitNamedParameterExpression(NamedParameterSqmExpression expression) {
+		return freeze( expression );
+	}
+
+	@Override
+	public Object visitUnaryOperationExpression(UnaryOperationSqmExpression expression) {
+		expression( expression.getOperand() );
+		return freeze( expression );
+	}
+
+	@Override
+	public Object visitLiteralStringExpression(LiteralStringSqmExpression expression) {
+		return freeze( expression );
+	}
+
+	@Override
+	public Object visitLiteralCharacterExpression(LiteralCharacterSqmExpression expression) {
+		return freeze( expression );
+	}
+
+	@Override
+	public Object visitLiteralDoubleExpression(LiteralDoubleSqmExpression expression) {
+		return freeze( expression );
+	}
+
+	@Override
+	public Object visitLiteralIntegerExpression(LiteralIntegerSqmExpression expression) {
+		return freeze( expression );
+	}
+
+	@Override
+	public Object visitLiteralBigIntegerExpression(LiteralBigIntegerSqmExpression expression) {
+		return freeze( expression );
+	}
+
+	@Override
+	public Object visitLiteralBigDecimalExpression(LiteralBigDecimalSqmExpression expression) {
+		return freeze( expression );
+	}
+
+	@Override
+	public Object visitLiteralFloatExpression(LiteralFloatSqmExpression expression) {
+		return freeze( expression );
+	}
+
+	@Override
+	public Object visitLiteralLongExpression(LiteralLongSqmExpression expression) {
+		return freeze( expression );
+	}
+
+	@Override
+	public Object visitLiteralTrueExpression(LiteralTrueSqmExpression expression) {
+		return freeze( expression );
+	}
+
+	@Override
+	public Object visitLiteralFalseExpression(LiteralFalseSqmExpression expression) {
+		return freeze( expression );
+	}
+
+	@Override
+	public Object visitLiteralNullExpression(LiteralNullSqmExpression expression) {
+		return freeze( expression );
+	}
+
+	@Override
+	public Object visitConstantEnumExpression(ConstantEnumSqmExpression expression) {
+		return freeze( expression );
+	}
+
+	@Override
+	public Object visitConstantFieldExpression(ConstantFieldSqmExpression expression) {
+		return freeze( expression );
+	}
+
+	@Override
+	public Object visitSimpleCaseExpression(CaseSimpleSqmExpression expression) {
+		expression( expression.getFixture() );
+		for ( CaseSimpleSqmExpression.WhenFragment whenFragment : expression.getWhenFragments() ) {
+			expression( whenFragment.getCheckValue() );
+			expression( whenFragment.getResult() );
+		}
+		expression( expression.getOtherwise() );
+		return freeze( expression );
+	}
+
+	@Override
+	public Object visitSearchedCaseExpression(CaseSearchedSqmExpression expression) {
+		for ( CaseSearchedSqmExpression.WhenFragment whenFragment : expression.getWhenFragments() ) {
+			whenFragment.getPredicate().accept( this );
+			expression( whenFragment.getResult() );
+		}
+		expression( expression.getOtherwise() );
+		return freeze( expression );
+	}
+
+	@Override
+	public Object visitCoalesceExpression(CoalesceSqmExpression expression) {
+		expressions( expression.getValues() );
+		return freeze( expression );
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// expressions which are immutable themselves, but may contain freezable ones
+
+	@Override
+	public Object visitBinaryArithmeticExpression(BinaryArithmeticSqmExpression expression) {
+		expression( expression.getLeftHandOperand() );
+		expression( expression.getRightHandOperand() );
+		return expression;
+	}
+
+	@Override
+	public Object visitConcatExpression(ConcatSqmExpression expression) {
+		expression( expression.getLeftHandOperand() );
+		expression( expression.getRightHandOperand() );
+		return expression;
+	}
+
+	@Override
+	public Object visitConcatFunction(ConcatFunctionSqmExpression expression) {
+		expressions( expression.getExpressions() );
+		return expression;
+	}
+
+	@Override
+	public Object visitGenericFunction(GenericFunctionSqmExpression expression) {
+		expressions( expression.getArguments() );
+		return expression;
+	}
+
+	@Override
+	public Object visitCastFunction(CastFunctionSqmExpression expression) {
+		expression( expression.getExpressionToCast() );
+		return expression;
+	}
+
+	private Object aggregate(AbstractAggregateFunctionSqmExpression expression) {
+		expression( expression.getArgument() );
+		return expression;
+	}
+
+	@Override
+	public Object visitAvgFunction(AvgFunctionSqmExpression expression) {
+		return aggregate( expression );
+	}
+
+	@Override
+	public Object visitCountFunction(CountFunctionSqmExpression expression) {
+		return aggregate( expression );
+	}
+
+	@Override
+	public Object visitMaxFunction(MaxFunctionSqmExpression expression) {
+		return aggregate( expression );
+	}
+
+	@Override
+	public Object visitMinFunction(MinFunctionSqmExpression expression) {
+		return aggregate( expression );
+	}
+
+	@Override
+	public Object visitSumFunction(SumFunctionSqmExpression expression) {
+		return aggregate( expression );
+	}
+
+	@Override
+	public Object visitNullifExpression(NullifSqmExpression expression) {
+		expression( expression.getFirstArgument() );
+		expression( expression.getSecondArgument() );
+		return expression;
+	}
+
+	@Override
+	public Object visitSubstringFunction(SubstringFunctionSqmExpression expression) {
+		expression( expression.getSource() );
+		expression( expression.getStartPosition() );
+		expression( expression.getLength() );
+		return expression;
+	}
+
+	@Override
+	public Object visitTrimFunction(TrimFunctionSqmExpression expression) {
+		expression( expression.getTrimCharacter() );
+		expression( expression.getSource() );
+		return expression;
+	}
+
+	@Override
+	public Object visitLowerFunction(LowerFunctionSqmExpression expression) {
+		expression( expression.getExpression() );
+		return expression;
+	}
+
+	@Override
+	public Object visitUpperFunction(UpperFunctionSqmExpression expression) {
+		expression( expression.getExpression() );
+		return expression;
+	}
+
+	@Override
+	public Object visitSubQueryExpression(SubQuerySqmExpression expression) {
+		visitQuerySpec( expression.getQuerySpec() );
+		return expression;
+	}
+}
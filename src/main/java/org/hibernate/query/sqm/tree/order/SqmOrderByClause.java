@@ -10,18 +10,22 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import org.hibernate.query.sqm.tree.SqmFreezable;
 import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
 
 /**
  * @author Steve Ebersole
  */
-public class SqmOrderByClause {
+public class SqmOrderByClause implements SqmFreezable {
 	private List<SqmSortSpecification> sortSpecifications;
+	private boolean frozen;
 
 	public SqmOrderByClause() {
 	}
 
 	public SqmOrderByClause addSortSpecification(SqmSortSpecification sortSpecification) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		if ( sortSpecifications == null ) {
 			sortSpecifications = new ArrayList<SqmSortSpecification>();
 		}
@@ -38,8 +42,24 @@ public class SqmOrderByClause {
 		if ( sortSpecifications == null ) {
 			return Collections.emptyList();
 		}
+		else if ( frozen ) {
+			return sortSpecifications;
+		}
 		else {
 			return Collections.unmodifiableList( sortSpecifications );
 		}
 	}
+
+	@Override
+	public void freeze() {
+		if ( !frozen ) {
+			sortSpecifications = SqmTreeFreezer.compact( sortSpecifications );
+			frozen = true;
+		}
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
 }
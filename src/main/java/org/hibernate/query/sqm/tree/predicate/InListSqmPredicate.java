@@ -11,14 +11,17 @@ import java.util.List;
 
 import org.hibernate.internal.util.collections.ArrayHelper;
 import org.hibernate.query.sqm.consume.spi.SemanticQueryWalker;
+import org.hibernate.query.sqm.tree.SqmFreezable;
 import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
 
 /**
  * @author Steve Ebersole
  */
-public class InListSqmPredicate extends AbstractNegatableSqmPredicate implements InSqmPredicate {
+public class InListSqmPredicate extends AbstractNegatableSqmPredicate implements InSqmPredicate, SqmFreezable {
 	private final SqmExpression testExpression;
-	private final List<SqmExpression> listExpressions;
+	private List<SqmExpression> listExpressions;
+	private boolean frozen;
 
 	public InListSqmPredicate(SqmExpression testExpression) {
 		this( testExpression, new ArrayList<>() );
@@ -53,9 +56,23 @@ public class InListSqmPredicate extends AbstractNegatableSqmPredicate implements
 	}
 
 	public void addExpression(SqmExpression expression) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		listExpressions.add( expression );
 	}
 
+	@Override
+	public void freeze() {
+		if ( !frozen ) {
+			listExpressions = SqmTreeFreezer.compact( listExpressions );
+			frozen = true;
+		}
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
+
 	@Override
 	public <T> T accept(SemanticQueryWalker<T> walker) {
 		return walker.visitInListPredicate( this );
@@ -0,0 +1,104 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.tree.predicate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.query.sqm.consume.spi.SemanticQueryWalker;
+
+/**
+ * A flat conjunction (AND) or disjunction (OR) of any number of predicates.
+ * <p/>
+ * The producers build one of these in place of the left-deep chain of binary
+ * {@link AndSqmPredicate}/{@link OrSqmPredicate} nodes they would otherwise build for
+ * 3 or more operands (see {@link #junction}), which keeps both the number of nodes
+ * and the depth of the tree independent of the number of operands.
+ */
+public class JunctionSqmPredicate implements SqmPredicate {
+	public enum Nature {
+		CONJUNCTION,
+		DISJUNCTION
+	}
+
+	/**
+	 * Build the predicate combining the given predicates : the predicate itself if there
+	 * is just one, a binary {@link AndSqmPredicate}/{@link OrSqmPredicate} for two and a
+	 * JunctionSqmPredicate for more.  Operands which are junctions of the same nature are
+	 * flattened into the result.
+	 *
+	 * @param nature Whether to build a conjunction or a disjunction
+	 * @param predicates The predicates to combine, in order
+	 *
+	 * @return The combined predicate
+	 */
+	public static SqmPredicate junction(Nature nature, List<SqmPredicate> predicates) {
+		if ( predicates.isEmpty() ) {
+			throw new IllegalArgumentException( "Expecting at least one predicate to form a junction" );
+		}
+
+		final List<SqmPredicate> operands = new ArrayList<>( predicates.size() );
+		for ( SqmPredicate predicate : predicates ) {
+			flatten( nature, predicate, operands );
+		}
+
+		if ( operands.size() == 1 ) {
+			return operands.get( 0 );
+		}
+		else if ( operands.size() == 2 ) {
+			return nature == Nature.CONJUNCTION
+					? new AndSqmPredicate( operands.get( 0 ), operands.get( 1 ) )
+					: new OrSqmPredicate( operands.get( 0 ), operands.get( 1 ) );
+		}
+		else {
+			return new JunctionSqmPredicate( nature, operands );
+		}
+	}
+
+	private static void flatten(Nature nature, SqmPredicate predicate, List<SqmPredicate> operands) {
+		// operands were themselves built by #junction, so one level is enough
+		if ( predicate instanceof JunctionSqmPredicate && ( (JunctionSqmPredicate) predicate ).getNature() == nature ) {
+			operands.addAll( ( (JunctionSqmPredicate) predicate ).getPredicates() );
+		}
+		else if ( predicate instanceof AndSqmPredicate && nature == Nature.CONJUNCTION ) {
+			operands.add( ( (AndSqmPredicate) predicate ).getLeftHandPredicate() );
+			operands.add( ( (AndSqmPredicate) predicate ).getRightHandPredicate() );
+		}
+		else if ( predicate instanceof OrSqmPredicate && nature == Nature.DISJUNCTION ) {
+			operands.add( ( (OrSqmPredicate) predicate ).getLeftHandPredicate() );
+			operands.add( ( (OrSqmPredicate) predicate ).getRightHandPredicate() );
+		}
+		else {
+			operands.add( predicate );
+		}
+	}
+
+	private final Nature nature;
+	private final List<SqmPredicate> predicates;
+
+	public JunctionSqmPredicate(Nature nature, List<SqmPredicate> predicates) {
+		this.nature = nature;
+		this.predicates = Collections.unmodifiableList(
+				Arrays.asList( predicates.toArray( new SqmPredicate[ predicates.size() ] ) )
+		);
+	}
+
+	public Nature getNature() {
+		return nature;
+	}
+
+	public List<SqmPredicate> getPredicates() {
+		return predicates;
+	}
+
+	@Override
+	public <T> T accept(SemanticQueryWalker<T> walker) {
+		return walker.visitJunctionPredicate( this );
+	}
+}
@@ -0,0 +1,328 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.tree.predicate;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.persister.queryable.spi.BasicValuedExpressableType;
+import org.hibernate.query.sqm.consume.spi.SemanticQueryWalker;
+import org.hibernate.query.sqm.tree.expression.LiteralIntegerSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralLongSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralStringSqmExpression;
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
+
+/**
+ * Compact form of an IN-list predicate whose list is made up entirely of literals of the
+ * same kind (integer, long or string), e.g. {@code where p.id in (1, 2, 3, ...)}.
+ * <p/>
+ * Rather than one literal expression node per value (see {@link InListSqmPredicate}) the
+ * values are held in a single primitive (or String) array, sorted and de-duplicated, which
+ * also allows a binary-search {@link #contains} check.  The order of the values as written
+ * in the query is therefore not retained; it has no meaning for an IN predicate anyway.
+ * <p/>
+ * The producers only use this form for lists of at least {@link #MIN_SIZE} values.
+ * Instances are immutable, aside from {@link #negate()} during building.
+ */
+public class LiteralInListSqmPredicate extends AbstractNegatableSqmPredicate implements InSqmPredicate {
+	/**
+	 * Lists with fewer values than this are kept as {@link InListSqmPredicate}
+	 */
+	public static final int MIN_SIZE = 32;
+
+	public enum ValueKind {
+		INTEGER,
+		LONG,
+		STRING
+	}
+
+	/**
+	 * Build the compact form of the IN predicate over the given integer values
+	 *
+	 * @param testExpression The expression tested for membership
+	 * @param values The values; the array is sorted in place
+	 * @param count The number of values in {@code values} to use
+	 * @param valueType The type of the values
+	 * @param negated Is this a NOT IN?
+	 *
+	 * @return The predicate
+	 */
+	public static LiteralInListSqmPredicate forIntegers(
+			SqmExpression testExpression,
+			int[] values,
+			int count,
+			BasicValuedExpressableType valueType,
+			boolean negated) {
+		Arrays.sort( values, 0, count );
+		int unique = 0;
+		for ( int i = 0; i < count; i++ ) {
+			if ( unique == 0 || values[i] != values[unique - 1] ) {
+				values[unique++] = values[i];
+			}
+		}
+		return new LiteralInListSqmPredicate(
+				testExpression,
+				ValueKind.INTEGER,
+				valueType,
+				Arrays.copyOf( values, unique ),
+				null,
+				null,
+				negated
+		);
+	}
+
+	/**
+	 * Build the compact form of the IN predicate over the given long values
+	 *
+	 * @param testExpression The expression tested for membership
+	 * @param values The values; the array is sorted in place
+	 * @param count The number of values in {@code values} to use
+	 * @param valueType The type of the values
+	 * @param negated Is this a NOT IN?
+	 *
+	 * @return The predicate
+	 */
+	public static LiteralInListSqmPredicate forLongs(
+			SqmExpression testExpression,
+			long[] values,
+			int count,
+			BasicValuedExpressableType valueType,
+			boolean negated) {
+		Arrays.sort( values, 0, count );
+		int unique = 0;
+		for ( int i = 0; i < count; i++ ) {
+			if ( unique == 0 || values[i] != values[unique - 1] ) {
+				values[unique++] = values[i];
+			}
+		}
+		return new LiteralInListSqmPredicate(
+				testExpression,
+				ValueKind.LONG,
+				valueType,
+				null,
+				Arrays.copyOf( values, unique ),
+				null,
+				negated
+		);
+	}
+
+	/**
+	 * Build the compact form of the IN predicate over the given String values
+	 *
+	 * @param testExpression The expression tested for membership
+	 * @param values The values; the array is sorted in place
+	 * @param count The number of values in {@code values} to use
+	 * @param valueType The type of the values
+	 * @param negated Is this a NOT IN?
+	 *
+	 * @return The predicate
+	 */
+	public static LiteralInListSqmPredicate forStrings(
+			SqmExpression testExpression,
+			String[] values,
+			int count,
+			BasicValuedExpressableType valueType,
+			boolean negated) {
+		Arrays.sort( values, 0, count );
+		int unique = 0;
+		for ( int i = 0; i < count; i++ ) {
+			if ( unique == 0 || !values[i].equals( values[unique - 1] ) ) {
+				values[unique++] = values[i];
+			}
+		}
+		return new LiteralInListSqmPredicate(
+				testExpression,
+				ValueKind.STRING,
+				valueType,
+				null,
+				null,
+				Arrays.copyOf( values, unique ),
+				negated
+		);
+	}
+
+	private final SqmExpression testExpression;
+	private final ValueKind valueKind;
+	private final BasicValuedExpressableType valueType;
+
+	// exactly one of these is non-null, depending on valueKind
+	private final int[] intValues;
+	private final long[] longValues;
+	private final String[] stringValues;
+
+	private LiteralInListSqmPredicate(
+			SqmExpression testExpression,
+			ValueKind valueKind,
+			BasicValuedExpressableType valueType,
+			int[] intValues,
+			long[] longValues,
+			String[] stringValues,
+			boolean negated) {
+		super( negated );
+		this.testExpression = testExpression;
+		this.valueKind = valueKind;
+		this.valueType = valueType;
+		this.intValues = intValues;
+		this.longValues = longValues;
+		this.stringValues = stringValues;
+	}
+
+	/**
+	 * Create a copy of the given predicate testing a different expression.  The (immutable)
+	 * values are shared with the original.
+	 *
+	 * @param testExpression The expression tested for membership
+	 * @param original The predicate to copy
+	 */
+	public LiteralInListSqmPredicate(SqmExpression testExpression, LiteralInListSqmPredicate original) {
+		this(
+				testExpression,
+				original.valueKind,
+				original.valueType,
+				original.intValues,
+				original.longValues,
+				original.stringValues,
+				original.isNegated()
+		);
+	}
+
+	@Override
+	public SqmExpression getTestExpression() {
+		return testExpression;
+	}
+
+	public ValueKind getValueKind() {
+		return valueKind;
+	}
+
+	/**
+	 * The type of the values (as implied by the test expression where possible)
+	 *
+	 * @return The value type
+	 */
+	public BasicValuedExpressableType getValueType() {
+		return valueType;
+	}
+
+	/**
+	 * The number of (distinct) values
+	 *
+	 * @return The number of values
+	 */
+	public int size() {
+		switch ( valueKind ) {
+			case INTEGER: {
+				return intValues.length;
+			}
+			case LONG: {
+				return longValues.length;
+			}
+			default: {
+				return stringValues.length;
+			}
+		}
+	}
+
+	/**
+	 * The value at the given index, in ascending order
+	 *
+	 * @param index The index
+	 *
+	 * @return The (boxed) value
+	 */
+	public Object getValue(int index) {
+		switch ( valueKind ) {
+			case INTEGER: {
+				return intValues[index];
+			}
+			case LONG: {
+				return longValues[index];
+			}
+			default: {
+				return stringValues[index];
+			}
+		}
+	}
+
+	/**
+	 * A view of the values, in ascending order.  Values are boxed on access.
+	 *
+	 * @return The values
+	 */
+	public List<Object> getValues() {
+		return new AbstractList<Object>() {
+			@Override
+			public Object get(int index) {
+				return getValue( index );
+			}
+
+			@Override
+			public int size() {
+				return LiteralInListSqmPredicate.this.size();
+			}
+		};
+	}
+
+	/**
+	 * Is the given value one of the values of the list?
+	 *
+	 * @param value The value to check
+	 *
+	 * @return {@code true} if the list contains the value
+	 */
+	public boolean contains(Object value) {
+		if ( value == null ) {
+			return false;
+		}
+
+		switch ( valueKind ) {
+			case INTEGER: {
+				return value instanceof Integer && Arrays.binarySearch( intValues, (Integer) value ) >= 0;
+			}
+			case LONG: {
+				return value instanceof Long && Arrays.binarySearch( longValues, (Long) value ) >= 0;
+			}
+			default: {
+				return value instanceof String && Arrays.binarySearch( stringValues, value ) >= 0;
+			}
+		}
+	}
+
+	/**
+	 * Build the literal expressions corresponding to the values, for consumers which need
+	 * the list in its expanded {@link InListSqmPredicate} form.
+	 *
+	 * @return The literal expressions, in ascending order of value
+	 */
+	public List<SqmExpression> toListExpressions() {
+		final int size = size();
+		final List<SqmExpression> expressions = new ArrayList<>( size );
+		for ( int i = 0; i < size; i++ ) {
+			switch ( valueKind ) {
+				case INTEGER: {
+					expressions.add( new LiteralIntegerSqmExpression( intValues[i], valueType ) );
+					break;
+				}
+				case LONG: {
+					expressions.add( new LiteralLongSqmExpression( longValues[i], valueType ) );
+					break;
+				}
+				default: {
+					expressions.add( new LiteralStringSqmExpression( stringValues[i], valueType ) );
+				}
+			}
+		}
+		return expressions;
+	}
+
+	@Override
+	public <T> T accept(SemanticQueryWalker<T> walker) {
+		return walker.visitLiteralInListPredicate( this );
+	}
+}
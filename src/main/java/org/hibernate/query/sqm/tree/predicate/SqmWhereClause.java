@@ -6,11 +6,15 @@
  */
 package org.hibernate.query.sqm.tree.predicate;
 
+import org.hibernate.query.sqm.tree.SqmFreezable;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
+
 /**
  * @author Steve Ebersole
  */
-public class SqmWhereClause {
+public class SqmWhereClause implements SqmFreezable {
 	private SqmPredicate predicate;
+	private boolean frozen;
 
 	public SqmWhereClause() {
 	}
@@ -24,9 +28,20 @@ public class SqmWhereClause {
 	}
 
 	public void setPredicate(SqmPredicate predicate) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		this.predicate = predicate;
 	}
 
+	@Override
+	public void freeze() {
+		frozen = true;
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
+
 	@Override
 	public String toString() {
 		return "where " + predicate;
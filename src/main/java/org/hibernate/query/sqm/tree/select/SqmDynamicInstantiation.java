@@ -13,7 +13,9 @@ import java.util.Map;
 import org.hibernate.query.sqm.consume.spi.SemanticQueryWalker;
 import org.hibernate.query.sqm.domain.SqmExpressableType;
 import org.hibernate.query.sqm.domain.type.SqmDomainType;
+import org.hibernate.query.sqm.tree.SqmFreezable;
 import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
 
 import org.jboss.logging.Logger;
 
@@ -27,7 +29,7 @@ import static org.hibernate.query.sqm.tree.select.SqmDynamicInstantiationTarget.
  * @author Steve Ebersole
  */
 public class SqmDynamicInstantiation
-		implements SqmExpression, SqmAliasedExpressionContainer<SqmDynamicInstantiationArgument> {
+		implements SqmExpression, SqmAliasedExpressionContainer<SqmDynamicInstantiationArgument>, SqmFreezable {
 	private static final Logger log = Logger.getLogger( SqmDynamicInstantiation.class );
 
 	public static SqmDynamicInstantiation forClassInstantiation(Class targetJavaType) {
@@ -46,6 +48,7 @@ public class SqmDynamicInstantiation
 
 	private final SqmDynamicInstantiationTarget instantiationTarget;
 	private List<SqmDynamicInstantiationArgument> arguments;
+	private boolean frozen;
 
 	private SqmDynamicInstantiation(SqmDynamicInstantiationTarget instantiationTarget) {
 		this.instantiationTarget = instantiationTarget;
@@ -75,6 +78,7 @@ public class SqmDynamicInstantiation
 	}
 
 	public void addArgument(SqmDynamicInstantiationArgument argument) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		if ( instantiationTarget.getNature() == LIST ) {
 			// really should not have an alias...
 			if ( argument.getAlias() != null ) {
@@ -115,6 +119,21 @@ public class SqmDynamicInstantiation
 		addArgument( aliasExpression );
 	}
 
+	@Override
+	public void freeze() {
+		if ( !frozen ) {
+			if ( arguments != null ) {
+				arguments = SqmTreeFreezer.compact( arguments );
+			}
+			frozen = true;
+		}
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
+
 	@Override
 	public <T> T accept(SemanticQueryWalker<T> walker) {
 		return walker.visitDynamicInstantiation( this );
@@ -11,16 +11,19 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import org.hibernate.query.sqm.tree.SqmFreezable;
 import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
 
 /**
  * The semantic select clause.  Defined as a list of individual selections.
  *
  * @author Steve Ebersole
  */
-public class SqmSelectClause implements SqmAliasedExpressionContainer<SqmSelection> {
+public class SqmSelectClause implements SqmAliasedExpressionContainer<SqmSelection>, SqmFreezable {
 	private final boolean distinct;
 	private List<SqmSelection> selections;
+	private boolean frozen;
 
 	public SqmSelectClause(boolean distinct) {
 		this.distinct = distinct;
@@ -43,12 +46,16 @@ public class SqmSelectClause implements SqmAliasedExpressionContainer<SqmSelecti
 		if ( selections == null ) {
 			return Collections.emptyList();
 		}
+		else if ( frozen ) {
+			return selections;
+		}
 		else {
 			return Collections.unmodifiableList( selections );
 		}
 	}
 
 	public void addSelection(SqmSelection selection) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		if ( selections == null ) {
 			selections = new ArrayList<>();
 		}
@@ -66,4 +73,17 @@ public class SqmSelectClause implements SqmAliasedExpressionContainer<SqmSelecti
 	public void add(SqmSelection aliasExpression) {
 		addSelection( aliasExpression );
 	}
+
+	@Override
+	public void freeze() {
+		if ( !frozen ) {
+			selections = SqmTreeFreezer.compact( selections );
+			frozen = true;
+		}
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
 }
@@ -0,0 +1,33 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.sqm.tree.select;
+
+/**
+ * Classifies a selection with regard to the grouping of its query, as determined on first
+ * access (see {@link org.hibernate.query.sqm.tree.SqmQuerySpec#getSelectionClassifications()}).
+ */
+public enum SqmSelectionClassification {
+	/**
+	 * The selection contains aggregate functions; any state it references outside of
+	 * them is grouped
+	 */
+	AGGREGATE,
+	/**
+	 * The selection only references grouped state (a grouping key, or an expression over
+	 * grouping keys), and no aggregate
+	 */
+	GROUPING_KEY,
+	/**
+	 * The selection references no state at all (literals, parameters, constants)
+	 */
+	CONSTANT,
+	/**
+	 * The selection references state which is neither grouped nor aggregated : a per-row
+	 * value, as in any query which does not group
+	 */
+	UNGROUPED
+}
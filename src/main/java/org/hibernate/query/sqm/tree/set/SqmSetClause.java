@@ -10,24 +10,41 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import org.hibernate.query.sqm.tree.SqmFreezable;
 import org.hibernate.query.sqm.tree.expression.domain.SqmSingularAttributeReference;
 import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.query.sqm.tree.internal.SqmTreeFreezer;
 
 /**
  * @author Steve Ebersole
  */
-public class SqmSetClause {
+public class SqmSetClause implements SqmFreezable {
 	private List<SqmAssignment> assignments = new ArrayList<>();
+	private boolean frozen;
 
 	public List<SqmAssignment> getAssignments() {
-		return Collections.unmodifiableList( assignments );
+		return frozen ? assignments : Collections.unmodifiableList( assignments );
 	}
 
 	public void addAssignment(SqmAssignment assignment) {
+		SqmTreeFreezer.checkNotFrozen( this );
 		assignments.add( assignment );
 	}
 
 	public void addAssignment(SqmSingularAttributeReference stateField, SqmExpression value) {
 		addAssignment( new SqmAssignment( stateField, value ) );
 	}
+
+	@Override
+	public void freeze() {
+		if ( !frozen ) {
+			assignments = SqmTreeFreezer.compact( assignments );
+			frozen = true;
+		}
+	}
+
+	@Override
+	public boolean isFrozen() {
+		return frozen;
+	}
 }
@@ -0,0 +1,108 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.test;
+
+import java.util.NoSuchElementException;
+
+import org.hibernate.internal.util.collections.Stack;
+import org.hibernate.internal.util.collections.StackDepthPool;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the {@link Stack} and its {@link StackDepthPool}
+ */
+public class StackTest {
+	@Test
+	public void testGrowth() {
+		final Stack<Integer> stack = new Stack<>( 1 );
+		for ( int i = 0; i < 100; i++ ) {
+			stack.push( i );
+			assertThat( stack.getCurrent(), is( i ) );
+			assertThat( stack.depth(), is( i + 1 ) );
+		}
+
+		for ( int i = 99; i >= 0; i-- ) {
+			assertThat( stack.pop(), is( i ) );
+		}
+		assertThat( stack.isEmpty(), is( true ) );
+	}
+
+	@Test
+	public void testPopToEmpty() {
+		final Stack<String> stack = new Stack<>();
+		stack.push( "a" );
+		stack.push( "b" );
+
+		assertThat( stack.pop(), is( "b" ) );
+		assertThat( stack.pop(), is( "a" ) );
+		assertThat( stack.isEmpty(), is( true ) );
+		assertThat( stack.depth(), is( 0 ) );
+		assertThat( stack.getCurrent(), nullValue() );
+
+		try {
+			stack.pop();
+			fail( "Expecting NoSuchElementException" );
+		}
+		catch (NoSuchElementException expected) {
+		}
+
+		// still usable
+		stack.push( "c" );
+		assertThat( stack.getCurrent(), is( "c" ) );
+	}
+
+	@Test
+	public void testPeek() {
+		final Stack<String> stack = new Stack<>();
+		assertThat( stack.getCurrent(), nullValue() );
+
+		stack.push( "a" );
+		stack.push( "b" );
+		assertThat( stack.getCurrent(), is( "b" ) );
+		assertThat( stack.getCurrent(), is( "b" ) );
+		assertThat( stack.depth(), is( 2 ) );
+
+		stack.clear();
+		assertThat( stack.isEmpty(), is( true ) );
+		assertThat( stack.getCurrent(), nullValue() );
+	}
+
+	@Test
+	public void testDepthPool() {
+		final StackDepthPool<StringBuilder,String> pool = new StackDepthPool<StringBuilder,String>( 1 ) {
+			@Override
+			protected StringBuilder create(String context) {
+				return new StringBuilder( context );
+			}
+
+			@Override
+			protected void reset(StringBuilder object, String context) {
+				object.setLength( 0 );
+				object.append( context );
+			}
+		};
+
+		final StringBuilder first = pool.acquire( 0, "a" );
+		final StringBuilder second = pool.acquire( 1, "b" );
+		final StringBuilder deep = pool.acquire( 10, "c" );
+		assertThat( second, not( sameInstance( first ) ) );
+		assertThat( deep.toString(), is( "c" ) );
+
+		// the object of a depth is reused, reset with the new context
+		assertThat( pool.acquire( 1, "d" ), sameInstance( second ) );
+		assertThat( second.toString(), is( "d" ) );
+		assertThat( pool.acquire( 0, "e" ), sameInstance( first ) );
+	}
+}
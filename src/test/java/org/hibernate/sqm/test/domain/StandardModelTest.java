@@ -12,7 +12,6 @@ import org.hibernate.query.sqm.produce.spi.ParsingContext;
 import org.hibernate.query.sqm.produce.spi.criteria.JpaCriteriaQuery;
 import org.hibernate.query.sqm.produce.internal.hql.HqlParseTreeBuilder;
 import org.hibernate.query.sqm.produce.internal.hql.SemanticQueryBuilder;
-import org.hibernate.query.sqm.hql.internal.antlr.HqlParser;
 import org.hibernate.query.sqm.tree.SqmSelectStatement;
 import org.hibernate.query.sqm.tree.SqmStatement;
 import org.hibernate.sqm.test.ConsumerContextImpl;
@@ -58,10 +57,11 @@ public abstract class StandardModelTest {
 	}
 
 	protected SqmStatement interpret(String query) {
-		final HqlParser parser = HqlParseTreeBuilder.INSTANCE.parseHql( query );
-
 		final ParsingContext parsingContext = new ParsingContext( consumerContext );
-		return SemanticQueryBuilder.buildSemanticModel( parser.statement(), parsingContext );
+		return SemanticQueryBuilder.buildSemanticModel(
+				HqlParseTreeBuilder.INSTANCE.parseStatement( query ),
+				parsingContext
+		);
 	}
 
 	protected SqmStatement interpret(JpaCriteriaQuery queryCriteria) {
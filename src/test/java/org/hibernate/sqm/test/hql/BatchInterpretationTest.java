@@ -0,0 +1,137 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.test.hql;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.hibernate.query.sqm.SemanticException;
+import org.hibernate.query.sqm.produce.internal.SemanticQueryProducerImpl;
+import org.hibernate.query.sqm.produce.internal.SemanticQueryProducerOptions;
+import org.hibernate.query.sqm.produce.spi.BatchInterpretation;
+import org.hibernate.query.sqm.tree.SqmStatement;
+import org.hibernate.sqm.test.domain.StandardModelTest;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests of the interpretation of a batch of queries (see {@link SemanticQueryProducerImpl#interpretAll})
+ */
+public class BatchInterpretationTest extends StandardModelTest {
+	private static final String SEMANTIC_FAILURE = "select a.nickName from Person a where a.numberOfToes = ?0";
+	private static final String SYNTAX_FAILURE = "select from where = =";
+
+	private final ForkJoinPool pool = new ForkJoinPool( 4 );
+
+	@After
+	public void shutDownPool() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void testResultsFollowTheOrderOfTheQueries() {
+		final SemanticQueryProducerImpl producer = new SemanticQueryProducerImpl(
+				sessionFactory,
+				new SemanticQueryProducerOptions().applyInterpretationCacheSize( 100 )
+		);
+
+		final List<String> queries = new ArrayList<>();
+		for ( int i = 0; i < 20; i++ ) {
+			queries.add( "select p.nickName from Person p where p.numberOfToes > " + i );
+		}
+
+		final BatchInterpretation batch = producer.interpretAll( queries, pool );
+		assertThat( batch.hasFailures(), is( false ) );
+		assertThat( batch.getQueryCount(), is( 20 ) );
+		assertThat( new ArrayList<>( batch.getStatements().keySet() ), is( queries ) );
+
+		// each statement is the one of its own query (the interpretations are cached)
+		for ( String query : queries ) {
+			assertThat( query, producer.interpret( query ), sameInstance( batch.getStatements().get( query ) ) );
+		}
+	}
+
+	@Test
+	public void testDuplicateQueriesAreInterpretedOnce() {
+		final SemanticQueryProducerImpl producer = new SemanticQueryProducerImpl(
+				sessionFactory,
+				new SemanticQueryProducerOptions().applyInterpretationCacheSize( 100 )
+		);
+
+		final BatchInterpretation batch = producer.interpretAll(
+				Arrays.asList(
+						"select p from Person p",
+						"select p.nickName from Person p",
+						"select p from Person p",
+						SEMANTIC_FAILURE,
+						"select p.nickName from Person p",
+						SEMANTIC_FAILURE
+				),
+				pool
+		);
+
+		assertThat( batch.getQueryCount(), is( 3 ) );
+		assertThat(
+				new ArrayList<>( batch.getStatements().keySet() ),
+				is( Arrays.asList( "select p from Person p", "select p.nickName from Person p" ) )
+		);
+		assertThat( new ArrayList<>( batch.getFailures().keySet() ), is( Arrays.asList( SEMANTIC_FAILURE ) ) );
+		assertThat( producer.getHqlInterpretationCache().getMissCount(), is( 3L ) );
+		assertThat( producer.getHqlInterpretationCache().getHitCount(), is( 0L ) );
+	}
+
+	@Test
+	public void testFailuresAreIsolatedPerQuery() {
+		final SemanticQueryProducerImpl producer = new SemanticQueryProducerImpl(
+				sessionFactory,
+				new SemanticQueryProducerOptions().applyInterpretationCacheSize( 100 )
+		);
+
+		final List<String> queries = Arrays.asList(
+				"select p from Person p",
+				SEMANTIC_FAILURE,
+				"select p.nickName from Person p",
+				SYNTAX_FAILURE,
+				"select p.numberOfToes from Person p"
+		);
+		final BatchInterpretation batch = producer.interpretAll( queries, pool );
+
+		assertThat( batch.getQueryCount(), is( 5 ) );
+		assertThat(
+				new ArrayList<>( batch.getStatements().keySet() ),
+				is( Arrays.asList( queries.get( 0 ), queries.get( 2 ), queries.get( 4 ) ) )
+		);
+		for ( SqmStatement statement : batch.getStatements().values() ) {
+			assertThat( statement, notNullValue() );
+		}
+
+		assertThat( new ArrayList<>( batch.getFailures().keySet() ), is( Arrays.asList( SEMANTIC_FAILURE, SYNTAX_FAILURE ) ) );
+		assertThat( batch.getFailures().get( SEMANTIC_FAILURE ), instanceOf( SemanticException.class ) );
+		assertThat( batch.getFailures().get( SYNTAX_FAILURE ), notNullValue() );
+	}
+
+	@Test
+	public void testEmptyBatch() {
+		final SemanticQueryProducerImpl producer = new SemanticQueryProducerImpl(
+				sessionFactory,
+				new SemanticQueryProducerOptions().applyInterpretationCacheSize( 100 )
+		);
+
+		final BatchInterpretation batch = producer.interpretAll( new ArrayList<String>(), pool );
+		assertThat( batch.getQueryCount(), is( 0 ) );
+		assertThat( batch.hasFailures(), is( false ) );
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.test.hql;
+
+import java.util.Collections;
+
+import org.hibernate.query.sqm.consume.spi.ConstantFoldingPass;
+import org.hibernate.query.sqm.consume.spi.SqmRewritePipeline;
+import org.hibernate.query.sqm.tree.SqmSelectStatement;
+import org.hibernate.query.sqm.tree.expression.BinaryArithmeticSqmExpression;
+import org.hibernate.query.sqm.tree.expression.CaseSearchedSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralIntegerSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralLongSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralStringSqmExpression;
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.sqm.test.domain.StandardModelTest;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests of the {@link ConstantFoldingPass}
+ */
+public class ConstantFoldingTest extends StandardModelTest {
+	private final SqmRewritePipeline pipeline = new SqmRewritePipeline( Collections.singletonList( ConstantFoldingPass.INSTANCE ) );
+
+	@Test
+	public void testArithmetic() {
+		final SqmSelectStatement statement = interpretSelect( "select 1 + 2 + 3 from Person p" );
+		final SqmExpression original = selection( statement );
+
+		final SqmExpression folded = selection( fold( statement ) );
+		assertThat( folded, instanceOf( LiteralIntegerSqmExpression.class ) );
+		assertThat( ( (LiteralIntegerSqmExpression) folded ).getLiteralValue(), is( 6 ) );
+		assertThat( folded.getExpressionType(), sameInstance( original.getExpressionType() ) );
+	}
+
+	@Test
+	public void testArithmeticPromotion() {
+		final SqmExpression folded = selection( fold( interpretSelect( "select 2 * 3L from Person p" ) ) );
+		assertThat( folded, instanceOf( LiteralLongSqmExpression.class ) );
+		assertThat( ( (LiteralLongSqmExpression) folded ).getLiteralValue(), is( 6L ) );
+	}
+
+	@Test
+	public void testUnaryMinus() {
+		final SqmExpression folded = selection( fold( interpretSelect( "select -5 from Person p" ) ) );
+		assertThat( folded, instanceOf( LiteralIntegerSqmExpression.class ) );
+		assertThat( ( (LiteralIntegerSqmExpression) folded ).getLiteralValue(), is( -5 ) );
+	}
+
+	@Test
+	public void testConcatenation() {
+		final SqmExpression folded = selection( fold( interpretSelect( "select 'AB' || 'CD' from Person p" ) ) );
+		assertThat( folded, instanceOf( LiteralStringSqmExpression.class ) );
+		assertThat( ( (LiteralStringSqmExpression) folded ).getLiteralValue(), is( "ABCD" ) );
+	}
+
+	@Test
+	public void testSearchedCase() {
+		final SqmSelectStatement statement = interpretSelect(
+				"select case when 1 = 2 then 'one' when 2 = 2 then p.nickName else p.nickName end from Person p"
+		);
+		final CaseSearchedSqmExpression original = (CaseSearchedSqmExpression) selection( statement );
+
+		assertThat( selection( fold( statement ) ), sameInstance( original.getWhenFragments().get( 1 ).getResult() ) );
+	}
+
+	@Test
+	public void testSimpleCase() {
+		final SqmExpression folded = selection(
+				fold( interpretSelect( "select case 2 when 1 then 'one' when 2 then 'two' else 'other' end from Person p" ) )
+		);
+		assertThat( folded, instanceOf( LiteralStringSqmExpression.class ) );
+		assertThat( ( (LiteralStringSqmExpression) folded ).getLiteralValue(), is( "two" ) );
+	}
+
+	@Test
+	public void testCaseKeepsItsType() {
+		final SqmSelectStatement statement = interpretSelect( "select case when 1 = 1 then 1 else 2L end from Person p" );
+		final CaseSearchedSqmExpression original = (CaseSearchedSqmExpression) selection( statement );
+
+		// the literal of the chosen branch is converted to the type of the CASE (that of the ELSE branch)
+		final SqmExpression folded = selection( fold( statement ) );
+		assertThat( folded, instanceOf( LiteralLongSqmExpression.class ) );
+		assertThat( ( (LiteralLongSqmExpression) folded ).getLiteralValue(), is( 1L ) );
+		assertThat( folded.getExpressionType(), sameInstance( original.getOtherwise().getExpressionType() ) );
+	}
+
+	@Test
+	public void testJunctions() {
+		final SqmExpression conjunction = selection(
+				fold( interpretSelect( "select case when 1 = 1 and 2 = 2 and 3 = 3 then 'all' else 'other' end from Person p" ) )
+		);
+		assertThat( conjunction, instanceOf( LiteralStringSqmExpression.class ) );
+		assertThat( ( (LiteralStringSqmExpression) conjunction ).getLiteralValue(), is( "all" ) );
+
+		// FALSE decides a conjunction, whatever its other operands
+		final SqmExpression decided = selection(
+				fold( interpretSelect( "select case when p.numberOfToes = 2 and 1 = 2 and 3 = 3 then 'all' else 'other' end from Person p" ) )
+		);
+		assertThat( ( (LiteralStringSqmExpression) decided ).getLiteralValue(), is( "other" ) );
+
+		final SqmExpression disjunction = selection(
+				fold( interpretSelect( "select case when 1 = 2 or 2 = 3 or 3 = 3 then 'any' else 'other' end from Person p" ) )
+		);
+		assertThat( ( (LiteralStringSqmExpression) disjunction ).getLiteralValue(), is( "any" ) );
+	}
+
+	@Test
+	public void testExpressionsLeftToTheDatabase() {
+		final String[] queries = {
+				"select p.numberOfToes + 1 from Person p",
+				"select 7 / 2 from Person p",
+				"select 2147483647 + 1 from Person p",
+				"select 1 % 0 from Person p",
+				"select case when 'a' = 'b' then 'one' else 'other' end from Person p",
+				"select case when p.numberOfToes = 2 then 'one' else 'other' end from Person p",
+				"select case 2 when 2 then 'two' end from Person p",
+				// the chosen branch is not a literal, and is not of the type of the CASE
+				"select case when 1 = 1 then p.numberOfToes else 2L end from Person p",
+				// the chosen literal cannot be converted to the type of the CASE without loss
+				"select case when 1 = 1 then 1.5 else 2L end from Person p",
+				// the outcome of the junction depends on the row
+				"select case when 1 = 1 and p.numberOfToes = 2 and 3 = 3 then 'all' else 'other' end from Person p"
+		};
+
+		for ( String query : queries ) {
+			final SqmSelectStatement statement = interpretSelect( query );
+			assertThat( query, fold( statement ), sameInstance( statement ) );
+		}
+	}
+
+	private SqmSelectStatement fold(SqmSelectStatement statement) {
+		return (SqmSelectStatement) pipeline.rewrite( statement ).getStatement();
+	}
+
+	private static SqmExpression selection(SqmSelectStatement statement) {
+		return statement.getQuerySpec().getSelectClause().getSelections().get( 0 ).getExpression();
+	}
+}
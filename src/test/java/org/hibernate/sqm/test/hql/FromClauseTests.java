@@ -6,12 +6,22 @@
  */
 package org.hibernate.sqm.test.hql;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
 import org.hibernate.query.sqm.produce.spi.ImplicitAliasGenerator;
 import org.hibernate.query.sqm.tree.SqmJoinType;
+import org.hibernate.query.sqm.tree.SqmQuerySpec;
 import org.hibernate.query.sqm.tree.SqmSelectStatement;
 import org.hibernate.query.sqm.tree.from.SqmFromElementSpace;
 import org.hibernate.query.sqm.tree.from.SqmFromClause;
+import org.hibernate.query.sqm.tree.from.SqmJoin;
 import org.hibernate.query.sqm.tree.from.SqmRoot;
+import org.hibernate.query.sqm.tree.predicate.AndSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.InSubQuerySqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
+import org.hibernate.query.sqm.tree.select.SqmSelection;
 import org.hibernate.sqm.test.domain.StandardModelTest;
 
 import org.junit.Test;
@@ -81,6 +91,55 @@ public class FromClauseTests extends StandardModelTest {
 		assertTrue( ImplicitAliasGenerator.isImplicitAlias( space1.getRoot().getIdentificationVariable() ) );
 	}
 
+	@Test
+	public void testImplicitAliasesAreUnique() throws Exception {
+		final SqmSelectStatement selectStatement = interpretSelect( "select p.nickName from Person p, Person, Person" );
+
+		final SqmFromClause fromClause = selectStatement.getQuerySpec().getFromClause();
+		assertEquals( 3, fromClause.getFromElementSpaces().size() );
+		final SqmRoot root1 = fromClause.getFromElementSpaces().get( 0 ).getRoot();
+		final SqmRoot root2 = fromClause.getFromElementSpaces().get( 1 ).getRoot();
+		final SqmRoot root3 = fromClause.getFromElementSpaces().get( 2 ).getRoot();
+
+		assertThat( root1.getIdentificationVariable(), is( "p" ) );
+		assertTrue( ImplicitAliasGenerator.isImplicitAlias( root2.getIdentificationVariable() ) );
+		assertTrue( ImplicitAliasGenerator.isImplicitAlias( root3.getIdentificationVariable() ) );
+		assertThat( root2.getIdentificationVariable().equals( root3.getIdentificationVariable() ), is( false ) );
+
+		assertThat( root1.getUniqueId() == root2.getUniqueId(), is( false ) );
+		assertThat( root2.getUniqueId() == root3.getUniqueId(), is( false ) );
+	}
+
+	@Test
+	public void testImplicitAliasesDoNotCollideAcrossKinds() throws Exception {
+		// implicit join, implicit sub-query root and implicit selection aliases all in one query
+		final SqmSelectStatement selectStatement = interpretSelect(
+				"select p.nickName, p.numberOfToes from Person p where p.mate.nickName = 'x' and p.nickName in (select nickName from Person)"
+		);
+
+		final List<String> aliases = new ArrayList<>();
+		final SqmQuerySpec querySpec = selectStatement.getQuerySpec();
+		collectAliases( querySpec, aliases );
+		final SqmPredicate subQueryPredicate = ( (AndSqmPredicate) querySpec.getWhereClause().getPredicate() ).getRightHandPredicate();
+		collectAliases( ( (InSubQuerySqmPredicate) subQueryPredicate ).getSubQueryExpression().getQuerySpec(), aliases );
+
+		// p, the mate join, the sub-query root and the 3 selections
+		assertEquals( 6, aliases.size() );
+		assertEquals( aliases.toString(), aliases.size(), new HashSet<>( aliases ).size() );
+	}
+
+	private static void collectAliases(SqmQuerySpec querySpec, List<String> aliases) {
+		for ( SqmFromElementSpace space : querySpec.getFromClause().getFromElementSpaces() ) {
+			aliases.add( space.getRoot().getIdentificationVariable() );
+			for ( SqmJoin join : space.getJoins() ) {
+				aliases.add( join.getIdentificationVariable() );
+			}
+		}
+		for ( SqmSelection selection : querySpec.getSelectClause().getSelections() ) {
+			aliases.add( selection.getAlias() );
+		}
+	}
+
 	@Test
 	public void testCrossJoin() throws Exception {
 		final SqmSelectStatement selectStatement = interpretSelect( "select p.nickName from Person p cross join Person p2" );
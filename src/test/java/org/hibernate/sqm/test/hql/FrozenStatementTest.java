@@ -0,0 +1,74 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.test.hql;
+
+import org.hibernate.query.sqm.tree.SqmFreezable;
+import org.hibernate.query.sqm.tree.SqmQuerySpec;
+import org.hibernate.query.sqm.tree.SqmSelectStatement;
+import org.hibernate.query.sqm.tree.expression.LiteralIntegerSqmExpression;
+import org.hibernate.query.sqm.tree.expression.NamedParameterSqmExpression;
+import org.hibernate.query.sqm.tree.predicate.RelationalSqmPredicate;
+import org.hibernate.query.sqm.tree.select.SqmSelection;
+import org.hibernate.sqm.test.domain.StandardModelTest;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests that statements are frozen (immutable) once wrapped up
+ */
+public class FrozenStatementTest extends StandardModelTest {
+	@Test
+	public void testStatementIsFrozen() {
+		final SqmSelectStatement statement = interpretSelect(
+				"select p.nickName from Person p where p.numberOfToes = :toes order by p.nickName"
+		);
+		assertThat( ( (SqmFreezable) statement ).isFrozen(), is( true ) );
+
+		final SqmQuerySpec querySpec = statement.getQuerySpec();
+		assertThat( querySpec.getFromClause().isFrozen(), is( true ) );
+		assertThat( querySpec.getFromClause().getFromElementSpaces().get( 0 ).isFrozen(), is( true ) );
+		assertThat( querySpec.getSelectClause().isFrozen(), is( true ) );
+		assertThat( querySpec.getWhereClause().isFrozen(), is( true ) );
+		assertThat( querySpec.getOrderByClause().isFrozen(), is( true ) );
+
+		final RelationalSqmPredicate predicate = (RelationalSqmPredicate) querySpec.getWhereClause().getPredicate();
+		assertThat( ( (NamedParameterSqmExpression) predicate.getRightHandExpression() ).isFrozen(), is( true ) );
+		assertThat( statement.getQueryParameters().size(), is( 1 ) );
+	}
+
+	@Test
+	public void testMutationOfFrozenStatementIsRejected() {
+		final SqmSelectStatement statement = interpretSelect( "select p.nickName from Person p where p.numberOfToes = 1" );
+		final SqmQuerySpec querySpec = statement.getQuerySpec();
+
+		try {
+			querySpec.getSelectClause().addSelection( new SqmSelection( querySpec.getSelectClause().getSelections().get( 0 ).getExpression() ) );
+			fail( "Expecting frozen select clause to reject mutation" );
+		}
+		catch (IllegalStateException expected) {
+		}
+
+		try {
+			querySpec.getWhereClause().setPredicate( null );
+			fail( "Expecting frozen where clause to reject mutation" );
+		}
+		catch (IllegalStateException expected) {
+		}
+
+		final RelationalSqmPredicate predicate = (RelationalSqmPredicate) querySpec.getWhereClause().getPredicate();
+		try {
+			( (LiteralIntegerSqmExpression) predicate.getRightHandExpression() ).impliedType( null );
+			fail( "Expecting frozen literal to reject implied type" );
+		}
+		catch (IllegalStateException expected) {
+		}
+	}
+}
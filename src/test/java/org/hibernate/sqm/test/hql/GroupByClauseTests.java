@@ -0,0 +1,97 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.test.hql;
+
+import org.hibernate.query.sqm.tree.SqmQuerySpec;
+import org.hibernate.query.sqm.tree.SqmSelectStatement;
+import org.hibernate.query.sqm.tree.expression.domain.SqmSingularAttributeReference;
+import org.hibernate.query.sqm.tree.predicate.RelationalSqmPredicate;
+import org.hibernate.query.sqm.tree.select.SqmSelectionClassification;
+import org.hibernate.sqm.test.domain.StandardModelTest;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests of the group-by and having clauses, and of the classification of the selections
+ */
+public class GroupByClauseTests extends StandardModelTest {
+	@Test
+	public void testGroupByAndHaving() {
+		final SqmSelectStatement statement = interpretSelect(
+				"select p.nickName, count(p) from Person p group by p.nickName having count(p) > 1"
+		);
+		final SqmQuerySpec querySpec = statement.getQuerySpec();
+
+		assertThat( querySpec.getGroupByClause(), notNullValue() );
+		assertThat( querySpec.getGroupByClause().getGroupings().size(), is( 1 ) );
+		assertThat(
+				querySpec.getGroupByClause().getGroupings().get( 0 ).getExpression(),
+				instanceOf( SqmSingularAttributeReference.class )
+		);
+		// paths are resolved once per query, so the grouping and the selection share the reference
+		assertThat(
+				querySpec.getGroupByClause().getGroupings().get( 0 ).getExpression(),
+				sameInstance( querySpec.getSelectClause().getSelections().get( 0 ).getExpression() )
+		);
+
+		assertThat( querySpec.getHavingClause(), notNullValue() );
+		assertThat( querySpec.getHavingClause().getPredicate(), instanceOf( RelationalSqmPredicate.class ) );
+
+		assertThat( querySpec.isAggregated(), is( true ) );
+		assertThat( querySpec.getSelectionClassifications().get( 0 ), is( SqmSelectionClassification.GROUPING_KEY ) );
+		assertThat( querySpec.getSelectionClassifications().get( 1 ), is( SqmSelectionClassification.AGGREGATE ) );
+	}
+
+	@Test
+	public void testSelectionClassification() {
+		final SqmSelectStatement statement = interpretSelect(
+				"select upper(p.nickName), 1, max(p.numberOfToes) + 1, p.numberOfToes from Person p group by p.nickName"
+		);
+		final SqmQuerySpec querySpec = statement.getQuerySpec();
+
+		assertThat( querySpec.getSelectionClassifications().get( 0 ), is( SqmSelectionClassification.GROUPING_KEY ) );
+		assertThat( querySpec.getSelectionClassifications().get( 1 ), is( SqmSelectionClassification.CONSTANT ) );
+		assertThat( querySpec.getSelectionClassifications().get( 2 ), is( SqmSelectionClassification.AGGREGATE ) );
+		assertThat( querySpec.getSelectionClassifications().get( 3 ), is( SqmSelectionClassification.UNGROUPED ) );
+
+		// expression grouping keys are matched structurally, as each clause builds its own expression
+		final SqmQuerySpec expressionGrouped = interpretSelect(
+				"select upper(p.nickName), count(p), upper(p2.nickName) from Person p, Person p2 group by upper(p.nickName)"
+		).getQuerySpec();
+
+		assertThat( expressionGrouped.getSelectionClassifications().get( 0 ), is( SqmSelectionClassification.GROUPING_KEY ) );
+		assertThat( expressionGrouped.getSelectionClassifications().get( 1 ), is( SqmSelectionClassification.AGGREGATE ) );
+		assertThat( expressionGrouped.getSelectionClassifications().get( 2 ), is( SqmSelectionClassification.UNGROUPED ) );
+	}
+
+	@Test
+	public void testNoGrouping() {
+		SqmQuerySpec querySpec = interpretSelect( "select p.nickName from Person p" ).getQuerySpec();
+		assertThat( querySpec.getGroupByClause(), nullValue() );
+		assertThat( querySpec.getHavingClause(), nullValue() );
+		assertThat( querySpec.isAggregated(), is( false ) );
+		assertThat( querySpec.getSelectionClassifications().get( 0 ), is( SqmSelectionClassification.UNGROUPED ) );
+
+		querySpec = interpretSelect( "select count(p) from Person p" ).getQuerySpec();
+		assertThat( querySpec.isAggregated(), is( true ) );
+		assertThat( querySpec.getSelectionClassifications().get( 0 ), is( SqmSelectionClassification.AGGREGATE ) );
+	}
+
+	@Test
+	public void testGroupingChangesFingerprint() {
+		final SqmSelectStatement grouped = interpretSelect( "select p.nickName from Person p group by p.nickName" );
+		final SqmSelectStatement notGrouped = interpretSelect( "select p.nickName from Person p" );
+		assertThat( grouped.getStructuralFingerprint().equals( notGrouped.getStructuralFingerprint() ), is( false ) );
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.test.hql;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.query.sqm.produce.internal.hql.HqlDfaCache;
+import org.hibernate.query.sqm.produce.internal.hql.HqlParseTreeBuilder;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests of the management of the shared prediction DFA (see {@link HqlDfaCache})
+ */
+public class HqlDfaCacheTest {
+	private static final List<String> CORPUS = Arrays.asList(
+			"select a.b from Something a where a.c = '1'",
+			"select a from Something a join a.others o where o.d > 2 order by a.b",
+			"select count(a) from Something a group by a.b having count(a) > 1",
+			"select from where = ="
+	);
+
+	private final HqlParseTreeBuilder builder = HqlParseTreeBuilder.TWO_STAGE_INSTANCE;
+
+	@After
+	public void resetDfaCache() {
+		builder.setDfaCacheBudget( -1 );
+		builder.warmUpDfaCache( Collections.<String>emptyList() );
+		builder.clearDfaCache( false );
+	}
+
+	@Test
+	public void testWarmUp() {
+		builder.clearDfaCache( false );
+		assertThat( builder.getDfaCacheStateCount(), is( 0 ) );
+
+		// the invalid query is skipped
+		assertThat( builder.warmUpDfaCache( CORPUS ), is( 3 ) );
+		assertThat( builder.getDfaCacheStateCount() > 0, is( true ) );
+	}
+
+	@Test
+	public void testClear() {
+		// the DFA is shared, start from the states of the corpus alone
+		builder.clearDfaCache( false );
+		builder.warmUpDfaCache( CORPUS );
+		final int warmStateCount = builder.getDfaCacheStateCount();
+
+		builder.clearDfaCache( false );
+		assertThat( builder.getDfaCacheStateCount(), is( 0 ) );
+
+		// rebuilding re-parses the warm-up corpus
+		builder.clearDfaCache( true );
+		assertThat( builder.getDfaCacheStateCount(), is( warmStateCount ) );
+	}
+
+	@Test
+	public void testBudget() {
+		builder.warmUpDfaCache( CORPUS );
+		builder.setDfaCacheBudget( 1 );
+
+		// the budget is only checked every BUDGET_CHECK_INTERVAL parses
+		for ( int i = 1; i < HqlDfaCache.BUDGET_CHECK_INTERVAL; i++ ) {
+			builder.parseStatement( CORPUS.get( i % 3 ) );
+		}
+		assertThat( builder.getDfaCacheStateCount() > 1, is( true ) );
+
+		// the parse which trips the budget clears the DFA, without re-warming it from the corpus
+		builder.parseStatement( CORPUS.get( 0 ) );
+		assertThat( builder.getDfaCacheStateCount(), is( 0 ) );
+
+		// subsequent parses re-warm it
+		builder.parseStatement( CORPUS.get( 0 ) );
+		assertThat( builder.getDfaCacheStateCount() > 0, is( true ) );
+	}
+
+	@Test
+	public void testNoBudget() {
+		builder.warmUpDfaCache( CORPUS );
+		final int warmStateCount = builder.getDfaCacheStateCount();
+
+		for ( int i = 0; i < HqlDfaCache.BUDGET_CHECK_INTERVAL * 2; i++ ) {
+			builder.parseStatement( CORPUS.get( i % 3 ) );
+		}
+		assertThat( builder.getDfaCacheStateCount(), is( warmStateCount ) );
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.test.hql;
+
+import org.hibernate.query.sqm.produce.internal.hql.HqlFastPathRecognizer;
+import org.hibernate.query.sqm.produce.spi.ParsingContext;
+import org.hibernate.query.sqm.tree.SqmSelectStatement;
+import org.hibernate.query.sqm.tree.select.SqmSelection;
+import org.hibernate.sqm.test.domain.StandardModelTest;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Differential tests of the {@link HqlFastPathRecognizer} : the queries it recognizes must be
+ * modeled exactly as from their Antlr parse tree
+ */
+public class HqlFastPathRecognizerTest extends StandardModelTest {
+	@Test
+	public void testRecognizedQueriesMatchParseTreeAnalysis() {
+		final String[] queries = {
+				"from Person",
+				"from Person p",
+				"from Person as p",
+				"select p from Person p",
+				"select p.nickName from Person p",
+				"from Person p where p.numberOfToes = :toes",
+				"select p from Person p where p.nickName = :n",
+				"select p.nickName from Person p where p.numberOfToes <> ?1",
+				"SELECT p FROM Person AS p WHERE p . numberOfToes >= :min",
+				"from Person p where p.numberOfToes<:max",
+				"from Person where nickName != :n",
+				"from Person p where p.numberOfToes ^= ?2"
+		};
+
+		for ( String query : queries ) {
+			final SqmSelectStatement fastPath = HqlFastPathRecognizer.interpret(
+					query,
+					new ParsingContext( consumerContext )
+			);
+			assertThat( query, fastPath, notNullValue() );
+
+			final SqmSelectStatement parseTree = interpretSelect( query );
+			assertThat( query, fastPath.getStructuralFingerprint(), is( parseTree.getStructuralFingerprint() ) );
+			assertThat( query, fastPath.getQueryParameters().size(), is( parseTree.getQueryParameters().size() ) );
+
+			final SqmSelection fastPathSelection = fastPath.getQuerySpec().getSelectClause().getSelections().get( 0 );
+			final SqmSelection parseTreeSelection = parseTree.getQuerySpec().getSelectClause().getSelections().get( 0 );
+			assertThat( query, fastPathSelection.getAlias(), is( parseTreeSelection.getAlias() ) );
+			assertThat(
+					query,
+					fastPathSelection.getExpression().getExpressionType(),
+					is( parseTreeSelection.getExpression().getExpressionType() )
+			);
+		}
+	}
+
+	@Test
+	public void testOtherQueriesAreLeftToAntlr() {
+		final String[] queries = {
+				"select p from Person p where p.numberOfToes = 1",
+				"select p from Person p where p.numberOfToes = :a and p.nickName = :b",
+				"select p from Person p order by p.nickName",
+				"select p.nickName, p.numberOfToes from Person p",
+				"select distinct p from Person p",
+				"select p from Person p join p.mate m",
+				"select p from Person p where p.numberOfToes = ?0",
+				"select p from Person p where p.numberOfToes = ?",
+				"select p from Person p where :toes = p.numberOfToes",
+				"select p from Person select",
+				"select count(p) from Person p",
+				"update Person p set p.nickName = :n",
+				"delete from Person p where p.numberOfToes = :toes"
+		};
+
+		for ( String query : queries ) {
+			assertThat( query, HqlFastPathRecognizer.interpret( query, new ParsingContext( consumerContext ) ), nullValue() );
+		}
+	}
+}
@@ -6,16 +6,24 @@
  */
 package org.hibernate.sqm.test.hql;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hibernate.query.sqm.hql.internal.antlr.HqlParser;
 import org.hibernate.query.sqm.hql.internal.antlr.HqlParser.EqualityPredicateContext;
 import org.hibernate.query.sqm.hql.internal.antlr.HqlParser.LiteralExpressionContext;
 import org.hibernate.query.sqm.produce.internal.hql.HqlParseTreeBuilder;
+import org.hibernate.query.sqm.hql.internal.antlr.HqlParserBaseListener;
 import org.hibernate.query.sqm.hql.internal.antlr.HqlParserBaseVisitor;
 
 import org.junit.Test;
 
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.antlr.v4.runtime.tree.xpath.XPath;
 
@@ -46,6 +54,93 @@ public class HqlParserTest {
 		assertEquals( 1, fromClauses.size() );
 	}
 
+	@Test
+	public void testTwoStagePredictionProducesSameTree() throws Exception {
+		final String qry = "select a.b from Something a where a.c = '1' and ( a.d > 2 or a.e in (1, 2, 3) ) order by a.b";
+
+		final HqlParser.StatementContext llTree = HqlParseTreeBuilder.INSTANCE.parseStatement( qry );
+		final HqlParser.StatementContext twoStageTree = HqlParseTreeBuilder.TWO_STAGE_INSTANCE.parseStatement( qry );
+
+		assertEquals( llTree.toStringTree(), twoStageTree.toStringTree() );
+	}
+
+	@Test
+	public void testTwoStagePredictionReportsSyntaxErrorsOnce() throws Exception {
+		final String qry = "select a.b from Something a where a.c = = 1";
+
+		final int llErrorCount = countSyntaxErrors( HqlParseTreeBuilder.INSTANCE, qry );
+		final int twoStageErrorCount = countSyntaxErrors( HqlParseTreeBuilder.TWO_STAGE_INSTANCE, qry );
+
+		assertTrue( llErrorCount > 0 );
+		assertEquals( llErrorCount, twoStageErrorCount );
+	}
+
+	@Test
+	public void testTwoStagePredictionReParsesAfterListenerFailure() throws Exception {
+		final String qry = "select a.b from Something a where a.c = '1'";
+
+		// the listener of the SLL attempt fails (as it may on a mis-predicted parse), the one of the LL re-parse does not
+		final List<AtomicInteger> exitCounts = new ArrayList<>();
+		final HqlParser.StatementContext tree = HqlParseTreeBuilder.TWO_STAGE_INSTANCE.parseStatement(
+				qry,
+				() -> {
+					final AtomicInteger exitCount = new AtomicInteger();
+					final boolean fail = exitCounts.isEmpty();
+					exitCounts.add( exitCount );
+					return new HqlParserBaseListener() {
+						@Override
+						public void exitEveryRule(ParserRuleContext ctx) {
+							exitCount.incrementAndGet();
+							if ( fail && ctx instanceof HqlParser.FromClauseContext ) {
+								throw new IllegalStateException( "failure during the SLL attempt" );
+							}
+						}
+					};
+				}
+		);
+
+		assertEquals( HqlParseTreeBuilder.INSTANCE.parseStatement( qry ).toStringTree(), tree.toStringTree() );
+		assertEquals( 2, exitCounts.size() );
+		assertTrue( exitCounts.get( 1 ).get() > exitCounts.get( 0 ).get() );
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testTwoStagePredictionReportsListenerFailureOfReParse() throws Exception {
+		HqlParseTreeBuilder.TWO_STAGE_INSTANCE.parseStatement(
+				"select a.b from Something a where a.c = '1'",
+				() -> new HqlParserBaseListener() {
+					@Override
+					public void exitEveryRule(ParserRuleContext ctx) {
+						if ( ctx instanceof HqlParser.FromClauseContext ) {
+							throw new IllegalStateException( "failure of each attempt" );
+						}
+					}
+				}
+		);
+	}
+
+	private static int countSyntaxErrors(HqlParseTreeBuilder builder, String qry) {
+		final AtomicInteger count = new AtomicInteger();
+		final HqlParser parser = builder.parseHql( qry );
+		parser.removeErrorListeners();
+		parser.addErrorListener(
+				new BaseErrorListener() {
+					@Override
+					public void syntaxError(
+							Recognizer<?, ?> recognizer,
+							Object offendingSymbol,
+							int line,
+							int charPositionInLine,
+							String msg,
+							RecognitionException e) {
+						count.incrementAndGet();
+					}
+				}
+		);
+		builder.parseStatement( parser, null );
+		return count.get();
+	}
+
 	@Test
 	public void testTimestampLiterals() throws Exception {
 		validateDateTimeLiteralInEqualityPredicate(
@@ -0,0 +1,107 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.test.hql;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.query.sqm.SemanticException;
+import org.hibernate.query.sqm.produce.internal.InterpretationCache;
+import org.hibernate.query.sqm.produce.internal.SemanticQueryProducerImpl;
+import org.hibernate.query.sqm.produce.internal.SemanticQueryProducerOptions;
+import org.hibernate.query.sqm.tree.SqmStatement;
+import org.hibernate.sqm.test.domain.StandardModelTest;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for caching of HQL interpretations
+ */
+public class InterpretationCacheTest extends StandardModelTest {
+	@Test
+	public void testCachedInterpretationIsShared() {
+		final SemanticQueryProducerImpl producer = new SemanticQueryProducerImpl(
+				sessionFactory,
+				new SemanticQueryProducerOptions().applyInterpretationCacheSize( 10 )
+		);
+
+		final SqmStatement first = producer.interpret( "select p from Person p" );
+		final SqmStatement second = producer.interpret( "select p from Person p" );
+		final SqmStatement other = producer.interpret( "select p.nickName from Person p" );
+
+		assertThat( second, sameInstance( first ) );
+		assertThat( other, not( sameInstance( first ) ) );
+
+		final InterpretationCache cache = producer.getHqlInterpretationCache();
+		assertThat( cache.getHitCount(), is( 1L ) );
+		assertThat( cache.getMissCount(), is( 2L ) );
+		assertThat( cache.size(), is( 2 ) );
+	}
+
+	@Test
+	public void testCachingIsOptIn() {
+		final SemanticQueryProducerImpl producer = new SemanticQueryProducerImpl( sessionFactory );
+		assertThat( producer.getHqlInterpretationCache(), nullValue() );
+		assertThat( producer.getCriteriaInterpretationCache(), nullValue() );
+
+		assertThat(
+				producer.interpret( "select p from Person p" ),
+				not( sameInstance( producer.interpret( "select p from Person p" ) ) )
+		);
+	}
+
+	@Test
+	public void testFailedInterpretationIsNotCached() {
+		final SemanticQueryProducerImpl producer = new SemanticQueryProducerImpl(
+				sessionFactory,
+				new SemanticQueryProducerOptions().applyInterpretationCacheSize( 10 )
+		);
+
+		for ( int i = 0; i < 2; i++ ) {
+			try {
+				producer.interpret( "select a.nickName from Person a where a.numberOfToes = ?0" );
+				fail( "Expecting SemanticException" );
+			}
+			catch (SemanticException expected) {
+			}
+		}
+
+		assertThat( producer.getHqlInterpretationCache().size(), is( 0 ) );
+		assertThat( producer.getHqlInterpretationCache().getMissCount(), is( 2L ) );
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEviction() {
+		final InterpretationCache<String,String> cache = new InterpretationCache<>( 10 );
+		final AtomicInteger interpretationCount = new AtomicInteger();
+
+		for ( int i = 0; i < 10; i++ ) {
+			cache.resolve( "query-" + i, key -> key + "-" + interpretationCount.incrementAndGet() );
+		}
+		assertThat( cache.size(), is( 10 ) );
+		assertThat( cache.getEvictionCount(), is( 0L ) );
+
+		// touch query-0 so that it is the most recently used
+		cache.resolve( "query-0", key -> { throw new AssertionError( "Expecting cache hit" ); } );
+
+		// overflow the cache, which should evict down to 90% of max-size
+		cache.resolve( "query-10", key -> key + "-" + interpretationCount.incrementAndGet() );
+		assertThat( cache.size(), is( 9 ) );
+		assertThat( cache.getEvictionCount(), is( 2L ) );
+
+		// query-0 was recently used and should have survived, query-1 and query-2 should not have
+		cache.resolve( "query-0", key -> { throw new AssertionError( "Expecting cache hit" ); } );
+		cache.resolve( "query-1", key -> key + "-" + interpretationCount.incrementAndGet() );
+		assertThat( interpretationCount.get(), is( 12 ) );
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.test.hql;
+
+import java.util.Arrays;
+
+import org.hibernate.query.sqm.produce.internal.SemanticQueryProducerImpl;
+import org.hibernate.query.sqm.produce.internal.SemanticQueryProducerOptions;
+import org.hibernate.query.sqm.produce.spi.NormalizedInterpretation;
+import org.hibernate.query.sqm.tree.SqmSelectStatement;
+import org.hibernate.query.sqm.tree.expression.LiteralParameterSqmExpression;
+import org.hibernate.query.sqm.tree.predicate.AndSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.RelationalSqmPredicate;
+import org.hibernate.sqm.test.domain.StandardModelTest;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests for interpreting HQL with literals normalized into synthetic parameters
+ */
+public class LiteralNormalizationTest extends StandardModelTest {
+	@Test
+	public void testQueriesDifferingInLiteralsShareInterpretation() {
+		final SemanticQueryProducerImpl producer = new SemanticQueryProducerImpl(
+				sessionFactory,
+				new SemanticQueryProducerOptions().applyInterpretationCacheSize( 10 )
+		);
+
+		final NormalizedInterpretation first = producer.interpretNormalized(
+				"select p from Person p where p.numberOfToes = 10 and p.nickName = 'Steve'"
+		);
+		final NormalizedInterpretation second = producer.interpretNormalized(
+				"select p from Person p where p.numberOfToes = 2 and p.nickName = 'John'"
+		);
+
+		assertThat( second.getFingerprint(), is( first.getFingerprint() ) );
+		assertThat( second.getStatement(), sameInstance( first.getStatement() ) );
+		assertThat( first.getLiteralValues(), is( Arrays.<Object>asList( 10, "Steve" ) ) );
+		assertThat( second.getLiteralValues(), is( Arrays.<Object>asList( 2, "John" ) ) );
+		assertThat( second.getLiteralBindings().get( "<literal:2>" ), is( (Object) "John" ) );
+
+		final SqmSelectStatement statement = (SqmSelectStatement) first.getStatement();
+		final AndSqmPredicate predicate = (AndSqmPredicate) statement.getQuerySpec().getWhereClause().getPredicate();
+		final RelationalSqmPredicate toesPredicate = (RelationalSqmPredicate) predicate.getLeftHandPredicate();
+		assertThat( toesPredicate.getRightHandExpression(), instanceOf( LiteralParameterSqmExpression.class ) );
+		assertThat( statement.getQueryParameters().size(), is( 2 ) );
+	}
+
+	@Test
+	public void testLiteralsOfDifferentKindsAreInterpretedSeparately() {
+		final SemanticQueryProducerImpl producer = new SemanticQueryProducerImpl(
+				sessionFactory,
+				new SemanticQueryProducerOptions().applyInterpretationCacheSize( 10 )
+		);
+
+		final NormalizedInterpretation integer = producer.interpretNormalized(
+				"select p from Person p where p.nickName = 1"
+		);
+		final NormalizedInterpretation string = producer.interpretNormalized(
+				"select p from Person p where p.nickName = '1'"
+		);
+
+		assertThat( string.getFingerprint(), not( integer.getFingerprint() ) );
+		assertThat( string.getStatement(), not( sameInstance( integer.getStatement() ) ) );
+		assertThat( integer.getLiteralValues(), is( Arrays.<Object>asList( 1 ) ) );
+		assertThat( string.getLiteralValues(), is( Arrays.<Object>asList( '1' ) ) );
+	}
+
+	@Test
+	public void testNullLiteralIsNotNormalized() {
+		final SemanticQueryProducerImpl producer = new SemanticQueryProducerImpl(
+				sessionFactory,
+				new SemanticQueryProducerOptions().applyInterpretationCacheSize( 10 )
+		);
+
+		final NormalizedInterpretation interpretation = producer.interpretNormalized(
+				"select p from Person p where p.nickName = null"
+		);
+
+		assertThat( interpretation.getLiteralValues().isEmpty(), is( true ) );
+		assertThat( interpretation.getStatement().getQueryParameters().isEmpty(), is( true ) );
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.test.hql;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.persister.queryable.spi.EntityValuedExpressableType;
+import org.hibernate.query.sqm.produce.spi.NameResolutionCache;
+import org.hibernate.sqm.test.domain.StandardModelTest;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests of the {@link NameResolutionCache}
+ */
+public class NameResolutionCacheTest extends StandardModelTest {
+	private static final String HOLDER = NameResolutionCacheTest.class.getName() + "$Holder";
+
+	@Test
+	public void testEntityNames() {
+		final NameResolutionCache cache = new NameResolutionCache( Collections.singletonMap( "Someone", "Person" ) );
+
+		final EntityValuedExpressableType person = cache.resolveEntityReference( "Person", sessionFactory );
+		assertThat( person, notNullValue() );
+		assertThat( cache.resolveEntityReference( "Person", sessionFactory ), sameInstance( person ) );
+		assertThat( cache.resolveEntityReference( "Someone", sessionFactory ), sameInstance( person ) );
+
+		assertThat( cache.resolveEntityReference( "NotAnEntity", sessionFactory ), nullValue() );
+		assertThat( cache.resolveEntityReference( "NotAnEntity", sessionFactory ), nullValue() );
+		assertThat( cache.getUnresolvedNameCount(), is( 1 ) );
+	}
+
+	@Test
+	public void testClassNames() {
+		final NameResolutionCache cache = new NameResolutionCache();
+
+		assertThat( cache.resolveClass( "java.lang.String", sessionFactory ), sameInstance( (Object) String.class ) );
+		assertThat( cache.resolveClass( "java.lang.String", sessionFactory ), sameInstance( (Object) String.class ) );
+		assertThat( cache.getUnresolvedNameCount(), is( 0 ) );
+
+		assertThat( cache.resolveClass( "com.acme.DoesNotExist", sessionFactory ), nullValue() );
+		assertThat( cache.resolveClass( "com.acme.DoesNotExist", sessionFactory ), nullValue() );
+		assertThat( cache.getUnresolvedNameCount(), is( 1 ) );
+	}
+
+	@Test
+	public void testConstants() throws Exception {
+		final NameResolutionCache cache = new NameResolutionCache(
+				Collections.singletonMap( "Unit", TimeUnit.class.getName() )
+		);
+
+		assertThat( cache.resolveConstant( "java.util.concurrent.TimeUnit.SECONDS", sessionFactory ), is( (Object) TimeUnit.SECONDS ) );
+		assertThat( cache.resolveConstant( "Unit.SECONDS", sessionFactory ), is( (Object) TimeUnit.SECONDS ) );
+
+		final Object field = cache.resolveConstant( HOLDER + ".STATIC_FIELD", sessionFactory );
+		assertThat( field, instanceOf( Field.class ) );
+		assertThat( ( (Field) field ).get( null ), is( (Object) "static" ) );
+		assertThat( cache.resolveConstant( HOLDER + ".STATIC_FIELD", sessionFactory ), sameInstance( field ) );
+		assertThat( cache.getUnresolvedNameCount(), is( 0 ) );
+
+		// misses : no such enum constant, an instance field, no such field, no such class, no class at all
+		assertThat( cache.resolveConstant( "java.util.concurrent.TimeUnit.FORTNIGHTS", sessionFactory ), nullValue() );
+		assertThat( cache.resolveConstant( HOLDER + ".instanceField", sessionFactory ), nullValue() );
+		assertThat( cache.resolveConstant( HOLDER + ".NO_SUCH_FIELD", sessionFactory ), nullValue() );
+		assertThat( cache.resolveConstant( "com.acme.DoesNotExist.VALUE", sessionFactory ), nullValue() );
+		assertThat( cache.resolveConstant( "VALUE", sessionFactory ), nullValue() );
+		// the 5 constant references, plus the class name of the 4th
+		assertThat( cache.getUnresolvedNameCount(), is( 6 ) );
+	}
+
+	@Test
+	public void testUnresolvedNamesAreBounded() {
+		final NameResolutionCache cache = new NameResolutionCache( Collections.emptyMap(), 3 );
+		for ( int i = 0; i < 10; i++ ) {
+			assertThat( cache.resolveClass( "com.acme.DoesNotExist" + i, sessionFactory ), nullValue() );
+			assertThat( cache.getUnresolvedNameCount() <= 3, is( true ) );
+		}
+		// the resolved names are not affected
+		assertThat( cache.resolveClass( "java.lang.String", sessionFactory ), sameInstance( (Object) String.class ) );
+
+		final NameResolutionCache noMisses = new NameResolutionCache( Collections.emptyMap(), 0 );
+		assertThat( noMisses.resolveClass( "com.acme.DoesNotExist", sessionFactory ), nullValue() );
+		assertThat( noMisses.resolveClass( "com.acme.DoesNotExist", sessionFactory ), nullValue() );
+		assertThat( noMisses.getUnresolvedNameCount(), is( 0 ) );
+	}
+
+	@SuppressWarnings("unused")
+	public static class Holder {
+		public static final String STATIC_FIELD = "static";
+
+		public String instanceField = "instance";
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.test.hql;
+
+import org.hibernate.persister.common.spi.Navigable;
+import org.hibernate.persister.common.spi.NavigableSource;
+import org.hibernate.query.sqm.produce.internal.SemanticQueryProducerImpl;
+import org.hibernate.query.sqm.produce.internal.SemanticQueryProducerOptions;
+import org.hibernate.query.sqm.produce.spi.NavigableResolutionCache;
+import org.hibernate.query.sqm.tree.expression.domain.SqmNavigableSourceReference;
+import org.hibernate.sqm.test.domain.StandardModelTest;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests of the {@link NavigableResolutionCache}
+ */
+public class NavigableResolutionCacheTest extends StandardModelTest {
+	@Test
+	public void testResolvedNames() {
+		final NavigableResolutionCache cache = new NavigableResolutionCache();
+		final NavigableSource person = rootSource( "select p from Person p" );
+
+		final Navigable nickName = cache.findNavigable( person, "nickName" );
+		assertThat( nickName, notNullValue() );
+		assertThat( nickName, sameInstance( person.findNavigable( "nickName" ) ) );
+		assertThat( cache.findNavigable( person, "nickName" ), sameInstance( nickName ) );
+		assertThat( cache.findNavigable( person, "mate" ), not( sameInstance( nickName ) ) );
+		assertThat( cache.getUnresolvedNameCount(), is( 0 ) );
+	}
+
+	@Test
+	public void testUnresolvedNames() {
+		final NavigableResolutionCache cache = new NavigableResolutionCache();
+		final NavigableSource person = rootSource( "select p from Person p" );
+		final NavigableSource entityOfSets = rootSource( "select s from EntityOfSets s" );
+
+		assertThat( cache.findNavigable( person, "noSuchAttribute" ), nullValue() );
+		assertThat( cache.findNavigable( person, "noSuchAttribute" ), nullValue() );
+		assertThat( cache.getUnresolvedNameCount(), is( 1 ) );
+
+		// misses are per source
+		assertThat( cache.findNavigable( entityOfSets, "nickName" ), nullValue() );
+		assertThat( cache.findNavigable( person, "nickName" ), notNullValue() );
+		assertThat( cache.getUnresolvedNameCount(), is( 2 ) );
+	}
+
+	@Test
+	public void testUnresolvedNamesAreBounded() {
+		final NavigableResolutionCache cache = new NavigableResolutionCache( 3 );
+		final NavigableSource person = rootSource( "select p from Person p" );
+
+		for ( int i = 0; i < 10; i++ ) {
+			assertThat( cache.findNavigable( person, "noSuchAttribute" + i ), nullValue() );
+			assertThat( cache.getUnresolvedNameCount() <= 3, is( true ) );
+		}
+		// the resolved names are not affected
+		assertThat( cache.findNavigable( person, "nickName" ), notNullValue() );
+
+		final NavigableResolutionCache noMisses = new NavigableResolutionCache( 0 );
+		assertThat( noMisses.findNavigable( person, "noSuchAttribute" ), nullValue() );
+		assertThat( noMisses.getUnresolvedNameCount(), is( 0 ) );
+	}
+
+	@Test
+	public void testCacheIsPerSessionFactory() {
+		final SemanticQueryProducerImpl producer = new SemanticQueryProducerImpl(
+				sessionFactory,
+				new SemanticQueryProducerOptions().applyInterpretationCacheSize( 10 )
+		);
+		final SemanticQueryProducerImpl otherProducer = new SemanticQueryProducerImpl(
+				new NavigableResolutionCacheTest().sessionFactory,
+				new SemanticQueryProducerOptions().applyInterpretationCacheSize( 10 )
+		);
+		assertThat( producer.getNavigableResolutionCache(), not( sameInstance( otherProducer.getNavigableResolutionCache() ) ) );
+
+		// the unqualified reference is looked up in both roots, and is a miss for EntityOfSets
+		producer.interpret( "select nickName from Person p, EntityOfSets s" );
+		assertThat( producer.getNavigableResolutionCache().getUnresolvedNameCount(), is( 1 ) );
+		assertThat( otherProducer.getNavigableResolutionCache().getUnresolvedNameCount(), is( 0 ) );
+
+		// all of the interpretations of a producer share its cache
+		producer.interpret( "select nickName from Person p2, EntityOfSets s2" );
+		assertThat( producer.getNavigableResolutionCache().getUnresolvedNameCount(), is( 1 ) );
+	}
+
+	private NavigableSource rootSource(String query) {
+		final SqmNavigableSourceReference binding = interpretSelect( query ).getQuerySpec()
+				.getFromClause()
+				.getFromElementSpaces()
+				.get( 0 )
+				.getRoot()
+				.getBinding();
+		return binding.getReferencedNavigable();
+	}
+}
@@ -6,17 +6,22 @@
  */
 package org.hibernate.sqm.test.hql;
 
+import org.hibernate.query.sqm.LiteralNumberFormatException;
 import org.hibernate.query.sqm.SemanticException;
 import org.hibernate.query.sqm.tree.SqmQuerySpec;
 import org.hibernate.query.sqm.tree.SqmSelectStatement;
+import org.hibernate.query.sqm.tree.expression.LiteralCharacterSqmExpression;
 import org.hibernate.query.sqm.tree.expression.LiteralIntegerSqmExpression;
 import org.hibernate.query.sqm.tree.expression.LiteralLongSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralStringSqmExpression;
 import org.hibernate.query.sqm.tree.expression.SqmExpression;
 import org.hibernate.query.sqm.tree.from.SqmFromElementSpace;
 import org.hibernate.query.sqm.tree.from.SqmFromClause;
 import org.hibernate.query.sqm.tree.predicate.AndSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.InSubQuerySqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.OrSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.RelationalSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
 import org.hibernate.sqm.test.domain.Person;
 import org.hibernate.sqm.test.domain.StandardModelTest;
 
@@ -70,6 +75,41 @@ public class SimpleSemanticQueryBuilderTest extends StandardModelTest {
 
 	}
 
+	@Test
+	public void quotedLiteralsTest() {
+		SqmSelectStatement selectStatement = interpretSelect(
+				"select a.nickName from Person a where a.nickName = 'it''s' or a.nickName = \"plain\" or a.nickName = 'x'"
+		);
+		final OrSqmPredicate predicate = (OrSqmPredicate) selectStatement.getQuerySpec().getWhereClause().getPredicate();
+		final OrSqmPredicate stringPredicates = (OrSqmPredicate) predicate.getLeftHandPredicate();
+
+		SqmExpression literal = rightHandExpression( stringPredicates.getLeftHandPredicate() );
+		assertThat( literal, instanceOf( LiteralStringSqmExpression.class ) );
+		assertEquals( "it's", ( (LiteralStringSqmExpression) literal ).getLiteralValue() );
+
+		literal = rightHandExpression( stringPredicates.getRightHandPredicate() );
+		assertThat( literal, instanceOf( LiteralStringSqmExpression.class ) );
+		assertEquals( "plain", ( (LiteralStringSqmExpression) literal ).getLiteralValue() );
+
+		literal = rightHandExpression( predicate.getRightHandPredicate() );
+		assertThat( literal, instanceOf( LiteralCharacterSqmExpression.class ) );
+		assertEquals( 'x', ( (LiteralCharacterSqmExpression) literal ).getLiteralValue().charValue() );
+	}
+
+	private static SqmExpression rightHandExpression(SqmPredicate predicate) {
+		return ( (RelationalSqmPredicate) predicate ).getRightHandExpression();
+	}
+
+	@Test
+	public void integerLiteralOutOfRangeTest() {
+		try {
+			interpretSelect( "select a.nickName from Person a where a.numberOfToes = 2147483648" );
+			fail( "Expecting LiteralNumberFormatException" );
+		}
+		catch (LiteralNumberFormatException expected) {
+		}
+	}
+
 	@Test
 	public void testAttributeJoinWithOnPredicate() throws Exception {
 		final String query = "select a from Person a left outer join a.mate c on c.numberOfToes > 5 and c.numberOfToes < 20";
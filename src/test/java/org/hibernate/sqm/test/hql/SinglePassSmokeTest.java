@@ -6,6 +6,9 @@
  */
 package org.hibernate.sqm.test.hql;
 
+import org.hibernate.query.sqm.produce.internal.hql.HqlParseTreeBuilder;
+import org.hibernate.query.sqm.produce.internal.hql.SinglePassSemanticQueryBuilder;
+import org.hibernate.query.sqm.produce.spi.ParsingContext;
 import org.hibernate.query.sqm.tree.SqmSelectStatement;
 import org.hibernate.query.sqm.tree.expression.domain.SqmEntityReference;
 import org.hibernate.query.sqm.tree.select.SqmSelection;
@@ -18,6 +21,7 @@ import org.junit.rules.ExpectedException;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 /**
  * @author Steve Ebersole
@@ -33,4 +37,96 @@ public class SinglePassSmokeTest extends StandardModelTest {
 		SqmSelection selection = statement.getQuerySpec().getSelectClause().getSelections().get( 0 );
 		assertThat( selection.getExpression(), instanceOf( SqmEntityReference.class ) );
 	}
+
+	@Test
+	public void testSinglePassAnalysisMatchesParseTreeAnalysis() {
+		final String[] queries = {
+				"select o from Person o",
+				"from Person o where o.numberOfToes > 5",
+				"select o.nickName from Person o where o.numberOfToes > 1 and o.numberOfToes < 10 or o.nickName = 'x'",
+				"select o.nickName from Person o where (o.numberOfToes = 1 or o.numberOfToes = 2) and not o.nickName is null",
+				"select o.nickName, count(o) from Person o where o.numberOfToes between 1 and 2 " +
+						"group by o.nickName having count(o) > 1 and max(o.numberOfToes) < 10 order by o.nickName",
+				"select o.nickName from Person o where o.pk in (select m.pk from Person m where m.numberOfToes = 1 and m.nickName = 'x') " +
+						"or o.numberOfToes = 2"
+		};
+
+		for ( String query : queries ) {
+			final SqmSelectStatement singlePass = interpretSinglePass( query );
+			assertEquals( query, interpretSelect( query ).getStructuralFingerprint(), singlePass.getStructuralFingerprint() );
+
+			final SqmSelectStatement twoStage = interpretSinglePass( query, HqlParseTreeBuilder.TWO_STAGE_SINGLE_PASS_INSTANCE );
+			assertEquals( query, singlePass.getStructuralFingerprint(), twoStage.getStructuralFingerprint() );
+		}
+	}
+
+	@Test
+	public void testSinglePassAnalysisCollectsParameters() {
+		final SqmSelectStatement statement = interpretSinglePass(
+				"select o.nickName from Person o where o.numberOfToes > :min and o.numberOfToes < :max"
+		);
+		assertEquals( 2, statement.getQueryParameters().size() );
+	}
+
+	@Test
+	public void testSinglePassAnalysisReportsTheOriginalFailure() {
+		final String[] queries = {
+				// the select clause is analyzed once the from clause is complete
+				"select o.noSuchAttribute from Person o",
+				"select o from NoSuchEntity o",
+				"select o from Person o where o.noSuchAttribute = 1",
+				"select o from Person o where o.numberOfToes = 1 and o.noSuchAttribute = 2",
+				"select o from Person o where o.numberOfToes = 1 or ( o.nickName = 'x' and not o.noSuchAttribute = 2 )",
+				"select o.nickName from Person o group by o.noSuchAttribute",
+				"select o.nickName from Person o group by o.nickName having max(o.noSuchAttribute) > 1"
+		};
+
+		for ( String query : queries ) {
+			final RuntimeException expected = interpretationFailure( query, () -> interpretSelect( query ) );
+			final RuntimeException singlePass = interpretationFailure( query, () -> interpretSinglePass( query ) );
+			assertEquals( query, expected.getClass(), singlePass.getClass() );
+			assertEquals( query, expected.getMessage(), singlePass.getMessage() );
+
+			// a failure of the analysis during the SLL attempt is reported by the LL re-parse
+			final RuntimeException twoStage = interpretationFailure(
+					query,
+					() -> interpretSinglePass( query, HqlParseTreeBuilder.TWO_STAGE_SINGLE_PASS_INSTANCE )
+			);
+			assertEquals( query, expected.getClass(), twoStage.getClass() );
+			assertEquals( query, expected.getMessage(), twoStage.getMessage() );
+		}
+	}
+
+	@Test
+	public void testSinglePassAnalysisAfterFailure() {
+		final String query = "select o from Person o where o.noSuchAttribute = 1";
+		interpretationFailure( query, () -> interpretSinglePass( query ) );
+
+		// each interpretation uses a builder of its own
+		final SqmSelectStatement statement = interpretSinglePass( "select o from Person o where o.numberOfToes = 1" );
+		assertEquals( 1, statement.getQuerySpec().getSelectClause().getSelections().size() );
+	}
+
+	private static RuntimeException interpretationFailure(String query, Runnable interpretation) {
+		try {
+			interpretation.run();
+		}
+		catch (RuntimeException e) {
+			return e;
+		}
+		fail( "Expecting the interpretation of [" + query + "] to fail" );
+		return null;
+	}
+
+	private SqmSelectStatement interpretSinglePass(String query) {
+		return interpretSinglePass( query, HqlParseTreeBuilder.SINGLE_PASS_INSTANCE );
+	}
+
+	private SqmSelectStatement interpretSinglePass(String query, HqlParseTreeBuilder parseTreeBuilder) {
+		return (SqmSelectStatement) SinglePassSemanticQueryBuilder.buildSemanticModel(
+				query,
+				parseTreeBuilder,
+				new ParsingContext( consumerContext )
+		);
+	}
 }
@@ -0,0 +1,133 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.test.hql;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.hibernate.query.sqm.consume.spi.BaseSqmRewritePass;
+import org.hibernate.query.sqm.consume.spi.SqmRewritePipeline;
+import org.hibernate.query.sqm.consume.spi.SqmRewriteResult;
+import org.hibernate.query.sqm.tree.SqmSelectStatement;
+import org.hibernate.query.sqm.tree.expression.LiteralIntegerSqmExpression;
+import org.hibernate.query.sqm.tree.predicate.RelationalSqmPredicate;
+import org.hibernate.sqm.test.domain.StandardModelTest;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests of the {@link SqmRewritePipeline}
+ */
+public class SqmRewritePipelineTest extends StandardModelTest {
+	private static final String QUERY = "select p.nickName from Person p where p.numberOfToes > 1";
+
+	@Test
+	public void testUnchangedStatement() {
+		final SqmSelectStatement statement = interpretSelect( QUERY );
+		final SqmRewriteResult result = new SqmRewritePipeline( Collections.singletonList( new IncrementingPass( 1 ) ) )
+				.rewrite( statement );
+
+		assertThat( result.getStatement(), sameInstance( statement ) );
+		assertThat( result.isChanged(), is( false ) );
+		assertThat( result.isFixedPointReached(), is( true ) );
+		assertThat( result.getIterationCount(), is( 1 ) );
+		assertThat( result.getPassExecutions().size(), is( 1 ) );
+	}
+
+	@Test
+	public void testIterationToFixedPoint() {
+		final SqmSelectStatement statement = interpretSelect( QUERY );
+		final SqmRewriteResult result = new SqmRewritePipeline( Collections.singletonList( new IncrementingPass( 3 ) ) )
+				.rewrite( statement );
+
+		// 1 -> 2, 2 -> 3, then nothing left to do
+		assertThat( result.getStatement(), not( sameInstance( statement ) ) );
+		assertThat( literalValue( (SqmSelectStatement) result.getStatement() ), is( 3 ) );
+		assertThat( literalValue( statement ), is( 1 ) );
+		assertThat( result.isChanged(), is( true ) );
+		assertThat( result.isFixedPointReached(), is( true ) );
+		assertThat( result.getIterationCount(), is( 3 ) );
+		assertThat( result.getPassExecutions().get( 2 ).isChanged(), is( false ) );
+	}
+
+	@Test
+	public void testIterationBudget() {
+		final SqmSelectStatement statement = interpretSelect( QUERY );
+		final SqmRewriteResult result = new SqmRewritePipeline( Collections.singletonList( new IncrementingPass( 10 ) ), 2 )
+				.rewrite( statement );
+
+		assertThat( literalValue( (SqmSelectStatement) result.getStatement() ), is( 3 ) );
+		assertThat( result.isFixedPointReached(), is( false ) );
+		assertThat( result.getIterationCount(), is( 2 ) );
+	}
+
+	@Test
+	public void testPassesStopOnceAllRanWithoutChange() {
+		final SqmSelectStatement statement = interpretSelect( QUERY );
+		final SqmRewritePipeline pipeline = new SqmRewritePipeline(
+				Arrays.asList( new IncrementingPass( 1, "first" ), new IncrementingPass( 2, "second" ), new IncrementingPass( 1, "third" ) )
+		);
+		final SqmRewriteResult result = pipeline.rewrite( statement );
+
+		// only "second" changes the statement, so the second round stops right after it
+		assertThat( literalValue( (SqmSelectStatement) result.getStatement() ), is( 2 ) );
+		assertThat( result.isFixedPointReached(), is( true ) );
+		assertThat( result.getIterationCount(), is( 2 ) );
+		assertThat( result.getPassExecutions().size(), is( 5 ) );
+		assertThat( result.getPassExecutions().get( 1 ).getPassName(), is( "second" ) );
+		assertThat( result.getPassExecutions().get( 1 ).isChanged(), is( true ) );
+
+		final SqmRewriteResult withoutSecond = pipeline.withoutPass( "second" ).rewrite( statement );
+		assertThat( withoutSecond.getStatement(), sameInstance( statement ) );
+		assertThat( withoutSecond.getPassExecutions().size(), is( 2 ) );
+	}
+
+	private static int literalValue(SqmSelectStatement statement) {
+		final RelationalSqmPredicate predicate = (RelationalSqmPredicate) statement.getQuerySpec()
+				.getWhereClause()
+				.getPredicate();
+		return ( (LiteralIntegerSqmExpression) predicate.getRightHandExpression() ).getLiteralValue();
+	}
+
+	/**
+	 * Increments the integer literals below a limit, by one per run
+	 */
+	private static class IncrementingPass extends BaseSqmRewritePass {
+		private final int limit;
+		private final String name;
+
+		private IncrementingPass(int limit) {
+			this( limit, "incrementing" );
+		}
+
+		private IncrementingPass(int limit, String name) {
+			this.limit = limit;
+			this.name = name;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public Object rewrite(Object node) {
+			if ( node instanceof LiteralIntegerSqmExpression ) {
+				final LiteralIntegerSqmExpression literal = (LiteralIntegerSqmExpression) node;
+				if ( literal.getLiteralValue() < limit ) {
+					return new LiteralIntegerSqmExpression( literal.getLiteralValue() + 1, literal.getExpressionType() );
+				}
+			}
+			return node;
+		}
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.test.hql;
+
+import javax.persistence.criteria.Root;
+
+import org.hibernate.query.sqm.tree.SqmStatement;
+import org.hibernate.query.sqm.tree.SqmStructuralFingerprint;
+import org.hibernate.query.sqm.tree.internal.SqmStructuralFingerprintGenerator;
+import org.hibernate.sqm.test.domain.Person;
+import org.hibernate.sqm.test.domain.StandardModelTest;
+
+import org.hibernate.test.sqm.parser.criteria.tree.CriteriaQueryImpl;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests of the {@link SqmStructuralFingerprintGenerator}
+ */
+public class SqmStructuralFingerprintTest extends StandardModelTest {
+	@Test
+	public void testIdentificationVariablesDoNotMatter() {
+		assertSameFingerprint(
+				"select p.nickName from Person p where p.numberOfToes > 2",
+				"select x.nickName from Person x where x.numberOfToes > 2"
+		);
+		assertSameFingerprint(
+				"select p.nickName from Person p join p.mate m where m.numberOfToes > 2",
+				"select a.nickName from Person a join a.mate b where b.numberOfToes > 2"
+		);
+	}
+
+	@Test
+	public void testImplicitSelectionAliasesDoNotMatter() {
+		assertSameFingerprint(
+				"select p.nickName, p.numberOfToes from Person p",
+				"select p.nickName, p.numberOfToes from Person p"
+		);
+		assertDifferentFingerprint(
+				"select p.nickName from Person p",
+				"select p.nickName as n from Person p"
+		);
+	}
+
+	@Test
+	public void testStructureMatters() {
+		assertDifferentFingerprint(
+				"select p.nickName from Person p",
+				"select p.name.first from Person p"
+		);
+		assertDifferentFingerprint(
+				"select p.nickName from Person p where p.numberOfToes > 2",
+				"select p.nickName from Person p where p.numberOfToes > 3"
+		);
+		assertDifferentFingerprint(
+				"select p.nickName from Person p where p.numberOfToes > 2",
+				"select p.nickName from Person p where p.numberOfToes < 2"
+		);
+		// the same attribute of different from-elements
+		assertDifferentFingerprint(
+				"select p.nickName from Person p, Person p2 where p.numberOfToes > 2",
+				"select p.nickName from Person p, Person p2 where p2.numberOfToes > 2"
+		);
+		assertDifferentFingerprint(
+				"select p.nickName from Person p order by p.nickName asc",
+				"select p.nickName from Person p order by p.nickName desc"
+		);
+	}
+
+	@Test
+	public void testTypesAreRenderedByIdentity() {
+		assertSameFingerprint(
+				"select cast(p.numberOfToes as string) from Person p",
+				"select cast(p.numberOfToes as string) from Person p"
+		);
+		assertDifferentFingerprint(
+				"select cast(p.numberOfToes as string) from Person p",
+				"select cast(p.numberOfToes as long) from Person p"
+		);
+	}
+
+	@Test
+	public void testHqlAndCriteriaFingerprintsMatch() {
+		final CriteriaQueryImpl<Object> criteria = buildPersonCriteria( false );
+		assertThat(
+				fingerprint( interpret( criteria ) ),
+				is( fingerprint( interpret( "select p from Person p" ) ) )
+		);
+
+		final CriteriaQueryImpl<Object> distinctCriteria = buildPersonCriteria( true );
+		assertThat(
+				fingerprint( interpret( distinctCriteria ) ),
+				is( fingerprint( interpret( "select distinct p from Person p" ) ) )
+		);
+		assertThat(
+				fingerprint( interpret( distinctCriteria ) ),
+				not( fingerprint( interpret( "select p from Person p" ) ) )
+		);
+	}
+
+	@SuppressWarnings("unchecked")
+	private CriteriaQueryImpl<Object> buildPersonCriteria(boolean distinct) {
+		final CriteriaQueryImpl<Object> criteria = (CriteriaQueryImpl<Object>) criteriaBuilder.createQuery();
+		final Root root = criteria.from( Person.class );
+		criteria.select( root );
+		criteria.distinct( distinct );
+		return criteria;
+	}
+
+	private void assertSameFingerprint(String query1, String query2) {
+		assertThat( query1 + " / " + query2, fingerprint( interpret( query1 ) ), is( fingerprint( interpret( query2 ) ) ) );
+	}
+
+	private void assertDifferentFingerprint(String query1, String query2) {
+		assertThat( query1 + " / " + query2, fingerprint( interpret( query1 ) ), not( fingerprint( interpret( query2 ) ) ) );
+	}
+
+	private static SqmStructuralFingerprint fingerprint(SqmStatement statement) {
+		final SqmStructuralFingerprint fingerprint = SqmStructuralFingerprintGenerator.generate( statement );
+		assertThat( fingerprint.isComparable(), is( true ) );
+		return fingerprint;
+	}
+}
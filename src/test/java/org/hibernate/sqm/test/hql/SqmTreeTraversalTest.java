@@ -0,0 +1,183 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.test.hql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.query.sqm.consume.spi.SqmTraversalListener;
+import org.hibernate.query.sqm.consume.spi.SqmTreeTraversal;
+import org.hibernate.query.sqm.tree.SqmQuerySpec;
+import org.hibernate.query.sqm.tree.SqmSelectStatement;
+import org.hibernate.query.sqm.tree.expression.BinaryArithmeticSqmExpression;
+import org.hibernate.query.sqm.tree.expression.LiteralIntegerSqmExpression;
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.query.sqm.tree.predicate.AndSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.RelationalSqmPredicate;
+import org.hibernate.sqm.test.domain.StandardModelTest;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests of the non-recursive {@link SqmTreeTraversal}
+ */
+public class SqmTreeTraversalTest extends StandardModelTest {
+	@Test
+	public void testPreAndPostOrder() {
+		final SqmSelectStatement statement = interpretSelect(
+				"select p.nickName from Person p where p.numberOfToes > 1 and p.numberOfToes < 10"
+		);
+		final AndSqmPredicate and = (AndSqmPredicate) statement.getQuerySpec().getWhereClause().getPredicate();
+
+		final List<Object> preOrder = new ArrayList<>();
+		final List<Object> postOrder = new ArrayList<>();
+		new SqmTreeTraversal().traverse(
+				statement,
+				new SqmTraversalListener() {
+					@Override
+					public boolean preVisit(Object node) {
+						preOrder.add( node );
+						return true;
+					}
+
+					@Override
+					public void postVisit(Object node) {
+						postOrder.add( node );
+					}
+				}
+		);
+
+		assertThat( preOrder.size(), is( postOrder.size() ) );
+		assertThat( preOrder.get( 0 ), sameInstance( (Object) statement ) );
+		assertThat( postOrder.get( postOrder.size() - 1 ), sameInstance( (Object) statement ) );
+
+		// the conjunction is visited before its operands on the way down, after them on the way up
+		assertThat( preOrder.indexOf( and ) < preOrder.indexOf( and.getLeftHandPredicate() ), is( true ) );
+		assertThat( preOrder.indexOf( and.getLeftHandPredicate() ) < preOrder.indexOf( and.getRightHandPredicate() ), is( true ) );
+		assertThat( postOrder.indexOf( and.getRightHandPredicate() ) < postOrder.indexOf( and ), is( true ) );
+	}
+
+	@Test
+	public void testSkippingChildren() {
+		final SqmSelectStatement statement = interpretSelect(
+				"select p.nickName from Person p where p.numberOfToes > 1"
+		);
+
+		final List<Object> visited = new ArrayList<>();
+		new SqmTreeTraversal().traverse(
+				statement,
+				new SqmTraversalListener() {
+					@Override
+					public boolean preVisit(Object node) {
+						visited.add( node );
+						return !RelationalSqmPredicate.class.isInstance( node );
+					}
+
+					@Override
+					public void postVisit(Object node) {
+					}
+				}
+		);
+
+		final RelationalSqmPredicate predicate = (RelationalSqmPredicate) statement.getQuerySpec()
+				.getWhereClause()
+				.getPredicate();
+		assertThat( visited.contains( predicate ), is( true ) );
+		assertThat( visited.contains( predicate.getRightHandExpression() ), is( false ) );
+	}
+
+	@Test
+	public void testDeepTree() {
+		// deep enough to overflow the stack of a recursive walk
+		SqmExpression expression = new LiteralIntegerSqmExpression( 1, null );
+		for ( int i = 0; i < 100000; i++ ) {
+			expression = new BinaryArithmeticSqmExpression(
+					BinaryArithmeticSqmExpression.Operation.ADD,
+					expression,
+					new LiteralIntegerSqmExpression( 1, null ),
+					null
+			);
+		}
+
+		final SqmTreeTraversal traversal = new SqmTreeTraversal();
+		assertThat( sumOfLiterals( traversal, expression ), is( 100001 ) );
+
+		final Object rewritten = traversal.rewrite(
+				expression,
+				node -> LiteralIntegerSqmExpression.class.isInstance( node )
+						? new LiteralIntegerSqmExpression( 2, null )
+						: node
+		);
+		assertThat( rewritten, not( sameInstance( (Object) expression ) ) );
+		assertThat( sumOfLiterals( traversal, rewritten ), is( 200002 ) );
+		assertThat( sumOfLiterals( traversal, expression ), is( 100001 ) );
+	}
+
+	@Test
+	public void testRewriteSharesUnchangedNodes() {
+		final SqmSelectStatement statement = interpretSelect(
+				"select p.nickName from Person p where p.numberOfToes > 1 and p.numberOfToes < :max"
+		);
+
+		final SqmSelectStatement rewritten = (SqmSelectStatement) new SqmTreeTraversal().rewrite(
+				statement,
+				node -> {
+					if ( LiteralIntegerSqmExpression.class.isInstance( node ) ) {
+						return new LiteralIntegerSqmExpression( 2, ( (LiteralIntegerSqmExpression) node ).getExpressionType() );
+					}
+					return node;
+				}
+		);
+
+		assertThat( rewritten, not( sameInstance( statement ) ) );
+		assertThat( rewritten.getQueryParameters().size(), is( 1 ) );
+
+		final SqmQuerySpec original = statement.getQuerySpec();
+		final SqmQuerySpec copy = rewritten.getQuerySpec();
+		assertThat( copy.getFromClause(), sameInstance( original.getFromClause() ) );
+		assertThat( copy.getSelectClause(), sameInstance( original.getSelectClause() ) );
+
+		final AndSqmPredicate originalAnd = (AndSqmPredicate) original.getWhereClause().getPredicate();
+		final AndSqmPredicate copyAnd = (AndSqmPredicate) copy.getWhereClause().getPredicate();
+		assertThat( copyAnd.getRightHandPredicate(), sameInstance( originalAnd.getRightHandPredicate() ) );
+
+		final RelationalSqmPredicate greaterThan = (RelationalSqmPredicate) copyAnd.getLeftHandPredicate();
+		assertThat( greaterThan.getRightHandExpression(), instanceOf( LiteralIntegerSqmExpression.class ) );
+		assertThat( ( (LiteralIntegerSqmExpression) greaterThan.getRightHandExpression() ).getLiteralValue(), is( 2 ) );
+
+		// the original is untouched
+		final RelationalSqmPredicate originalGreaterThan = (RelationalSqmPredicate) originalAnd.getLeftHandPredicate();
+		assertThat( ( (LiteralIntegerSqmExpression) originalGreaterThan.getRightHandExpression() ).getLiteralValue(), is( 1 ) );
+	}
+
+	private static int sumOfLiterals(SqmTreeTraversal traversal, Object root) {
+		final int[] sum = new int[1];
+		traversal.traverse(
+				root,
+				new SqmTraversalListener() {
+					@Override
+					public boolean preVisit(Object node) {
+						if ( LiteralIntegerSqmExpression.class.isInstance( node ) ) {
+							sum[0] += ( (LiteralIntegerSqmExpression) node ).getLiteralValue();
+						}
+						return true;
+					}
+
+					@Override
+					public void postVisit(Object node) {
+					}
+				}
+		);
+		return sum[0];
+	}
+}
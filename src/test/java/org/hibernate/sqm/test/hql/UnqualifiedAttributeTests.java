@@ -0,0 +1,114 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sqm.test.hql;
+
+import org.hibernate.query.sqm.produce.internal.UnqualifiedAttributeIndex;
+import org.hibernate.query.sqm.tree.SqmQuerySpec;
+import org.hibernate.query.sqm.tree.SqmSelectStatement;
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.query.sqm.tree.expression.domain.SqmNavigableReference;
+import org.hibernate.query.sqm.tree.from.SqmFromElementSpace;
+import org.hibernate.query.sqm.tree.predicate.InSubQuerySqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.RelationalSqmPredicate;
+import org.hibernate.sqm.test.domain.StandardModelTest;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the resolution of unqualified attribute references (see {@link UnqualifiedAttributeIndex})
+ */
+public class UnqualifiedAttributeTests extends StandardModelTest {
+	@Test
+	public void testAttributeOfTheRoot() {
+		final SqmSelectStatement statement = interpretSelect( "select nickName from Person p where numberOfToes > 2" );
+		final SqmFromElementSpace space = statement.getQuerySpec().getFromClause().getFromElementSpaces().get( 0 );
+
+		assertThat( sourceOf( selection( statement.getQuerySpec() ) ), sameInstance( space.getRoot().getBinding() ) );
+		assertThat( sourceOf( whereLhs( statement.getQuerySpec() ) ), sameInstance( space.getRoot().getBinding() ) );
+	}
+
+	@Test
+	public void testAttributeExposedByAJoin() {
+		final SqmSelectStatement statement = interpretSelect( "select setOfBasics from Person p cross join EntityOfSets s" );
+		final SqmFromElementSpace space = statement.getQuerySpec().getFromClause().getFromElementSpaces().get( 0 );
+
+		assertThat( space.getJoins().size(), is( 1 ) );
+		assertThat( sourceOf( selection( statement.getQuerySpec() ) ), sameInstance( space.getJoins().get( 0 ).getBinding() ) );
+	}
+
+	@Test
+	public void testAttributeExposedByTwoRootsIsAmbiguous() {
+		assertAmbiguous( "select nickName from Person p, Person p2", "nickName" );
+		assertAmbiguous( "select p from Person p, EntityOfSets s, Person p2 where numberOfToes > 2", "numberOfToes" );
+		// a root and a join of the same entity
+		assertAmbiguous( "select nickName from Person p join p.mate m", "nickName" );
+	}
+
+	@Test
+	public void testSubQueryResolvesAgainstItsParent() {
+		final SqmSelectStatement statement = interpretSelect(
+				"select p from Person p where p.pk in ( select s.id from EntityOfSets s where s.id = numberOfToes )"
+		);
+		final SqmFromElementSpace space = statement.getQuerySpec().getFromClause().getFromElementSpaces().get( 0 );
+		final SqmQuerySpec subQuerySpec = subQuery( statement );
+
+		// the attribute is not exposed by the sub-query's from-elements
+		final RelationalSqmPredicate predicate = (RelationalSqmPredicate) subQuerySpec.getWhereClause().getPredicate();
+		assertThat( sourceOf( predicate.getRightHandExpression() ), sameInstance( space.getRoot().getBinding() ) );
+	}
+
+	@Test
+	public void testSubQueryResolvesAgainstItsOwnFromElementsFirst() {
+		final SqmSelectStatement statement = interpretSelect(
+				"select p from Person p where p.pk in ( select p2.pk from Person p2 where nickName = 'x' )"
+		);
+		final SqmQuerySpec subQuerySpec = subQuery( statement );
+		final SqmFromElementSpace subQuerySpace = subQuerySpec.getFromClause().getFromElementSpaces().get( 0 );
+
+		// exposed by both the parent's and the sub-query's roots, which is not ambiguous
+		assertThat( sourceOf( whereLhs( subQuerySpec ) ), sameInstance( subQuerySpace.getRoot().getBinding() ) );
+	}
+
+	private void assertAmbiguous(String query, String attributeName) {
+		try {
+			interpretSelect( query );
+			fail( "Expecting the unqualified reference to be ambiguous : " + query );
+		}
+		catch (RuntimeException e) {
+			Throwable cause = e;
+			while ( cause != null && !( cause instanceof IllegalStateException ) ) {
+				cause = cause.getCause();
+			}
+			assertThat( query, cause, instanceOf( IllegalStateException.class ) );
+			assertThat( cause.getMessage(), is( "Multiple from-elements expose unqualified attribute : " + attributeName ) );
+		}
+	}
+
+	private static SqmQuerySpec subQuery(SqmSelectStatement statement) {
+		final InSubQuerySqmPredicate predicate = (InSubQuerySqmPredicate) statement.getQuerySpec().getWhereClause().getPredicate();
+		return predicate.getSubQueryExpression().getQuerySpec();
+	}
+
+	private static SqmExpression selection(SqmQuerySpec querySpec) {
+		return querySpec.getSelectClause().getSelections().get( 0 ).getExpression();
+	}
+
+	private static SqmExpression whereLhs(SqmQuerySpec querySpec) {
+		return ( (RelationalSqmPredicate) querySpec.getWhereClause().getPredicate() ).getLeftHandExpression();
+	}
+
+	private static SqmNavigableReference sourceOf(SqmExpression expression) {
+		assertThat( expression, instanceOf( SqmNavigableReference.class ) );
+		return ( (SqmNavigableReference) expression ).getSourceReference();
+	}
+}
@@ -6,19 +6,27 @@
  */
 package org.hibernate.sqm.test.hql;
 
+import javax.persistence.criteria.Root;
+
 import org.hibernate.query.sqm.domain.SqmPluralAttributeIndex.IndexClassification;
 import org.hibernate.query.sqm.domain.SqmPluralAttribute;
 import org.hibernate.query.sqm.tree.SqmSelectStatement;
 import org.hibernate.query.sqm.tree.expression.CollectionSizeSqmExpression;
+import org.hibernate.query.sqm.tree.expression.ConstantFieldSqmExpression;
 import org.hibernate.query.sqm.tree.expression.LiteralIntegerSqmExpression;
 import org.hibernate.query.sqm.tree.expression.domain.SqmCollectionIndexReference;
 import org.hibernate.query.sqm.tree.expression.domain.SqmPluralAttributeReference;
+import org.hibernate.query.sqm.tree.predicate.InListSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.JunctionSqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.LiteralInListSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.NullnessSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.RelationalPredicateOperator;
 import org.hibernate.query.sqm.tree.predicate.RelationalSqmPredicate;
 import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
+import org.hibernate.sqm.test.domain.Person;
 import org.hibernate.sqm.test.domain.StandardModelTest;
 
+import org.hibernate.test.sqm.parser.criteria.tree.CriteriaQueryImpl;
 import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
@@ -122,4 +130,166 @@ public class WhereClauseTests extends StandardModelTest {
 
 		assertThat( collectionBinding.getExportedFromElement().getIdentificationVariable(), is( "m" ) );
 	}
+
+	@Test
+	public void testConjunctionIsFlattened() {
+		SqmSelectStatement statement = interpretSelect(
+				"select p from Person p where p.numberOfToes = 1 and p.nickName = 'a' and p.numberOfToes = 2 and p.nickName = 'b'"
+		);
+
+		SqmPredicate predicate = statement.getQuerySpec().getWhereClause().getPredicate();
+		assertThat( predicate, instanceOf( JunctionSqmPredicate.class ) );
+		JunctionSqmPredicate junction = (JunctionSqmPredicate) predicate;
+		assertThat( junction.getNature(), is( JunctionSqmPredicate.Nature.CONJUNCTION ) );
+		assertThat( junction.getPredicates().size(), is( 4 ) );
+		for ( SqmPredicate operand : junction.getPredicates() ) {
+			assertThat( operand, instanceOf( RelationalSqmPredicate.class ) );
+		}
+		assertThat(
+				( (LiteralIntegerSqmExpression) ( (RelationalSqmPredicate) junction.getPredicates().get( 2 ) ).getRightHandExpression() ).getLiteralValue(),
+				is( 2 )
+		);
+	}
+
+	@Test
+	public void testWideDisjunction() {
+		final int width = 2000;
+		final StringBuilder hql = new StringBuilder( "select p from Person p where p.numberOfToes = 0" );
+		for ( int i = 1; i < width; i++ ) {
+			hql.append( " or p.numberOfToes = " ).append( i );
+		}
+
+		SqmSelectStatement statement = interpretSelect( hql.toString() );
+		JunctionSqmPredicate junction = (JunctionSqmPredicate) statement.getQuerySpec().getWhereClause().getPredicate();
+		assertThat( junction.getNature(), is( JunctionSqmPredicate.Nature.DISJUNCTION ) );
+		assertThat( junction.getPredicates().size(), is( width ) );
+	}
+
+	@Test
+	public void testLargeLiteralInListIsCompacted() {
+		final StringBuilder hql = new StringBuilder( "select p from Person p where p.numberOfToes in (" );
+		for ( int i = 0; i < 40; i++ ) {
+			if ( i > 0 ) {
+				hql.append( ", " );
+			}
+			// written in descending order, each value twice
+			hql.append( 19 - i / 2 );
+		}
+		hql.append( ")" );
+
+		SqmSelectStatement statement = interpretSelect( hql.toString() );
+		SqmPredicate predicate = statement.getQuerySpec().getWhereClause().getPredicate();
+		assertThat( predicate, instanceOf( LiteralInListSqmPredicate.class ) );
+
+		LiteralInListSqmPredicate inList = (LiteralInListSqmPredicate) predicate;
+		assertThat( inList.getValueKind(), is( LiteralInListSqmPredicate.ValueKind.INTEGER ) );
+		assertThat( inList.size(), is( 20 ) );
+		assertThat( inList.getValue( 0 ), is( (Object) 0 ) );
+		assertThat( inList.getValue( 19 ), is( (Object) 19 ) );
+		assertThat( inList.contains( 7 ), is( true ) );
+		assertThat( inList.contains( 20 ), is( false ) );
+	}
+
+	@Test
+	public void testLargeLongLiteralInListIsCompacted() {
+		final StringBuilder hql = new StringBuilder( "select p from Person p where p.numberOfToes in (" );
+		for ( int i = 0; i < 40; i++ ) {
+			if ( i > 0 ) {
+				hql.append( ", " );
+			}
+			hql.append( 3000000000L + i % 20 ).append( 'L' );
+		}
+		hql.append( ")" );
+
+		SqmSelectStatement statement = interpretSelect( hql.toString() );
+		SqmPredicate predicate = statement.getQuerySpec().getWhereClause().getPredicate();
+		assertThat( predicate, instanceOf( LiteralInListSqmPredicate.class ) );
+
+		LiteralInListSqmPredicate inList = (LiteralInListSqmPredicate) predicate;
+		assertThat( inList.getValueKind(), is( LiteralInListSqmPredicate.ValueKind.LONG ) );
+		assertThat( inList.size(), is( 20 ) );
+		assertThat( inList.getValue( 0 ), is( (Object) 3000000000L ) );
+		assertThat( inList.getValue( 19 ), is( (Object) 3000000019L ) );
+		assertThat( inList.contains( 3000000007L ), is( true ) );
+		assertThat( inList.contains( 7L ), is( false ) );
+	}
+
+	@Test
+	public void testLargeStringLiteralInListIsCompacted() {
+		final StringBuilder hql = new StringBuilder( "select p from Person p where p.nickName in (" );
+		for ( int i = 0; i < 40; i++ ) {
+			if ( i > 0 ) {
+				hql.append( ", " );
+			}
+			hql.append( "'name" ).append( 39 - i ).append( "'" );
+		}
+		hql.append( ", 'it''s'" );
+		hql.append( ")" );
+
+		SqmSelectStatement statement = interpretSelect( hql.toString() );
+		SqmPredicate predicate = statement.getQuerySpec().getWhereClause().getPredicate();
+		assertThat( predicate, instanceOf( LiteralInListSqmPredicate.class ) );
+
+		LiteralInListSqmPredicate inList = (LiteralInListSqmPredicate) predicate;
+		assertThat( inList.getValueKind(), is( LiteralInListSqmPredicate.ValueKind.STRING ) );
+		assertThat( inList.size(), is( 41 ) );
+		// sorted, and unquoted
+		assertThat( inList.getValue( 0 ), is( (Object) "it's" ) );
+		assertThat( inList.getValue( 1 ), is( (Object) "name0" ) );
+		assertThat( inList.contains( "name39" ), is( true ) );
+		assertThat( inList.contains( "'name39'" ), is( false ) );
+	}
+
+	@Test
+	public void testMixedLiteralInListIsNotCompacted() {
+		final StringBuilder hql = new StringBuilder( "select p from Person p where p.nickName in (" );
+		for ( int i = 0; i < 40; i++ ) {
+			hql.append( "'name" ).append( i ).append( "', " );
+		}
+		// a single-character literal is a CHARACTER_LITERAL, not a STRING_LITERAL
+		hql.append( "'x')" );
+
+		SqmSelectStatement statement = interpretSelect( hql.toString() );
+		SqmPredicate predicate = statement.getQuerySpec().getWhereClause().getPredicate();
+		assertThat( predicate, instanceOf( InListSqmPredicate.class ) );
+		assertThat( ( (InListSqmPredicate) predicate ).getListExpressions().size(), is( 41 ) );
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testLargeCriteriaLiteralInListIsCompacted() {
+		final Object[] values = new Object[40];
+		for ( int i = 0; i < values.length; i++ ) {
+			values[i] = 39 - i;
+		}
+
+		final CriteriaQueryImpl<Object> criteria = (CriteriaQueryImpl<Object>) criteriaBuilder.createQuery();
+		final Root root = criteria.from( Person.class );
+		criteria.select( root );
+		criteria.where( root.get( "numberOfToes" ).in( values ) );
+
+		SqmSelectStatement statement = (SqmSelectStatement) interpret( criteria );
+		SqmPredicate predicate = statement.getQuerySpec().getWhereClause().getPredicate();
+		assertThat( predicate, instanceOf( LiteralInListSqmPredicate.class ) );
+
+		LiteralInListSqmPredicate inList = (LiteralInListSqmPredicate) predicate;
+		assertThat( inList.getValueKind(), is( LiteralInListSqmPredicate.ValueKind.INTEGER ) );
+		assertThat( inList.size(), is( 40 ) );
+		assertThat( inList.getValue( 0 ), is( (Object) 0 ) );
+		assertThat( inList.contains( 39 ), is( true ) );
+	}
+
+	@Test
+	public void testStaticFieldConstant() {
+		SqmSelectStatement statement = interpretSelect( "select p from Person p where p.numberOfToes = java.lang.Integer.MAX_VALUE" );
+		RelationalSqmPredicate predicate = (RelationalSqmPredicate) statement.getQuerySpec().getWhereClause().getPredicate();
+		assertThat( predicate.getRightHandExpression(), instanceOf( ConstantFieldSqmExpression.class ) );
+		assertThat( ( (ConstantFieldSqmExpression) predicate.getRightHandExpression() ).getValue(), is( (Object) Integer.MAX_VALUE ) );
+	}
+
+	@Test
+	public void testSmallLiteralInListIsNotCompacted() {
+		SqmSelectStatement statement = interpretSelect( "select p from Person p where p.numberOfToes in (1, 2, 3)" );
+		assertThat( statement.getQuerySpec().getWhereClause().getPredicate(), instanceOf( InListSqmPredicate.class ) );
+	}
 }
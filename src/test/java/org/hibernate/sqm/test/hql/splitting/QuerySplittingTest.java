@@ -6,15 +6,24 @@
  */
 package org.hibernate.sqm.test.hql.splitting;
 
+import java.util.Iterator;
+
 import org.hibernate.query.sqm.consume.spi.QuerySplitter;
 import org.hibernate.query.sqm.produce.spi.SemanticQueryProducer;
+import org.hibernate.query.sqm.tree.SqmQuerySpec;
 import org.hibernate.query.sqm.tree.SqmSelectStatement;
 import org.hibernate.query.sqm.tree.SqmStatement;
+import org.hibernate.query.sqm.tree.from.SqmFromClause;
+import org.hibernate.query.sqm.tree.from.SqmFromElementSpace;
+import org.hibernate.query.sqm.tree.from.SqmRoot;
+import org.hibernate.query.sqm.tree.predicate.InSubQuerySqmPredicate;
+import org.hibernate.query.sqm.tree.predicate.NullnessSqmPredicate;
 import org.hibernate.sqm.test.domain.StandardModelTest;
 
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 
 /**
@@ -47,4 +56,88 @@ public class QuerySplittingTest extends StandardModelTest {
 		split = QuerySplitter.split( statement );
 		assertEquals( 8, split.length );
 	}
+
+	@Test
+	public void testSplitIterator() {
+		SqmSelectStatement statement = (SqmSelectStatement) SemanticQueryProducer.interpret(
+				"from java.lang.Object o where :value = 1",
+				consumerContext
+		);
+
+		int count = 0;
+		final Iterator<SqmSelectStatement> splits = QuerySplitter.splitIterator( statement );
+		while ( splits.hasNext() ) {
+			final SqmSelectStatement split = splits.next();
+			count++;
+
+			// only the spine leading to the unmapped polymorphic root is copied...
+			assertNotSame( statement.getQuerySpec(), split.getQuerySpec() );
+			assertNotSame( statement.getQuerySpec().getFromClause(), split.getQuerySpec().getFromClause() );
+			// ...parts not referring to it are shared
+			assertSame( statement.getQuerySpec().getWhereClause(), split.getQuerySpec().getWhereClause() );
+		}
+		assertEquals( 8, count );
+	}
+
+	@Test
+	public void testSplitSpacesBelongToTheSplitFromClause() {
+		final SqmSelectStatement statement = interpretSelect(
+				"from java.lang.Object o, Person p where p.numberOfToes = 1"
+		);
+
+		final Iterator<SqmSelectStatement> splits = QuerySplitter.splitIterator( statement );
+		while ( splits.hasNext() ) {
+			final SqmFromClause fromClause = splits.next().getQuerySpec().getFromClause();
+			assertEquals( 2, fromClause.getFromElementSpaces().size() );
+			for ( SqmFromElementSpace space : fromClause.getFromElementSpaces() ) {
+				assertSame( fromClause, space.getFromClause() );
+				assertSame( space, space.getRoot().getContainingSpace() );
+			}
+		}
+	}
+
+	@Test
+	public void testReferencesToTheSplitRootAreRebound() {
+		final SqmSelectStatement statement = interpretSelect(
+				"from java.lang.Object o where o is not null"
+		);
+
+		final Iterator<SqmSelectStatement> splits = QuerySplitter.splitIterator( statement );
+		while ( splits.hasNext() ) {
+			final SqmQuerySpec split = splits.next().getQuerySpec();
+			final SqmRoot root = split.getFromClause().getFromElementSpaces().get( 0 ).getRoot();
+
+			final NullnessSqmPredicate predicate = (NullnessSqmPredicate) split.getWhereClause().getPredicate();
+			assertNotSame( statement.getQuerySpec().getWhereClause().getPredicate(), predicate );
+			assertSame( root.getBinding(), predicate.getExpression() );
+		}
+	}
+
+	@Test
+	public void testCorrelatedSubQueriesAreRebound() {
+		final SqmSelectStatement statement = interpretSelect(
+				"from java.lang.Object o where :value in ( select p.numberOfToes from Person p where o is not null )"
+		);
+		final SqmQuerySpec originalSubQuery = subQuery( statement.getQuerySpec() );
+
+		final Iterator<SqmSelectStatement> splits = QuerySplitter.splitIterator( statement );
+		while ( splits.hasNext() ) {
+			final SqmQuerySpec split = splits.next().getQuerySpec();
+			final SqmRoot root = split.getFromClause().getFromElementSpaces().get( 0 ).getRoot();
+
+			// the sub-query refers to the split root...
+			final SqmQuerySpec subQuery = subQuery( split );
+			assertNotSame( originalSubQuery, subQuery );
+			final NullnessSqmPredicate predicate = (NullnessSqmPredicate) subQuery.getWhereClause().getPredicate();
+			assertSame( root.getBinding(), predicate.getExpression() );
+
+			// ...but its own from clause does not
+			assertSame( originalSubQuery.getFromClause(), subQuery.getFromClause() );
+		}
+	}
+
+	private static SqmQuerySpec subQuery(SqmQuerySpec querySpec) {
+		final InSubQuerySqmPredicate predicate = (InSubQuerySqmPredicate) querySpec.getWhereClause().getPredicate();
+		return predicate.getSubQueryExpression().getQuerySpec();
+	}
 }
@@ -0,0 +1,111 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.test.sqm.parser.criteria.select;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.query.sqm.produce.internal.SemanticQueryProducerImpl;
+import org.hibernate.query.sqm.produce.internal.SemanticQueryProducerOptions;
+import org.hibernate.query.sqm.produce.internal.criteria.CriteriaFingerprintGenerator;
+import org.hibernate.query.sqm.tree.SqmSelectStatement;
+import org.hibernate.sqm.test.domain.Person;
+import org.hibernate.sqm.test.domain.StandardModelTest;
+
+import org.hibernate.test.sqm.parser.criteria.tree.CriteriaQueryImpl;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests for caching criteria interpretations by criteria structure
+ */
+public class CriteriaInterpretationCacheTest extends StandardModelTest {
+	@Test
+	public void testSameStructureSharesInterpretation() {
+		final SemanticQueryProducerImpl producer = new SemanticQueryProducerImpl(
+				sessionFactory,
+				new SemanticQueryProducerOptions().applyInterpretationCacheSize( 10 )
+		);
+
+		final CriteriaQueryImpl<Object> first = buildPersonCriteria( false );
+		final CriteriaQueryImpl<Object> second = buildPersonCriteria( false );
+		assertThat( CriteriaFingerprintGenerator.generate( first ), notNullValue() );
+		assertThat( CriteriaFingerprintGenerator.generate( second ), is( CriteriaFingerprintGenerator.generate( first ) ) );
+
+		final SqmSelectStatement firstStatement = producer.interpret( first );
+		final SqmSelectStatement secondStatement = producer.interpret( second );
+		assertThat( secondStatement, sameInstance( firstStatement ) );
+		assertThat( producer.getCriteriaInterpretationCache().getHitCount(), is( 1L ) );
+	}
+
+	@Test
+	public void testDifferentStructureIsInterpretedSeparately() {
+		final SemanticQueryProducerImpl producer = new SemanticQueryProducerImpl(
+				sessionFactory,
+				new SemanticQueryProducerOptions().applyInterpretationCacheSize( 10 )
+		);
+
+		final CriteriaQueryImpl<Object> plain = buildPersonCriteria( false );
+		final CriteriaQueryImpl<Object> distinct = buildPersonCriteria( true );
+		assertThat(
+				CriteriaFingerprintGenerator.generate( distinct ),
+				not( CriteriaFingerprintGenerator.generate( plain ) )
+		);
+
+		assertThat( producer.interpret( distinct ), not( sameInstance( producer.interpret( plain ) ) ) );
+		assertThat( producer.interpret( distinct ).getQuerySpec().getSelectClause().isDistinct(), is( true ) );
+	}
+
+	@Test
+	public void testLiteralsAreKeyedByValue() {
+		assertThat(
+				CriteriaFingerprintGenerator.generate( buildLiteralCriteria( new Date( 1000L ) ) ),
+				is( CriteriaFingerprintGenerator.generate( buildLiteralCriteria( new Date( 1000L ) ) ) )
+		);
+		assertThat(
+				CriteriaFingerprintGenerator.generate( buildLiteralCriteria( new Date( 2000L ) ) ),
+				not( CriteriaFingerprintGenerator.generate( buildLiteralCriteria( new Date( 1000L ) ) ) )
+		);
+		assertThat(
+				CriteriaFingerprintGenerator.generate( buildLiteralCriteria( new int[] { 1, 2 } ) ),
+				is( CriteriaFingerprintGenerator.generate( buildLiteralCriteria( new int[] { 1, 2 } ) ) )
+		);
+		assertThat(
+				CriteriaFingerprintGenerator.generate( buildLiteralCriteria( TimeUnit.SECONDS ) ),
+				not( CriteriaFingerprintGenerator.generate( buildLiteralCriteria( TimeUnit.MINUTES ) ) )
+		);
+	}
+
+	@Test
+	public void testUnknownLiteralIsNotFingerprinted() {
+		// Object#toString is neither stable nor unique
+		assertThat( CriteriaFingerprintGenerator.generate( buildLiteralCriteria( new Object() ) ), nullValue() );
+	}
+
+	@SuppressWarnings("unchecked")
+	private CriteriaQueryImpl<Object> buildLiteralCriteria(Object value) {
+		final CriteriaQueryImpl<Object> criteria = buildPersonCriteria( false );
+		criteria.where( criteriaBuilder.equal( criteriaBuilder.literal( value ), criteriaBuilder.literal( value ) ) );
+		return criteria;
+	}
+
+	@SuppressWarnings("unchecked")
+	private CriteriaQueryImpl<Object> buildPersonCriteria(boolean distinct) {
+		final CriteriaQueryImpl<Object> criteria = (CriteriaQueryImpl<Object>) criteriaBuilder.createQuery();
+		final Root root = criteria.from( Person.class );
+		criteria.select( root );
+		criteria.distinct( distinct );
+		return criteria;
+	}
+}
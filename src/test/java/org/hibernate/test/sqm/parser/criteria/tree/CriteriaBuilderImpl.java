@@ -53,6 +53,7 @@ import org.hibernate.test.sqm.parser.criteria.tree.expression.function.GenericFu
 import org.hibernate.test.sqm.parser.criteria.tree.predicate.BooleanExpressionPredicate;
 import org.hibernate.test.sqm.parser.criteria.tree.predicate.ComparisonPredicate;
 import org.hibernate.test.sqm.parser.criteria.tree.predicate.CompoundPredicate;
+import org.hibernate.test.sqm.parser.criteria.tree.predicate.InPredicate;
 import org.hibernate.test.sqm.parser.criteria.tree.predicate.NullnessPredicate;
 import org.hibernate.test.sqm.parser.criteria.tree.select.ArrayJpaSelectionImpl;
 import org.hibernate.test.sqm.parser.criteria.tree.select.DynamicInstantiationImpl;
@@ -614,23 +615,29 @@ public class CriteriaBuilderImpl implements CriteriaBuilder, Serializable {
 
 	@Override
 	public <T> In<T> in(Expression<? extends T> expression) {
-//		return new InPredicate<T>( this, expression );
-		throw new NotYetImplementedException(  );
+		check( expression );
+		return new InPredicate<T>( this, (JpaExpression<? extends T>) expression );
 	}
 
 	public <T> In<T> in(Expression<? extends T> expression, Expression<? extends T>... values) {
-//		return new InPredicate<T>( this, expression, values );
-		throw new NotYetImplementedException(  );
+		final InPredicate<T> predicate = (InPredicate<T>) in( expression );
+		for ( Expression<? extends T> value : values ) {
+			check( value );
+			predicate.value( value );
+		}
+		return predicate;
 	}
 
 	public <T> In<T> in(Expression<? extends T> expression, T... values) {
-//		return new InPredicate<T>( this, expression, values );
-		throw new NotYetImplementedException(  );
+		return in( expression, Arrays.asList( values ) );
 	}
 
 	public <T> In<T> in(Expression<? extends T> expression, Collection<T> values) {
-//		return new InPredicate<T>( this, expression, values );
-		throw new NotYetImplementedException(  );
+		final InPredicate<T> predicate = (InPredicate<T>) in( expression );
+		for ( T value : values ) {
+			predicate.value( value );
+		}
+		return predicate;
 	}
 
 	@Override
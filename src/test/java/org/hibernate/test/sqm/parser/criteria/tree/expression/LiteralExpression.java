@@ -59,6 +59,11 @@ public class LiteralExpression<T>
 		return (T) literal;
 	}
 
+	@Override
+	public Object getLiteralValue() {
+		return literal;
+	}
+
 	@Override
 	public SqmExpression visitExpression(CriteriaVisitor visitor) {
 		return visitor.visitConstant( getLiteral(), getJavaType() );
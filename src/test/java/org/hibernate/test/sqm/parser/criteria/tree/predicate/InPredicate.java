@@ -0,0 +1,62 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: Apache License, Version 2.0
+ * See the LICENSE file in the root directory or visit http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.hibernate.test.sqm.parser.criteria.tree.predicate;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+
+import org.hibernate.query.sqm.produce.spi.criteria.CriteriaVisitor;
+import org.hibernate.query.sqm.produce.spi.criteria.JpaExpression;
+import org.hibernate.query.sqm.produce.spi.criteria.JpaPredicate;
+import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
+
+import org.hibernate.test.sqm.parser.criteria.tree.CriteriaBuilderImpl;
+import org.hibernate.test.sqm.parser.criteria.tree.expression.LiteralExpression;
+
+/**
+ * Models an <tt>IN</tt> predicate over a list of values.
+ *
+ * @param <T> The type of the tested expression and of the values
+ */
+public class InPredicate<T>
+		extends AbstractSimplePredicate
+		implements CriteriaBuilder.In<T>, JpaPredicate, Serializable {
+	private final JpaExpression<? extends T> expression;
+	private final List<JpaExpression<?>> values = new ArrayList<>();
+
+	public InPredicate(CriteriaBuilderImpl criteriaBuilder, JpaExpression<? extends T> expression) {
+		super( criteriaBuilder );
+		this.expression = expression;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Expression<T> getExpression() {
+		return (Expression<T>) expression;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public InPredicate<T> value(T value) {
+		values.add( new LiteralExpression( criteriaBuilder(), value ) );
+		return this;
+	}
+
+	@Override
+	public InPredicate<T> value(Expression<? extends T> value) {
+		values.add( (JpaExpression<?>) value );
+		return this;
+	}
+
+	@Override
+	public SqmPredicate visitPredicate(CriteriaVisitor visitor) {
+		return visitor.visitInTupleListPredicate( expression, values, false );
+	}
+}